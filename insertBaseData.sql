@@ -41,12 +41,14 @@ TRUNCATE TABLE authorizationGroupPositions;
 TRUNCATE TABLE reportAuthorizationGroups;
 TRUNCATE TABLE noteRelatedObjects;
 DELETE FROM positions;
+DELETE FROM taskAncestors;
 DELETE FROM tasks WHERE customFieldRef1Uuid IS NOT NULL;
 DELETE FROM tasks WHERE customFieldRef1Uuid IS NULL;
 DELETE FROM reports;
 DELETE FROM people;
 DELETE FROM approvalSteps;
 DELETE FROM locations;
+DELETE FROM organizationAncestors;
 DELETE FROM organizations;
 DELETE FROM adminSettings;
 DELETE FROM tags;
@@ -747,6 +749,8 @@ INSERT INTO adminSettings ([key], value)
 	VALUES ('GENERAL_BANNER_LEVEL', 'notice');
 INSERT INTO adminSettings ([key], value)
 	VALUES ('GENERAL_BANNER_VISIBILITY', '1');
+INSERT INTO adminSettings ([key], value)
+	VALUES ('SETTINGS_VERSION', '1');
 
 -- Tags
 INSERT INTO tags (uuid, name, description, createdAt, updatedAt)
@@ -883,6 +887,24 @@ INSERT INTO noteRelatedObjects (noteUuid, relatedObjectType, relatedObjectUuid)
 	FROM reports r
 	WHERE r.text LIKE 'Today%';
 
+-- Fill the closure tables of the organization and task hierarchies
+WITH ancestors(organizationUuid, ancestorUuid, distance) AS (
+	SELECT uuid, uuid, 0 FROM organizations
+	UNION ALL
+	SELECT a.organizationUuid, o.parentOrgUuid, a.distance + 1
+	FROM ancestors a INNER JOIN organizations o ON o.uuid = a.ancestorUuid
+	WHERE o.parentOrgUuid IS NOT NULL)
+INSERT INTO organizationAncestors (organizationUuid, ancestorUuid, distance)
+	SELECT organizationUuid, ancestorUuid, distance FROM ancestors;
+WITH ancestors(taskUuid, ancestorUuid, distance) AS (
+	SELECT uuid, uuid, 0 FROM tasks
+	UNION ALL
+	SELECT a.taskUuid, t.customFieldRef1Uuid, a.distance + 1
+	FROM ancestors a INNER JOIN tasks t ON t.uuid = a.ancestorUuid
+	WHERE t.customFieldRef1Uuid IS NOT NULL)
+INSERT INTO taskAncestors (taskUuid, ancestorUuid, distance)
+	SELECT taskUuid, ancestorUuid, distance FROM ancestors;
+
 -- LEAVE THIS AS LAST STATEMENT
 -- Truncate all the dates (on reports etc.) to dates that could have been generated by
 -- Java (millisecond precision) rather than by the database itself (microsecond precision)
@@ -33,3 +33,5 @@ s/DATEADD\s*\(([^,]*),\s*(-?\d+),\s*CURRENT_TIMESTAMP\)/CURRENT_TIMESTAMP + INTE
 s/cast\((\S+) as datetime2\((\d+)\)\)/"date_trunc(" . ($2 eq '3' ? "'milliseconds'" : "'second'") . ", $1)"/ie;
 # Function to generate uuid's
 s/lower\(newid\(\)\)/uuid_generate_v4()/g;
+# PostgreSQL needs to be told that a common table expression is recursive
+s/^WITH (?!RECURSIVE)/WITH RECURSIVE /;
@@ -1,9 +1,13 @@
 package mil.dds.anet;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.InstrumentedExecutorService;
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Injector;
 import io.dropwizard.Application;
 import io.dropwizard.assets.AssetsBundle;
@@ -16,9 +20,11 @@ import io.dropwizard.cli.ServerCommand;
 import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
 import io.dropwizard.configuration.SubstitutingSourceProvider;
 import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.lifecycle.ExecutorServiceManager;
 import io.dropwizard.migrations.MigrationsBundle;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
+import io.dropwizard.util.Duration;
 import io.dropwizard.views.ViewBundle;
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,8 +32,14 @@ import java.lang.invoke.MethodHandles;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
@@ -38,7 +50,11 @@ import mil.dds.anet.auth.TimedNegotiateSecurityFilter;
 import mil.dds.anet.auth.UrlParamsAuthFilter;
 import mil.dds.anet.beans.Person;
 import mil.dds.anet.config.AnetConfiguration;
+import mil.dds.anet.config.AnetConfiguration.DataLoaderExecutorConfiguration;
+import mil.dds.anet.config.AnetConfiguration.EntityCacheConfiguration;
+import mil.dds.anet.config.AnetConfiguration.TotalCountCacheConfiguration;
 import mil.dds.anet.database.StatementLogger;
+import mil.dds.anet.database.TransactionCallbacks;
 import mil.dds.anet.resources.AdminResource;
 import mil.dds.anet.resources.AuthorizationGroupResource;
 import mil.dds.anet.resources.GraphQlResource;
@@ -66,6 +82,7 @@ import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
 import org.everit.json.schema.loader.SchemaLoader;
 import org.glassfish.jersey.server.filter.RolesAllowedDynamicFeature;
+import org.jdbi.v3.core.Jdbi;
 import org.json.JSONObject;
 import org.json.JSONTokener;
 import org.slf4j.Logger;
@@ -155,13 +172,44 @@ public class AnetApplication extends Application<AnetConfiguration> {
     final JSONObject dictionary = getDictionary(configuration);
     logger.info("dictionary: {}", dictionary.toString(2));
 
-    // We want to use our own custom DB logger in order to clean up the logs a bit.
+    // We want to use our own custom DB logger in order to time the statements and clean up the
+    // logs a bit.
     final Injector injector = InjectorLookup.getInjector(this).get();
-    injector.getInstance(StatementLogger.class);
+    injector.getInstance(StatementLogger.class).install(configuration.getSqlLogging(),
+        metricRegistry);
+    // Lets DAOs update caches and in-memory state once their transaction has ended
+    TransactionCallbacks.install(injector.getInstance(Jdbi.class));
+
+    // All DataLoader batch loads share one bounded thread pool
+    final ExecutorService dataLoaderExecutor = createDataLoaderExecutor(configuration, environment);
 
     // The Object Engine is the core place where we store all of the Dao's
     // You can always grab the engine from anywhere with AnetObjectEngine.getInstance()
-    final AnetObjectEngine engine = new AnetObjectEngine(dbUrl, this);
+    final AnetObjectEngine engine = new AnetObjectEngine(dbUrl, this, dataLoaderExecutor);
+    engine.configureBatching(configuration.getBatching(), metricRegistry);
+    final Duration adminSettingsRefreshInterval = configuration.getAdminSettingsRefreshInterval();
+    engine.getAdminDao().setRefreshInterval(adminSettingsRefreshInterval.getQuantity(),
+        adminSettingsRefreshInterval.getUnit());
+    final Duration orgHierarchyRefreshInterval =
+        configuration.getOrganizationHierarchyRefreshInterval();
+    engine.getOrganizationHierarchy().setRefreshInterval(orgHierarchyRefreshInterval.getQuantity(),
+        orgHierarchyRefreshInterval.getUnit());
+    final EntityCacheConfiguration entityCacheConfig = configuration.getEntityCache();
+    if (entityCacheConfig.isEnabled()) {
+      // Cache rarely changing reference data across requests
+      engine.getApprovalStepDao().enableEntityCache("approvalSteps", entityCacheConfig,
+          metricRegistry);
+      engine.getAuthorizationGroupDao().enableEntityCache("authorizationGroups",
+          entityCacheConfig, metricRegistry);
+      engine.getLocationDao().enableEntityCache("locations", entityCacheConfig, metricRegistry);
+      engine.getOrganizationDao().enableEntityCache("organizations", entityCacheConfig,
+          metricRegistry);
+      engine.getTagDao().enableEntityCache("tags", entityCacheConfig, metricRegistry);
+    }
+    final TotalCountCacheConfiguration totalCountCacheConfig = configuration.getTotalCountCache();
+    if (totalCountCacheConfig.isEnabled()) {
+      engine.getSearcher().enableTotalCountCache(totalCountCacheConfig, metricRegistry);
+    }
     environment.servlets().setSessionHandler(new SessionHandler());
 
     if (configuration.isDevelopmentMode()) {
@@ -269,7 +317,8 @@ public class AnetApplication extends Application<AnetConfiguration> {
             ImmutableList.of(reportResource, personResource, positionResource, locationResource,
                 orgResource, taskResource, adminResource, savedSearchResource, tagResource,
                 authorizationGroupResource, noteResource),
-            metricRegistry, configuration.isDevelopmentMode()));
+            metricRegistry, createGraphQlExecutor(configuration, environment),
+            createGraphQlDispatchScheduler(environment), configuration.isDevelopmentMode()));
   }
 
   protected static JSONObject getDictionary(AnetConfiguration configuration)
@@ -301,6 +350,93 @@ public class AnetApplication extends Application<AnetConfiguration> {
     e.getCausingExceptions().stream().forEach(AnetApplication::logValidationErrors);
   }
 
+  /**
+   * Creates the executor on which GraphQL requests are executed, so that parsing, validating and
+   * the root resolvers (e.g. searches) don't hold on to a request thread. By default its number of
+   * threads equals the maximum size of the database connection pool; further requests wait in its
+   * queue, until they time out.
+   */
+  private ExecutorService createGraphQlExecutor(AnetConfiguration configuration,
+      Environment environment) {
+    final Integer executorThreads = configuration.getGraphQl().getExecutorThreads();
+    final int threads = (executorThreads == null)
+        ? configuration.getDataSourceFactory().getMaxSize()
+        : executorThreads;
+    final ExecutorService executor = environment.lifecycle().executorService("GraphQl-%d")
+        .minThreads(threads).maxThreads(threads).allowCoreThreadTimeOut(true).build();
+    return new InstrumentedExecutorService(executor, metricRegistry, "GraphQlExecutor");
+  }
+
+  /**
+   * Creates the scheduler used to check on asynchronous GraphQL requests that are waiting for work
+   * other than data loaders, and to time them out. Timeouts are cancelled when a request is done,
+   * and removed right away so they don't hold on to its result. The checks themselves are handed to
+   * the GraphQL executor, so a load is never run on the single scheduler thread.
+   */
+  private ScheduledExecutorService createGraphQlDispatchScheduler(Environment environment) {
+    return environment.lifecycle().scheduledExecutorService("GraphQlDispatch-%d", true).threads(1)
+        .removeOnCancelPolicy(true).build();
+  }
+
+  /*
+   * Creates the executor used by all DataLoader batch loads. By default its maximum number of
+   * threads equals the maximum size of the database connection pool, as each batch load needs a
+   * connection.
+   */
+  private ExecutorService createDataLoaderExecutor(AnetConfiguration configuration,
+      Environment environment) {
+    final DataLoaderExecutorConfiguration executorConfig = configuration.getDataLoaderExecutor();
+    final int maxThreads = (executorConfig.getMaxThreads() == null)
+        ? configuration.getDataSourceFactory().getMaxSize()
+        : executorConfig.getMaxThreads();
+    final ThreadPoolExecutor executor =
+        createDataLoaderThreadPool(executorConfig, maxThreads, metricRegistry);
+    environment.lifecycle().manage(
+        new ExecutorServiceManager(executor, executorConfig.getShutdownTime(), "DataLoader"));
+    return new InstrumentedExecutorService(executor, metricRegistry, "DataLoaderExecutor");
+  }
+
+  /**
+   * Creates the thread pool of the DataLoader executor, and registers its metrics under
+   * <code>DataLoaderExecutor</code>. When all threads are busy, loads are queued; when the queue is
+   * full as well, or there is no queue because queueSize is not positive, the dispatching thread
+   * runs the load itself, which slows down new work until the pool catches up.
+   *
+   * @param executorConfig the configuration of the executor
+   * @param maxThreads the maximum number of threads
+   * @param metricRegistry the registry for the metrics
+   * @return the thread pool
+   */
+  public static ThreadPoolExecutor createDataLoaderThreadPool(
+      DataLoaderExecutorConfiguration executorConfig, int maxThreads,
+      MetricRegistry metricRegistry) {
+    final BlockingQueue<Runnable> workQueue = (executorConfig.getQueueSize() > 0)
+        ? new ArrayBlockingQueue<>(executorConfig.getQueueSize())
+        : new SynchronousQueue<>();
+    // Counts the loads that found all threads busy and the queue full, and so ran on the caller
+    final Counter callerRunsCount =
+        metricRegistry.counter(MetricRegistry.name("DataLoaderExecutor", "CallerRunsCount"));
+    // Grow to maxThreads before queueing, and let idle threads time out
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+        executorConfig.getKeepAliveTime().toMilliseconds(), TimeUnit.MILLISECONDS, workQueue,
+        new ThreadFactoryBuilder().setNameFormat("DataLoader-%d").build(), (r, e) -> {
+          if (e.isShutdown()) {
+            throw new RejectedExecutionException("DataLoader executor has been shut down");
+          }
+          callerRunsCount.inc();
+          // Apply backpressure: run the load in the dispatching thread
+          r.run();
+        });
+    executor.allowCoreThreadTimeOut(true);
+    metricRegistry.register(MetricRegistry.name("DataLoaderExecutor", "QueueDepth"),
+        (Gauge<Integer>) () -> executor.getQueue().size());
+    metricRegistry.register(MetricRegistry.name("DataLoaderExecutor", "ActiveCount"),
+        (Gauge<Integer>) () -> executor.getActiveCount());
+    metricRegistry.register(MetricRegistry.name("DataLoaderExecutor", "PoolSize"),
+        (Gauge<Integer>) () -> executor.getPoolSize());
+    return executor;
+  }
+
   /*
    * Adds a Request filter that looks for any HTTP requests and redirects them to HTTPS
    */
@@ -1,31 +1,37 @@
 package mil.dds.anet;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.inject.Injector;
 import io.dropwizard.Application;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import mil.dds.anet.beans.ApprovalStep;
 import mil.dds.anet.beans.Organization;
 import mil.dds.anet.beans.Organization.OrganizationType;
 import mil.dds.anet.beans.Person;
 import mil.dds.anet.beans.Position;
 import mil.dds.anet.beans.Task;
-import mil.dds.anet.beans.search.OrganizationSearchQuery;
 import mil.dds.anet.beans.search.TaskSearchQuery;
+import mil.dds.anet.config.AnetConfiguration.BatchingConfiguration;
 import mil.dds.anet.database.AdminDao;
 import mil.dds.anet.database.AdminDao.AdminSettingKeys;
 import mil.dds.anet.database.ApprovalStepDao;
 import mil.dds.anet.database.AuthorizationGroupDao;
 import mil.dds.anet.database.CommentDao;
 import mil.dds.anet.database.EmailDao;
+import mil.dds.anet.database.KeyListQuery;
 import mil.dds.anet.database.LocationDao;
 import mil.dds.anet.database.NoteDao;
 import mil.dds.anet.database.OrganizationDao;
+import mil.dds.anet.database.OrganizationHierarchy;
 import mil.dds.anet.database.PersonDao;
 import mil.dds.anet.database.PositionDao;
 import mil.dds.anet.database.ReportActionDao;
@@ -37,6 +43,7 @@ import mil.dds.anet.database.TaskDao;
 import mil.dds.anet.search.ISearcher;
 import mil.dds.anet.search.Searcher;
 import mil.dds.anet.utils.AuthUtils;
+import mil.dds.anet.utils.BatchingContext;
 import mil.dds.anet.utils.BatchingUtils;
 import mil.dds.anet.utils.DaoUtils;
 import mil.dds.anet.utils.Utils;
@@ -60,7 +67,16 @@ public class AnetObjectEngine {
   private final ReportSensitiveInformationDao reportSensitiveInformationDao;
   private final AuthorizationGroupDao authorizationGroupDao;
   private final NoteDao noteDao;
-  private ThreadLocal<Map<String, Object>> context;
+  private final OrganizationHierarchy organizationHierarchy;
+  private final ExecutorService dataLoaderExecutor;
+  private BatchingConfiguration batchingConfig = new BatchingConfiguration();
+  private MetricRegistry metricRegistry;
+  // Each thread gets its own context, and with it its own DataLoaders
+  private final ThreadLocal<Map<String, Object>> context = ThreadLocal.withInitial(() -> {
+    final Map<String, Object> ctx = new HashMap<>();
+    ctx.put("dataLoaderRegistry", BatchingUtils.registerDataLoaders(this, false, false));
+    return ctx;
+  });
 
   ISearcher searcher;
 
@@ -69,13 +85,16 @@ public class AnetObjectEngine {
   private final String dbUrl;
   private final Injector injector;
 
-  public AnetObjectEngine(String dbUrl, Application<?> application) {
+  public AnetObjectEngine(String dbUrl, Application<?> application,
+      ExecutorService dataLoaderExecutor) {
     this.dbUrl = dbUrl;
+    this.dataLoaderExecutor = dataLoaderExecutor;
     injector = InjectorLookup.getInjector(application).get();
     personDao = injector.getInstance(PersonDao.class);
     taskDao = injector.getInstance(TaskDao.class);
     locationDao = injector.getInstance(LocationDao.class);
     orgDao = injector.getInstance(OrganizationDao.class);
+    organizationHierarchy = new OrganizationHierarchy(orgDao::getHierarchyEntries);
     positionDao = injector.getInstance(PositionDao.class);
     asDao = injector.getInstance(ApprovalStepDao.class);
     reportActionDao = injector.getInstance(ReportActionDao.class);
@@ -116,6 +135,10 @@ public class AnetObjectEngine {
     return orgDao;
   }
 
+  public OrganizationHierarchy getOrganizationHierarchy() {
+    return organizationHierarchy;
+  }
+
   public ReportActionDao getReportActionDao() {
     return reportActionDao;
   }
@@ -164,6 +187,32 @@ public class AnetObjectEngine {
     return emailDao;
   }
 
+  public ExecutorService getDataLoaderExecutor() {
+    return dataLoaderExecutor;
+  }
+
+  /**
+   * Configure how the DataLoaders batch their loads, and how the batches are queried.
+   *
+   * @param batchingConfig the configuration
+   * @param metricRegistry the registry for the batch size metrics
+   */
+  public void configureBatching(BatchingConfiguration batchingConfig,
+      MetricRegistry metricRegistry) {
+    // Fail at startup rather than on the first batch load
+    KeyListQuery.checkChunkSizes(batchingConfig.getChunkSizes());
+    this.batchingConfig = batchingConfig;
+    this.metricRegistry = metricRegistry;
+  }
+
+  public BatchingConfiguration getBatchingConfig() {
+    return batchingConfig;
+  }
+
+  public MetricRegistry getMetricRegistry() {
+    return metricRegistry;
+  }
+
   public ISearcher getSearcher() {
     return searcher;
   }
@@ -239,12 +288,7 @@ public class AnetObjectEngine {
    * get all orgs.
    */
   public Map<String, Organization> buildTopLevelOrgHash(OrganizationType orgType) {
-    OrganizationSearchQuery orgQuery = new OrganizationSearchQuery();
-    orgQuery.setPageSize(Integer.MAX_VALUE);
-    orgQuery.setType(orgType);
-    List<Organization> orgs = getOrganizationDao().search(orgQuery).getList();
-
-    return Utils.buildParentOrgMapping(orgs, null);
+    return loadTopLevelOrgs(organizationHierarchy.getTopLevelUuids(orgType));
   }
 
   /**
@@ -253,13 +297,31 @@ public class AnetObjectEngine {
    * highest parent that is NOT the parentOrgUuid.
    */
   public Map<String, Organization> buildTopLevelOrgHash(String parentOrgUuid) {
-    final OrganizationSearchQuery query = new OrganizationSearchQuery();
-    query.setParentOrgUuid(parentOrgUuid);
-    query.setParentOrgRecursively(true);
-    query.setPageSize(Integer.MAX_VALUE);
-    final List<Organization> orgList =
-        AnetObjectEngine.getInstance().getOrganizationDao().search(query).getList();
-    return Utils.buildParentOrgMapping(orgList, parentOrgUuid);
+    return loadTopLevelOrgs(organizationHierarchy.getTopLevelUuidsUnder(parentOrgUuid));
+  }
+
+  /**
+   * Replace the top-level organization UUIDs of a mapping with the organizations themselves; there
+   * are only a few different ones, so they are loaded in a single batch.
+   */
+  private Map<String, Organization> loadTopLevelOrgs(Map<String, String> topLevelUuids) {
+    final List<String> uuids = new ArrayList<>(new HashSet<>(topLevelUuids.values()));
+    final Map<String, Organization> topLevelOrgs = new HashMap<>();
+    if (!uuids.isEmpty()) {
+      for (final Organization org : orgDao.getByIds(uuids)) {
+        if (org != null) {
+          topLevelOrgs.put(org.getUuid(), org);
+        }
+      }
+    }
+    final Map<String, Organization> result = new HashMap<>();
+    for (final Map.Entry<String, String> entry : topLevelUuids.entrySet()) {
+      final Organization topLevelOrg = topLevelOrgs.get(entry.getValue());
+      if (topLevelOrg != null) {
+        result.put(entry.getKey(), topLevelOrg);
+      }
+    }
+    return result;
   }
 
   /**
@@ -284,13 +346,14 @@ public class AnetObjectEngine {
     return adminDao.getSetting(key);
   }
 
+  /**
+   * Get a context without batching or caching, for loading single objects where no scope is
+   * available. Jersey requests and background jobs loading several objects should use a
+   * {@link BatchingContext} instead.
+   *
+   * @return the context of the current thread
+   */
   public Map<String, Object> getContext() {
-    if (context == null) {
-      final Map<String, Object> ctx = new HashMap<>();
-      // FIXME: create this per Jersey (non-GraphQL) request, and make it batch and cache?
-      ctx.put("dataLoaderRegistry", BatchingUtils.registerDataLoaders(this, false, false));
-      context = ThreadLocal.withInitial(() -> ctx);
-    }
     return context.get();
   }
 }
@@ -1,6 +1,7 @@
 package mil.dds.anet;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.dropwizard.Application;
 import io.dropwizard.cli.EnvironmentCommand;
 import io.dropwizard.setup.Environment;
@@ -32,7 +33,9 @@ public class InitializationCommand extends EnvironmentCommand<AnetConfiguration>
   protected void run(Environment environment, Namespace namespace, AnetConfiguration configuration)
       throws Exception {
     final String dbUrl = configuration.getDataSourceFactory().getUrl();
-    final AnetObjectEngine engine = new AnetObjectEngine(dbUrl, application);
+    // No need for a thread pool here, just run any batch loads directly
+    final AnetObjectEngine engine =
+        new AnetObjectEngine(dbUrl, application, MoreExecutors.newDirectExecutorService());
 
     System.out.println("-------- WELCOME TO ANET! --------");
     System.out.println("We're going to ask you a few questions to get ANET set up.");
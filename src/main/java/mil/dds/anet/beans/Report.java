@@ -55,6 +55,8 @@ public class Report extends AbstractAnetBean {
   String keyOutcomes;
   String nextSteps;
   String reportText;
+  // Whether the text fields above have been loaded; see ReportDao.getReportFields
+  private boolean textLoaded = true;
 
   private ForeignObjectHolder<Person> author = new ForeignObjectHolder<>();
   private ForeignObjectHolder<Organization> advisorOrg = new ForeignObjectHolder<>();
@@ -185,6 +187,11 @@ public class Report extends AbstractAnetBean {
   }
 
   @GraphQLQuery(name = "exsum")
+  public CompletableFuture<String> loadExsum(@GraphQLRootContext Map<String, Object> context) {
+    return loadText(context).thenApply(r -> exsum);
+  }
+
+  @GraphQLIgnore
   public String getExsum() {
     return exsum;
   }
@@ -203,6 +210,12 @@ public class Report extends AbstractAnetBean {
   }
 
   @GraphQLQuery(name = "atmosphereDetails")
+  public CompletableFuture<String> loadAtmosphereDetails(
+      @GraphQLRootContext Map<String, Object> context) {
+    return loadText(context).thenApply(r -> atmosphereDetails);
+  }
+
+  @GraphQLIgnore
   public String getAtmosphereDetails() {
     return atmosphereDetails;
   }
@@ -312,6 +325,12 @@ public class Report extends AbstractAnetBean {
   }
 
   @GraphQLQuery(name = "keyOutcomes")
+  public CompletableFuture<String> loadKeyOutcomes(
+      @GraphQLRootContext Map<String, Object> context) {
+    return loadText(context).thenApply(r -> keyOutcomes);
+  }
+
+  @GraphQLIgnore
   public String getKeyOutcomes() {
     return keyOutcomes;
   }
@@ -321,6 +340,11 @@ public class Report extends AbstractAnetBean {
   }
 
   @GraphQLQuery(name = "reportText")
+  public CompletableFuture<String> loadReportText(@GraphQLRootContext Map<String, Object> context) {
+    return loadText(context).thenApply(r -> reportText);
+  }
+
+  @GraphQLIgnore
   public String getReportText() {
     return reportText;
   }
@@ -330,6 +354,11 @@ public class Report extends AbstractAnetBean {
   }
 
   @GraphQLQuery(name = "nextSteps")
+  public CompletableFuture<String> loadNextSteps(@GraphQLRootContext Map<String, Object> context) {
+    return loadText(context).thenApply(r -> nextSteps);
+  }
+
+  @GraphQLIgnore
   public String getNextSteps() {
     return nextSteps;
   }
@@ -338,6 +367,36 @@ public class Report extends AbstractAnetBean {
     this.nextSteps = Utils.trimStringReturnNull(nextSteps);
   }
 
+  @JsonIgnore
+  @GraphQLIgnore
+  public boolean isTextLoaded() {
+    return textLoaded;
+  }
+
+  @JsonIgnore
+  @GraphQLIgnore
+  public void setTextLoaded(boolean textLoaded) {
+    this.textLoaded = textLoaded;
+  }
+
+  private CompletableFuture<Report> loadText(Map<String, Object> context) {
+    if (textLoaded) {
+      return CompletableFuture.completedFuture(this);
+    }
+    return AnetObjectEngine.getInstance().getReportDao().getTextForReport(context, uuid)
+        .thenApply(o -> {
+          if (o != null) {
+            exsum = o.getExsum();
+            atmosphereDetails = o.getAtmosphereDetails();
+            reportText = o.getReportText();
+            keyOutcomes = o.getKeyOutcomes();
+            nextSteps = o.getNextSteps();
+          }
+          textLoaded = true;
+          return this;
+        });
+  }
+
   @GraphQLQuery(name = "author")
   public CompletableFuture<Person> loadAuthor(@GraphQLRootContext Map<String, Object> context) {
     if (author.hasForeignObject()) {
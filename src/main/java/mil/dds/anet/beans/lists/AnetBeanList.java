@@ -1,7 +1,9 @@
 package mil.dds.anet.beans.lists;
 
 import io.leangen.graphql.annotations.GraphQLQuery;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import mil.dds.anet.beans.Person;
 import mil.dds.anet.beans.Report;
 import org.jdbi.v3.core.mapper.RowMapper;
@@ -13,6 +15,7 @@ public class AnetBeanList<T> {
   Integer pageNum;
   Integer pageSize;
   Integer totalCount;
+  String nextCursor;
 
   public AnetBeanList() { /* Serialization Constructor */ }
 
@@ -74,10 +77,46 @@ public class AnetBeanList<T> {
     this.totalCount = totalCount;
   }
 
+  /**
+   * The cursor for the next page, or null when this is the last page (or cursors are not supported
+   * for the query).
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Get the fields selected on the elements of the list.
+   *
+   * @param selectedFields the (qualified) names of the fields selected on an AnetBeanList, e.g.
+   *        <code>totalCount</code>, <code>list</code>, <code>list/author</code>,
+   *        <code>list/author/name</code>
+   * @return the names of the fields directly selected on the elements, e.g. <code>author</code>
+   */
+  public static Set<String> getListFields(Set<String> selectedFields) {
+    final String prefix = "list/";
+    final Set<String> listFields = new HashSet<>();
+    for (final String field : selectedFields) {
+      if (field.startsWith(prefix) && field.indexOf('/', prefix.length()) < 0) {
+        listFields.add(field.substring(prefix.length()));
+      }
+    }
+    return listFields;
+  }
+
   public static AnetBeanList<Report> getReportList(Person user, Query query, int pageNum,
       int pageSize, RowMapper<Report> mapper) {
+    return getReportList(user, query, pageNum, pageSize, mapper, null);
+  }
+
+  public static AnetBeanList<Report> getReportList(Person user, Query query, int pageNum,
+      int pageSize, RowMapper<Report> mapper, Long manualRowCount) {
     final AnetBeanList<Report> results =
-        new AnetBeanList<Report>(query, pageNum, pageSize, mapper, null);
+        new AnetBeanList<Report>(query, pageNum, pageSize, mapper, manualRowCount);
     for (final Report report : results.getList()) {
       report.setUser(user);
     }
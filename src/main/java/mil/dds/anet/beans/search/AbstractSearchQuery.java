@@ -1,6 +1,8 @@
 package mil.dds.anet.beans.search;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.leangen.graphql.annotations.GraphQLIgnore;
 
 @JsonIgnoreProperties({"user", "pass"})
 public abstract class AbstractSearchQuery implements ISearchQuery {
@@ -8,6 +10,7 @@ public abstract class AbstractSearchQuery implements ISearchQuery {
   private String text;
   private int pageNum;
   private int pageSize;
+  private boolean totalCountRequested = true;
 
   public AbstractSearchQuery() {
     this.pageNum = 0;
@@ -44,4 +47,20 @@ public abstract class AbstractSearchQuery implements ISearchQuery {
     this.pageSize = pageSize;
   }
 
+  /**
+   * Whether the searcher has to count all results; this is set from the GraphQL selection set, so
+   * that searches only pay for counting when the client asks for the totalCount.
+   */
+  @JsonIgnore
+  @GraphQLIgnore
+  public boolean isTotalCountRequested() {
+    return totalCountRequested;
+  }
+
+  @JsonIgnore
+  @GraphQLIgnore
+  public void setTotalCountRequested(boolean totalCountRequested) {
+    this.totalCountRequested = totalCountRequested;
+  }
+
 }
@@ -1,7 +1,11 @@
 package mil.dds.anet.beans.search;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.leangen.graphql.annotations.GraphQLIgnore;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
+import mil.dds.anet.beans.Report;
 import mil.dds.anet.beans.Report.Atmosphere;
 import mil.dds.anet.beans.Report.ReportCancelledReason;
 import mil.dds.anet.beans.Report.ReportState;
@@ -9,7 +13,21 @@ import mil.dds.anet.beans.Report.ReportState;
 public class ReportSearchQuery extends AbstractSearchQuery {
 
   public enum ReportSearchSortBy {
-    CREATED_AT, ENGAGEMENT_DATE, RELEASED_AT, UPDATED_AT
+    CREATED_AT, ENGAGEMENT_DATE, RELEASED_AT, UPDATED_AT;
+
+    public Instant getSortValue(Report report) {
+      switch (this) {
+        case ENGAGEMENT_DATE:
+          return report.getEngagementDate();
+        case RELEASED_AT:
+          return report.getReleasedAt();
+        case UPDATED_AT:
+          return report.getUpdatedAt();
+        case CREATED_AT:
+        default:
+          return report.getCreatedAt();
+      }
+    }
   }
 
   String authorUuid;
@@ -47,9 +65,11 @@ public class ReportSearchQuery extends AbstractSearchQuery {
   private String attendeePositionUuid;
   private List<String> authorizationGroupUuid;
   private Boolean sensitiveInfo;
+  private Set<String> selectedFields;
 
   private ReportSearchSortBy sortBy;
   private SortOrder sortOrder;
+  private String cursor;
 
   public ReportSearchQuery() {
     super();
@@ -289,6 +309,22 @@ public class ReportSearchQuery extends AbstractSearchQuery {
     this.sensitiveInfo = sensitiveInfo;
   }
 
+  /**
+   * The GraphQL fields selected on the reports found, so that the searcher can leave out the
+   * columns that are not needed; null when not known, in which case all columns are selected.
+   */
+  @JsonIgnore
+  @GraphQLIgnore
+  public Set<String> getSelectedFields() {
+    return selectedFields;
+  }
+
+  @JsonIgnore
+  @GraphQLIgnore
+  public void setSelectedFields(Set<String> selectedFields) {
+    this.selectedFields = selectedFields;
+  }
+
   public ReportSearchSortBy getSortBy() {
     return sortBy;
   }
@@ -305,6 +341,18 @@ public class ReportSearchQuery extends AbstractSearchQuery {
     this.sortOrder = sortOrder;
   }
 
+  /**
+   * The cursor to continue from, as returned in the <code>nextCursor</code> of the previous page;
+   * when set, pageNum is ignored.
+   */
+  public String getCursor() {
+    return cursor;
+  }
+
+  public void setCursor(String cursor) {
+    this.cursor = cursor;
+  }
+
   public static ReportSearchQuery withText(String text, int pageNum, int pageSize) {
     ReportSearchQuery query = new ReportSearchQuery();
     query.setText(text);
@@ -4,8 +4,11 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableMap;
 import io.dropwizard.Configuration;
 import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.util.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -17,6 +20,17 @@ public class AnetConfiguration extends Configuration {
   private boolean redirectToHttps = false;
 
   private SmtpConfiguration smtp;
+  private DataLoaderExecutorConfiguration dataLoaderExecutor =
+      new DataLoaderExecutorConfiguration();
+  private BatchingConfiguration batching = new BatchingConfiguration();
+  private SqlLoggingConfiguration sqlLogging = new SqlLoggingConfiguration();
+  private EntityCacheConfiguration entityCache = new EntityCacheConfiguration();
+  private TotalCountCacheConfiguration totalCountCache = new TotalCountCacheConfiguration();
+  private GraphQlConfiguration graphQl = new GraphQlConfiguration();
+  @NotNull
+  private Duration adminSettingsRefreshInterval = Duration.seconds(10);
+  @NotNull
+  private Duration organizationHierarchyRefreshInterval = Duration.minutes(5);
   private String emailFromAddr;
   private String serverUrl;
 
@@ -98,6 +112,71 @@ public class AnetConfiguration extends Configuration {
     this.smtp = smtp;
   }
 
+  public DataLoaderExecutorConfiguration getDataLoaderExecutor() {
+    return dataLoaderExecutor;
+  }
+
+  public void setDataLoaderExecutor(DataLoaderExecutorConfiguration dataLoaderExecutor) {
+    this.dataLoaderExecutor = dataLoaderExecutor;
+  }
+
+  public BatchingConfiguration getBatching() {
+    return batching;
+  }
+
+  public void setBatching(BatchingConfiguration batching) {
+    this.batching = batching;
+  }
+
+  public SqlLoggingConfiguration getSqlLogging() {
+    return sqlLogging;
+  }
+
+  public void setSqlLogging(SqlLoggingConfiguration sqlLogging) {
+    this.sqlLogging = sqlLogging;
+  }
+
+  public EntityCacheConfiguration getEntityCache() {
+    return entityCache;
+  }
+
+  public void setEntityCache(EntityCacheConfiguration entityCache) {
+    this.entityCache = entityCache;
+  }
+
+  public TotalCountCacheConfiguration getTotalCountCache() {
+    return totalCountCache;
+  }
+
+  public void setTotalCountCache(TotalCountCacheConfiguration totalCountCache) {
+    this.totalCountCache = totalCountCache;
+  }
+
+  public GraphQlConfiguration getGraphQl() {
+    return graphQl;
+  }
+
+  public void setGraphQl(GraphQlConfiguration graphQl) {
+    this.graphQl = graphQl;
+  }
+
+  public Duration getAdminSettingsRefreshInterval() {
+    return adminSettingsRefreshInterval;
+  }
+
+  public void setAdminSettingsRefreshInterval(Duration adminSettingsRefreshInterval) {
+    this.adminSettingsRefreshInterval = adminSettingsRefreshInterval;
+  }
+
+  public Duration getOrganizationHierarchyRefreshInterval() {
+    return organizationHierarchyRefreshInterval;
+  }
+
+  public void setOrganizationHierarchyRefreshInterval(
+      Duration organizationHierarchyRefreshInterval) {
+    this.organizationHierarchyRefreshInterval = organizationHierarchyRefreshInterval;
+  }
+
   public String getEmailFromAddr() {
     return emailFromAddr;
   }
@@ -200,5 +279,454 @@ public class AnetConfiguration extends Configuration {
     }
   }
 
+  public static class DataLoaderExecutorConfiguration {
+    // When not defined, the maximum size of the database connection pool is used
+    private Integer maxThreads;
+    private int queueSize = 1000;
+    private Duration keepAliveTime = Duration.minutes(1);
+    private Duration shutdownTime = Duration.seconds(5);
+
+    public Integer getMaxThreads() {
+      return maxThreads;
+    }
+
+    public void setMaxThreads(Integer maxThreads) {
+      this.maxThreads = maxThreads;
+    }
+
+    public int getQueueSize() {
+      return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+      this.queueSize = queueSize;
+    }
+
+    public Duration getKeepAliveTime() {
+      return keepAliveTime;
+    }
+
+    public void setKeepAliveTime(Duration keepAliveTime) {
+      this.keepAliveTime = keepAliveTime;
+    }
+
+    public Duration getShutdownTime() {
+      return shutdownTime;
+    }
+
+    public void setShutdownTime(Duration shutdownTime) {
+      this.shutdownTime = shutdownTime;
+    }
+  }
+
+  public static class BatchingConfiguration {
+    private int maxBatchSize = 1000;
+    // Key lists are padded to the next chunk size, and split by the largest one
+    private List<Integer> chunkSizes = Arrays.asList(1, 5, 10, 25, 50, 100, 250, 500);
+    // When not defined, key lists are always split into chunks
+    private Integer setBasedThreshold = 500;
+
+    public int getMaxBatchSize() {
+      return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+      this.maxBatchSize = maxBatchSize;
+    }
+
+    public List<Integer> getChunkSizes() {
+      return chunkSizes;
+    }
+
+    public void setChunkSizes(List<Integer> chunkSizes) {
+      this.chunkSizes = chunkSizes;
+    }
+
+    public Integer getSetBasedThreshold() {
+      return setBasedThreshold;
+    }
+
+    public void setSetBasedThreshold(Integer setBasedThreshold) {
+      this.setBasedThreshold = setBasedThreshold;
+    }
+  }
+
+  public static class SqlLoggingConfiguration {
+    // Whether each statement is timed as a Sql.<tag> metric
+    private boolean timingEnabled = true;
+    // When not defined, no statements are written to the slow query log
+    private Duration slowQueryThreshold = Duration.seconds(1);
+
+    public boolean isTimingEnabled() {
+      return timingEnabled;
+    }
+
+    public void setTimingEnabled(boolean timingEnabled) {
+      this.timingEnabled = timingEnabled;
+    }
+
+    public Duration getSlowQueryThreshold() {
+      return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+      this.slowQueryThreshold = slowQueryThreshold;
+    }
+  }
+
+  public static class EntityCacheConfiguration {
+    private boolean enabled = false;
+    private long maximumSize = 10000;
+    private Duration expireAfterWrite = Duration.minutes(5);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+      return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+      this.expireAfterWrite = expireAfterWrite;
+    }
+  }
+
+  public static class TotalCountCacheConfiguration {
+    private boolean enabled = false;
+    private long maximumSize = 10000;
+    // Counts may be off by the changes made during this time, so keep it short
+    private Duration expireAfterWrite = Duration.seconds(30);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+      return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+      this.expireAfterWrite = expireAfterWrite;
+    }
+  }
+
+  public static class GraphQlConfiguration {
+    private long documentCacheSize = 1000;
+    private boolean persistedQueriesEnabled = true;
+    // When defined, a JSON file mapping SHA-256 hashes to queries, e.g. generated by the client build
+    private String persistedQueriesFile;
+    private boolean registerPersistedQueriesOnFirstUse = true;
+    private long persistedQueriesMaximumSize = 1000;
+    // Number of rows kept in memory when exporting to XLSX, the rest is flushed to disk
+    private int xlsxRowWindowSize = 100;
+    // Maximum number of data rows in an XLSX export (default is Excel's limit)
+    private int xlsxMaxRows = 1048575;
+    private boolean xmlPrettyPrint = true;
+    // Number of rows after which CSV and NDJSON exports flush the output
+    private int exportFlushInterval = 1000;
+    // Maximum number of operations in a batched request
+    private int maxBatchSize = 20;
+    // Maximum time to wait for a GraphQL request to complete
+    private Duration asyncTimeout = Duration.minutes(2);
+    // Threads executing GraphQL requests; when not defined, the maximum size of the database
+    // connection pool is used
+    private Integer executorThreads;
+    private QueryCostConfiguration queryCost = new QueryCostConfiguration();
+    private FieldTimingConfiguration fieldTiming = new FieldTimingConfiguration();
+    private SqlBudgetConfiguration sqlBudget = new SqlBudgetConfiguration();
+
+    public long getDocumentCacheSize() {
+      return documentCacheSize;
+    }
+
+    public void setDocumentCacheSize(long documentCacheSize) {
+      this.documentCacheSize = documentCacheSize;
+    }
+
+    public boolean isPersistedQueriesEnabled() {
+      return persistedQueriesEnabled;
+    }
+
+    public void setPersistedQueriesEnabled(boolean persistedQueriesEnabled) {
+      this.persistedQueriesEnabled = persistedQueriesEnabled;
+    }
+
+    public String getPersistedQueriesFile() {
+      return persistedQueriesFile;
+    }
+
+    public void setPersistedQueriesFile(String persistedQueriesFile) {
+      this.persistedQueriesFile = persistedQueriesFile;
+    }
+
+    public boolean isRegisterPersistedQueriesOnFirstUse() {
+      return registerPersistedQueriesOnFirstUse;
+    }
+
+    public void setRegisterPersistedQueriesOnFirstUse(boolean registerPersistedQueriesOnFirstUse) {
+      this.registerPersistedQueriesOnFirstUse = registerPersistedQueriesOnFirstUse;
+    }
+
+    public long getPersistedQueriesMaximumSize() {
+      return persistedQueriesMaximumSize;
+    }
+
+    public void setPersistedQueriesMaximumSize(long persistedQueriesMaximumSize) {
+      this.persistedQueriesMaximumSize = persistedQueriesMaximumSize;
+    }
+
+    public int getXlsxRowWindowSize() {
+      return xlsxRowWindowSize;
+    }
+
+    public void setXlsxRowWindowSize(int xlsxRowWindowSize) {
+      this.xlsxRowWindowSize = xlsxRowWindowSize;
+    }
+
+    public int getXlsxMaxRows() {
+      return xlsxMaxRows;
+    }
+
+    public void setXlsxMaxRows(int xlsxMaxRows) {
+      this.xlsxMaxRows = xlsxMaxRows;
+    }
+
+    public boolean isXmlPrettyPrint() {
+      return xmlPrettyPrint;
+    }
+
+    public void setXmlPrettyPrint(boolean xmlPrettyPrint) {
+      this.xmlPrettyPrint = xmlPrettyPrint;
+    }
+
+    public int getExportFlushInterval() {
+      return exportFlushInterval;
+    }
+
+    public void setExportFlushInterval(int exportFlushInterval) {
+      this.exportFlushInterval = exportFlushInterval;
+    }
+
+    public int getMaxBatchSize() {
+      return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+      this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getAsyncTimeout() {
+      return asyncTimeout;
+    }
+
+    public void setAsyncTimeout(Duration asyncTimeout) {
+      this.asyncTimeout = asyncTimeout;
+    }
+
+    public Integer getExecutorThreads() {
+      return executorThreads;
+    }
+
+    public void setExecutorThreads(Integer executorThreads) {
+      this.executorThreads = executorThreads;
+    }
+
+    public QueryCostConfiguration getQueryCost() {
+      return queryCost;
+    }
+
+    public void setQueryCost(QueryCostConfiguration queryCost) {
+      this.queryCost = queryCost;
+    }
+
+    public FieldTimingConfiguration getFieldTiming() {
+      return fieldTiming;
+    }
+
+    public void setFieldTiming(FieldTimingConfiguration fieldTiming) {
+      this.fieldTiming = fieldTiming;
+    }
+
+    public SqlBudgetConfiguration getSqlBudget() {
+      return sqlBudget;
+    }
+
+    public void setSqlBudget(SqlBudgetConfiguration sqlBudget) {
+      this.sqlBudget = sqlBudget;
+    }
+  }
+
+  public static class SqlBudgetConfiguration {
+    private boolean enabled = true;
+    private int maxStatements = 50;
+    // Maximum number of times a single (tagged) statement is executed, to catch N+1 queries
+    private int maxRepeatCount = 10;
+    private long maxRows = 10000;
+    private Duration maxDbTime = Duration.seconds(2);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaxStatements() {
+      return maxStatements;
+    }
+
+    public void setMaxStatements(int maxStatements) {
+      this.maxStatements = maxStatements;
+    }
+
+    public int getMaxRepeatCount() {
+      return maxRepeatCount;
+    }
+
+    public void setMaxRepeatCount(int maxRepeatCount) {
+      this.maxRepeatCount = maxRepeatCount;
+    }
+
+    public long getMaxRows() {
+      return maxRows;
+    }
+
+    public void setMaxRows(long maxRows) {
+      this.maxRows = maxRows;
+    }
+
+    public Duration getMaxDbTime() {
+      return maxDbTime;
+    }
+
+    public void setMaxDbTime(Duration maxDbTime) {
+      this.maxDbTime = maxDbTime;
+    }
+  }
+
+  public static class FieldTimingConfiguration {
+    private boolean enabled = true;
+    // Fraction of requests for which field resolvers are timed
+    private double sampleRate = 0.01;
+    // Whether to return an Apollo tracing block in the extensions of each response
+    private boolean tracing = false;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+      return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+      this.sampleRate = sampleRate;
+    }
+
+    public boolean isTracing() {
+      return tracing;
+    }
+
+    public void setTracing(boolean tracing) {
+      this.tracing = tracing;
+    }
+  }
+
+  public static class QueryCostConfiguration {
+    private boolean enabled = true;
+    // Assumed size of lists without a pageSize
+    private int defaultListSize = 10;
+    // Assumed size of lists with pageSize 0, i.e. all results
+    private int unboundedListSize = 1000;
+    // Weight of a field, by "Type.field"; fields not listed here have weight 1
+    private Map<String, Integer> fieldWeights = Collections.emptyMap();
+    // Maximum cost of a query, by position type of the user
+    private Map<String, Long> budgets = Collections.emptyMap();
+    // Maximum cost of a query for users whose position type is not in budgets
+    private long defaultBudget = 1000000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getDefaultListSize() {
+      return defaultListSize;
+    }
+
+    public void setDefaultListSize(int defaultListSize) {
+      this.defaultListSize = defaultListSize;
+    }
+
+    public int getUnboundedListSize() {
+      return unboundedListSize;
+    }
+
+    public void setUnboundedListSize(int unboundedListSize) {
+      this.unboundedListSize = unboundedListSize;
+    }
+
+    public Map<String, Integer> getFieldWeights() {
+      return fieldWeights;
+    }
+
+    public void setFieldWeights(Map<String, Integer> fieldWeights) {
+      this.fieldWeights = fieldWeights;
+    }
+
+    public Map<String, Long> getBudgets() {
+      return budgets;
+    }
+
+    public void setBudgets(Map<String, Long> budgets) {
+      this.budgets = budgets;
+    }
+
+    public long getDefaultBudget() {
+      return defaultBudget;
+    }
+
+    public void setDefaultBudget(long defaultBudget) {
+      this.defaultBudget = defaultBudget;
+    }
+
+    public long getBudget(String positionType) {
+      final Long budget = (positionType == null) ? null : budgets.get(positionType);
+      return (budget == null) ? defaultBudget : budget;
+    }
+  }
 
 }
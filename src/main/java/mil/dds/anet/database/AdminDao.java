@@ -1,8 +1,11 @@
 package mil.dds.anet.database;
 
-import java.util.HashMap;
+import com.google.common.collect.ImmutableMap;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import mil.dds.anet.beans.AdminSetting;
@@ -10,60 +13,150 @@ import mil.dds.anet.database.mappers.AdminSettingMapper;
 import org.jdbi.v3.core.Handle;
 import ru.vyarus.guicey.jdbi3.tx.InTransaction;
 
-@InTransaction
+/**
+ * The admin settings are read on hot paths, so they are cached in an immutable snapshot that is
+ * swapped as a whole; reads never lock. Every change also changes the version row in
+ * <code>adminSettings</code>, and the snapshot is revalidated against it at most once per refresh
+ * interval, so changes made by other ANET servers show up within that interval. Only the methods
+ * that touch the database run in a transaction, so reading from the snapshot does no JDBI work.
+ */
 public class AdminDao {
 
   public static enum AdminSettingKeys {
     SECURITY_BANNER_TEXT, SECURITY_BANNER_COLOR, DEFAULT_APPROVAL_ORGANIZATION, HELP_LINK_URL, CONTACT_EMAIL, DAILY_ROLLUP_MAX_REPORT_AGE_DAYS, EXTERNAL_DOCUMENTATION_LINK_URL, EXTERNAL_DOCUMENTATION_LINK_TEXT, GENERAL_BANNER_LEVEL, GENERAL_BANNER_TEXT, GENERAL_BANNER_VISIBILITY,
   }
 
+  // Key of the row whose value changes with every change to the settings
+  public static final String VERSION_KEY = "SETTINGS_VERSION";
+
   @Inject
   private Provider<Handle> handle;
-  private Map<String, String> cachedSettings = null;
+  private volatile long refreshIntervalNanos = TimeUnit.SECONDS.toNanos(10);
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+  private final Object loadLock = new Object();
+  // Only one thread revalidates the snapshot, the others keep reading the current one
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+
+  private static class Snapshot {
+    private final ImmutableMap<String, String> settings;
+    private final String version;
+    private final long checkedAt;
+
+    Snapshot(ImmutableMap<String, String> settings, String version) {
+      this.settings = settings;
+      this.version = version;
+      this.checkedAt = System.nanoTime();
+    }
+  }
 
   protected Handle getDbHandle() {
     return handle.get();
   }
 
-  private void initCache() {
-    cachedSettings = new HashMap<String, String>();
-    List<AdminSetting> settings = getAllSettings();
-    for (AdminSetting s : settings) {
-      cachedSettings.put(s.getKey(), s.getValue());
-    }
+  public void setRefreshInterval(long duration, TimeUnit unit) {
+    refreshIntervalNanos = unit.toNanos(duration);
   }
 
   public String getSetting(AdminSettingKeys key) {
-    if (cachedSettings == null) {
-      initCache();
+    return getSnapshot().settings.get(key.toString());
+  }
+
+  private Snapshot getSnapshot() {
+    final Snapshot current = snapshot.get();
+    if (current == null) {
+      return load();
+    }
+    if (System.nanoTime() - current.checkedAt > refreshIntervalNanos
+        && refreshing.compareAndSet(false, true)) {
+      try {
+        return refresh(current);
+      } finally {
+        refreshing.set(false);
+      }
+    }
+    return current;
+  }
+
+  private Snapshot load() {
+    // Only one thread loads the settings, the others wait for it
+    synchronized (loadLock) {
+      final Snapshot current = snapshot.get();
+      return (current == null) ? refresh(null) : current;
+    }
+  }
+
+  private void invalidate() {
+    // Wait for a load in progress, it may have read the settings from before the change
+    synchronized (loadLock) {
+      snapshot.set(null);
     }
-    return cachedSettings.get(key.toString());
   }
 
+  // Not private, or the transaction would not be applied
+  @InTransaction
+  protected Snapshot refresh(Snapshot current) {
+    final String version = getVersion();
+    final Snapshot refreshed;
+    if (current != null && (version == null ? current.version == null
+        : version.equals(current.version))) {
+      // Unchanged, check again after the next interval
+      refreshed = new Snapshot(current.settings, current.version);
+    } else {
+      final ImmutableMap.Builder<String, String> settings = ImmutableMap.builder();
+      for (final AdminSetting s : getAllSettings()) {
+        // ImmutableMap does not allow null values
+        if (s.getValue() != null) {
+          settings.put(s.getKey(), s.getValue());
+        }
+      }
+      refreshed = new Snapshot(settings.build(), version);
+    }
+    // Unless the snapshot has been invalidated in the meantime
+    snapshot.compareAndSet(current, refreshed);
+    return refreshed;
+  }
+
+  @InTransaction
+  protected String getVersion() {
+    return getDbHandle()
+        .createQuery("/* getAdminSettingsVersion */ SELECT value FROM \"adminSettings\" "
+            + "WHERE \"key\" = :key")
+        .bind("key", VERSION_KEY).mapTo(String.class).findFirst().orElse(null);
+  }
+
+  @InTransaction
   public List<AdminSetting> getAllSettings() {
-    return getDbHandle().createQuery("/* getAllAdminSettings */ SELECT * FROM \"adminSettings\"")
-        .map(new AdminSettingMapper()).list();
+    return getDbHandle()
+        .createQuery("/* getAllAdminSettings */ SELECT * FROM \"adminSettings\" "
+            + "WHERE \"key\" != :versionKey")
+        .bind("versionKey", VERSION_KEY).map(new AdminSettingMapper()).list();
   }
 
   /**
    * Saves an adminSetting to the database, inserting if it does not exist yet.
    */
+  @InTransaction
   public int saveSetting(AdminSetting setting) {
-    if (cachedSettings == null) {
-      initCache();
-    }
-    String sql;
-    if (cachedSettings.containsKey(setting.getKey())) {
-      sql =
-          "/* updateAdminSetting */ UPDATE \"adminSettings\" SET value = :value WHERE \"key\" = :key";
-    } else {
-      sql =
-          "/* insertAdminSetting */ INSERT INTO \"adminSettings\" (\"key\", value) VALUES (:key, :value)";
-    }
-    cachedSettings.put(setting.getKey(), setting.getValue());
-    return getDbHandle().createUpdate(sql).bind("key", setting.getKey())
-        .bind("value", setting.getValue()).execute();
+    final int numRows = upsert(setting.getKey(), setting.getValue());
+    final String version = UUID.randomUUID().toString();
+    upsert(VERSION_KEY, version);
+    // Other servers will pick up the change through the new version; this one reloads right away,
+    // but only once the change has been committed, or it could reload the old settings
+    TransactionCallbacks.afterCommit(getDbHandle(), this::invalidate);
+    return numRows;
   }
 
+  private int upsert(String key, String value) {
+    final int numRows = getDbHandle()
+        .createUpdate(
+            "/* updateAdminSetting */ UPDATE \"adminSettings\" SET value = :value WHERE \"key\" = :key")
+        .bind("key", key).bind("value", value).execute();
+    if (numRows > 0) {
+      return numRows;
+    }
+    return getDbHandle().createUpdate(
+        "/* insertAdminSetting */ INSERT INTO \"adminSettings\" (\"key\", value) VALUES (:key, :value)")
+        .bind("key", key).bind("value", value).execute();
+  }
 
 }
@@ -0,0 +1,113 @@
+package mil.dds.anet.database;
+
+import java.util.Objects;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response.Status;
+import org.jdbi.v3.core.Handle;
+
+/**
+ * A closure table of a hierarchy, e.g. <code>organizationAncestors</code> for the organizations
+ * and their <code>parentOrgUuid</code>. It holds a row for each element and each of its ancestors,
+ * including the element itself at distance 0; so all descendants of an element can be found with
+ * a plain join on <code>ancestorUuid</code> instead of a recursive query.
+ *
+ * <p>
+ * The rows are maintained here when an element is inserted or moved to another parent. A move
+ * that would make an element its own ancestor is refused, so that the transaction making it is
+ * rolled back.
+ */
+public class AncestorsTable {
+
+  public static final AncestorsTable ORGANIZATIONS =
+      new AncestorsTable("organizationAncestors", "organizationUuid");
+  public static final AncestorsTable TASKS = new AncestorsTable("taskAncestors", "taskUuid");
+
+  private final String insertSelf;
+  private final String insertAncestors;
+  private final String getParent;
+  private final String isUnder;
+  private final String deleteAncestors;
+  private final String insertSubtreeAncestors;
+
+  public AncestorsTable(String tableName, String columnName) {
+    final String table = "\"" + tableName + "\"";
+    final String column = "\"" + columnName + "\"";
+    insertSelf = "/* insert." + tableName + " */ INSERT INTO " + table + " (" + column
+        + ", \"ancestorUuid\", distance) VALUES (:uuid, :uuid, 0)";
+    insertAncestors = "/* insertAncestors." + tableName + " */ INSERT INTO " + table + " (" + column
+        + ", \"ancestorUuid\", distance) SELECT :uuid, \"ancestorUuid\", distance + 1 FROM "
+        + table + " WHERE " + column + " = :parentUuid";
+    getParent = "/* getParent." + tableName + " */ SELECT \"ancestorUuid\" FROM " + table
+        + " WHERE " + column + " = :uuid AND distance = 1";
+    isUnder = "/* isUnder." + tableName + " */ SELECT 1 FROM " + table + " WHERE " + column
+        + " = :uuid AND \"ancestorUuid\" = :ancestorUuid";
+    // Remove the ancestors of the element and its descendants from outside of the subtree
+    final String subtree =
+        "SELECT " + column + " FROM " + table + " WHERE \"ancestorUuid\" = :uuid";
+    deleteAncestors = "/* deleteAncestors." + tableName + " */ DELETE FROM " + table + " WHERE "
+        + column + " IN ( " + subtree + " ) AND \"ancestorUuid\" NOT IN ( " + subtree + " )";
+    // Give every element of the subtree the ancestors of the new parent
+    insertSubtreeAncestors = "/* insertSubtreeAncestors." + tableName + " */ INSERT INTO " + table
+        + " (" + column + ", \"ancestorUuid\", distance) SELECT sub." + column
+        + ", sup.\"ancestorUuid\", sub.distance + sup.distance + 1 FROM " + table + " sub, "
+        + table + " sup WHERE sub.\"ancestorUuid\" = :uuid AND sup." + column + " = :parentUuid";
+  }
+
+  /**
+   * Add the rows for a newly inserted element.
+   *
+   * @param handle the database handle
+   * @param uuid the uuid of the element
+   * @param parentUuid the uuid of its parent; may be null
+   */
+  public void insert(Handle handle, String uuid, String parentUuid) {
+    handle.createUpdate(insertSelf).bind("uuid", uuid).execute();
+    if (parentUuid != null) {
+      handle.createUpdate(insertAncestors).bind("uuid", uuid).bind("parentUuid", parentUuid)
+          .execute();
+    }
+  }
+
+  /**
+   * Check whether an element is (under) another one, i.e. whether it is that element or one of its
+   * descendants.
+   *
+   * @param handle the database handle
+   * @param uuid the uuid of the element
+   * @param ancestorUuid the uuid of the possible ancestor
+   * @return true if the element is under the ancestor
+   */
+  public boolean isUnder(Handle handle, String uuid, String ancestorUuid) {
+    if (uuid == null || ancestorUuid == null) {
+      return false;
+    }
+    return handle.createQuery(isUnder).bind("uuid", uuid).bind("ancestorUuid", ancestorUuid)
+        .mapTo(Integer.class).findFirst().isPresent();
+  }
+
+  /**
+   * Update the rows for an element that may have been moved to another parent; nothing is done
+   * when the parent did not change.
+   *
+   * @param handle the database handle
+   * @param uuid the uuid of the element
+   * @param parentUuid the uuid of its new parent; may be null
+   * @throws WebApplicationException if the new parent is the element itself or one of its
+   *         descendants
+   */
+  public void update(Handle handle, String uuid, String parentUuid) {
+    final String currentParentUuid = handle.createQuery(getParent).bind("uuid", uuid)
+        .mapTo(String.class).findFirst().orElse(null);
+    if (Objects.equals(currentParentUuid, parentUuid)) {
+      return;
+    }
+    if (isUnder(handle, parentUuid, uuid)) {
+      throw new WebApplicationException("The new parent would create a loop", Status.BAD_REQUEST);
+    }
+    handle.createUpdate(deleteAncestors).bind("uuid", uuid).execute();
+    if (parentUuid != null) {
+      handle.createUpdate(insertSubtreeAncestors).bind("uuid", uuid)
+          .bind("parentUuid", parentUuid).execute();
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package mil.dds.anet.database;
 
+import java.util.HashMap;
+import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import mil.dds.anet.AnetObjectEngine;
+import mil.dds.anet.beans.lists.AnetBeanList;
+import mil.dds.anet.beans.search.ISearchQuery.SortOrder;
 import mil.dds.anet.utils.DaoUtils;
 import mil.dds.anet.utils.DaoUtils.DbType;
+import mil.dds.anet.utils.PageCursor;
 import mil.dds.anet.views.AbstractAnetBean;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.statement.Query;
@@ -23,6 +28,9 @@ public abstract class AnetBaseDao<T extends AbstractAnetBean> implements IAnetDa
   private String getAllSql;
   private String countAllSql;
 
+  private static final String GET_ALL_SORT_KEY =
+      PageCursor.getSortKey("CREATED_AT", SortOrder.ASC);
+
   public AnetBaseDao(String entityTag, String tableName, String fieldList, String orderBy) {
     this.entityTag = entityTag;
     this.tableName = tableName;
@@ -57,6 +65,31 @@ public abstract class AnetBaseDao<T extends AbstractAnetBean> implements IAnetDa
         pageSize * pageNum);
   }
 
+  /**
+   * Like {@link #getPagedQuery(int, int)}, but when a cursor is given, continue after it instead of
+   * at the page number. The rows are sorted by createdAt, then by uuid.
+   *
+   * @param cursor the cursor, as returned by {@link #setNextCursor(AnetBeanList, int)}; may be
+   *        null
+   */
+  protected Query getPagedQuery(int pageNum, int pageSize, String cursor) {
+    final PageCursor pageCursor = PageCursor.decode(cursor, GET_ALL_SORT_KEY);
+    if (pageCursor == null) {
+      return getPagedQuery(pageNum, pageSize);
+    }
+    final Map<String, Object> args = new HashMap<>();
+    final String seekClause = pageCursor.getSeekClause(getDbType(),
+        (orderBy == null) ? "\"createdAt\"" : orderBy, SortOrder.ASC, tableName + ".uuid", args);
+    final String sql = DaoUtils.buildPagedGetAllSql(getDbType(), entityTag, tableName, fieldList,
+        orderBy, seekClause);
+    return getDbHandle().createQuery(sql).bindMap(args).bind("limit", pageSize).bind("offset", 0);
+  }
+
+  protected void setNextCursor(AnetBeanList<T> results, int pageSize) {
+    results.setNextCursor(PageCursor.getNextCursor(results.getList(), pageSize, GET_ALL_SORT_KEY,
+        AbstractAnetBean::getCreatedAt));
+  }
+
   protected Long getSqliteRowCount() {
     if (getDbType() == DbType.SQLITE) {
       return getDbHandle().createQuery(getCountAllSql()).mapTo(Long.class).findFirst().orElse(null);
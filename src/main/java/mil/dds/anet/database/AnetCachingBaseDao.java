@@ -0,0 +1,72 @@
+package mil.dds.anet.database;
+
+import com.codahale.metrics.MetricRegistry;
+import java.util.List;
+import mil.dds.anet.config.AnetConfiguration.EntityCacheConfiguration;
+import mil.dds.anet.views.AbstractAnetBean;
+import ru.vyarus.guicey.jdbi3.tx.InTransaction;
+
+/**
+ * Base class for DAOs of rarely changing reference data, whose beans can be cached across requests
+ * in an {@link EntityCache}.
+ */
+@InTransaction
+public abstract class AnetCachingBaseDao<T extends AbstractAnetBean> extends AnetBaseDao<T> {
+
+  private EntityCache<T> entityCache;
+
+  public AnetCachingBaseDao(String entityTag, String tableName, String fieldList,
+      String orderBy) {
+    super(entityTag, tableName, fieldList, orderBy);
+  }
+
+  /**
+   * Enable a cache, shared across requests, for {@link #getByIdsCached(List)}.
+   *
+   * @param name the name of the cache, used for its metrics
+   * @param config the cache configuration
+   * @param metricRegistry the registry for the cache metrics
+   */
+  public void enableEntityCache(String name, EntityCacheConfiguration config,
+      MetricRegistry metricRegistry) {
+    entityCache = new EntityCache<>(name, config, metricRegistry, this::copyForCache);
+  }
+
+  public EntityCache<T> getEntityCache() {
+    return entityCache;
+  }
+
+  /**
+   * Like {@link #getByIds(List)}, but served from the entity cache when that has been enabled.
+   */
+  public List<T> getByIdsCached(List<String> uuids) {
+    return (entityCache == null) ? getByIds(uuids) : entityCache.getByIds(uuids, this::getByIds);
+  }
+
+  /**
+   * Copy the fields of a bean that are loaded from its own table; the cache only ever hands out
+   * such copies.
+   */
+  protected abstract T copyForCache(T obj);
+
+  /**
+   * Drop a bean from the entity cache, now and again when the current transaction ends; until then
+   * other requests may still load and cache the previous row.
+   */
+  protected void invalidateEntityCache(String uuid) {
+    if (entityCache != null) {
+      entityCache.invalidate(uuid);
+      TransactionCallbacks.afterCompletion(getDbHandle(), () -> entityCache.invalidate(uuid));
+    }
+  }
+
+  /**
+   * Like {@link #invalidateEntityCache(String)}, but for all beans.
+   */
+  protected void invalidateEntityCache() {
+    if (entityCache != null) {
+      entityCache.invalidateAll();
+      TransactionCallbacks.afterCompletion(getDbHandle(), entityCache::invalidateAll);
+    }
+  }
+}
@@ -12,12 +12,13 @@ import mil.dds.anet.beans.Position;
 import mil.dds.anet.beans.lists.AnetBeanList;
 import mil.dds.anet.database.mappers.ApprovalStepMapper;
 import mil.dds.anet.database.mappers.PositionMapper;
+import mil.dds.anet.utils.DaoUtils;
 import mil.dds.anet.views.ForeignKeyFetcher;
 import org.jdbi.v3.core.mapper.MapMapper;
 import ru.vyarus.guicey.jdbi3.tx.InTransaction;
 
 @InTransaction
-public class ApprovalStepDao extends AnetBaseDao<ApprovalStep> {
+public class ApprovalStepDao extends AnetCachingBaseDao<ApprovalStep> {
 
   public ApprovalStepDao() {
     super("ApprovalSteps", "approvalSteps", "*", null);
@@ -54,6 +55,15 @@ public class ApprovalStepDao extends AnetBaseDao<ApprovalStep> {
     return idBatcher.getByIds(uuids);
   }
 
+  @Override
+  protected ApprovalStep copyForCache(ApprovalStep as) {
+    final ApprovalStep copy = DaoUtils.copyCommonBeanFields(new ApprovalStep(), as);
+    copy.setNextStepUuid(as.getNextStepUuid());
+    copy.setAdvisorOrganizationUuid(as.getAdvisorOrganizationUuid());
+    copy.setName(as.getName());
+    return copy;
+  }
+
   static class PositionsBatcher extends ForeignKeyBatcher<Position> {
     private static final String sql =
         "/* batch.getApproversForStep */ SELECT \"approvalStepUuid\", "
@@ -105,6 +115,7 @@ public class ApprovalStepDao extends AnetBaseDao<ApprovalStep> {
       }
     }
 
+    invalidateEntityCache(as.getUuid());
     return as;
   }
 
@@ -120,6 +131,8 @@ public class ApprovalStepDao extends AnetBaseDao<ApprovalStep> {
             + "WHERE \"advisorOrganizationUuid\" = :advisorOrganizationUuid "
             + "AND \"nextStepUuid\" IS NULL AND uuid != :uuid")
         .bindBean(as).execute();
+    // The previous last step of the chain now links to this one
+    invalidateEntityCache();
     return as;
   }
 
@@ -129,6 +142,7 @@ public class ApprovalStepDao extends AnetBaseDao<ApprovalStep> {
    */
   @Override
   public int updateInternal(ApprovalStep as) {
+    invalidateEntityCache(as.getUuid());
     return getDbHandle()
         .createUpdate("/* updateApprovalStep */ UPDATE \"approvalSteps\" SET name = :name, "
             + "\"nextStepUuid\" = :nextStepUuid, \"advisorOrganizationUuid\" = :advisorOrganizationUuid "
@@ -168,6 +182,8 @@ public class ApprovalStepDao extends AnetBaseDao<ApprovalStep> {
 
     getDbHandle()
         .execute("/* deleteApproval.delete2 */ DELETE FROM \"approvalSteps\" where uuid = ?", uuid);
+    // The chain has been patched up, so other steps may have changed as well
+    invalidateEntityCache();
     return true;
   }
 
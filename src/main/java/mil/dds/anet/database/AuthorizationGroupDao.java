@@ -24,7 +24,7 @@ import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import ru.vyarus.guicey.jdbi3.tx.InTransaction;
 
 @InTransaction
-public class AuthorizationGroupDao extends AnetBaseDao<AuthorizationGroup> {
+public class AuthorizationGroupDao extends AnetCachingBaseDao<AuthorizationGroup> {
 
   public AuthorizationGroupDao() {
     super("ApprovalSteps", "approvalSteps", "*", null);
@@ -80,6 +80,15 @@ public class AuthorizationGroupDao extends AnetBaseDao<AuthorizationGroup> {
     }
   }
 
+  @Override
+  protected AuthorizationGroup copyForCache(AuthorizationGroup a) {
+    final AuthorizationGroup copy = DaoUtils.copyCommonBeanFields(new AuthorizationGroup(), a);
+    copy.setName(a.getName());
+    copy.setDescription(a.getDescription());
+    copy.setStatus(a.getStatus());
+    return copy;
+  }
+
   public List<List<Position>> getPositions(List<String> foreignKeys) {
     final ForeignKeyBatcher<Position> positionsBatcher =
         AnetObjectEngine.getInstance().getInjector().getInstance(PositionsBatcher.class);
@@ -99,6 +108,7 @@ public class AuthorizationGroupDao extends AnetBaseDao<AuthorizationGroup> {
     if (a.getPositions() != null) {
       ab.insertAuthorizationGroupPositions(a.getUuid(), a.getPositions());
     }
+    invalidateEntityCache(a.getUuid());
     return a;
   }
 
@@ -111,6 +121,7 @@ public class AuthorizationGroupDao extends AnetBaseDao<AuthorizationGroup> {
 
   @Override
   public int updateInternal(AuthorizationGroup a) {
+    invalidateEntityCache(a.getUuid());
     return getDbHandle()
         .createUpdate("/* updateAuthorizationGroup */ UPDATE \"authorizationGroups\" "
             + "SET name = :name, description = :description, \"updatedAt\" = :updatedAt, status = :status  WHERE uuid = :uuid")
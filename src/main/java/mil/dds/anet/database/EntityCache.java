@@ -0,0 +1,90 @@
+package mil.dds.anet.database;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import mil.dds.anet.config.AnetConfiguration.EntityCacheConfiguration;
+import mil.dds.anet.views.AbstractAnetBean;
+
+/**
+ * A bounded cache of beans by uuid, shared across requests. Beans are lazily filled in by their
+ * GraphQL resolvers, so the cache only ever hands out copies, never the cached instances.
+ */
+public class EntityCache<T extends AbstractAnetBean> {
+
+  private final Cache<String, T> cache;
+  private final UnaryOperator<T> copier;
+
+  public EntityCache(String name, EntityCacheConfiguration config, MetricRegistry metricRegistry,
+      UnaryOperator<T> copier) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(config.getMaximumSize())
+        .expireAfterWrite(config.getExpireAfterWrite().toMilliseconds(), TimeUnit.MILLISECONDS)
+        .recordStats().build();
+    this.copier = copier;
+    if (metricRegistry != null) {
+      metricRegistry.register(MetricRegistry.name(name, "EntityCacheHitCount"),
+          (Gauge<Long>) () -> cache.stats().hitCount());
+      metricRegistry.register(MetricRegistry.name(name, "EntityCacheMissCount"),
+          (Gauge<Long>) () -> cache.stats().missCount());
+      metricRegistry.register(MetricRegistry.name(name, "EntityCacheHitRatio"),
+          (Gauge<Double>) () -> cache.stats().hitRate());
+      metricRegistry.register(MetricRegistry.name(name, "EntityCacheSize"),
+          (Gauge<Long>) () -> cache.size());
+    }
+  }
+
+  /**
+   * Get the beans with the given uuids, loading only the ones not in the cache.
+   *
+   * @param uuids the uuids to get
+   * @param loader loads the beans for the given uuids, in the same order (like
+   *        {@link IAnetDao#getByIds(List)})
+   * @return the beans in the same order as the uuids, null when not found
+   */
+  public List<T> getByIds(List<String> uuids, Function<List<String>, List<T>> loader) {
+    final Map<String, T> found = new HashMap<>();
+    final List<String> missing = new ArrayList<>();
+    for (final String uuid : uuids) {
+      final T cached = cache.getIfPresent(uuid);
+      if (cached == null) {
+        missing.add(uuid);
+      } else {
+        found.put(uuid, copier.apply(cached));
+      }
+    }
+    if (!missing.isEmpty()) {
+      final List<T> loaded = loader.apply(missing);
+      for (int i = 0; i < missing.size(); i++) {
+        final T obj = loaded.get(i);
+        if (obj != null) {
+          cache.put(missing.get(i), copier.apply(obj));
+          found.put(missing.get(i), obj);
+        }
+      }
+    }
+    return uuids.stream().map(uuid -> found.get(uuid)).collect(Collectors.toList());
+  }
+
+  public void invalidate(String uuid) {
+    if (uuid != null) {
+      cache.invalidate(uuid);
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+}
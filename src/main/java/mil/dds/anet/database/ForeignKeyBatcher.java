@@ -1,11 +1,9 @@
 package mil.dds.anet.database;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import mil.dds.anet.database.mappers.ForeignKeyMapper;
@@ -13,14 +11,11 @@ import mil.dds.anet.database.mappers.ForeignKeyTuple;
 import mil.dds.anet.views.AbstractAnetBean;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.mapper.RowMapper;
-import org.jdbi.v3.core.result.ResultIterable;
 import ru.vyarus.guicey.jdbi3.tx.InTransaction;
 
 @InTransaction
 public class ForeignKeyBatcher<T extends AbstractAnetBean> {
 
-  private static final List<String> defaultIfEmpty = Arrays.asList("-1");
-
   @Inject
   private Provider<Handle> handle;
   private final String sql;
@@ -39,17 +34,24 @@ public class ForeignKeyBatcher<T extends AbstractAnetBean> {
   }
 
   public List<List<T>> getByForeignKeys(List<String> foreignKeys) {
-    final List<String> args = foreignKeys.isEmpty() ? defaultIfEmpty : foreignKeys;
-    final ResultIterable<ForeignKeyTuple<T>> query =
-        getDbHandle().createQuery(sql).bindList(paramName, args).map(mapper);
-    final Map<String, List<T>> map = query.collect(Collectors.toMap(obj -> obj.getForeignKey(), // key
-        obj -> new ArrayList<>(Collections.singletonList(obj.getObject())), // value
-        (obj1, obj2) -> {
-          obj1.addAll(obj2);
-          return obj1;
-        })); // collect results with the same key in one list
-    return foreignKeys.stream().map(foreignKey -> map.get(foreignKey))
-        .map(l -> (l == null) ? new ArrayList<T>() : l) // when null, use an empty list
-        .collect(Collectors.toList());
+    final List<ForeignKeyTuple<T>> results =
+        KeyListQuery.query(getDbHandle(), sql, paramName, foreignKeys, mapper);
+    // Collect results with the same key in one list
+    final Map<String, List<T>> map = new HashMap<>(foreignKeys.size() * 4 / 3 + 1);
+    for (final ForeignKeyTuple<T> obj : results) {
+      List<T> l = map.get(obj.getForeignKey());
+      if (l == null) {
+        l = new ArrayList<>();
+        map.put(obj.getForeignKey(), l);
+      }
+      l.add(obj.getObject());
+    }
+    final List<List<T>> list = new ArrayList<>(foreignKeys.size());
+    for (final String foreignKey : foreignKeys) {
+      final List<T> l = map.get(foreignKey);
+      // when null, use an empty list
+      list.add((l == null) ? new ArrayList<T>() : l);
+    }
+    return list;
   }
 }
@@ -1,22 +1,19 @@
 package mil.dds.anet.database;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import mil.dds.anet.views.AbstractAnetBean;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.mapper.RowMapper;
-import org.jdbi.v3.core.result.ResultIterable;
 import ru.vyarus.guicey.jdbi3.tx.InTransaction;
 
 @InTransaction
 public class IdBatcher<T extends AbstractAnetBean> {
 
-  private static final List<String> defaultIfEmpty = Arrays.asList("-1");
-
   @Inject
   private Provider<Handle> handle;
   private final String sql;
@@ -34,11 +31,15 @@ public class IdBatcher<T extends AbstractAnetBean> {
   }
 
   public List<T> getByIds(List<String> uuids) {
-    final List<String> args = uuids.isEmpty() ? defaultIfEmpty : uuids;
-    final ResultIterable<T> query =
-        getDbHandle().createQuery(sql).bindList(paramName, args).map(mapper);
-    final Map<String, T> map = query.collect(Collectors.toMap(obj -> obj.getUuid(), // key
-        obj -> obj)); // value
-    return uuids.stream().map(uuid -> map.get(uuid)).collect(Collectors.toList());
+    final List<T> results = KeyListQuery.query(getDbHandle(), sql, paramName, uuids, mapper);
+    final Map<String, T> map = new HashMap<>(results.size() * 4 / 3 + 1);
+    for (final T obj : results) {
+      map.put(obj.getUuid(), obj);
+    }
+    final List<T> list = new ArrayList<>(uuids.size());
+    for (final String uuid : uuids) {
+      list.add(map.get(uuid));
+    }
+    return list;
   }
 }
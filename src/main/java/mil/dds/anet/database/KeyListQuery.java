@@ -0,0 +1,138 @@
+package mil.dds.anet.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import mil.dds.anet.AnetObjectEngine;
+import mil.dds.anet.config.AnetConfiguration.BatchingConfiguration;
+import mil.dds.anet.utils.DaoUtils;
+import mil.dds.anet.utils.DaoUtils.DbType;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.PreparedBatch;
+import org.json.JSONArray;
+
+/**
+ * Runs a batch query selecting rows by a list of keys, through
+ * <code>IN ( &lt;paramName&gt; )</code> in its SQL. Binding every key as a separate parameter
+ * makes each distinct list size a new statement for the database to plan, and runs into the
+ * parameter limit of SQL Server (2100) for large lists. So the keys are split into chunks of a few
+ * fixed sizes instead, the last chunk padded by repeating its last key. Above a threshold, all keys
+ * are passed as a single set: through a temporary table on SQL Server, an array on PostgreSQL and a
+ * JSON array on SQLite.
+ */
+public class KeyListQuery {
+
+  private static final String TEMP_TABLE = "#batchKeys";
+
+  private KeyListQuery() {}
+
+  /**
+   * Run the query for all keys.
+   *
+   * @param handle the database handle
+   * @param sql the query
+   * @param paramName the name of the list parameter
+   * @param keys the keys, may contain duplicates
+   * @param mapper the mapper for the rows
+   * @return the rows for all keys, in no particular order
+   */
+  public static <R> List<R> query(Handle handle, String sql, String paramName, List<String> keys,
+      RowMapper<R> mapper) {
+    if (keys.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final AnetObjectEngine engine = AnetObjectEngine.getInstance();
+    final BatchingConfiguration config = engine.getBatchingConfig();
+    // Keys in more than one chunk would return their rows more than once
+    final List<String> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+    final Integer setBasedThreshold = config.getSetBasedThreshold();
+    if (setBasedThreshold != null && distinctKeys.size() > setBasedThreshold) {
+      return querySet(handle, DaoUtils.getDbType(engine.getDbUrl()), sql, paramName, distinctKeys,
+          mapper);
+    }
+    final List<R> results = new ArrayList<>();
+    for (final List<String> chunk : getChunks(distinctKeys, config.getChunkSizes())) {
+      results.addAll(handle.createQuery(sql).bindList(paramName, chunk).map(mapper).list());
+    }
+    return results;
+  }
+
+  /**
+   * Split the keys into chunks. Each chunk has one of the chunk sizes: all but the last have the
+   * largest size, and the last one is padded to the smallest size it fits in.
+   *
+   * @param keys the (distinct) keys
+   * @param chunkSizes the chunk sizes
+   * @return the chunks
+   * @throws IllegalArgumentException if the chunk sizes are not valid
+   */
+  public static List<List<String>> getChunks(List<String> keys, List<Integer> chunkSizes) {
+    checkChunkSizes(chunkSizes);
+    final List<Integer> sizes = chunkSizes.stream().sorted().collect(Collectors.toList());
+    final int maxChunkSize = sizes.get(sizes.size() - 1);
+    final List<List<String>> chunks = new ArrayList<>();
+    for (int start = 0; start < keys.size(); start += maxChunkSize) {
+      final List<String> chunk =
+          new ArrayList<>(keys.subList(start, Math.min(start + maxChunkSize, keys.size())));
+      final int chunkSize = sizes.stream().filter(size -> size >= chunk.size()).findFirst().get();
+      final String padding = chunk.get(chunk.size() - 1);
+      while (chunk.size() < chunkSize) {
+        chunk.add(padding);
+      }
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+  /**
+   * Check that there is at least one chunk size, and that all are positive.
+   *
+   * @param chunkSizes the chunk sizes
+   * @throws IllegalArgumentException if the chunk sizes are not valid
+   */
+  public static void checkChunkSizes(List<Integer> chunkSizes) {
+    if (chunkSizes == null || chunkSizes.isEmpty()) {
+      throw new IllegalArgumentException("At least one chunk size is needed");
+    }
+    for (final Integer chunkSize : chunkSizes) {
+      if (chunkSize == null || chunkSize < 1) {
+        throw new IllegalArgumentException("Invalid chunk size " + chunkSize);
+      }
+    }
+  }
+
+  private static <R> List<R> querySet(Handle handle, DbType dbType, String sql, String paramName,
+      List<String> keys, RowMapper<R> mapper) {
+    final String listParam = "<" + paramName + ">";
+    switch (dbType) {
+      case POSTGRESQL:
+        return handle.createQuery(sql.replace(listParam, "SELECT unnest(:" + paramName + ")"))
+            .bind(paramName, keys.toArray(new String[keys.size()])).map(mapper).list();
+      case SQLITE:
+        return handle
+            .createQuery(sql.replace(listParam, "SELECT value FROM json_each(:" + paramName + ")"))
+            .bind(paramName, new JSONArray(keys).toString()).map(mapper).list();
+      case MSSQL:
+      default:
+        // The handle is bound to the current transaction, so the temporary table lives on the same
+        // connection until it is dropped
+        handle.execute("CREATE TABLE " + TEMP_TABLE
+            + " (batchKey varchar(255) COLLATE DATABASE_DEFAULT NOT NULL)");
+        try {
+          final PreparedBatch batch =
+              handle.prepareBatch("INSERT INTO " + TEMP_TABLE + " (batchKey) VALUES (:batchKey)");
+          for (final String key : keys) {
+            batch.bind("batchKey", key).add();
+          }
+          batch.execute();
+          return handle.createQuery(sql.replace(listParam, "SELECT batchKey FROM " + TEMP_TABLE))
+              .map(mapper).list();
+        } finally {
+          handle.execute("DROP TABLE " + TEMP_TABLE);
+        }
+    }
+  }
+}
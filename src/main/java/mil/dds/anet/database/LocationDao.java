@@ -13,7 +13,14 @@ import org.jdbi.v3.core.statement.Query;
 import ru.vyarus.guicey.jdbi3.tx.InTransaction;
 
 @InTransaction
-public class LocationDao extends AnetBaseDao<Location> {
+public class LocationDao extends AnetCachingBaseDao<Location> {
+
+  private static final String[] fields =
+      {"uuid", "name", "status", "lat", "lng", "createdAt", "updatedAt"};
+
+  public static String getLocationFields(String tableAlias) {
+    return DaoUtils.buildFieldAliases(tableAlias, fields, true);
+  }
 
   public LocationDao() {
     super("Locations", "locations", "*", null);
@@ -55,6 +62,16 @@ public class LocationDao extends AnetBaseDao<Location> {
     return idBatcher.getByIds(uuids);
   }
 
+  @Override
+  protected Location copyForCache(Location l) {
+    final Location copy = DaoUtils.copyCommonBeanFields(new Location(), l);
+    copy.setName(l.getName());
+    copy.setStatus(l.getStatus());
+    copy.setLat(l.getLat());
+    copy.setLng(l.getLng());
+    return copy;
+  }
+
   @Override
   public Location insertInternal(Location l) {
     getDbHandle().createUpdate(
@@ -63,11 +80,13 @@ public class LocationDao extends AnetBaseDao<Location> {
         .bindBean(l).bind("createdAt", DaoUtils.asLocalDateTime(l.getCreatedAt()))
         .bind("updatedAt", DaoUtils.asLocalDateTime(l.getUpdatedAt()))
         .bind("status", DaoUtils.getEnumId(l.getStatus())).execute();
+    invalidateEntityCache(l.getUuid());
     return l;
   }
 
   @Override
   public int updateInternal(Location l) {
+    invalidateEntityCache(l.getUuid());
     return getDbHandle().createUpdate("/* updateLocation */ UPDATE locations "
         + "SET name = :name, status = :status, lat = :lat, lng = :lng, \"updatedAt\" = :updatedAt WHERE uuid = :uuid")
         .bindBean(l).bind("updatedAt", DaoUtils.asLocalDateTime(l.getUpdatedAt()))
@@ -11,6 +11,7 @@ import mil.dds.anet.beans.Organization.OrganizationStatus;
 import mil.dds.anet.beans.Organization.OrganizationType;
 import mil.dds.anet.beans.lists.AnetBeanList;
 import mil.dds.anet.beans.search.OrganizationSearchQuery;
+import mil.dds.anet.database.mappers.MapperUtils;
 import mil.dds.anet.database.mappers.OrganizationMapper;
 import mil.dds.anet.utils.DaoUtils;
 import mil.dds.anet.utils.Utils;
@@ -22,22 +23,32 @@ import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import ru.vyarus.guicey.jdbi3.tx.InTransaction;
 
 @InTransaction
-public class OrganizationDao extends AnetBaseDao<Organization> {
+public class OrganizationDao extends AnetCachingBaseDao<Organization> {
 
   private static String[] fields = {"uuid", "shortName", "longName", "status", "identificationCode",
       "type", "createdAt", "updatedAt", "parentOrgUuid"};
   private static String tableName = "organizations";
   public static String ORGANIZATION_FIELDS = DaoUtils.buildFieldAliases(tableName, fields, true);
 
+  public static String getOrganizationFields(String tableAlias) {
+    return DaoUtils.buildFieldAliases(tableAlias, fields, true);
+  }
+
   public OrganizationDao() {
     super("Organizations", tableName, ORGANIZATION_FIELDS, null);
   }
 
   public AnetBeanList<Organization> getAll(int pageNum, int pageSize) {
-    final Query query = getPagedQuery(pageNum, pageSize);
-    Long manualRowCount = getSqliteRowCount();
-    return new AnetBeanList<Organization>(query, pageNum, pageSize, new OrganizationMapper(),
-        manualRowCount);
+    return getAll(pageNum, pageSize, null);
+  }
+
+  public AnetBeanList<Organization> getAll(int pageNum, int pageSize, String cursor) {
+    final Query query = getPagedQuery(pageNum, pageSize, cursor);
+    final Long manualRowCount = getSqliteRowCount();
+    final AnetBeanList<Organization> results =
+        new AnetBeanList<Organization>(query, pageNum, pageSize, new OrganizationMapper(), manualRowCount);
+    setNextCursor(results, pageSize);
+    return results;
   }
 
   public Organization getByUuid(String uuid) {
@@ -60,6 +71,18 @@ public class OrganizationDao extends AnetBaseDao<Organization> {
     return idBatcher.getByIds(uuids);
   }
 
+  @Override
+  protected Organization copyForCache(Organization org) {
+    final Organization copy = DaoUtils.copyCommonBeanFields(new Organization(), org);
+    copy.setShortName(org.getShortName());
+    copy.setLongName(org.getLongName());
+    copy.setStatus(org.getStatus());
+    copy.setIdentificationCode(org.getIdentificationCode());
+    copy.setType(org.getType());
+    copy.setParentOrgUuid(org.getParentOrgUuid());
+    return copy;
+  }
+
   static class OrganizationsBatcher extends ForeignKeyBatcher<Organization> {
     private static final String sql =
         "/* batch.getOrganizationForPerson */ SELECT positions.\"currentPersonUuid\" AS \"personUuid\", "
@@ -90,6 +113,31 @@ public class OrganizationDao extends AnetBaseDao<Organization> {
         .bind("type", DaoUtils.getEnumId(type)).map(new OrganizationMapper()).list();
   }
 
+  /**
+   * Load the uuid, parent and type of all organizations, for the {@link OrganizationHierarchy}.
+   */
+  public List<Organization> getHierarchyEntries() {
+    return getDbHandle()
+        .createQuery("/* getOrganizationHierarchy */ SELECT uuid, \"parentOrgUuid\", type "
+            + "FROM organizations")
+        .map((rs, ctx) -> {
+          final Organization org = new Organization();
+          org.setUuid(rs.getString(1));
+          org.setParentOrgUuid(rs.getString(2));
+          org.setType(MapperUtils.getEnumIdx(rs, 3, OrganizationType.class));
+          return org;
+        }).list();
+  }
+
+  /**
+   * Check whether an organization is (under) another one, i.e. whether it is that organization or
+   * one of its descendants. Unlike {@link OrganizationHierarchy#isUnder}, this is answered from the
+   * database, so it is never out of date.
+   */
+  public boolean isUnder(String uuid, String ancestorUuid) {
+    return AncestorsTable.ORGANIZATIONS.isUnder(getDbHandle(), uuid, ancestorUuid);
+  }
+
   public interface OrgListQueries {
     @RegisterRowMapper(OrganizationMapper.class)
     @SqlQuery("SELECT uuid AS organizations_uuid" + ", uuid AS uuid"
@@ -120,18 +168,38 @@ public class OrganizationDao extends AnetBaseDao<Organization> {
         .bind("status", DaoUtils.getEnumId(org.getStatus()))
         .bind("type", DaoUtils.getEnumId(org.getType()))
         .bind("parentOrgUuid", DaoUtils.getUuid(org.getParentOrg())).execute();
+    AncestorsTable.ORGANIZATIONS.insert(getDbHandle(), org.getUuid(),
+        DaoUtils.getUuid(org.getParentOrg()));
+    updateHierarchy(org);
+    invalidateEntityCache(org.getUuid());
     return org;
   }
 
   @Override
   public int updateInternal(Organization org) {
-    return getDbHandle().createUpdate("/* updateOrg */ UPDATE organizations "
+    invalidateEntityCache(org.getUuid());
+    final int numRows = getDbHandle().createUpdate("/* updateOrg */ UPDATE organizations "
         + "SET \"shortName\" = :shortName, \"longName\" = :longName, status = :status, \"identificationCode\" = :identificationCode, type = :type, "
         + "\"updatedAt\" = :updatedAt, \"parentOrgUuid\" = :parentOrgUuid where uuid = :uuid")
         .bindBean(org).bind("updatedAt", DaoUtils.asLocalDateTime(org.getUpdatedAt()))
         .bind("status", DaoUtils.getEnumId(org.getStatus()))
         .bind("type", DaoUtils.getEnumId(org.getType()))
         .bind("parentOrgUuid", DaoUtils.getUuid(org.getParentOrg())).execute();
+    if (numRows > 0) {
+      AncestorsTable.ORGANIZATIONS.update(getDbHandle(), org.getUuid(),
+          DaoUtils.getUuid(org.getParentOrg()));
+      updateHierarchy(org);
+    }
+    return numRows;
+  }
+
+  private void updateHierarchy(Organization org) {
+    final String uuid = org.getUuid();
+    final String parentUuid = DaoUtils.getUuid(org.getParentOrg());
+    final OrganizationType type = org.getType();
+    // Only once committed, so a rolled back change is never applied
+    TransactionCallbacks.afterCommit(getDbHandle(), () -> AnetObjectEngine.getInstance()
+        .getOrganizationHierarchy().update(uuid, parentUuid, type));
   }
 
   @Override
@@ -0,0 +1,373 @@
+package mil.dds.anet.database;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import mil.dds.anet.beans.Organization;
+import mil.dds.anet.beans.Organization.OrganizationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The organization hierarchy, held in memory so that ancestor, descendant and top-level questions
+ * do not need a query per level. The tree is kept as compact arrays (the parent index of each
+ * organization, and its children as ranges of one shared array) in an immutable snapshot that is
+ * swapped as a whole; reads never lock.
+ *
+ * <p>
+ * Writes through {@link OrganizationDao} update the snapshot once they have been committed. The
+ * snapshot is also reloaded from the database at most once per refresh interval, to pick up changes
+ * made by other ANET servers; so it may be out of date, and authorization checks should use
+ * {@link OrganizationDao#isUnder} instead.
+ */
+public class OrganizationHierarchy {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int NONE = -1;
+
+  // Loads all organizations; only their uuid, parentOrgUuid and type are used
+  private final Supplier<List<Organization>> loader;
+  private volatile long refreshIntervalNanos = TimeUnit.MINUTES.toNanos(5);
+  // Only replaced while holding the lock of this object
+  private volatile Snapshot snapshot;
+  // Counts the updates and invalidations, so that a reload that started before one of them does
+  // not replace its result
+  private volatile long changes;
+  // Only one thread loads the initial snapshot, the others wait for it
+  private final Object loadLock = new Object();
+  // Only one thread reloads the snapshot, the others keep reading the current one
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+
+  private static class Snapshot {
+    private final String[] uuids;
+    private final int[] parents;
+    private final OrganizationType[] types;
+    private final Map<String, Integer> indexes;
+    // The children of organization i are children[childStart[i]] up to children[childStart[i + 1]]
+    private final int[] childStart;
+    private final int[] children;
+    private final long loadedAt;
+
+    Snapshot(String[] uuids, String[] parentUuids, OrganizationType[] types, long loadedAt) {
+      final int size = uuids.length;
+      this.uuids = uuids;
+      this.types = types;
+      this.loadedAt = loadedAt;
+      indexes = new HashMap<>(size * 2);
+      for (int i = 0; i < size; i++) {
+        indexes.put(uuids[i], i);
+      }
+      parents = new int[size];
+      childStart = new int[size + 1];
+      for (int i = 0; i < size; i++) {
+        final Integer parent = (parentUuids[i] == null) ? null : indexes.get(parentUuids[i]);
+        parents[i] = (parent == null) ? NONE : parent;
+        if (parents[i] != NONE) {
+          childStart[parents[i] + 1]++;
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        childStart[i + 1] += childStart[i];
+      }
+      children = new int[childStart[size]];
+      final int[] next = Arrays.copyOf(childStart, size);
+      for (int i = 0; i < size; i++) {
+        if (parents[i] != NONE) {
+          children[next[parents[i]]++] = i;
+        }
+      }
+    }
+
+    int indexOf(String uuid) {
+      final Integer index = (uuid == null) ? null : indexes.get(uuid);
+      return (index == null) ? NONE : index;
+    }
+
+    String getParentUuid(int index) {
+      return (parents[index] == NONE) ? null : uuids[parents[index]];
+    }
+  }
+
+  public OrganizationHierarchy(Supplier<List<Organization>> loader) {
+    this.loader = loader;
+  }
+
+  public void setRefreshInterval(long duration, TimeUnit unit) {
+    refreshIntervalNanos = unit.toNanos(duration);
+  }
+
+  private Snapshot getSnapshot() {
+    final Snapshot current = snapshot;
+    if (current == null) {
+      return load();
+    }
+    if (System.nanoTime() - current.loadedAt > refreshIntervalNanos
+        && refreshing.compareAndSet(false, true)) {
+      try {
+        return reload();
+      } finally {
+        refreshing.set(false);
+      }
+    }
+    return current;
+  }
+
+  private Snapshot load() {
+    synchronized (loadLock) {
+      final Snapshot current = snapshot;
+      return (current == null) ? reload() : current;
+    }
+  }
+
+  private Snapshot reload() {
+    final long changesBefore = changes;
+    final long loadedAt = System.nanoTime();
+    final List<Organization> orgs = loader.get();
+    final int size = orgs.size();
+    final String[] uuids = new String[size];
+    final String[] parentUuids = new String[size];
+    final OrganizationType[] types = new OrganizationType[size];
+    for (int i = 0; i < size; i++) {
+      final Organization org = orgs.get(i);
+      uuids[i] = org.getUuid();
+      parentUuids[i] = org.getParentOrgUuid();
+      types[i] = org.getType();
+    }
+    final Snapshot loaded = new Snapshot(uuids, parentUuids, types, loadedAt);
+    synchronized (this) {
+      // Unless it was changed in the meantime, as this may not have loaded that change yet
+      if (changes == changesBefore) {
+        snapshot = loaded;
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Update the hierarchy for an organization that was inserted or updated.
+   *
+   * @param uuid the uuid of the organization
+   * @param parentUuid the uuid of its parent; may be null
+   * @param type its type
+   */
+  public synchronized void update(String uuid, @Nullable String parentUuid,
+      OrganizationType type) {
+    changes++;
+    final Snapshot current = snapshot;
+    if (current == null) {
+      // Not loaded yet, so nothing to update
+      return;
+    }
+    if (parentUuid != null && current.indexOf(parentUuid) == NONE) {
+      // Parent unknown here (e.g. created on another server), reload on next use
+      snapshot = null;
+      return;
+    }
+    final int index = current.indexOf(uuid);
+    final int size = current.uuids.length + ((index == NONE) ? 1 : 0);
+    final String[] uuids = Arrays.copyOf(current.uuids, size);
+    final String[] parentUuids = new String[size];
+    for (int i = 0; i < current.uuids.length; i++) {
+      parentUuids[i] = current.getParentUuid(i);
+    }
+    final OrganizationType[] types = Arrays.copyOf(current.types, size);
+    final int updated = (index == NONE) ? size - 1 : index;
+    uuids[updated] = uuid;
+    parentUuids[updated] = parentUuid;
+    types[updated] = type;
+    snapshot = new Snapshot(uuids, parentUuids, types, current.loadedAt);
+  }
+
+  /**
+   * Forget the hierarchy; it is reloaded on next use.
+   */
+  public synchronized void invalidate() {
+    changes++;
+    snapshot = null;
+  }
+
+  public boolean contains(String uuid) {
+    return getSnapshot().indexOf(uuid) != NONE;
+  }
+
+  public OrganizationType getType(String uuid) {
+    final Snapshot s = getSnapshot();
+    final int index = s.indexOf(uuid);
+    return (index == NONE) ? null : s.types[index];
+  }
+
+  /**
+   * Get the ancestors of an organization, from its parent up to its top-level organization; stops
+   * when the hierarchy loops back.
+   *
+   * @param uuid the uuid of the organization
+   * @return the uuids of the ancestors, empty if there are none or the organization is unknown
+   */
+  public List<String> getAncestorUuids(String uuid) {
+    final Snapshot s = getSnapshot();
+    final int index = s.indexOf(uuid);
+    if (index == NONE) {
+      return Collections.emptyList();
+    }
+    final List<String> result = new ArrayList<>();
+    final boolean[] seen = new boolean[s.uuids.length];
+    seen[index] = true;
+    for (int p = s.parents[index]; p != NONE && !seen[p]; p = s.parents[p]) {
+      seen[p] = true;
+      result.add(s.uuids[p]);
+    }
+    return result;
+  }
+
+  /**
+   * Get the descendants of an organization (its children, their children, and so on).
+   *
+   * @param uuid the uuid of the organization
+   * @return the uuids of the descendants, empty if there are none or the organization is unknown
+   */
+  public List<String> getDescendantUuids(String uuid) {
+    final Snapshot s = getSnapshot();
+    final int index = s.indexOf(uuid);
+    if (index == NONE) {
+      return Collections.emptyList();
+    }
+    final List<String> result = new ArrayList<>();
+    for (final int descendant : getDescendants(s, index)) {
+      result.add(s.uuids[descendant]);
+    }
+    return result;
+  }
+
+  private static int[] getDescendants(Snapshot s, int index) {
+    final boolean[] seen = new boolean[s.uuids.length];
+    seen[index] = true;
+    // Breadth-first; the queue ends up holding the organization and all its descendants
+    final int[] queue = new int[s.uuids.length];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = index;
+    while (head < tail) {
+      final int i = queue[head++];
+      for (int c = s.childStart[i]; c < s.childStart[i + 1]; c++) {
+        final int child = s.children[c];
+        // Guards against loops
+        if (!seen[child]) {
+          seen[child] = true;
+          queue[tail++] = child;
+        }
+      }
+    }
+    return Arrays.copyOfRange(queue, 1, tail);
+  }
+
+  /**
+   * Check whether an organization is (under) another one, i.e. whether it is that organization or
+   * one of its descendants.
+   *
+   * @param uuid the uuid of the organization
+   * @param ancestorUuid the uuid of the possible ancestor
+   * @return true if the organization is under the ancestor
+   */
+  public boolean isUnder(String uuid, String ancestorUuid) {
+    if (uuid == null || ancestorUuid == null) {
+      return false;
+    }
+    if (uuid.equals(ancestorUuid)) {
+      return true;
+    }
+    final Snapshot s = getSnapshot();
+    final int index = s.indexOf(uuid);
+    final int ancestor = s.indexOf(ancestorUuid);
+    if (index == NONE || ancestor == NONE) {
+      return false;
+    }
+    int steps = 0;
+    for (int p = s.parents[index]; p != NONE && steps < s.uuids.length; p = s.parents[p]) {
+      if (p == ancestor) {
+        return true;
+      }
+      steps++;
+    }
+    return false;
+  }
+
+  /**
+   * Check whether making an organization the child of another one would create a loop.
+   *
+   * @param uuid the uuid of the organization
+   * @param parentUuid the uuid of the new parent; may be null
+   * @return true if the new parent is the organization itself or one of its descendants
+   */
+  public boolean wouldCreateLoop(String uuid, @Nullable String parentUuid) {
+    return isUnder(parentUuid, uuid);
+  }
+
+  /**
+   * Map organizations to their highest parent of the same type, like
+   * {@link mil.dds.anet.utils.Utils#buildParentOrgMapping}.
+   *
+   * @param type the type of the organizations to map; null for all organizations
+   * @return the uuid of the top-level organization by organization uuid
+   * @throws IllegalArgumentException if the hierarchy contains a loop
+   */
+  public Map<String, String> getTopLevelUuids(@Nullable OrganizationType type) {
+    final Snapshot s = getSnapshot();
+    final Map<String, String> result = new HashMap<>();
+    for (int i = 0; i < s.uuids.length; i++) {
+      if (type == null || type == s.types[i]) {
+        result.put(s.uuids[i], s.uuids[getTop(s, i, NONE, type)]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Map an organization and its descendants to their highest parent below that organization, like
+   * {@link mil.dds.anet.utils.Utils#buildParentOrgMapping}; the organization maps to itself.
+   *
+   * @param parentUuid the uuid of the organization
+   * @return the uuid of the top-level organization by organization uuid, empty if the organization
+   *         is unknown
+   * @throws IllegalArgumentException if the hierarchy contains a loop
+   */
+  public Map<String, String> getTopLevelUuidsUnder(String parentUuid) {
+    final Snapshot s = getSnapshot();
+    final int parent = s.indexOf(parentUuid);
+    if (parent == NONE) {
+      return Collections.emptyMap();
+    }
+    final Map<String, String> result = new HashMap<>();
+    result.put(parentUuid, parentUuid);
+    for (final int descendant : getDescendants(s, parent)) {
+      result.put(s.uuids[descendant], s.uuids[getTop(s, descendant, parent, null)]);
+    }
+    return result;
+  }
+
+  private static int getTop(Snapshot s, int index, int top, @Nullable OrganizationType type) {
+    int curr = index;
+    int steps = 0;
+    for (int p = s.parents[curr]; p != NONE && p != top
+        && (type == null || type == s.types[p]); p = s.parents[p]) {
+      curr = p;
+      if (curr == index || ++steps > s.uuids.length) {
+        final String errorMsg = String.format(
+            "Loop detected in organization hierarchy: %1$s is its own (grand…)parent!",
+            s.uuids[curr]);
+        logger.error(errorMsg);
+        throw new IllegalArgumentException(errorMsg);
+      }
+    }
+    return curr;
+  }
+}
@@ -27,14 +27,25 @@ public class PersonDao extends AnetBaseDao<Person> {
   public static String PERSON_FIELDS = DaoUtils.buildFieldAliases(tableName, fields, true);
   public static String PERSON_FIELDS_NOAS = DaoUtils.buildFieldAliases(tableName, fields, false);
 
+  public static String getPersonFields(String tableAlias) {
+    return DaoUtils.buildFieldAliases(tableAlias, fields, true);
+  }
+
   public PersonDao() {
     super("People", tableName, PERSON_FIELDS, null);
   }
 
   public AnetBeanList<Person> getAll(int pageNum, int pageSize) {
-    final Query query = getPagedQuery(pageNum, pageSize);
-    Long manualCount = getSqliteRowCount();
-    return new AnetBeanList<Person>(query, pageNum, pageSize, new PersonMapper(), manualCount);
+    return getAll(pageNum, pageSize, null);
+  }
+
+  public AnetBeanList<Person> getAll(int pageNum, int pageSize, String cursor) {
+    final Query query = getPagedQuery(pageNum, pageSize, cursor);
+    final Long manualCount = getSqliteRowCount();
+    final AnetBeanList<Person> results =
+        new AnetBeanList<Person>(query, pageNum, pageSize, new PersonMapper(), manualCount);
+    setNextCursor(results, pageSize);
+    return results;
   }
 
   public Person getByUuid(String uuid) {
@@ -39,10 +39,16 @@ public class PositionDao extends AnetBaseDao<Position> {
   }
 
   public AnetBeanList<Position> getAll(int pageNum, int pageSize) {
-    final Query query = getPagedQuery(pageNum, pageSize);
-    Long manualRowCount = getSqliteRowCount();
-    return new AnetBeanList<Position>(query, pageNum, pageSize, new PositionMapper(),
-        manualRowCount);
+    return getAll(pageNum, pageSize, null);
+  }
+
+  public AnetBeanList<Position> getAll(int pageNum, int pageSize, String cursor) {
+    final Query query = getPagedQuery(pageNum, pageSize, cursor);
+    final Long manualRowCount = getSqliteRowCount();
+    final AnetBeanList<Position> results =
+        new AnetBeanList<Position>(query, pageNum, pageSize, new PositionMapper(), manualRowCount);
+    setNextCursor(results, pageSize);
+    return results;
   }
 
   @Override
@@ -1,16 +1,20 @@
 package mil.dds.anet.database;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ObjectArrays;
 import io.leangen.graphql.annotations.GraphQLRootContext;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response.Status;
 import mil.dds.anet.AnetObjectEngine;
@@ -30,19 +34,21 @@ import mil.dds.anet.beans.RollupGraph;
 import mil.dds.anet.beans.Tag;
 import mil.dds.anet.beans.Task;
 import mil.dds.anet.beans.lists.AnetBeanList;
-import mil.dds.anet.beans.search.OrganizationSearchQuery;
 import mil.dds.anet.beans.search.ReportSearchQuery;
 import mil.dds.anet.database.AdminDao.AdminSettingKeys;
 import mil.dds.anet.database.mappers.AuthorizationGroupMapper;
 import mil.dds.anet.database.mappers.ReportMapper;
 import mil.dds.anet.database.mappers.ReportPersonMapper;
+import mil.dds.anet.database.mappers.ReportTextMapper;
 import mil.dds.anet.database.mappers.TagMapper;
 import mil.dds.anet.database.mappers.TaskMapper;
 import mil.dds.anet.emails.ReportPublishedEmail;
 import mil.dds.anet.threads.AnetEmailWorker;
 import mil.dds.anet.utils.DaoUtils;
 import mil.dds.anet.utils.Utils;
+import mil.dds.anet.views.AbstractAnetBean;
 import mil.dds.anet.views.ForeignKeyFetcher;
+import mil.dds.anet.views.UuidFetcher;
 import org.jdbi.v3.core.mapper.MapMapper;
 import org.jdbi.v3.core.statement.Query;
 import org.jdbi.v3.sqlobject.customizer.Bind;
@@ -59,6 +65,14 @@ public class ReportDao extends AnetBaseDao<Report> {
       "atmosphereDetails", "text", "keyOutcomes", "nextSteps", "authorUuid"};
   private static final String tableName = "reports";
   public static final String REPORT_FIELDS = DaoUtils.buildFieldAliases(tableName, fields, true);
+  // The large text columns, and the GraphQL fields they are exposed as
+  private static final Map<String, String> textFields =
+      ImmutableMap.of("exsum", "exsum", "atmosphereDetails", "atmosphereDetails", "text",
+          "reportText", "keyOutcomes", "keyOutcomes", "nextSteps", "nextSteps");
+  public static final String REPORT_FIELDS_WITHOUT_TEXT = DaoUtils.buildFieldAliases(tableName,
+      Arrays.stream(fields).filter(f -> !textFields.containsKey(f)).toArray(String[]::new), true);
+  private static final String REPORT_TEXT_FIELDS = DaoUtils.buildFieldAliases(tableName,
+      ObjectArrays.concat("uuid", textFields.keySet().toArray(new String[0])), true);
 
   private String weekFormat;
 
@@ -66,6 +80,20 @@ public class ReportDao extends AnetBaseDao<Report> {
     super("Reports", tableName, REPORT_FIELDS, "reports.\"createdAt\"");
   }
 
+  /**
+   * Get the fields to select for reports. The large text columns are left out when none of them is
+   * selected; they are then loaded on demand, see {@link Report#isTextLoaded()}.
+   *
+   * @param selectedFields the GraphQL fields selected on the reports; null when not known
+   * @return the fields to select
+   */
+  public static String getReportFields(Set<String> selectedFields) {
+    if (selectedFields == null || !Collections.disjoint(selectedFields, textFields.values())) {
+      return REPORT_FIELDS;
+    }
+    return REPORT_FIELDS_WITHOUT_TEXT;
+  }
+
   public String getWeekFormat() {
     if (weekFormat == null) {
       weekFormat = getWeekFormat(getDbType());
@@ -89,12 +117,15 @@ public class ReportDao extends AnetBaseDao<Report> {
   @Override
   public AnetBeanList<Report> getAll(int pageNum, int pageSize) {
     // Return the reports without sensitive information
-    return getAll(pageNum, pageSize, null);
+    return getAll(pageNum, pageSize, null, null);
   }
 
-  public AnetBeanList<Report> getAll(int pageNum, int pageSize, Person user) {
-    final Query query = getPagedQuery(pageNum, pageSize);
-    return AnetBeanList.getReportList(user, query, pageNum, pageSize, new ReportMapper());
+  public AnetBeanList<Report> getAll(int pageNum, int pageSize, String cursor, Person user) {
+    final Query query = getPagedQuery(pageNum, pageSize, cursor);
+    final AnetBeanList<Report> results =
+        AnetBeanList.getReportList(user, query, pageNum, pageSize, new ReportMapper());
+    setNextCursor(results, pageSize);
+    return results;
   }
 
   public Report insert(Report r, Person user) {
@@ -145,10 +176,8 @@ public class ReportDao extends AnetBaseDao<Report> {
 
     final ReportBatch rb = getDbHandle().attach(ReportBatch.class);
     if (r.getAttendees() != null) {
-      // Setify based on attendeeUuid to prevent violations of unique key constraint.
-      Map<String, ReportPerson> attendeeMap = new HashMap<>();
-      r.getAttendees().stream().forEach(rp -> attendeeMap.put(rp.getUuid(), rp));
-      rb.insertReportAttendees(r.getUuid(), new ArrayList<ReportPerson>(attendeeMap.values()));
+      rb.insertReportAttendees(r.getUuid(),
+          new ArrayList<ReportPerson>(getUuidMap(r.getAttendees()).values()));
     }
 
     if (r.getAuthorizationGroups() != null) {
@@ -164,19 +193,37 @@ public class ReportDao extends AnetBaseDao<Report> {
   }
 
   public interface ReportBatch {
-    @SqlBatch("INSERT INTO \"reportPeople\" (\"reportUuid\", \"personUuid\", \"isPrimary\") VALUES (:reportUuid, :uuid, :primary)")
+    @SqlBatch("/* insertReportAttendees */ INSERT INTO \"reportPeople\" (\"reportUuid\", \"personUuid\", \"isPrimary\") VALUES (:reportUuid, :uuid, :primary)")
     void insertReportAttendees(@Bind("reportUuid") String reportUuid,
         @BindBean List<ReportPerson> reportPeople);
 
-    @SqlBatch("INSERT INTO \"reportAuthorizationGroups\" (\"reportUuid\", \"authorizationGroupUuid\") VALUES (:reportUuid, :uuid)")
+    @SqlBatch("/* updateReportAttendees */ UPDATE \"reportPeople\" SET \"isPrimary\" = :primary WHERE \"reportUuid\" = :reportUuid AND \"personUuid\" = :uuid")
+    void updateReportAttendees(@Bind("reportUuid") String reportUuid,
+        @BindBean List<ReportPerson> reportPeople);
+
+    @SqlBatch("/* deleteReportAttendees */ DELETE FROM \"reportPeople\" WHERE \"reportUuid\" = :reportUuid AND \"personUuid\" = :uuid")
+    void deleteReportAttendees(@Bind("reportUuid") String reportUuid,
+        @BindBean List<ReportPerson> reportPeople);
+
+    @SqlBatch("/* insertReportAuthorizationGroups */ INSERT INTO \"reportAuthorizationGroups\" (\"reportUuid\", \"authorizationGroupUuid\") VALUES (:reportUuid, :uuid)")
     void insertReportAuthorizationGroups(@Bind("reportUuid") String reportUuid,
         @BindBean List<AuthorizationGroup> authorizationGroups);
 
-    @SqlBatch("INSERT INTO \"reportTasks\" (\"reportUuid\", \"taskUuid\") VALUES (:reportUuid, :uuid)")
+    @SqlBatch("/* deleteReportAuthorizationGroups */ DELETE FROM \"reportAuthorizationGroups\" WHERE \"reportUuid\" = :reportUuid AND \"authorizationGroupUuid\" = :uuid")
+    void deleteReportAuthorizationGroups(@Bind("reportUuid") String reportUuid,
+        @BindBean List<AuthorizationGroup> authorizationGroups);
+
+    @SqlBatch("/* insertReportTasks */ INSERT INTO \"reportTasks\" (\"reportUuid\", \"taskUuid\") VALUES (:reportUuid, :uuid)")
     void insertReportTasks(@Bind("reportUuid") String reportUuid, @BindBean List<Task> tasks);
 
-    @SqlBatch("INSERT INTO \"reportTags\" (\"reportUuid\", \"tagUuid\") VALUES (:reportUuid, :uuid)")
+    @SqlBatch("/* deleteReportTasks */ DELETE FROM \"reportTasks\" WHERE \"reportUuid\" = :reportUuid AND \"taskUuid\" = :uuid")
+    void deleteReportTasks(@Bind("reportUuid") String reportUuid, @BindBean List<Task> tasks);
+
+    @SqlBatch("/* insertReportTags */ INSERT INTO \"reportTags\" (\"reportUuid\", \"tagUuid\") VALUES (:reportUuid, :uuid)")
     void insertReportTags(@Bind("reportUuid") String reportUuid, @BindBean List<Tag> tags);
+
+    @SqlBatch("/* deleteReportTags */ DELETE FROM \"reportTags\" WHERE \"reportUuid\" = :reportUuid AND \"tagUuid\" = :uuid")
+    void deleteReportTags(@Bind("reportUuid") String reportUuid, @BindBean List<Tag> tags);
   }
 
   public Report getByUuid(String uuid) {
@@ -262,70 +309,114 @@ public class ReportDao extends AnetBaseDao<Report> {
         DaoUtils.getEnumId(ReportState.DRAFT), r.getUuid());
   }
 
-  public int addAttendeeToReport(ReportPerson rp, Report r) {
-    return getDbHandle().createUpdate("/* addReportAttendee */ INSERT INTO \"reportPeople\" "
-        + "(\"personUuid\", \"reportUuid\", \"isPrimary\") VALUES (:personUuid, :reportUuid, :isPrimary)")
-        .bind("personUuid", rp.getUuid()).bind("reportUuid", r.getUuid())
-        .bind("isPrimary", rp.isPrimary()).execute();
-  }
-
-  public int removeAttendeeFromReport(Person p, Report r) {
-    return getDbHandle()
-        .createUpdate("/* deleteReportAttendee */ DELETE FROM \"reportPeople\" "
-            + "WHERE \"reportUuid\" = :reportUuid AND \"personUuid\" = :personUuid")
-        .bind("reportUuid", r.getUuid()).bind("personUuid", p.getUuid()).execute();
-  }
-
-  public int updateAttendeeOnReport(ReportPerson rp, Report r) {
-    return getDbHandle().createUpdate("/* updateAttendeeOnReport*/ UPDATE \"reportPeople\" "
-        + "SET \"isPrimary\" = :isPrimary WHERE \"reportUuid\" = :reportUuid AND \"personUuid\" = :personUuid")
-        .bind("reportUuid", r.getUuid()).bind("personUuid", rp.getUuid())
-        .bind("isPrimary", rp.isPrimary()).execute();
-  }
-
-
-  public int addAuthorizationGroupToReport(AuthorizationGroup a, Report r) {
-    return getDbHandle().createUpdate(
-        "/* addAuthorizationGroupToReport */ INSERT INTO \"reportAuthorizationGroups\" (\"authorizationGroupUuid\", \"reportUuid\") "
-            + "VALUES (:authorizationGroupUuid, :reportUuid)")
-        .bind("reportUuid", r.getUuid()).bind("authorizationGroupUuid", a.getUuid()).execute();
+  /**
+   * Update the attendees of a report to {@link Report#getAttendees}. Only the differences with the
+   * existing attendees are written, with one batch per kind of change.
+   *
+   * @param r the report
+   * @param existingAttendees the attendees currently stored for the report
+   */
+  public void updateAttendeesOfReport(Report r, List<ReportPerson> existingAttendees) {
+    final Map<String, ReportPerson> existing = getUuidMap(existingAttendees);
+    final List<ReportPerson> added = new ArrayList<>();
+    final List<ReportPerson> changed = new ArrayList<>();
+    for (final ReportPerson rp : getUuidMap(r.getAttendees()).values()) {
+      final ReportPerson existingAttendee = existing.remove(rp.getUuid());
+      if (existingAttendee == null) {
+        added.add(rp);
+      } else if (existingAttendee.isPrimary() != rp.isPrimary()) {
+        changed.add(rp);
+      }
+    }
+    final ReportBatch rb = getDbHandle().attach(ReportBatch.class);
+    if (!existing.isEmpty()) {
+      rb.deleteReportAttendees(r.getUuid(), new ArrayList<>(existing.values()));
+    }
+    if (!changed.isEmpty()) {
+      rb.updateReportAttendees(r.getUuid(), changed);
+    }
+    if (!added.isEmpty()) {
+      rb.insertReportAttendees(r.getUuid(), added);
+    }
   }
 
-  public int removeAuthorizationGroupFromReport(AuthorizationGroup a, Report r) {
-    return getDbHandle().createUpdate(
-        "/* removeAuthorizationGroupFromReport*/ DELETE FROM \"reportAuthorizationGroups\" "
-            + "WHERE \"reportUuid\" = :reportUuid AND \"authorizationGroupUuid\" = :authorizationGroupUuid")
-        .bind("reportUuid", r.getUuid()).bind("authorizationGroupUuid", a.getUuid()).execute();
+  /**
+   * Update the authorization groups of a report to {@link Report#getAuthorizationGroups}, writing
+   * only the differences with the existing ones.
+   *
+   * @param r the report
+   * @param existingAuthorizationGroups the authorization groups currently stored for the report
+   */
+  public void updateAuthorizationGroupsOfReport(Report r,
+      List<AuthorizationGroup> existingAuthorizationGroups) {
+    final Map<String, AuthorizationGroup> existing = getUuidMap(existingAuthorizationGroups);
+    final List<AuthorizationGroup> added = getAdded(existing, r.getAuthorizationGroups());
+    final ReportBatch rb = getDbHandle().attach(ReportBatch.class);
+    if (!existing.isEmpty()) {
+      rb.deleteReportAuthorizationGroups(r.getUuid(), new ArrayList<>(existing.values()));
+    }
+    if (!added.isEmpty()) {
+      rb.insertReportAuthorizationGroups(r.getUuid(), added);
+    }
   }
 
-  public int addTaskToReport(Task p, Report r) {
-    return getDbHandle()
-        .createUpdate(
-            "/* addTaskToReport */ INSERT INTO \"reportTasks\" (\"taskUuid\", \"reportUuid\") "
-                + "VALUES (:taskUuid, :reportUuid)")
-        .bind("reportUuid", r.getUuid()).bind("taskUuid", p.getUuid()).execute();
+  /**
+   * Update the tasks of a report to {@link Report#getTasks}, writing only the differences with the
+   * existing ones.
+   *
+   * @param r the report
+   * @param existingTasks the tasks currently stored for the report
+   */
+  public void updateTasksOfReport(Report r, List<Task> existingTasks) {
+    final Map<String, Task> existing = getUuidMap(existingTasks);
+    final List<Task> added = getAdded(existing, r.getTasks());
+    final ReportBatch rb = getDbHandle().attach(ReportBatch.class);
+    if (!existing.isEmpty()) {
+      rb.deleteReportTasks(r.getUuid(), new ArrayList<>(existing.values()));
+    }
+    if (!added.isEmpty()) {
+      rb.insertReportTasks(r.getUuid(), added);
+    }
   }
 
-  public int removeTaskFromReport(String taskUuid, Report r) {
-    return getDbHandle()
-        .createUpdate("/* removeTaskFromReport*/ DELETE FROM \"reportTasks\" "
-            + "WHERE \"reportUuid\" = :reportUuid AND \"taskUuid\" = :taskUuid")
-        .bind("reportUuid", r.getUuid()).bind("taskUuid", taskUuid).execute();
+  /**
+   * Update the tags of a report to {@link Report#getTags}, writing only the differences with the
+   * existing ones.
+   *
+   * @param r the report
+   * @param existingTags the tags currently stored for the report
+   */
+  public void updateTagsOfReport(Report r, List<Tag> existingTags) {
+    final Map<String, Tag> existing = getUuidMap(existingTags);
+    final List<Tag> added = getAdded(existing, r.getTags());
+    final ReportBatch rb = getDbHandle().attach(ReportBatch.class);
+    if (!existing.isEmpty()) {
+      rb.deleteReportTags(r.getUuid(), new ArrayList<>(existing.values()));
+    }
+    if (!added.isEmpty()) {
+      rb.insertReportTags(r.getUuid(), added);
+    }
   }
 
-  public int addTagToReport(Tag t, Report r) {
-    return getDbHandle()
-        .createUpdate(
-            "/* addTagToReport */ INSERT INTO \"reportTags\" (\"reportUuid\", \"tagUuid\") "
-                + "VALUES (:reportUuid, :tagUuid)")
-        .bind("reportUuid", r.getUuid()).bind("tagUuid", t.getUuid()).execute();
+  private static <T extends AbstractAnetBean> Map<String, T> getUuidMap(List<T> beans) {
+    // Setify based on uuid to prevent violations of unique key constraints
+    final Map<String, T> result = new LinkedHashMap<>();
+    for (final T bean : beans) {
+      result.put(bean.getUuid(), bean);
+    }
+    return result;
   }
 
-  public int removeTagFromReport(Tag t, Report r) {
-    return getDbHandle()
-        .createUpdate("/* removeTagFromReport */ DELETE FROM \"reportTags\" "
-            + "WHERE \"reportUuid\" = :reportUuid AND \"tagUuid\" = :tagUuid")
-        .bind("reportUuid", r.getUuid()).bind("tagUuid", t.getUuid()).execute();
+  // Returns the wanted beans that do not exist yet; leaves the ones to remove in existing
+  private static <T extends AbstractAnetBean> List<T> getAdded(Map<String, T> existing,
+      List<T> wanted) {
+    final List<T> added = new ArrayList<>();
+    for (final T bean : getUuidMap(wanted).values()) {
+      if (existing.remove(bean.getUuid()) == null) {
+        added.add(bean);
+      }
+    }
+    return added;
   }
 
   public CompletableFuture<List<ReportPerson>> getAttendeesForReport(
@@ -437,28 +528,20 @@ public class ReportDao extends AnetBaseDao<Report> {
    */
   public List<RollupGraph> getDailyRollupGraph(Instant start, Instant end, String parentOrgUuid,
       OrganizationType orgType, Map<String, Organization> nonReportingOrgs) {
-    List<Organization> orgList = null;
+    List<String> orgUuids = null;
     final Map<String, Organization> orgMap;
     if (!parentOrgUuid.equals(Organization.DUMMY_ORG_UUID)) {
-      // doing this as two separate queries because I do need all the information about the
-      // organizations
-      OrganizationSearchQuery query = new OrganizationSearchQuery();
-      query.setParentOrgUuid(parentOrgUuid);
-      query.setParentOrgRecursively(true);
-      query.setPageSize(Integer.MAX_VALUE);
-      orgList = AnetObjectEngine.getInstance().getOrganizationDao().search(query).getList();
-      Optional<Organization> parentOrg =
-          orgList.stream().filter(o -> o.getUuid().equals(parentOrgUuid)).findFirst();
-      if (parentOrg.isPresent() == false) {
+      orgMap = AnetObjectEngine.getInstance().buildTopLevelOrgHash(parentOrgUuid);
+      if (!orgMap.containsKey(parentOrgUuid)) {
         throw new WebApplicationException("No such organization with uuid " + parentOrgUuid,
             Status.NOT_FOUND);
       }
-      orgMap = Utils.buildParentOrgMapping(orgList, parentOrgUuid);
+      orgUuids = new ArrayList<>(orgMap.keySet());
     } else {
       orgMap = new HashMap<String, Organization>(); // guaranteed to match no orgs!
     }
 
-    final List<Map<String, Object>> results = rollupQuery(start, end, orgType, orgList,
+    final List<Map<String, Object>> results = rollupQuery(start, end, orgType, orgUuids,
         parentOrgUuid.equals(Organization.DUMMY_ORG_UUID));
 
     return generateRollupGraphFromResults(results, orgMap, nonReportingOrgs);
@@ -589,11 +672,11 @@ public class ReportDao extends AnetBaseDao<Report> {
    * Searching for just all reports and for reports in certain organizations.
    * 
    * @param orgType the type of organization to be looking for
-   * @param orgs the list of orgs for whose reports to find, null means all
+   * @param orgUuids the uuids of the orgs for whose reports to find, null means all
    * @param missingOrgReports true if we want to look for reports specifically with NULL org uuid's
    */
   private List<Map<String, Object>> rollupQuery(Instant start, Instant end,
-      OrganizationType orgType, List<Organization> orgs, boolean missingOrgReports) {
+      OrganizationType orgType, List<String> orgUuids, boolean missingOrgReports) {
     String orgColumn =
         String.format("\"%s\"", orgType == OrganizationType.ADVISOR_ORG ? "advisorOrganizationUuid"
             : "principalOrganizationUuid");
@@ -618,10 +701,9 @@ public class ReportDao extends AnetBaseDao<Report> {
     DaoUtils.addInstantAsLocalDateTime(sqlArgs, "engagementDateStart",
         getRollupEngagmentStart(start));
 
-    if (!Utils.isEmptyOrNull(orgs)) {
+    if (!Utils.isEmptyOrNull(orgUuids)) {
       sql.append("AND " + orgColumn + " IN ( <orgUuids> ) ");
-      listArgs.put("orgUuids",
-          orgs.stream().map(org -> org.getUuid()).collect(Collectors.toList()));
+      listArgs.put("orgUuids", orgUuids);
     } else if (missingOrgReports) {
       sql.append(" AND " + orgColumn + " IS NULL ");
     }
@@ -692,8 +774,9 @@ public class ReportDao extends AnetBaseDao<Report> {
   }
 
   static class SelfIdBatcher extends IdBatcher<Report> {
-    private static final String sql = "/* batch.getReportsByUuids */ SELECT " + REPORT_FIELDS
-        + "FROM reports " + "WHERE reports.uuid IN ( <uuids> )";
+    // The text is loaded on demand by the TextIdBatcher
+    private static final String sql = "/* batch.getReportsByUuids */ SELECT "
+        + REPORT_FIELDS_WITHOUT_TEXT + "FROM reports " + "WHERE reports.uuid IN ( <uuids> )";
 
     public SelfIdBatcher() {
       super(sql, "uuids", new ReportMapper());
@@ -707,6 +790,26 @@ public class ReportDao extends AnetBaseDao<Report> {
     return idBatcher.getByIds(uuids);
   }
 
+  static class TextIdBatcher extends IdBatcher<Report> {
+    private static final String sql = "/* batch.getReportTextsByUuids */ SELECT "
+        + REPORT_TEXT_FIELDS + "FROM reports " + "WHERE reports.uuid IN ( <uuids> )";
+
+    public TextIdBatcher() {
+      super(sql, "uuids", new ReportTextMapper());
+    }
+  }
+
+  public List<Report> getTexts(List<String> uuids) {
+    final IdBatcher<Report> idBatcher =
+        AnetObjectEngine.getInstance().getInjector().getInstance(TextIdBatcher.class);
+    return idBatcher.getByIds(uuids);
+  }
+
+  public CompletableFuture<Report> getTextForReport(Map<String, Object> context,
+      String reportUuid) {
+    return new UuidFetcher<Report>().load(context, "report.text", reportUuid);
+  }
+
   static class ReportPeopleBatcher extends ForeignKeyBatcher<ReportPerson> {
     private static final String sql = "/* batch.getAttendeesForReport */ SELECT "
         + PersonDao.PERSON_FIELDS
@@ -0,0 +1,159 @@
+package mil.dds.anet.database;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import mil.dds.anet.config.AnetConfiguration.SqlBudgetConfiguration;
+import mil.dds.anet.utils.AnetDbLogger;
+
+/**
+ * Counts the SQL statements executed for a single request, the rows they returned and the time
+ * spent on them in the database. A request runs on several threads (e.g. its batched loads run on
+ * the DataLoader executor), so the statistics are made current for each piece of work done for
+ * the request, through {@link #enter} and {@link #wrap}; {@link AnetDbLogger} and the row mappers
+ * then add to the current statistics of the thread they run on.
+ */
+public class SqlStatistics {
+
+  private static final ThreadLocal<SqlStatistics> current = new ThreadLocal<>();
+
+  private final AtomicInteger statementCount = new AtomicInteger();
+  private final AtomicLong rowCount = new AtomicLong();
+  private final AtomicLong dbTimeNanos = new AtomicLong();
+  // Statement counts by tag, i.e. the comment each statement starts with
+  private final Map<String, AtomicInteger> statementCounts = new ConcurrentHashMap<>();
+
+  /**
+   * A scope in which statistics are current; closing it restores the previous ones.
+   */
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  /**
+   * Get the statistics that are current for the calling thread.
+   *
+   * @return the statistics, or null if there are none
+   */
+  public static SqlStatistics getCurrent() {
+    return current.get();
+  }
+
+  /**
+   * Make these statistics current for the calling thread, until the returned scope is closed.
+   *
+   * @return the scope
+   */
+  public Scope enter() {
+    final SqlStatistics previous = current.get();
+    current.set(this);
+    return () -> {
+      if (previous == null) {
+        current.remove();
+      } else {
+        current.set(previous);
+      }
+    };
+  }
+
+  /**
+   * Wrap an executor, so that the tasks it runs have these statistics as their current ones.
+   *
+   * @param executor the executor
+   * @return the wrapped executor
+   */
+  public Executor wrap(Executor executor) {
+    return command -> executor.execute(() -> {
+      try (final Scope scope = enter()) {
+        command.run();
+      }
+    });
+  }
+
+  public void addStatement(String tag, long elapsedNanos) {
+    statementCount.incrementAndGet();
+    if (elapsedNanos > 0) {
+      dbTimeNanos.addAndGet(elapsedNanos);
+    }
+    statementCounts.computeIfAbsent(tag, t -> new AtomicInteger()).incrementAndGet();
+  }
+
+  public void addRow() {
+    rowCount.incrementAndGet();
+  }
+
+  public int getStatementCount() {
+    return statementCount.get();
+  }
+
+  public long getRowCount() {
+    return rowCount.get();
+  }
+
+  public long getDbTimeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(dbTimeNanos.get());
+  }
+
+  /**
+   * Get the number of times the statement executed most often was executed; a high number usually
+   * means the statement is executed once for each row of another statement (an N+1 query).
+   *
+   * @return the count, or 0 if no statements were executed
+   */
+  public int getMaxRepeatCount() {
+    return statementCounts.values().stream().mapToInt(AtomicInteger::get).max().orElse(0);
+  }
+
+  /**
+   * Check these statistics against a budget.
+   *
+   * @param budget the budget
+   * @return true if any of the limits of the budget is exceeded
+   */
+  public boolean exceeds(SqlBudgetConfiguration budget) {
+    return getStatementCount() > budget.getMaxStatements()
+        || getMaxRepeatCount() > budget.getMaxRepeatCount()
+        || getRowCount() > budget.getMaxRows()
+        || getDbTimeMillis() > budget.getMaxDbTime().toMilliseconds();
+  }
+
+  /**
+   * Get the statement counts by tag, the most frequent first.
+   *
+   * @return the counts
+   */
+  public Map<String, Integer> getStatementCounts() {
+    final Map<String, Integer> result = new LinkedHashMap<>();
+    statementCounts.entrySet().stream()
+        .sorted(Comparator.comparing((Map.Entry<String, AtomicInteger> e) -> e.getValue().get())
+            .reversed())
+        .forEach(e -> result.put(e.getKey(), e.getValue().get()));
+    return result;
+  }
+
+  /**
+   * Get the statistics as a map, e.g. to return them to the client.
+   *
+   * @return the statistics
+   */
+  public Map<String, Object> toMap() {
+    final Map<String, Object> result = new LinkedHashMap<>();
+    result.put("statementCount", getStatementCount());
+    result.put("rowCount", getRowCount());
+    result.put("dbTimeMillis", getDbTimeMillis());
+    result.put("statementCounts", getStatementCounts());
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d statements, %d rows, %d ms in the database; %s",
+        getStatementCount(), getRowCount(), getDbTimeMillis(), getStatementCounts());
+  }
+}
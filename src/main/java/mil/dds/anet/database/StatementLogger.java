@@ -1,16 +1,23 @@
 package mil.dds.anet.database;
 
+import com.codahale.metrics.MetricRegistry;
 import javax.inject.Inject;
+import mil.dds.anet.config.AnetConfiguration.SqlLoggingConfiguration;
 import mil.dds.anet.utils.AnetDbLogger;
 import org.jdbi.v3.core.Jdbi;
 import org.jdbi.v3.core.statement.SqlStatements;
 
 public class StatementLogger {
 
+  private final SqlStatements sqlStatements;
+
   @Inject
   public StatementLogger(final Jdbi jdbi) {
-    final SqlStatements sqlStatements = jdbi.getConfig(SqlStatements.class);
-    sqlStatements.setSqlLogger(new AnetDbLogger());
+    sqlStatements = jdbi.getConfig(SqlStatements.class);
+  }
+
+  public void install(SqlLoggingConfiguration config, MetricRegistry metricRegistry) {
+    sqlStatements.setSqlLogger(new AnetDbLogger(config, metricRegistry));
   }
 
 }
@@ -12,7 +12,7 @@ import org.jdbi.v3.core.statement.Query;
 import ru.vyarus.guicey.jdbi3.tx.InTransaction;
 
 @InTransaction
-public class TagDao extends AnetBaseDao<Tag> {
+public class TagDao extends AnetCachingBaseDao<Tag> {
 
   public TagDao() {
     super("Tags", "tags", "*", null);
@@ -53,6 +53,14 @@ public class TagDao extends AnetBaseDao<Tag> {
     return idBatcher.getByIds(uuids);
   }
 
+  @Override
+  protected Tag copyForCache(Tag t) {
+    final Tag copy = DaoUtils.copyCommonBeanFields(new Tag(), t);
+    copy.setName(t.getName());
+    copy.setDescription(t.getDescription());
+    return copy;
+  }
+
   @Override
   public Tag insertInternal(Tag t) {
     getDbHandle().createUpdate(
@@ -60,11 +68,13 @@ public class TagDao extends AnetBaseDao<Tag> {
             + "VALUES (:uuid, :name, :description, :createdAt, :updatedAt)")
         .bindBean(t).bind("createdAt", DaoUtils.asLocalDateTime(t.getCreatedAt()))
         .bind("updatedAt", DaoUtils.asLocalDateTime(t.getUpdatedAt())).execute();
+    invalidateEntityCache(t.getUuid());
     return t;
   }
 
   @Override
   public int updateInternal(Tag t) {
+    invalidateEntityCache(t.getUuid());
     return getDbHandle().createUpdate("/* updateTag */ UPDATE tags "
         + "SET name = :name, description = :description, \"updatedAt\" = :updatedAt WHERE uuid = :uuid")
         .bindBean(t).bind("updatedAt", DaoUtils.asLocalDateTime(t.getUpdatedAt())).execute();
@@ -67,12 +67,13 @@ public class TaskDao extends AnetBaseDao<Task> {
         .bind("plannedCompletion", DaoUtils.asLocalDateTime(p.getPlannedCompletion()))
         .bind("projectedCompletion", DaoUtils.asLocalDateTime(p.getProjectedCompletion()))
         .bind("status", DaoUtils.getEnumId(p.getStatus())).execute();
+    AncestorsTable.TASKS.insert(getDbHandle(), p.getUuid(), p.getCustomFieldRef1Uuid());
     return p;
   }
 
   @Override
   public int updateInternal(Task p) {
-    return getDbHandle().createUpdate(
+    final int numRows = getDbHandle().createUpdate(
         "/* updateTask */ UPDATE tasks set \"longName\" = :longName, \"shortName\" = :shortName, "
             + "category = :category, \"customFieldRef1Uuid\" = :customFieldRef1Uuid, \"updatedAt\" = :updatedAt, "
             + "\"organizationUuid\" = :responsibleOrgUuid, status = :status, "
@@ -83,6 +84,10 @@ public class TaskDao extends AnetBaseDao<Task> {
         .bind("plannedCompletion", DaoUtils.asLocalDateTime(p.getPlannedCompletion()))
         .bind("projectedCompletion", DaoUtils.asLocalDateTime(p.getProjectedCompletion()))
         .bind("status", DaoUtils.getEnumId(p.getStatus())).execute();
+    if (numRows > 0) {
+      AncestorsTable.TASKS.update(getDbHandle(), p.getUuid(), p.getCustomFieldRef1Uuid());
+    }
+    return numRows;
   }
 
   @Override
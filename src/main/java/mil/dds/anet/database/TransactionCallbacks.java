@@ -0,0 +1,125 @@
+package mil.dds.anet.database;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.config.JdbiConfig;
+import org.jdbi.v3.core.transaction.DelegatingTransactionHandler;
+import org.jdbi.v3.core.transaction.TransactionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Actions to run when the transaction of a handle ends, e.g. to update in-memory state only once
+ * the change it mirrors has been committed. The actions are kept in the (per-handle) configuration
+ * of the handle, and run by the transaction handler set up by {@link #install(Jdbi)}. Without it,
+ * or outside of a transaction, the actions run right away.
+ */
+public class TransactionCallbacks implements JdbiConfig<TransactionCallbacks> {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private boolean installed;
+  private final List<Runnable> afterCommit = new ArrayList<>();
+  private final List<Runnable> afterCompletion = new ArrayList<>();
+
+  public TransactionCallbacks() {}
+
+  @Override
+  public TransactionCallbacks createCopy() {
+    // The actions belong to the transaction of a single handle, so they are not copied
+    final TransactionCallbacks copy = new TransactionCallbacks();
+    copy.installed = installed;
+    return copy;
+  }
+
+  /**
+   * Set up the transaction handler that runs the actions.
+   *
+   * @param jdbi the Jdbi instance whose handles should run the actions
+   */
+  public static void install(Jdbi jdbi) {
+    jdbi.setTransactionHandler(new Handler(jdbi.getTransactionHandler()));
+    jdbi.getConfig(TransactionCallbacks.class).installed = true;
+  }
+
+  /**
+   * Run an action once the current transaction of the handle has been committed; it is dropped when
+   * the transaction is rolled back.
+   *
+   * @param handle the database handle
+   * @param action the action to run
+   */
+  public static void afterCommit(Handle handle, Runnable action) {
+    final TransactionCallbacks callbacks = handle.getConfig(TransactionCallbacks.class);
+    if (callbacks.installed && handle.isInTransaction()) {
+      callbacks.afterCommit.add(action);
+    } else {
+      action.run();
+    }
+  }
+
+  /**
+   * Run an action once the current transaction of the handle has ended, whether it was committed
+   * or rolled back.
+   *
+   * @param handle the database handle
+   * @param action the action to run
+   */
+  public static void afterCompletion(Handle handle, Runnable action) {
+    final TransactionCallbacks callbacks = handle.getConfig(TransactionCallbacks.class);
+    if (callbacks.installed && handle.isInTransaction()) {
+      callbacks.afterCompletion.add(action);
+    } else {
+      action.run();
+    }
+  }
+
+  private void run(boolean committed) {
+    final List<Runnable> actions = new ArrayList<>();
+    if (committed) {
+      actions.addAll(afterCommit);
+    }
+    actions.addAll(afterCompletion);
+    afterCommit.clear();
+    afterCompletion.clear();
+    for (final Runnable action : actions) {
+      try {
+        action.run();
+      } catch (RuntimeException e) {
+        // The transaction has ended already, so don't fail it
+        logger.error("Action after end of transaction failed", e);
+      }
+    }
+  }
+
+  private static class Handler extends DelegatingTransactionHandler {
+
+    Handler(TransactionHandler delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public void commit(Handle handle) {
+      boolean committed = false;
+      try {
+        super.commit(handle);
+        committed = true;
+      } finally {
+        handle.getConfig(TransactionCallbacks.class).run(committed);
+      }
+    }
+
+    @Override
+    public void rollback(Handle handle) {
+      try {
+        super.rollback(handle);
+      } finally {
+        handle.getConfig(TransactionCallbacks.class).run(false);
+      }
+    }
+  }
+}
@@ -10,9 +10,10 @@ public class AdminSettingMapper implements RowMapper<AdminSetting> {
 
   @Override
   public AdminSetting map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     AdminSetting as = new AdminSetting();
-    as.setKey(rs.getString("key"));
-    as.setValue(rs.getString("value"));
+    as.setKey(rs.getString(columns.get("key")));
+    as.setValue(rs.getString(columns.get("value")));
     return as;
   }
 
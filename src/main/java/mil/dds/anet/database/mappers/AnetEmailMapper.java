@@ -24,12 +24,13 @@ public class AnetEmailMapper implements RowMapper<AnetEmail> {
 
   @Override
   public AnetEmail map(ResultSet rs, StatementContext ctx) throws SQLException {
-    String jobSpec = rs.getString("jobSpec");
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
+    String jobSpec = rs.getString(columns.get("jobSpec"));
     try {
       AnetEmail email = mapper.readValue(jobSpec, AnetEmail.class);
 
-      email.setId(rs.getInt("id"));
-      email.setCreatedAt(DaoUtils.getInstantAsLocalDateTime(rs, "createdAt"));
+      email.setId(rs.getInt(columns.get("id")));
+      email.setCreatedAt(DaoUtils.getInstantAsLocalDateTime(rs, columns.get("createdAt")));
       return email;
     } catch (Exception e) {
       logger.error("Error mapping email", e);
@@ -11,11 +11,12 @@ public class ApprovalStepMapper implements RowMapper<ApprovalStep> {
 
   @Override
   public ApprovalStep map(ResultSet r, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(r);
     ApprovalStep step = new ApprovalStep();
     DaoUtils.setCommonBeanFields(step, r, null);
-    step.setNextStepUuid(r.getString("nextStepUuid"));
-    step.setAdvisorOrganizationUuid(r.getString("advisorOrganizationUuid"));
-    step.setName(r.getString("name"));
+    step.setNextStepUuid(r.getString(columns.get("nextStepUuid")));
+    step.setAdvisorOrganizationUuid(r.getString(columns.get("advisorOrganizationUuid")));
+    step.setName(r.getString(columns.get("name")));
 
     return step;
   }
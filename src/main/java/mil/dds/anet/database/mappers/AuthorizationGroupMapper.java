@@ -12,14 +12,15 @@ public class AuthorizationGroupMapper implements RowMapper<AuthorizationGroup> {
 
   @Override
   public AuthorizationGroup map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     final AuthorizationGroup a = new AuthorizationGroup();
     DaoUtils.setCommonBeanFields(a, rs, null);
-    a.setName(rs.getString("name"));
-    a.setDescription(rs.getString("description"));
-    a.setStatus(MapperUtils.getEnumIdx(rs, "status", AuthorizationGroupStatus.class));
+    a.setName(rs.getString(columns.get("name")));
+    a.setDescription(rs.getString(columns.get("description")));
+    a.setStatus(MapperUtils.getEnumIdx(rs, columns.get("status"), AuthorizationGroupStatus.class));
 
-    if (MapperUtils.containsColumnNamed(rs, "totalCount")) {
-      ctx.define("totalCount", rs.getInt("totalCount"));
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", rs.getInt(columns.get("totalCount")));
     }
 
     return a;
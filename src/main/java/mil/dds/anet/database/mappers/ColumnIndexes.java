@@ -0,0 +1,120 @@
+package mil.dds.anet.database.mappers;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import mil.dds.anet.utils.DaoUtils;
+
+/**
+ * The indexes of the columns of a ResultSet, looked up once for all of its rows (see
+ * {@link MapperUtils#getColumnIndexes}). Reading columns by index saves the JDBC driver from
+ * looking up the name on every read, and the qualified (<code>prefix_name</code>) column names are
+ * built only once per ResultSet instead of for every row.
+ */
+public class ColumnIndexes {
+
+  // Marks a qualified column that is not in the ResultSet
+  private static final int ABSENT = 0;
+
+  private final WeakReference<ResultSet> resultSet;
+  private final Map<String, Integer> indexes = new HashMap<>();
+  private final Map<String, Integer> indexesIgnoreCase = new HashMap<>();
+  // Per prefix, the indexes by unqualified column name
+  private final Map<String, Map<String, Integer>> qualifiedIndexes = new HashMap<>();
+  private int lastRow;
+
+  ColumnIndexes(ResultSet rs) throws SQLException {
+    resultSet = new WeakReference<>(rs);
+    final ResultSetMetaData metaData = rs.getMetaData();
+    // Backwards, so the first of duplicate column names wins, as in ResultSet.findColumn
+    for (int i = metaData.getColumnCount(); i >= 1; i--) {
+      final String columnName = metaData.getColumnName(i);
+      indexes.put(columnName, i);
+      indexesIgnoreCase.put(columnName.toLowerCase(Locale.ROOT), i);
+    }
+  }
+
+  boolean isFor(ResultSet rs) {
+    return resultSet.get() == rs;
+  }
+
+  // Mappers look up the indexes several times per row, so only count each row once
+  boolean isNewRow(int row) {
+    if (row == lastRow) {
+      return false;
+    }
+    lastRow = row;
+    return true;
+  }
+
+  /**
+   * Check whether the ResultSet has a column with exactly this name.
+   *
+   * @param columnName the column name
+   * @return true when the column is present
+   */
+  public boolean contains(String columnName) {
+    return indexes.containsKey(columnName);
+  }
+
+  /**
+   * Check whether the ResultSet has a column with exactly this qualified name.
+   *
+   * @param prefix the prefix, may be null
+   * @param columnName the unqualified column name
+   * @return true when the column is present
+   */
+  public boolean contains(String prefix, String columnName) {
+    return getQualifiedIndex(prefix, columnName) != ABSENT;
+  }
+
+  /**
+   * Get the index of a column. Like {@link ResultSet#findColumn}, a column whose name only differs
+   * in case is also found.
+   *
+   * @param columnName the column name
+   * @return the index of the column
+   * @throws SQLException if there is no such column
+   */
+  public int get(String columnName) throws SQLException {
+    Integer index = indexes.get(columnName);
+    if (index == null) {
+      index = indexesIgnoreCase.get(columnName.toLowerCase(Locale.ROOT));
+      if (index == null) {
+        throw new SQLException("Column not found: " + columnName);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Get the index of a qualified column.
+   *
+   * @param prefix the prefix, may be null
+   * @param columnName the unqualified column name
+   * @return the index of the column
+   * @throws SQLException if there is no such column
+   */
+  public int get(String prefix, String columnName) throws SQLException {
+    final int index = getQualifiedIndex(prefix, columnName);
+    return (index == ABSENT) ? get(DaoUtils.getQualifiedFieldName(prefix, columnName)) : index;
+  }
+
+  private int getQualifiedIndex(String prefix, String columnName) {
+    Map<String, Integer> prefixIndexes = qualifiedIndexes.get(prefix);
+    if (prefixIndexes == null) {
+      prefixIndexes = new HashMap<>();
+      qualifiedIndexes.put(prefix, prefixIndexes);
+    }
+    Integer index = prefixIndexes.get(columnName);
+    if (index == null) {
+      index = indexes.getOrDefault(DaoUtils.getQualifiedFieldName(prefix, columnName), ABSENT);
+      prefixIndexes.put(columnName, index);
+    }
+    return index;
+  }
+}
@@ -11,11 +11,12 @@ public class CommentMapper implements RowMapper<Comment> {
 
   @Override
   public Comment map(ResultSet r, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(r);
     final Comment c = new Comment();
     DaoUtils.setCommonBeanFields(c, r, "comments");
-    c.setReportUuid(r.getString("comments_reportUuid"));
-    c.setAuthorUuid(r.getString("comments_authorUuid"));
-    c.setText(r.getString("comments_text"));
+    c.setReportUuid(r.getString(columns.get("comments_reportUuid")));
+    c.setAuthorUuid(r.getString(columns.get("comments_authorUuid")));
+    c.setText(r.getString(columns.get("comments_text")));
     return c;
   }
 
@@ -17,7 +17,8 @@ public class ForeignKeyMapper<T> implements RowMapper<ForeignKeyTuple<T>> {
 
   @Override
   public ForeignKeyTuple<T> map(ResultSet rs, StatementContext ctx) throws SQLException {
-    final String foreignKey = rs.getString(foreignKeyName);
+    final String foreignKey =
+        rs.getString(MapperUtils.getColumnIndexes(rs).get(foreignKeyName));
     final T object = objectMapper.map(rs, ctx);
     return new ForeignKeyTuple<T>(foreignKey, object);
   }
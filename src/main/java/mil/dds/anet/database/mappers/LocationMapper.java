@@ -12,20 +12,28 @@ public class LocationMapper implements RowMapper<Location> {
 
   @Override
   public Location map(ResultSet rs, StatementContext ctx) throws SQLException {
-    Location l = new Location();
-    DaoUtils.setCommonBeanFields(l, rs, null);
-    l.setName(rs.getString("name"));
-    l.setStatus(MapperUtils.getEnumIdx(rs, "status", LocationStatus.class));
-    // preserve NULL values; when NULL there are no coordinates set:
-    l.setLat(DaoUtils.getOptionalDouble(rs, "lat"));
-    l.setLng(DaoUtils.getOptionalDouble(rs, "lng"));
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
+    final Location l = fillInFields(new Location(), rs, null);
 
-    if (MapperUtils.containsColumnNamed(rs, "totalCount")) {
-      ctx.define("totalCount", rs.getInt("totalCount"));
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", rs.getInt(columns.get("totalCount")));
     }
 
     return l;
   }
 
+  public static Location fillInFields(Location l, ResultSet rs, String prefix)
+      throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
+    DaoUtils.setCommonBeanFields(l, rs, prefix);
+    l.setName(rs.getString(columns.get(prefix, "name")));
+    l.setStatus(MapperUtils.getEnumIdx(rs, columns.get(prefix, "status"),
+        LocationStatus.class));
+    // preserve NULL values; when NULL there are no coordinates set:
+    l.setLat(DaoUtils.getOptionalDouble(rs, columns.get(prefix, "lat")));
+    l.setLng(DaoUtils.getOptionalDouble(rs, columns.get(prefix, "lng")));
+    return l;
+  }
+
 
 }
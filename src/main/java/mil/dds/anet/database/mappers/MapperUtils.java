@@ -6,8 +6,8 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.lang.invoke.MethodHandles;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import mil.dds.anet.database.SqlStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +16,16 @@ public class MapperUtils {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  private static final ThreadLocal<ColumnIndexes> lastColumnIndexes = new ThreadLocal<>();
+
+  // values() returns a new copy of the array on every call
+  private static final ClassValue<Object[]> enumValues = new ClassValue<Object[]>() {
+    @Override
+    protected Object[] computeValue(Class<?> type) {
+      return type.getEnumConstants();
+    }
+  };
+
   public static ObjectMapper getDefaultMapper() {
     return new ObjectMapper().registerModule(new JavaTimeModule())
         .configure(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS, false)
@@ -39,30 +49,46 @@ public class MapperUtils {
 
   public static <T extends Enum<T>> T getEnumIdx(ResultSet rs, String columnName, Class<T> clazz)
       throws SQLException {
-    Object res = rs.getObject(columnName);
-    if (res == null) {
+    return getEnumIdx(rs, getColumnIndexes(rs).get(columnName), clazz);
+  }
+
+  public static <T extends Enum<T>> T getEnumIdx(ResultSet rs, int columnIndex, Class<T> clazz)
+      throws SQLException {
+    final int idx = rs.getInt(columnIndex);
+    if (rs.wasNull()) {
       return null;
     }
-    int idx = rs.getInt(columnName);
-
-    try {
-      @SuppressWarnings("unchecked")
-      T[] values = (T[]) clazz.getMethod("values").invoke(null);
-      return values[idx];
-    } catch (Exception e) {
-      logger.error("failed to get/invoke method", e);
+    final Object[] values = enumValues.get(clazz);
+    if (idx < 0 || idx >= values.length) {
+      logger.error("invalid index {} for {}", idx, clazz.getName());
       return null;
     }
+    return clazz.cast(values[idx]);
   }
 
   public static boolean containsColumnNamed(ResultSet rs, String colName) throws SQLException {
-    ResultSetMetaData metaData = rs.getMetaData();
-    for (int i = 1; i <= metaData.getColumnCount(); i++) {
-      if (colName.equals(metaData.getColumnName(i))) {
-        return true;
-      }
+    return getColumnIndexes(rs).contains(colName);
+  }
+
+  /**
+   * Get the column indexes of a ResultSet. The rows of a ResultSet are mapped one after the other,
+   * so they are cached for the last ResultSet seen by the current thread. Each row mapped is
+   * counted in the current {@link SqlStatistics}.
+   *
+   * @param rs the ResultSet
+   * @return its column indexes
+   */
+  public static ColumnIndexes getColumnIndexes(ResultSet rs) throws SQLException {
+    ColumnIndexes columnIndexes = lastColumnIndexes.get();
+    if (columnIndexes == null || !columnIndexes.isFor(rs)) {
+      columnIndexes = new ColumnIndexes(rs);
+      lastColumnIndexes.set(columnIndexes);
+    }
+    final SqlStatistics sqlStatistics = SqlStatistics.getCurrent();
+    if (sqlStatistics != null && columnIndexes.isNewRow(rs.getRow())) {
+      sqlStatistics.addRow();
     }
-    return false;
+    return columnIndexes;
   }
 
 }
@@ -11,13 +11,14 @@ public class NoteMapper implements RowMapper<Note> {
 
   @Override
   public Note map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     final Note n = new Note();
     DaoUtils.setCommonBeanFields(n, rs, null);
-    n.setText(rs.getString("text"));
-    n.setAuthorUuid(rs.getString("authorUuid"));
+    n.setText(rs.getString(columns.get("text")));
+    n.setAuthorUuid(rs.getString(columns.get("authorUuid")));
 
-    if (MapperUtils.containsColumnNamed(rs, "totalCount")) {
-      ctx.define("totalCount", rs.getInt("totalCount"));
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", rs.getInt(columns.get("totalCount")));
     }
 
     return n;
@@ -10,10 +10,11 @@ public class NoteRelatedObjectMapper implements RowMapper<NoteRelatedObject> {
 
   @Override
   public NoteRelatedObject map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     final NoteRelatedObject nro = new NoteRelatedObject();
-    nro.setNoteUuid(rs.getString("noteUuid"));
-    nro.setRelatedObjectType(rs.getString("relatedObjectType"));
-    nro.setRelatedObjectUuid(rs.getString("relatedObjectUuid"));
+    nro.setNoteUuid(rs.getString(columns.get("noteUuid")));
+    nro.setRelatedObjectType(rs.getString(columns.get("relatedObjectType")));
+    nro.setRelatedObjectUuid(rs.getString(columns.get("relatedObjectUuid")));
     return nro;
   }
 
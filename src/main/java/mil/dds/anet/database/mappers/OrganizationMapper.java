@@ -13,21 +13,29 @@ public class OrganizationMapper implements RowMapper<Organization> {
 
   @Override
   public Organization map(ResultSet r, StatementContext ctx) throws SQLException {
-    Organization org = new Organization();
-    DaoUtils.setCommonBeanFields(org, r, "organizations");
-    org.setShortName(r.getString("organizations_shortName"));
-    org.setLongName(r.getString("organizations_longName"));
-    org.setStatus(MapperUtils.getEnumIdx(r, "organizations_status", OrganizationStatus.class));
-    org.setIdentificationCode(r.getString("organizations_identificationCode"));
-    org.setType(MapperUtils.getEnumIdx(r, "organizations_type", OrganizationType.class));
-    org.setParentOrgUuid(r.getString("organizations_parentOrgUuid"));
-
-    if (MapperUtils.containsColumnNamed(r, "totalCount")) {
-      ctx.define("totalCount", r.getInt("totalCount"));
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(r);
+    final Organization org = fillInFields(new Organization(), r, "organizations");
+
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", r.getInt(columns.get("totalCount")));
     }
 
     return org;
   }
 
+  public static Organization fillInFields(Organization org, ResultSet r, String prefix)
+      throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(r);
+    DaoUtils.setCommonBeanFields(org, r, prefix);
+    org.setShortName(r.getString(columns.get(prefix, "shortName")));
+    org.setLongName(r.getString(columns.get(prefix, "longName")));
+    org.setStatus(
+        MapperUtils.getEnumIdx(r, columns.get(prefix, "status"), OrganizationStatus.class));
+    org.setIdentificationCode(r.getString(columns.get(prefix, "identificationCode")));
+    org.setType(MapperUtils.getEnumIdx(r, columns.get(prefix, "type"), OrganizationType.class));
+    org.setParentOrgUuid(r.getString(columns.get(prefix, "parentOrgUuid")));
+    return org;
+  }
+
 
 }
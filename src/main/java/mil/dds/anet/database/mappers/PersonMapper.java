@@ -14,36 +14,43 @@ public class PersonMapper implements RowMapper<Person> {
 
   @Override
   public Person map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     Person p = fillInFields(new Person(), rs);
 
-    if (MapperUtils.containsColumnNamed(rs, "positions_uuid")) {
+    if (columns.contains("positions_uuid")) {
       p.setPosition(PositionMapper.fillInFields(new Position(), rs));
     }
 
-    if (MapperUtils.containsColumnNamed(rs, "totalCount")) {
-      ctx.define("totalCount", rs.getInt("totalCount"));
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", rs.getInt(columns.get("totalCount")));
     }
     return p;
   }
 
   public static <T extends Person> T fillInFields(T a, ResultSet r) throws SQLException {
+    return fillInFields(a, r, "people");
+  }
+
+  public static <T extends Person> T fillInFields(T a, ResultSet r, String prefix)
+      throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(r);
     // This hits when we do a join but there's no Person record.
-    if (r.getObject("people_uuid") == null) {
+    if (r.getObject(columns.get(prefix, "uuid")) == null) {
       return null;
     }
-    DaoUtils.setCommonBeanFields(a, r, "people");
-    a.setName(r.getString("people_name"));
-    a.setStatus(MapperUtils.getEnumIdx(r, "people_status", PersonStatus.class));
-    a.setRole(MapperUtils.getEnumIdx(r, "people_role", Role.class));
-    a.setEmailAddress(r.getString("people_emailAddress"));
-    a.setPhoneNumber(r.getString("people_phoneNumber"));
-    a.setCountry(r.getString("people_country"));
-    a.setGender(r.getString("people_gender"));
-    a.setEndOfTourDate(DaoUtils.getInstantAsLocalDateTime(r, "people_endOfTourDate"));
-    a.setRank(r.getString("people_rank"));
-    a.setBiography(r.getString("people_biography"));
-    a.setDomainUsername(r.getString("people_domainUsername"));
-    a.setPendingVerification(r.getBoolean("people_pendingVerification"));
+    DaoUtils.setCommonBeanFields(a, r, prefix);
+    a.setName(r.getString(columns.get(prefix, "name")));
+    a.setStatus(MapperUtils.getEnumIdx(r, columns.get(prefix, "status"), PersonStatus.class));
+    a.setRole(MapperUtils.getEnumIdx(r, columns.get(prefix, "role"), Role.class));
+    a.setEmailAddress(r.getString(columns.get(prefix, "emailAddress")));
+    a.setPhoneNumber(r.getString(columns.get(prefix, "phoneNumber")));
+    a.setCountry(r.getString(columns.get(prefix, "country")));
+    a.setGender(r.getString(columns.get(prefix, "gender")));
+    a.setEndOfTourDate(DaoUtils.getInstantAsLocalDateTime(r, columns.get(prefix, "endOfTourDate")));
+    a.setRank(r.getString(columns.get(prefix, "rank")));
+    a.setBiography(r.getString(columns.get(prefix, "biography")));
+    a.setDomainUsername(r.getString(columns.get(prefix, "domainUsername")));
+    a.setPendingVerification(r.getBoolean(columns.get(prefix, "pendingVerification")));
 
     return a;
   }
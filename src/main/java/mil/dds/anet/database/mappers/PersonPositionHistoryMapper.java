@@ -11,10 +11,11 @@ public class PersonPositionHistoryMapper implements RowMapper<PersonPositionHist
 
   @Override
   public PersonPositionHistory map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     final PersonPositionHistory pph = new PersonPositionHistory();
-    pph.setCreatedAt(DaoUtils.getInstantAsLocalDateTime(rs, "createdAt"));
-    pph.setPositionUuid(rs.getString("positionUuid"));
-    pph.setPersonUuid(rs.getString("personUuid"));
+    pph.setCreatedAt(DaoUtils.getInstantAsLocalDateTime(rs, columns.get("createdAt")));
+    pph.setPositionUuid(rs.getString(columns.get("positionUuid")));
+    pph.setPersonUuid(rs.getString(columns.get("personUuid")));
     return pph;
   }
 
@@ -13,29 +13,31 @@ public class PositionMapper implements RowMapper<Position> {
 
   @Override
   public Position map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     // This hits when we do a join but there's no Billet record.
-    if (rs.getObject("positions_uuid") == null) {
+    if (rs.getObject(columns.get("positions_uuid")) == null) {
       return null;
     }
 
     Position p = fillInFields(new Position(), rs);
 
-    if (MapperUtils.containsColumnNamed(rs, "totalCount")) {
-      ctx.define("totalCount", rs.getInt("totalCount"));
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", rs.getInt(columns.get("totalCount")));
     }
     return p;
   }
 
   public static Position fillInFields(Position p, ResultSet rs) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     DaoUtils.setCommonBeanFields(p, rs, "positions");
-    p.setName(rs.getString("positions_name"));
-    p.setCode(rs.getString("positions_code"));
-    p.setType(MapperUtils.getEnumIdx(rs, "positions_type", PositionType.class));
-    p.setStatus(MapperUtils.getEnumIdx(rs, "positions_status", PositionStatus.class));
-
-    p.setOrganizationUuid(rs.getString("positions_organizationUuid"));
-    p.setPersonUuid(rs.getString("positions_currentPersonUuid"));
-    p.setLocationUuid(rs.getString("positions_locationUuid"));
+    p.setName(rs.getString(columns.get("positions_name")));
+    p.setCode(rs.getString(columns.get("positions_code")));
+    p.setType(MapperUtils.getEnumIdx(rs, columns.get("positions_type"), PositionType.class));
+    p.setStatus(MapperUtils.getEnumIdx(rs, columns.get("positions_status"), PositionStatus.class));
+
+    p.setOrganizationUuid(rs.getString(columns.get("positions_organizationUuid")));
+    p.setPersonUuid(rs.getString(columns.get("positions_currentPersonUuid")));
+    p.setLocationUuid(rs.getString(columns.get("positions_locationUuid")));
 
     return p;
   }
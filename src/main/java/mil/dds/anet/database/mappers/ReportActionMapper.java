@@ -12,12 +12,13 @@ public class ReportActionMapper implements RowMapper<ReportAction> {
 
   @Override
   public ReportAction map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     final ReportAction aa = new ReportAction();
-    aa.setPersonUuid(rs.getString("personUuid"));
-    aa.setReportUuid(rs.getString("reportUuid"));
-    aa.setStepUuid(rs.getString("approvalStepUuid"));
-    aa.setCreatedAt(DaoUtils.getInstantAsLocalDateTime(rs, "createdAt"));
-    aa.setType(MapperUtils.getEnumIdx(rs, "type", ActionType.class));
+    aa.setPersonUuid(rs.getString(columns.get("personUuid")));
+    aa.setReportUuid(rs.getString(columns.get("reportUuid")));
+    aa.setStepUuid(rs.getString(columns.get("approvalStepUuid")));
+    aa.setCreatedAt(DaoUtils.getInstantAsLocalDateTime(rs, columns.get("createdAt")));
+    aa.setType(MapperUtils.getEnumIdx(rs, columns.get("type"), ActionType.class));
     return aa;
   }
 
@@ -14,37 +14,50 @@ public class ReportMapper implements RowMapper<Report> {
 
   @Override
   public Report map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     Report r = new Report();
     DaoUtils.setCommonBeanFields(r, rs, "reports");
 
-    r.setState(MapperUtils.getEnumIdx(rs, "reports_state", ReportState.class));
-    r.setEngagementDate(DaoUtils.getInstantAsLocalDateTime(rs, "reports_engagementDate"));
-    r.setReleasedAt(DaoUtils.getInstantAsLocalDateTime(rs, "reports_releasedAt"));
-    r.setLocationUuid(rs.getString("reports_locationUuid"));
-    r.setApprovalStepUuid(rs.getString("reports_approvalStepUuid"));
-
-    r.setIntent(rs.getString("reports_intent"));
-    r.setExsum(rs.getString("reports_exsum"));
-    r.setAtmosphere(MapperUtils.getEnumIdx(rs, "reports_atmosphere", Atmosphere.class));
-    r.setAtmosphereDetails(rs.getString("reports_atmosphereDetails"));
-    r.setCancelledReason(
-        MapperUtils.getEnumIdx(rs, "reports_cancelledReason", ReportCancelledReason.class));
-
-    r.setReportText(rs.getString("reports_text"));
-    r.setKeyOutcomes(rs.getString("reports_keyOutcomes"));
-    r.setNextSteps(rs.getString("reports_nextSteps"));
-
-    r.setAuthorUuid(rs.getString("reports_authorUuid"));
-    r.setAdvisorOrgUuid(rs.getString("reports_advisorOrganizationUuid"));
-    r.setPrincipalOrgUuid(rs.getString("reports_principalOrganizationUuid"));
-
-    if (MapperUtils.containsColumnNamed(rs, "totalCount")) {
-      ctx.define("totalCount", rs.getInt("totalCount"));
+    r.setState(MapperUtils.getEnumIdx(rs, columns.get("reports_state"), ReportState.class));
+    r.setEngagementDate(
+        DaoUtils.getInstantAsLocalDateTime(rs, columns.get("reports_engagementDate")));
+    r.setReleasedAt(DaoUtils.getInstantAsLocalDateTime(rs, columns.get("reports_releasedAt")));
+    r.setLocationUuid(rs.getString(columns.get("reports_locationUuid")));
+    r.setApprovalStepUuid(rs.getString(columns.get("reports_approvalStepUuid")));
+
+    r.setIntent(rs.getString(columns.get("reports_intent")));
+    r.setAtmosphere(
+        MapperUtils.getEnumIdx(rs, columns.get("reports_atmosphere"), Atmosphere.class));
+    r.setCancelledReason(MapperUtils.getEnumIdx(rs, columns.get("reports_cancelledReason"),
+        ReportCancelledReason.class));
+
+    if (columns.contains("reports_text")) {
+      mapTextFields(r, rs);
+    } else {
+      // The text has not been selected, it will be loaded on demand
+      r.setTextLoaded(false);
     }
-    if (MapperUtils.containsColumnNamed(rs, "engagementDayOfWeek")) {
-      r.setEngagementDayOfWeek(rs.getInt("engagementDayOfWeek"));
+
+    r.setAuthorUuid(rs.getString(columns.get("reports_authorUuid")));
+    r.setAdvisorOrgUuid(rs.getString(columns.get("reports_advisorOrganizationUuid")));
+    r.setPrincipalOrgUuid(rs.getString(columns.get("reports_principalOrganizationUuid")));
+
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", rs.getInt(columns.get("totalCount")));
+    }
+    if (columns.contains("engagementDayOfWeek")) {
+      r.setEngagementDayOfWeek(rs.getInt(columns.get("engagementDayOfWeek")));
     }
 
     return r;
   }
+
+  static void mapTextFields(Report r, ResultSet rs) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
+    r.setExsum(rs.getString(columns.get("reports_exsum")));
+    r.setAtmosphereDetails(rs.getString(columns.get("reports_atmosphereDetails")));
+    r.setReportText(rs.getString(columns.get("reports_text")));
+    r.setKeyOutcomes(rs.getString(columns.get("reports_keyOutcomes")));
+    r.setNextSteps(rs.getString(columns.get("reports_nextSteps")));
+  }
 }
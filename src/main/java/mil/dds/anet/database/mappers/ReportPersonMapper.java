@@ -10,8 +10,9 @@ public class ReportPersonMapper implements RowMapper<ReportPerson> {
 
   @Override
   public ReportPerson map(ResultSet r, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(r);
     ReportPerson rp = PersonMapper.fillInFields(new ReportPerson(), r);
-    rp.setPrimary(r.getBoolean("isPrimary"));
+    rp.setPrimary(r.getBoolean(columns.get("isPrimary")));
     return rp;
   }
 
@@ -11,9 +11,10 @@ public class ReportSensitiveInformationMapper implements RowMapper<ReportSensiti
 
   @Override
   public ReportSensitiveInformation map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     final ReportSensitiveInformation rsi = new ReportSensitiveInformation();
     DaoUtils.setCommonBeanFields(rsi, rs, "reportsSensitiveInformation");
-    rsi.setText(rs.getString("reportsSensitiveInformation_text"));
+    rsi.setText(rs.getString(columns.get("reportsSensitiveInformation_text")));
     return rsi;
   }
 
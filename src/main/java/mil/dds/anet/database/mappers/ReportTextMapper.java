@@ -0,0 +1,22 @@
+package mil.dds.anet.database.mappers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import mil.dds.anet.beans.Report;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+/**
+ * Maps just the uuid and the large text columns of a report.
+ */
+public class ReportTextMapper implements RowMapper<Report> {
+
+  @Override
+  public Report map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
+    final Report r = new Report();
+    r.setUuid(rs.getString(columns.get("reports_uuid")));
+    ReportMapper.mapTextFields(r, rs);
+    return r;
+  }
+}
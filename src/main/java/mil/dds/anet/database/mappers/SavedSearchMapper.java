@@ -12,12 +12,13 @@ public class SavedSearchMapper implements RowMapper<SavedSearch> {
 
   @Override
   public SavedSearch map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     SavedSearch ss = new SavedSearch();
     DaoUtils.setCommonBeanFields(ss, rs, null);
-    ss.setOwnerUuid(rs.getString("ownerUuid"));
-    ss.setName(rs.getString("name"));
-    ss.setObjectType(MapperUtils.getEnumIdx(rs, "objectType", SearchObjectType.class));
-    ss.setQuery(rs.getString("query"));
+    ss.setOwnerUuid(rs.getString(columns.get("ownerUuid")));
+    ss.setName(rs.getString(columns.get("name")));
+    ss.setObjectType(MapperUtils.getEnumIdx(rs, columns.get("objectType"), SearchObjectType.class));
+    ss.setQuery(rs.getString(columns.get("query")));
     return ss;
   }
 
@@ -11,13 +11,14 @@ public class TagMapper implements RowMapper<Tag> {
 
   @Override
   public Tag map(ResultSet rs, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
     final Tag t = new Tag();
     DaoUtils.setCommonBeanFields(t, rs, null);
-    t.setName(rs.getString("name"));
-    t.setDescription(rs.getString("description"));
+    t.setName(rs.getString(columns.get("name")));
+    t.setDescription(rs.getString(columns.get("description")));
 
-    if (MapperUtils.containsColumnNamed(rs, "totalCount")) {
-      ctx.define("totalCount", rs.getInt("totalCount"));
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", rs.getInt(columns.get("totalCount")));
     }
 
     return t;
@@ -12,22 +12,24 @@ public class TaskMapper implements RowMapper<Task> {
 
   @Override
   public Task map(ResultSet r, StatementContext ctx) throws SQLException {
+    final ColumnIndexes columns = MapperUtils.getColumnIndexes(r);
     Task p = new Task();
     DaoUtils.setCommonBeanFields(p, r, null);
-    p.setLongName(r.getString("longName"));
-    p.setShortName(r.getString("shortName"));
-    p.setCategory(r.getString("category"));
-    p.setCustomField(r.getString("customField"));
-    p.setCustomFieldEnum1(r.getString("customFieldEnum1"));
-    p.setCustomFieldEnum2(r.getString("customFieldEnum2"));
-    p.setPlannedCompletion(DaoUtils.getInstantAsLocalDateTime(r, "plannedCompletion"));
-    p.setProjectedCompletion(DaoUtils.getInstantAsLocalDateTime(r, "projectedCompletion"));
-    p.setStatus(MapperUtils.getEnumIdx(r, "status", TaskStatus.class));
-    p.setCustomFieldRef1Uuid(r.getString("customFieldRef1Uuid"));
-    p.setResponsibleOrgUuid(r.getString("organizationUuid"));
+    p.setLongName(r.getString(columns.get("longName")));
+    p.setShortName(r.getString(columns.get("shortName")));
+    p.setCategory(r.getString(columns.get("category")));
+    p.setCustomField(r.getString(columns.get("customField")));
+    p.setCustomFieldEnum1(r.getString(columns.get("customFieldEnum1")));
+    p.setCustomFieldEnum2(r.getString(columns.get("customFieldEnum2")));
+    p.setPlannedCompletion(DaoUtils.getInstantAsLocalDateTime(r, columns.get("plannedCompletion")));
+    p.setProjectedCompletion(
+        DaoUtils.getInstantAsLocalDateTime(r, columns.get("projectedCompletion")));
+    p.setStatus(MapperUtils.getEnumIdx(r, columns.get("status"), TaskStatus.class));
+    p.setCustomFieldRef1Uuid(r.getString(columns.get("customFieldRef1Uuid")));
+    p.setResponsibleOrgUuid(r.getString(columns.get("organizationUuid")));
 
-    if (MapperUtils.containsColumnNamed(r, "totalCount")) {
-      ctx.define("totalCount", r.getInt("totalCount"));
+    if (columns.contains("totalCount")) {
+      ctx.define("totalCount", r.getInt(columns.get("totalCount")));
     }
 
     return p;
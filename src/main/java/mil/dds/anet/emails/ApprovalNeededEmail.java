@@ -32,7 +32,9 @@ public class ApprovalNeededEmail implements AnetEmailAction {
     Report r = AnetObjectEngine.getInstance().getReportDao().getByUuid(report.getUuid());
     ApprovalStep step;
     try {
-      step = r.loadApprovalStep(AnetObjectEngine.getInstance().getContext()).get();
+      @SuppressWarnings("unchecked")
+      final Map<String, Object> loaderContext = (Map<String, Object>) context.get("context");
+      step = r.loadApprovalStep(loaderContext).get();
     } catch (InterruptedException | ExecutionException e) {
       logger.error("failed to load ApprovalStep", e);
       return context;
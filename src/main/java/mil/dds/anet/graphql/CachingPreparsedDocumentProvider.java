@@ -0,0 +1,64 @@
+package mil.dds.anet.graphql;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import java.util.function.Function;
+
+/**
+ * Caches parsed and validated GraphQL documents, keyed by the hash of their query, so that
+ * repeated queries are only parsed and validated once.
+ */
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+  private final Cache<String, PreparsedDocumentEntry> cache;
+
+  public CachingPreparsedDocumentProvider(long maximumSize, MetricRegistry metricRegistry) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    final String name = "GraphQlDocumentCache";
+    metricRegistry.register(MetricRegistry.name(name, "HitCount"),
+        (Gauge<Long>) () -> cache.stats().hitCount());
+    metricRegistry.register(MetricRegistry.name(name, "MissCount"),
+        (Gauge<Long>) () -> cache.stats().missCount());
+    metricRegistry.register(MetricRegistry.name(name, "HitRatio"),
+        (Gauge<Double>) () -> cache.stats().hitRate());
+    metricRegistry.register(MetricRegistry.name(name, "Size"), (Gauge<Long>) () -> cache.size());
+  }
+
+  @Override
+  public PreparsedDocumentEntry get(String query,
+      Function<String, PreparsedDocumentEntry> computeFunction) {
+    final String key = PersistedQueryRegistry.getQueryHash(query);
+    PreparsedDocumentEntry entry = cache.getIfPresent(key);
+    if (entry == null) {
+      entry = computeFunction.apply(query);
+      cache.put(key, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Get the parsed document for the supplied query, from the cache when possible.
+   *
+   * @param query the query
+   * @return the parsed document
+   */
+  public Document getDocument(String query) {
+    // Through the map view, so that this lookup does not count in the hit and miss statistics
+    final PreparsedDocumentEntry entry =
+        cache.asMap().get(PersistedQueryRegistry.getQueryHash(query));
+    if (entry != null && entry.getDocument() != null) {
+      return entry.getDocument();
+    }
+    return new Parser().parseDocument(query);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+}
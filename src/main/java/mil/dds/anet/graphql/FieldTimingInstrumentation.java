@@ -0,0 +1,68 @@
+package mil.dds.anet.graphql;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.GraphQLType;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of resolving each field in a timer per <code>Type.field</code>, e.g.
+ * <code>GraphQlField.Report.workflow</code>. The latency includes waiting for batched loads. Only a
+ * sample of the requests is timed, to keep the overhead low.
+ */
+public class FieldTimingInstrumentation extends SimpleInstrumentation {
+
+  private static final String TIMER_PREFIX = "GraphQlField";
+
+  private final MetricRegistry metricRegistry;
+  private final double sampleRate;
+
+  /**
+   * Creates an instance of this class.
+   *
+   * @param metricRegistry the registry for the timers
+   * @param sampleRate the fraction of requests to time, between 0 and 1
+   */
+  public FieldTimingInstrumentation(MetricRegistry metricRegistry, double sampleRate) {
+    this.metricRegistry = metricRegistry;
+    this.sampleRate = sampleRate;
+  }
+
+  @Override
+  public InstrumentationState createState() {
+    return new FieldTimingState(ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  @Override
+  public InstrumentationContext<Object> beginFieldFetch(
+      InstrumentationFieldFetchParameters parameters) {
+    final FieldTimingState state = parameters.getInstrumentationState();
+    if (!state.isSampled()) {
+      return super.beginFieldFetch(parameters);
+    }
+    final GraphQLType parentType = parameters.getEnvironment().getParentType();
+    final Timer timer = metricRegistry.timer(MetricRegistry.name(TIMER_PREFIX,
+        parentType.getName(), parameters.getField().getName()));
+    final long startTime = System.nanoTime();
+    return SimpleInstrumentationContext.whenCompleted((result, throwable) -> timer
+        .update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS));
+  }
+
+  private static class FieldTimingState implements InstrumentationState {
+    private final boolean sampled;
+
+    FieldTimingState(boolean sampled) {
+      this.sampled = sampled;
+    }
+
+    boolean isSampled() {
+      return sampled;
+    }
+  }
+}
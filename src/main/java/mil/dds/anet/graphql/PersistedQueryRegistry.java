@@ -0,0 +1,114 @@
+package mil.dds.anet.graphql;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import mil.dds.anet.config.AnetConfiguration.GraphQlConfiguration;
+import mil.dds.anet.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of persisted queries, so clients can send just the SHA-256 hash of a query instead of
+ * the full query text. Queries are either registered at startup from a file (e.g. generated by the
+ * client build), or, when allowed, on first use: the first time a client sends a query together
+ * with its hash.
+ */
+public class PersistedQueryRegistry {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final boolean registerOnFirstUse;
+  private final Map<String, String> staticQueries;
+  private final Cache<String, String> registeredQueries;
+  private final Counter hitCount;
+  private final Counter missCount;
+
+  public PersistedQueryRegistry(GraphQlConfiguration config, MetricRegistry metricRegistry) {
+    this.registerOnFirstUse = config.isRegisterPersistedQueriesOnFirstUse();
+    this.staticQueries = loadQueries(config.getPersistedQueriesFile());
+    this.registeredQueries =
+        CacheBuilder.newBuilder().maximumSize(config.getPersistedQueriesMaximumSize()).build();
+    final String name = "PersistedQueries";
+    this.hitCount = metricRegistry.counter(MetricRegistry.name(name, "HitCount"));
+    this.missCount = metricRegistry.counter(MetricRegistry.name(name, "MissCount"));
+    metricRegistry.register(MetricRegistry.name(name, "Size"),
+        (Gauge<Long>) () -> staticQueries.size() + registeredQueries.size());
+  }
+
+  public static String getQueryHash(String query) {
+    return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Look up a persisted query.
+   *
+   * @param hash the SHA-256 hash of the query
+   * @return the query, or null when not found
+   */
+  public String getQuery(String hash) {
+    String query = staticQueries.get(hash);
+    if (query == null) {
+      query = registeredQueries.getIfPresent(hash);
+    }
+    if (query == null) {
+      missCount.inc();
+    } else {
+      hitCount.inc();
+    }
+    return query;
+  }
+
+  /**
+   * Register a query sent along with its hash.
+   *
+   * @param hash the SHA-256 hash of the query, as sent by the client
+   * @param query the query
+   * @throws IllegalArgumentException when the hash does not match the query
+   */
+  public void register(String hash, String query) {
+    if (!Objects.equals(hash, getQueryHash(query))) {
+      throw new IllegalArgumentException("Provided sha256Hash does not match query");
+    }
+    if (registerOnFirstUse && !staticQueries.containsKey(hash)) {
+      registeredQueries.put(hash, query);
+    }
+  }
+
+  private static Map<String, String> loadQueries(String fileName) {
+    if (Utils.isEmptyOrNull(fileName)) {
+      return ImmutableMap.of();
+    }
+    try {
+      final Map<String, String> queries = new ObjectMapper().readValue(new File(fileName),
+          new TypeReference<Map<String, String>>() {});
+      final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+      for (final Map.Entry<String, String> entry : queries.entrySet()) {
+        if (Objects.equals(entry.getKey(), getQueryHash(entry.getValue()))) {
+          builder.put(entry);
+        } else {
+          logger.warn("Ignoring persisted query with mismatching hash {}", entry.getKey());
+        }
+      }
+      final Map<String, String> result = builder.build();
+      logger.info("Loaded {} persisted queries from {}", result.size(), fileName);
+      return result;
+    } catch (IOException e) {
+      logger.error("Error loading persisted queries from " + fileName, e);
+      return ImmutableMap.of();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package mil.dds.anet.graphql;
+
+import com.codahale.metrics.MetricRegistry;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.analysis.QueryTraversal;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.Document;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLModifiedType;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import mil.dds.anet.config.AnetConfiguration.QueryCostConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the cost of a query before it is executed, and aborts it when the cost exceeds the
+ * budget of the user. Every field costs its weight, plus the cost of its selection; for list fields
+ * the cost of the selection is multiplied by the expected size of the list, taken from the
+ * <code>pageSize</code> argument of the field or of its parent (e.g. <code>reportList(query:
+ * {pageSize: 100}) { list { ... } }</code>).
+ */
+public class QueryCostInstrumentation extends SimpleInstrumentation {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String PAGE_SIZE = "pageSize";
+
+  private final QueryCostConfiguration config;
+  private final long budget;
+  private final MetricRegistry metricRegistry;
+
+  public QueryCostInstrumentation(QueryCostConfiguration config, long budget,
+      MetricRegistry metricRegistry) {
+    this.config = config;
+    this.budget = budget;
+    this.metricRegistry = metricRegistry;
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters parameters) {
+    final long cost = calculateCost(parameters.getExecutionContext());
+    checkCost(cost, "query");
+    metricRegistry.histogram(MetricRegistry.name("GraphQlQueryCost", "Cost")).update(cost);
+    return super.beginExecuteOperation(parameters);
+  }
+
+  /**
+   * Check the total cost of a batch of operations before any of them is executed, as the operations
+   * of a batch share the budget. Operations that can't be parsed are left out; their execution
+   * reports the error.
+   *
+   * @param schema the schema
+   * @param executionInputs the operations of the batch
+   * @param documentProvider provides the parsed document of a query
+   * @throws AbortExecutionException when the total cost exceeds the budget
+   */
+  public void checkBatchCost(GraphQLSchema schema, List<ExecutionInput> executionInputs,
+      Function<String, Document> documentProvider) {
+    long totalCost = 0;
+    for (final ExecutionInput executionInput : executionInputs) {
+      try {
+        totalCost = add(totalCost,
+            calculateCost(schema, documentProvider.apply(executionInput.getQuery()),
+                executionInput.getOperationName(), executionInput.getVariables()));
+      } catch (RuntimeException e) {
+        logger.debug("Leaving invalid operation out of the batch cost", e);
+      }
+    }
+    checkCost(totalCost, "batch");
+  }
+
+  private void checkCost(long cost, String what) {
+    if (cost > budget) {
+      metricRegistry.counter(MetricRegistry.name("GraphQlQueryCost", "RejectedCount")).inc();
+      logger.warn("Rejecting {} with cost {} over budget {}", what, cost, budget);
+      throw new AbortExecutionException(
+          String.format("Query is too expensive: cost %d exceeds maximum of %d", cost, budget));
+    }
+  }
+
+  /**
+   * Calculate the cost of the operation to be executed.
+   *
+   * @param executionContext the execution context
+   * @return the cost
+   */
+  public long calculateCost(ExecutionContext executionContext) {
+    return calculateCost(executionContext.getGraphQLSchema(), executionContext.getDocument(),
+        executionContext.getOperationDefinition().getName(), executionContext.getVariables());
+  }
+
+  private long calculateCost(GraphQLSchema schema, Document document, String operationName,
+      Map<String, Object> variables) {
+    final QueryTraversal queryTraversal = QueryTraversal.newQueryTraversal().schema(schema)
+        .document(document).operationName(operationName).variables(variables).build();
+    // Sum of the costs of the selection of each field; a null key holds the total
+    final Map<QueryVisitorFieldEnvironment, Long> selectionCosts = new HashMap<>();
+    queryTraversal.visitPostOrder(new QueryVisitorStub() {
+      @Override
+      public void visitField(QueryVisitorFieldEnvironment env) {
+        if (env.isTypeNameIntrospectionField()) {
+          return;
+        }
+        final long selectionCost = selectionCosts.getOrDefault(env, 0L);
+        final long cost = add(getWeight(env), multiply(getListSize(env), selectionCost));
+        selectionCosts.merge(env.getParentEnvironment(), cost, QueryCostInstrumentation::add);
+      }
+    });
+    return selectionCosts.getOrDefault(null, 0L);
+  }
+
+  private long getWeight(QueryVisitorFieldEnvironment env) {
+    final Integer weight = config.getFieldWeights()
+        .get(env.getFieldsContainer().getName() + "." + env.getFieldDefinition().getName());
+    return (weight == null) ? 1 : weight;
+  }
+
+  private long getListSize(QueryVisitorFieldEnvironment env) {
+    if (!isList(env.getFieldDefinition().getType())) {
+      return 1;
+    }
+    Integer pageSize = getPageSize(env.getArguments());
+    final QueryVisitorFieldEnvironment parentEnv = env.getParentEnvironment();
+    if (pageSize == null && parentEnv != null
+        && !isList(parentEnv.getFieldDefinition().getType())) {
+      // E.g. the list of an AnetBeanList
+      pageSize = getPageSize(parentEnv.getArguments());
+    }
+    if (pageSize == null) {
+      return config.getDefaultListSize();
+    }
+    return (pageSize <= 0) ? config.getUnboundedListSize() : pageSize;
+  }
+
+  private static Integer getPageSize(Map<String, Object> arguments) {
+    final Object pageSize = arguments.get(PAGE_SIZE);
+    if (pageSize instanceof Number) {
+      return ((Number) pageSize).intValue();
+    }
+    // Search queries have the pageSize in their query argument
+    for (final Object argument : arguments.values()) {
+      if (argument instanceof Map<?, ?>) {
+        final Object queryPageSize = ((Map<?, ?>) argument).get(PAGE_SIZE);
+        if (queryPageSize instanceof Number) {
+          return ((Number) queryPageSize).intValue();
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean isList(GraphQLType type) {
+    while (type instanceof GraphQLNonNull) {
+      type = ((GraphQLModifiedType) type).getWrappedType();
+    }
+    return type instanceof GraphQLList;
+  }
+
+  private static long add(long a, long b) {
+    try {
+      return Math.addExact(a, b);
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  private static long multiply(long a, long b) {
+    try {
+      return Math.multiplyExact(a, b);
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package mil.dds.anet.graphql;
+
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * View of a GraphQL result as a table, for row-based output formats. The rows are those of the
+ * first list in the result, e.g. the <code>list</code> of a <code>reportList</code> query, and the
+ * columns are the leaf fields of its selection set, with nested fields flattened into e.g.
+ * <code>author.name</code>. The columns therefore don't depend on the values in the rows.
+ */
+public class TabularResult {
+
+  private final List<String> columns;
+  private final List<List<String>> columnPaths;
+  private final List<?> rows;
+
+  private TabularResult(List<List<String>> columnPaths, List<?> rows) {
+    this.columnPaths = columnPaths;
+    this.rows = rows;
+    this.columns = new ArrayList<>(columnPaths.size());
+    for (final List<String> path : columnPaths) {
+      columns.add(String.join(".", path));
+    }
+  }
+
+  /**
+   * Get the table for the supplied result.
+   *
+   * @param document the (parsed) query that produced the result
+   * @param data the data of the result
+   * @return the table; if the result has no list, a single row with the first top-level object
+   */
+  public static TabularResult of(Document document, Map<String, Object> data) {
+    final Map<String, FragmentDefinition> fragments = new HashMap<>();
+    OperationDefinition operation = null;
+    for (final Definition<?> definition : document.getDefinitions()) {
+      if (definition instanceof FragmentDefinition) {
+        final FragmentDefinition fragment = (FragmentDefinition) definition;
+        fragments.put(fragment.getName(), fragment);
+      } else if (operation == null && definition instanceof OperationDefinition) {
+        operation = (OperationDefinition) definition;
+      }
+    }
+    if (operation == null || data == null) {
+      return new TabularResult(Collections.emptyList(), Collections.emptyList());
+    }
+
+    Field singleRowField = null;
+    Object singleRow = null;
+    for (final Field field : getFields(operation.getSelectionSet(), fragments)) {
+      final Object value = data.get(getKey(field));
+      if (value instanceof List<?>) {
+        return new TabularResult(getColumnPaths(field, fragments), (List<?>) value);
+      }
+      if (value instanceof Map<?, ?> && field.getSelectionSet() != null) {
+        // Look for a list one level down, e.g. AnetBeanList.list
+        for (final Field subField : getFields(field.getSelectionSet(), fragments)) {
+          final Object subValue = ((Map<?, ?>) value).get(getKey(subField));
+          if (subValue instanceof List<?>) {
+            return new TabularResult(getColumnPaths(subField, fragments), (List<?>) subValue);
+          }
+        }
+        if (singleRowField == null) {
+          singleRowField = field;
+          singleRow = value;
+        }
+      }
+    }
+    if (singleRowField == null) {
+      return new TabularResult(Collections.emptyList(), Collections.emptyList());
+    }
+    return new TabularResult(getColumnPaths(singleRowField, fragments),
+        Collections.singletonList(singleRow));
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  public List<?> getRows() {
+    return rows;
+  }
+
+  /**
+   * Get the value of a column in a row. When the path of the column passes through a list, the
+   * result is the list of values for each of its elements.
+   *
+   * @param row the row
+   * @param column the index of the column
+   * @return the value
+   */
+  public Object getValue(Object row, int column) {
+    return getValue(row, columnPaths.get(column), 0);
+  }
+
+  private static Object getValue(Object value, List<String> path, int index) {
+    if (value == null || index == path.size()) {
+      return value;
+    }
+    if (value instanceof List<?>) {
+      final List<Object> values = new ArrayList<>();
+      for (final Object element : (List<?>) value) {
+        values.add(getValue(element, path, index));
+      }
+      return values;
+    }
+    if (value instanceof Map<?, ?>) {
+      return getValue(((Map<?, ?>) value).get(path.get(index)), path, index + 1);
+    }
+    return null;
+  }
+
+  private static List<List<String>> getColumnPaths(Field field,
+      Map<String, FragmentDefinition> fragments) {
+    final Set<List<String>> paths = new LinkedHashSet<>();
+    if (field.getSelectionSet() != null) {
+      addColumnPaths(field.getSelectionSet(), fragments, Collections.emptyList(), paths);
+    }
+    return new ArrayList<>(paths);
+  }
+
+  private static void addColumnPaths(SelectionSet selectionSet,
+      Map<String, FragmentDefinition> fragments, List<String> prefix, Set<List<String>> paths) {
+    for (final Field field : getFields(selectionSet, fragments)) {
+      final List<String> path = new ArrayList<>(prefix);
+      path.add(getKey(field));
+      if (field.getSelectionSet() == null) {
+        paths.add(path);
+      } else {
+        addColumnPaths(field.getSelectionSet(), fragments, path, paths);
+      }
+    }
+  }
+
+  private static List<Field> getFields(SelectionSet selectionSet,
+      Map<String, FragmentDefinition> fragments) {
+    final List<Field> fields = new ArrayList<>();
+    addFields(selectionSet, fragments, fields);
+    return fields;
+  }
+
+  private static void addFields(SelectionSet selectionSet,
+      Map<String, FragmentDefinition> fragments, List<Field> fields) {
+    for (final Selection<?> selection : selectionSet.getSelections()) {
+      if (selection instanceof Field) {
+        fields.add((Field) selection);
+      } else if (selection instanceof InlineFragment) {
+        addFields(((InlineFragment) selection).getSelectionSet(), fragments, fields);
+      } else if (selection instanceof FragmentSpread) {
+        final FragmentDefinition fragment =
+            fragments.get(((FragmentSpread) selection).getName());
+        if (fragment != null) {
+          addFields(fragment.getSelectionSet(), fragments, fields);
+        }
+      }
+    }
+  }
+
+  private static String getKey(Field field) {
+    return field.getAlias() == null ? field.getName() : field.getAlias();
+  }
+}
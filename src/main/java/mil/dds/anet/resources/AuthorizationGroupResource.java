@@ -1,12 +1,14 @@
 package mil.dds.anet.resources;
 
 import io.leangen.graphql.annotations.GraphQLArgument;
+import io.leangen.graphql.annotations.GraphQLEnvironment;
 import io.leangen.graphql.annotations.GraphQLMutation;
 import io.leangen.graphql.annotations.GraphQLQuery;
 import io.leangen.graphql.annotations.GraphQLRootContext;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
@@ -50,7 +52,9 @@ public class AuthorizationGroupResource {
 
   @GraphQLQuery(name = "authorizationGroupList")
   public AnetBeanList<AuthorizationGroup> search(
-      @GraphQLArgument(name = "query") AuthorizationGroupSearchQuery query) {
+      @GraphQLArgument(name = "query") AuthorizationGroupSearchQuery query,
+      @GraphQLEnvironment Set<String> fields) {
+    query.setTotalCountRequested(fields.contains("totalCount"));
     return dao.search(query);
   }
 
@@ -1,30 +1,56 @@
 package mil.dds.anet.resources;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.annotation.Timed;
-import com.github.underscore.lodash.$;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Joiner;
+import graphql.ErrorType;
 import graphql.ExceptionWhileDataFetching;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
 import graphql.GraphQL;
 import graphql.GraphQLError;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.tracing.TracingInstrumentation;
 import graphql.schema.GraphQLSchema;
 import io.dropwizard.auth.Auth;
 import io.leangen.graphql.GraphQLSchemaGenerator;
 import io.leangen.graphql.generator.mapping.common.ScalarMapper;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.RandomAccess;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import javax.annotation.security.PermitAll;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
@@ -33,28 +59,44 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.StreamingOutput;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import mil.dds.anet.AnetObjectEngine;
 import mil.dds.anet.beans.Person;
+import mil.dds.anet.beans.Position;
 import mil.dds.anet.config.AnetConfiguration;
+import mil.dds.anet.config.AnetConfiguration.FieldTimingConfiguration;
+import mil.dds.anet.config.AnetConfiguration.GraphQlConfiguration;
+import mil.dds.anet.config.AnetConfiguration.QueryCostConfiguration;
+import mil.dds.anet.config.AnetConfiguration.SqlBudgetConfiguration;
+import mil.dds.anet.database.SqlStatistics;
+import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.graphql.CachingPreparsedDocumentProvider;
 import mil.dds.anet.graphql.DateTimeMapper;
+import mil.dds.anet.graphql.FieldTimingInstrumentation;
+import mil.dds.anet.graphql.PersistedQueryRegistry;
+import mil.dds.anet.graphql.QueryCostInstrumentation;
+import mil.dds.anet.graphql.TabularResult;
 import mil.dds.anet.utils.BatchingUtils;
-import mil.dds.anet.utils.ResponseUtils;
 import mil.dds.anet.utils.Utils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.xssf.usermodel.XSSFCell;
-import org.apache.poi.xssf.usermodel.XSSFFont;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.dataloader.DataLoaderRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,25 +111,51 @@ public class GraphQlResource {
   private static final String OUTPUT_JSON = "json";
   private static final String OUTPUT_XML = "xml";
   private static final String OUTPUT_XLSX = "xlsx";
+  private static final String OUTPUT_CSV = "csv";
+  private static final String OUTPUT_NDJSON = "ndjson";
   private static final String MEDIATYPE_XLSX =
       "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+  private static final String MEDIATYPE_CSV = "text/csv";
+  private static final String MEDIATYPE_NDJSON = "application/x-ndjson";
   private static final String RESULT_KEY_DATA = "data";
+  private static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
 
   private final AnetObjectEngine engine;
   private final AnetConfiguration config;
   private final List<Object> resources;
   private final boolean developmentMode;
   private final MetricRegistry metricRegistry;
+  private final CachingPreparsedDocumentProvider documentProvider;
+  private final PersistedQueryRegistry persistedQueryRegistry;
+  private final FieldTimingInstrumentation fieldTimingInstrumentation;
+  private final Executor executor;
+  private final ScheduledExecutorService dispatchScheduler;
+  private final Counter inFlightRequests;
 
   private GraphQLSchema graphqlSchema;
 
   public GraphQlResource(AnetObjectEngine engine, AnetConfiguration config, List<Object> resources,
-      MetricRegistry metricRegistry, boolean developmentMode) {
+      MetricRegistry metricRegistry, Executor executor, ScheduledExecutorService dispatchScheduler,
+      boolean developmentMode) {
     this.engine = engine;
     this.config = config;
     this.resources = resources;
     this.metricRegistry = metricRegistry;
     this.developmentMode = developmentMode;
+    final GraphQlConfiguration graphQlConfig = config.getGraphQl();
+    this.documentProvider = new CachingPreparsedDocumentProvider(
+        graphQlConfig.getDocumentCacheSize(), metricRegistry);
+    this.persistedQueryRegistry = graphQlConfig.isPersistedQueriesEnabled()
+        ? new PersistedQueryRegistry(graphQlConfig, metricRegistry)
+        : null;
+    final FieldTimingConfiguration fieldTimingConfig = graphQlConfig.getFieldTiming();
+    this.fieldTimingInstrumentation = fieldTimingConfig.isEnabled()
+        ? new FieldTimingInstrumentation(metricRegistry, fieldTimingConfig.getSampleRate())
+        : null;
+    this.executor = executor;
+    this.dispatchScheduler = dispatchScheduler;
+    this.inFlightRequests =
+        metricRegistry.counter(MetricRegistry.name("GraphQlAsync", "InFlightCount"));
 
     buildGraph();
   }
@@ -106,48 +174,227 @@ public class GraphQlResource {
     }
 
     graphqlSchema = schemaBuilder.generate();
+    // Cached documents have been validated against the previous schema
+    documentProvider.invalidateAll();
   }
 
   @POST
   @Timed
-  @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MEDIATYPE_XLSX})
-  public Response graphqlPost(@Auth Person user, Map<String, Object> body) {
-    String query = (String) body.get("query");
-    String output = (String) body.get("output");
+  @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MEDIATYPE_XLSX,
+      MEDIATYPE_CSV, MEDIATYPE_NDJSON})
+  public void graphqlPost(@Auth Person user, Object body,
+      @Suspended AsyncResponse asyncResponse) {
+    resumeWhenDone(asyncResponse, () -> graphqlPost(user, body));
+  }
+
+  private CompletableFuture<Response> graphqlPost(Person user, Object body) {
+    if (body instanceof List<?>) {
+      return graphqlBatch(user, (List<?>) body);
+    }
+    final Map<String, Object> operation = getOperation(body);
+    String output = (String) operation.get("output");
 
     if (output == null) {
       output = OUTPUT_JSON;
     }
 
+    final String query = getQuery(operation);
+    if (query == null && getPersistedQueryHash(operation) != null) {
+      // Tell the client to retry with the full query
+      return CompletableFuture.completedFuture(
+          Response.ok(persistedQueryNotFound(), MediaType.APPLICATION_JSON).build());
+    }
+
+    return graphql(user, query, output, getVariables(operation));
+  }
+
+  /**
+   * Execute a batch of operations, sharing one {@link DataLoaderRegistry} so that loads of the
+   * same objects by different operations are batched together. The operations are executed
+   * concurrently, and the response is a JSON array of their results, in the same order.
+   *
+   * @param user the user
+   * @param operations the operations
+   * @return the response
+   */
+  private CompletableFuture<Response> graphqlBatch(Person user, List<?> operations) {
+    final int maxBatchSize = config.getGraphQl().getMaxBatchSize();
+    if (operations.isEmpty() || operations.size() > maxBatchSize) {
+      throw new WebApplicationException(
+          "A batch should have between 1 and " + maxBatchSize + " operations",
+          Status.BAD_REQUEST);
+    }
+    metricRegistry.histogram(MetricRegistry.name("GraphQlBatch", "Width"))
+        .update(operations.size());
+    if (developmentMode) {
+      buildGraph();
+    }
+
+    final List<ExecutionResult> results = new ArrayList<>(operations.size());
+    final List<ExecutionInput> executionInputs = new ArrayList<>(operations.size());
+    for (final Object body : operations) {
+      final Map<String, Object> operation = getOperation(body);
+      final String query = getQuery(operation);
+      if (query == null && getPersistedQueryHash(operation) != null) {
+        results.add(new ExecutionResultImpl(
+            new AbortExecutionException(PERSISTED_QUERY_NOT_FOUND)));
+      } else {
+        results.add(null);
+        executionInputs.add(ExecutionInput.newExecutionInput().query(query)
+            .variables(getVariables(operation)).build());
+      }
+    }
+
+    return dispatchRequests(user, executionInputs).thenApply(executionResults -> {
+      final Iterator<ExecutionResult> it = executionResults.iterator();
+      for (int i = 0; i < results.size(); i++) {
+        if (results.get(i) == null) {
+          results.set(i, it.next());
+        }
+      }
+      return Response.ok(new JsonStreamingOutput(results), MediaType.APPLICATION_JSON).build();
+    });
+  }
+
+  /**
+   * Execute the request on the executor, and resume the suspended request with the response once
+   * it is done; this frees up the request thread while the request is being executed, including
+   * its parsing and validation and its root resolvers (e.g. searches), which run synchronously.
+   *
+   * @param asyncResponse the suspended request
+   * @param responseSupplier supplies the (future) response
+   */
+  private void resumeWhenDone(AsyncResponse asyncResponse,
+      Supplier<CompletableFuture<Response>> responseSupplier) {
+    inFlightRequests.inc();
+    final Timer.Context timer =
+        metricRegistry.timer(MetricRegistry.name("GraphQlAsync", "Time")).time();
+    asyncResponse.setTimeout(config.getGraphQl().getAsyncTimeout().toMilliseconds(),
+        TimeUnit.MILLISECONDS);
+    asyncResponse.setTimeoutHandler(ar -> {
+      metricRegistry.counter(MetricRegistry.name("GraphQlAsync", "TimeoutCount")).inc();
+      ar.resume(new WebApplicationException("GraphQL request timed out",
+          Status.SERVICE_UNAVAILABLE));
+    });
+    CompletableFuture<Response> response;
+    try {
+      response = CompletableFuture.supplyAsync(responseSupplier, executor)
+          .thenCompose(Function.identity());
+    } catch (RuntimeException e) {
+      response = new CompletableFuture<>();
+      response.completeExceptionally(e);
+    }
+    response.whenComplete((r, throwable) -> {
+      inFlightRequests.dec();
+      timer.stop();
+      if (throwable == null) {
+        asyncResponse.resume(r);
+      } else {
+        asyncResponse.resume((throwable instanceof CompletionException)
+            ? throwable.getCause() : throwable);
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getOperation(Object body) {
+    if (!(body instanceof Map<?, ?>)) {
+      throw new WebApplicationException("Invalid GraphQL operation", Status.BAD_REQUEST);
+    }
+    return (Map<String, Object>) body;
+  }
+
+  private Map<String, Object> getVariables(Map<String, Object> operation) {
     @SuppressWarnings("unchecked")
-    Map<String, Object> variables = (Map<String, Object>) body.get("variables");
-    if (variables == null) {
-      variables = new HashMap<String, Object>();
+    final Map<String, Object> variables = (Map<String, Object>) operation.get("variables");
+    return (variables == null) ? new HashMap<String, Object>() : variables;
+  }
+
+  /**
+   * Get the query of an operation, looking it up or registering it when the operation has the
+   * hash of a persisted query.
+   *
+   * @param operation the operation
+   * @return the query, or null if it has no query and its persisted query is unknown
+   */
+  private String getQuery(Map<String, Object> operation) {
+    String query = (String) operation.get("query");
+    final String persistedQueryHash = getPersistedQueryHash(operation);
+    if (persistedQueryHash != null) {
+      if (query == null) {
+        // Client only sent the hash, look up the query
+        query = persistedQueryRegistry.getQuery(persistedQueryHash);
+      } else {
+        // Client sent both the query and its hash, register it for subsequent requests
+        try {
+          persistedQueryRegistry.register(persistedQueryHash, query);
+        } catch (IllegalArgumentException e) {
+          throw new WebApplicationException(e.getMessage(), Status.BAD_REQUEST);
+        }
+      }
     }
+    return query;
+  }
+
+  /**
+   * Get the hash of a persisted query, sent by the client as
+   * <code>extensions: { persistedQuery: { version: 1, sha256Hash: "..." } }</code>.
+   *
+   * @param body the request body
+   * @return the hash, or null if none was sent or persisted queries are disabled
+   */
+  private String getPersistedQueryHash(Map<String, Object> body) {
+    if (persistedQueryRegistry == null || !(body.get("extensions") instanceof Map<?, ?>)) {
+      return null;
+    }
+    final Object persistedQuery = ((Map<?, ?>) body.get("extensions")).get("persistedQuery");
+    if (!(persistedQuery instanceof Map<?, ?>)) {
+      return null;
+    }
+    final Object hash = ((Map<?, ?>) persistedQuery).get("sha256Hash");
+    return (hash instanceof String) ? (String) hash : null;
+  }
 
-    return graphql(user, query, output, variables);
+  private Map<String, Object> persistedQueryNotFound() {
+    final Map<String, Object> error = new HashMap<>();
+    error.put("message", PERSISTED_QUERY_NOT_FOUND);
+    final Map<String, Object> result = new HashMap<>();
+    result.put("errors", Collections.singletonList(error));
+    return result;
   }
 
   @GET
   @Timed
-  @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MEDIATYPE_XLSX})
-  public Response graphqlGet(@Auth Person user, @QueryParam("query") String query,
-      @DefaultValue(OUTPUT_JSON) @QueryParam("output") String output) {
-    return graphql(user, query, output, new HashMap<String, Object>());
+  @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MEDIATYPE_XLSX,
+      MEDIATYPE_CSV, MEDIATYPE_NDJSON})
+  public void graphqlGet(@Auth Person user, @QueryParam("query") String query,
+      @DefaultValue(OUTPUT_JSON) @QueryParam("output") String output,
+      @Suspended AsyncResponse asyncResponse) {
+    resumeWhenDone(asyncResponse,
+        () -> graphql(user, query, output, new HashMap<String, Object>()));
   }
 
-  protected Response graphql(@Auth Person user, String query, String output,
+  protected CompletableFuture<Response> graphql(@Auth Person user, String query, String output,
       Map<String, Object> variables) {
     if (developmentMode) {
       buildGraph();
     }
 
-    final ExecutionResult executionResult = dispatchRequest(user, query, variables);
-    final Map<String, Object> result = executionResult.toSpecification();
+    return dispatchRequest(user, query, variables)
+        .thenApply(executionResult -> toResponse(query, output, executionResult));
+  }
+
+  private Response toResponse(String query, String output, ExecutionResult executionResult) {
     if (executionResult.getErrors().size() > 0) {
       WebApplicationException actual = null;
       for (GraphQLError error : executionResult.getErrors()) {
-        if (error instanceof ExceptionWhileDataFetching) {
+        if (error instanceof AbortExecutionException
+            || error.getErrorType() == ErrorType.ValidationError
+            || error.getErrorType() == ErrorType.InvalidSyntax) {
+          // E.g. rejected by the query cost analysis, or variables not matching the schema
+          actual = new WebApplicationException(Status.BAD_REQUEST);
+          break;
+        } else if (error instanceof ExceptionWhileDataFetching) {
           ExceptionWhileDataFetching exception = (ExceptionWhileDataFetching) error;
           if (exception.getException() instanceof WebApplicationException) {
             actual = (WebApplicationException) exception.getException();
@@ -159,211 +406,345 @@ public class GraphQlResource {
       Status status = (actual != null) ? Status.fromStatusCode(actual.getResponse().getStatus())
           : Status.INTERNAL_SERVER_ERROR;
       logger.warn("Errors: {}", executionResult.getErrors());
-      return Response.status(status).entity(result).build();
+      return Response.status(status).entity(new JsonStreamingOutput(executionResult))
+          .type(MediaType.APPLICATION_JSON).build();
     }
     if (OUTPUT_XML.equals(output)) {
-      // TODO: Decide if we indeed want pretty-printed XML:
-      final String xml = ResponseUtils.toPrettyString($.toXml(result), 2);
-      return Response.ok(xml, MediaType.APPLICATION_XML).build();
+      return Response.ok(
+          new XmlStreamingOutput(executionResult, config.getGraphQl().isXmlPrettyPrint()),
+          MediaType.APPLICATION_XML).build();
     } else if (OUTPUT_XLSX.equals(output)) {
-      return Response.ok(new XssfWorkbookStreamingOutput(createWorkbook(result)), MEDIATYPE_XLSX)
+      return Response.ok(new XlsxStreamingOutput(executionResult.toSpecification()), MEDIATYPE_XLSX)
           .header("Content-Disposition", "attachment; filename=" + "anet_export.xslx").build();
+    } else if (OUTPUT_CSV.equals(output)) {
+      return Response.ok(new CsvStreamingOutput(getTabularResult(query, executionResult),
+          config.getGraphQl().getExportFlushInterval()), MEDIATYPE_CSV)
+          .header("Content-Disposition", "attachment; filename=" + "anet_export.csv").build();
+    } else if (OUTPUT_NDJSON.equals(output)) {
+      return Response.ok(new NdjsonStreamingOutput(getTabularResult(query, executionResult),
+          config.getGraphQl().getExportFlushInterval()), MEDIATYPE_NDJSON).build();
     } else {
-      return Response.ok(result, MediaType.APPLICATION_JSON).build();
+      return Response.ok(new JsonStreamingOutput(executionResult), MediaType.APPLICATION_JSON)
+          .build();
     }
   }
 
-  private ExecutionResult dispatchRequest(Person user, String query,
+  private TabularResult getTabularResult(String query, ExecutionResult executionResult) {
+    return TabularResult.of(documentProvider.getDocument(query), executionResult.getData());
+  }
+
+  private CompletableFuture<ExecutionResult> dispatchRequest(Person user, String query,
       Map<String, Object> variables) {
-    final DataLoaderRegistry dataLoaderRegistry =
-        BatchingUtils.registerDataLoaders(engine, true, true);
+    final ExecutionInput executionInput =
+        ExecutionInput.newExecutionInput().query(query).variables(variables).build();
+    return dispatchRequests(user, Collections.singletonList(executionInput))
+        .thenApply(results -> results.get(0));
+  }
+
+  private CompletableFuture<List<ExecutionResult>> dispatchRequests(Person user,
+      List<ExecutionInput> executionInputs) {
+    final SqlStatistics sqlStatistics = new SqlStatistics();
+    final DataLoaderRegistry dataLoaderRegistry = createDataLoaderRegistry(sqlStatistics);
     final Map<String, Object> context = new HashMap<>();
     context.put("user", user);
     context.put("dataLoaderRegistry", dataLoaderRegistry);
-    final ExecutionInput executionInput = ExecutionInput.newExecutionInput().query(query)
-        .dataLoaderRegistry(dataLoaderRegistry).context(context).variables(variables).build();
-
-    final GraphQL graphql = GraphQL.newGraphQL(graphqlSchema)
-        // .instrumentation(new DataLoaderDispatcherInstrumentation()) — use our own dispatcher
-        // instead
-        .build();
-    final CompletableFuture<ExecutionResult> request = graphql.executeAsync(executionInput);
-    final Runnable dispatcher = () -> {
-      while (!request.isDone()) {
-        // Wait a while, giving other threads the chance to do some work
-        try {
-          Thread.yield();
-          Thread.sleep(25);
-        } catch (InterruptedException ignored) {
-        }
 
-        // Dispatch all our data loaders until the request is done;
-        // we have data loaders at various depths (one dependent on another),
-        // e.g. in {@link Report#loadWorkflow}
-        final CompletableFuture<?>[] dispatchersWithWork = dataLoaderRegistry.getDataLoaders()
-            .stream().filter(dl -> dl.dispatchDepth() > 0)
-            .map(dl -> (CompletableFuture<?>) dl.dispatch()).toArray(CompletableFuture<?>[]::new);
-        if (dispatchersWithWork.length > 0) {
-          CompletableFuture.allOf(dispatchersWithWork).join();
+    final GraphQL.Builder graphqlBuilder =
+        GraphQL.newGraphQL(graphqlSchema).preparsedDocumentProvider(documentProvider);
+    // .instrumentation(new DataLoaderDispatcherInstrumentation()) — use our own dispatcher
+    // instead
+    final List<Instrumentation> instrumentations = new ArrayList<>();
+    final QueryCostConfiguration queryCostConfig = config.getGraphQl().getQueryCost();
+    if (queryCostConfig.isEnabled()) {
+      final Position position = user.loadPosition();
+      final long budget =
+          queryCostConfig.getBudget(position == null ? null : position.getType().toString());
+      final QueryCostInstrumentation queryCostInstrumentation =
+          new QueryCostInstrumentation(queryCostConfig, budget, metricRegistry);
+      if (executionInputs.size() > 1) {
+        try {
+          queryCostInstrumentation.checkBatchCost(graphqlSchema, executionInputs,
+              documentProvider::getDocument);
+        } catch (AbortExecutionException e) {
+          throw new WebApplicationException(e.getMessage(), Status.BAD_REQUEST);
         }
       }
-    };
-    dispatcher.run();
-    try {
-      return request.get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new WebApplicationException("failed to complete graphql request", e);
-    } finally {
-      BatchingUtils.updateStats(metricRegistry, dataLoaderRegistry);
+      instrumentations.add(queryCostInstrumentation);
+    }
+    if (fieldTimingInstrumentation != null) {
+      instrumentations.add(fieldTimingInstrumentation);
+    }
+    if (config.getGraphQl().getFieldTiming().isTracing()) {
+      instrumentations.add(new TracingInstrumentation());
     }
+    if (!instrumentations.isEmpty()) {
+      graphqlBuilder.instrumentation(new ChainedInstrumentation(instrumentations));
+    }
+    final GraphQL graphql = graphqlBuilder.build();
+    final List<CompletableFuture<ExecutionResult>> requests =
+        new ArrayList<>(executionInputs.size());
+    try (final SqlStatistics.Scope scope = sqlStatistics.enter()) {
+      for (final ExecutionInput executionInput : executionInputs) {
+        requests.add(graphql.executeAsync(executionInput.transform(
+            builder -> builder.dataLoaderRegistry(dataLoaderRegistry).context(context))));
+      }
+    }
+    // Dispatch all our data loaders until the requests are done;
+    // we have data loaders at various depths (one dependent on another),
+    // e.g. in {@link Report#loadWorkflow}
+    final CompletableFuture<Void> allRequests =
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0]));
+    // Stop dispatching when the request times out
+    return BatchingUtils
+        .dispatchAsync(dataLoaderRegistry, allRequests, executor, dispatchScheduler,
+            config.getGraphQl().getAsyncTimeout().toMilliseconds())
+        .handle((dispatchRounds, throwable) -> {
+          BatchingUtils.updateStats(metricRegistry, dataLoaderRegistry);
+          BatchingUtils.updateDispatchStats(metricRegistry, dispatchRounds);
+          if (allRequests.isCompletedExceptionally()) {
+            if (getCause(allRequests) instanceof TimeoutException) {
+              throw new WebApplicationException("GraphQL request timed out",
+                  Status.SERVICE_UNAVAILABLE);
+            }
+            throw new WebApplicationException("failed to complete graphql request",
+                getCause(allRequests));
+          }
+          checkSqlBudget(sqlStatistics, executionInputs);
+          final List<ExecutionResult> results = new ArrayList<>(requests.size());
+          for (final CompletableFuture<ExecutionResult> request : requests) {
+            results.add(addSqlStatistics(request.join(), sqlStatistics));
+          }
+          return results;
+        });
+  }
+
+  protected DataLoaderRegistry createDataLoaderRegistry(SqlStatistics sqlStatistics) {
+    return BatchingUtils.registerDataLoaders(engine, true, true, sqlStatistics);
   }
 
   /**
-   * Converts the supplied result object to a {@link XSSFWorkbook}.
-   * 
-   * @param result the result
-   * @return the workbook
+   * Record the SQL statistics of a request, and log them when they exceed the budget.
+   *
+   * @param sqlStatistics the statistics of the request
+   * @param executionInputs the operations of the request
    */
-  private XSSFWorkbook createWorkbook(final Map<String, Object> resultMap) {
-
-    XSSFWorkbook workbook = new XSSFWorkbook();
-
-    for (Entry<String, Object> entry : resultMap.entrySet()) {
-      if (entry.getValue() instanceof Map<?, ?>) {
-        locateData(workbook, entry.getKey(), (Map<?, ?>) entry.getValue());
-      }
+  private void checkSqlBudget(SqlStatistics sqlStatistics, List<ExecutionInput> executionInputs) {
+    metricRegistry.histogram(MetricRegistry.name("GraphQlSql", "StatementCount"))
+        .update(sqlStatistics.getStatementCount());
+    final SqlBudgetConfiguration sqlBudgetConfig = config.getGraphQl().getSqlBudget();
+    if (sqlBudgetConfig.isEnabled() && sqlStatistics.exceeds(sqlBudgetConfig)) {
+      metricRegistry.counter(MetricRegistry.name("GraphQlSql", "OverBudgetCount")).inc();
+      logger.warn("SQL budget exceeded: {} for {}", sqlStatistics,
+          executionInputs.stream().map(ExecutionInput::getQuery).collect(Collectors.toList()));
     }
-
-    return workbook;
   }
 
   /**
-   * Locate the data in the map and create sheets in the workbook.
-   * 
-   * @param workbook the workbook
-   * @param name the name of the collection
-   * @param data the map to obtain the data from to populate the workbook
+   * In development mode, return the SQL statistics of the request under
+   * <code>extensions.sqlStatistics</code> of the result.
+   *
+   * @param executionResult the result
+   * @param sqlStatistics the statistics of the request
+   * @return the result, with the statistics added when in development mode
    */
-  private void locateData(final XSSFWorkbook workbook, final String name, final Map<?, ?> data) {
+  private ExecutionResult addSqlStatistics(ExecutionResult executionResult,
+      SqlStatistics sqlStatistics) {
+    if (!developmentMode || !(executionResult instanceof ExecutionResultImpl)) {
+      return executionResult;
+    }
+    final Map<Object, Object> extensions = new LinkedHashMap<>();
+    if (executionResult.getExtensions() != null) {
+      extensions.putAll(executionResult.getExtensions());
+    }
+    extensions.put("sqlStatistics", sqlStatistics.toMap());
+    return ((ExecutionResultImpl) executionResult)
+        .transform(builder -> builder.extensions(extensions));
+  }
 
-    if (RESULT_KEY_DATA.equals(name)) {
-      // Go through all data collections
-      for (Entry<?, ?> entry : data.entrySet()) {
-        if (entry.getValue() instanceof Map<?, ?>) {
-          createSheet(workbook, String.valueOf(entry.getKey()), (Map<?, ?>) entry.getValue());
-        }
-      }
-    } else {
-      // Errors
-      createSheet(workbook, name, data);
+  private static Throwable getCause(CompletableFuture<?> future) {
+    try {
+      future.join();
+      return null;
+    } catch (CompletionException e) {
+      return e.getCause();
     }
   }
 
   /**
-   * Create the sheet with the supplied name in the supplied workbook using the supplied data. TODO:
-   * This should end up in a converter type class, perhaps lookup by annotations.
-   *
-   * @param workbook the workbook
-   * @param name the name for the sheet
-   * @param data the data used to populate the sheet
+   * Writer that converts a result object to a {@link SXSSFWorkbook}. Cell styles are created once
+   * per workbook, and only a window of rows is kept in memory; all other rows are flushed to disk.
    */
-  private void createSheet(final XSSFWorkbook workbook, final String name, final Map<?, ?> data) {
-
-    XSSFSheet sheet = workbook.createSheet(name);
+  private class XlsxWorkbookWriter {
 
-    sheet.setDefaultColumnWidth(30);
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    private final CellStyle dateStyle;
+    private final int maxRows;
+    private int rowsWritten;
+    private boolean truncated;
 
-    XSSFFont headerFont = workbook.createFont();
-    headerFont.setFontHeightInPoints((short) 10);
-    headerFont.setFontName("Arial");
-    headerFont.setColor(IndexedColors.WHITE.getIndex());
-    headerFont.setBold(true);
-    headerFont.setItalic(false);
+    /**
+     * Creates an instance of this class for the supplied workbook.
+     * 
+     * @param workbook the workbook
+     * @param maxRows the maximum number of data rows to write to the workbook
+     */
+    XlsxWorkbookWriter(final SXSSFWorkbook workbook, final int maxRows) {
+      this.workbook = workbook;
+      this.maxRows = maxRows;
 
-    CellStyle headerStyle = workbook.createCellStyle();
-    headerStyle.setFillBackgroundColor(IndexedColors.BLACK.getIndex());
-    headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-    headerStyle.setAlignment(HorizontalAlignment.CENTER);
-    headerStyle.setFont(headerFont);
+      final Font headerFont = workbook.createFont();
+      headerFont.setFontHeightInPoints((short) 10);
+      headerFont.setFontName("Arial");
+      headerFont.setColor(IndexedColors.WHITE.getIndex());
+      headerFont.setBold(true);
+      headerFont.setItalic(false);
 
-    final CellStyle dateStyle = workbook.createCellStyle();
-    final CreationHelper createHelper = workbook.getCreationHelper();
-    final short dateFormat = createHelper.createDataFormat()
-        .getFormat((String) config.getDictionaryEntry("dateFormats.excel"));
-    dateStyle.setDataFormat(dateFormat);
+      headerStyle = workbook.createCellStyle();
+      headerStyle.setFillBackgroundColor(IndexedColors.BLACK.getIndex());
+      headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+      headerStyle.setAlignment(HorizontalAlignment.CENTER);
+      headerStyle.setFont(headerFont);
 
-    XSSFRow header = sheet.createRow(0);
-    header.setRowStyle(headerStyle);
+      dateStyle = workbook.createCellStyle();
+      final CreationHelper createHelper = workbook.getCreationHelper();
+      final short dateFormat = createHelper.createDataFormat()
+          .getFormat((String) config.getDictionaryEntry("dateFormats.excel"));
+      dateStyle.setDataFormat(dateFormat);
+    }
 
-    for (Entry<?, ?> entry : data.entrySet()) {
-      if (entry.getValue() instanceof List<?>) {
-        createRow(sheet, header, dateStyle, (List<?>) entry.getValue());
+    /**
+     * Fills the workbook from the supplied result object.
+     * 
+     * @param resultMap the result
+     * @return the number of data rows written
+     */
+    int write(final Map<String, Object> resultMap) {
+      for (Entry<String, Object> entry : resultMap.entrySet()) {
+        if (entry.getValue() instanceof Map<?, ?>) {
+          locateData(entry.getKey(), (Map<?, ?>) entry.getValue());
+        }
+      }
+      if (truncated) {
+        logger.warn("XLSX export truncated to {} rows", maxRows);
       }
+      return rowsWritten;
     }
-  }
-
-  /**
-   * Create a row in the supplied sheet using the supplied data.
-   * 
-   * @param sheet the sheet
-   * @param header the header row
-   * @param dateStyle the style for date cells
-   * @param data the data
-   */
-  private void createRow(final XSSFSheet sheet, final XSSFRow header, final CellStyle dateStyle,
-      final List<?> data) {
-
-    int rowCount = 1;
 
-    for (Object value : data) {
-      if (value instanceof Map<?, ?>) {
-        createColumns(header, sheet.createRow(rowCount++), dateStyle, (Map<?, ?>) value);
+    /**
+     * Locate the data in the map and create sheets in the workbook.
+     * 
+     * @param name the name of the collection
+     * @param data the map to obtain the data from to populate the workbook
+     */
+    private void locateData(final String name, final Map<?, ?> data) {
+      if (RESULT_KEY_DATA.equals(name)) {
+        // Go through all data collections
+        for (Entry<?, ?> entry : data.entrySet()) {
+          if (entry.getValue() instanceof Map<?, ?>) {
+            createSheet(String.valueOf(entry.getKey()), (Map<?, ?>) entry.getValue());
+          }
+        }
+      } else {
+        // Errors
+        createSheet(name, data);
       }
     }
-  }
 
-  /**
-   * Create a column in a row of data.
-   * 
-   * @param header the header row
-   * @param row the row of data
-   * @param dateStyle the style for date cells
-   * @param data the data
-   */
-  private void createColumns(final XSSFRow header, final XSSFRow row, final CellStyle dateStyle,
-      final Map<?, ?> data) {
+    /**
+     * Create the sheet with the supplied name in the workbook using the supplied data. TODO: This
+     * should end up in a converter type class, perhaps lookup by annotations.
+     * 
+     * @param name the name for the sheet
+     * @param data the data used to populate the sheet
+     */
+    private void createSheet(final String name, final Map<?, ?> data) {
+      final SXSSFSheet sheet = workbook.createSheet(name);
+      sheet.setDefaultColumnWidth(30);
 
-    int column = 0;
+      // Determine the columns up front, as rows are flushed from memory while writing
+      final List<List<?>> lists = new ArrayList<>();
+      final Set<Object> columns = new LinkedHashSet<>();
+      for (Entry<?, ?> entry : data.entrySet()) {
+        if (entry.getValue() instanceof List<?>) {
+          final List<?> list = (List<?>) entry.getValue();
+          lists.add(list);
+          for (final Object value : list) {
+            if (value instanceof Map<?, ?>) {
+              columns.addAll(((Map<?, ?>) value).keySet());
+            }
+          }
+        }
+      }
 
-    for (Entry<?, ?> entry : data.entrySet()) {
-      if (header.getCell(column) == null) {
-        final XSSFCell headerCell = header.createCell(column);
-        headerCell.setCellValue(String.valueOf(entry.getKey()).toUpperCase());
-        headerCell.setCellStyle(header.getRowStyle());
+      final Row header = sheet.createRow(0);
+      header.setRowStyle(headerStyle);
+      int column = 0;
+      for (final Object key : columns) {
+        final Cell headerCell = header.createCell(column++);
+        headerCell.setCellValue(String.valueOf(key).toUpperCase());
+        headerCell.setCellStyle(headerStyle);
       }
 
-      final XSSFCell cell = row.createCell(column);
-      cell.setCellStyle(row.getRowStyle());
-
-      final Object repr = getValueRepr(entry.getValue());
-      if (repr != null) {
-        if (repr instanceof Integer) {
-          cell.setCellValue((Integer) repr);
-        } else if (repr instanceof Date) {
-          cell.setCellValue((Date) repr);
-          cell.setCellStyle(dateStyle);
-        } else if (repr instanceof Number) {
-          cell.setCellValue(((Number) repr).doubleValue());
-        } else {
-          cell.setCellValue(String.valueOf(repr));
+      int rowCount = 1;
+      for (final List<?> list : lists) {
+        rowCount = createRows(sheet, rowCount, columns, list);
+      }
+    }
+
+    /**
+     * Create rows in the supplied sheet using the supplied data.
+     * 
+     * @param sheet the sheet
+     * @param rowCount the index of the first row to create
+     * @param columns the keys of the columns
+     * @param data the data
+     * @return the index of the next row
+     */
+    private int createRows(final SXSSFSheet sheet, int rowCount, final Set<Object> columns,
+        final List<?> data) {
+      for (Object value : data) {
+        if (value instanceof Map<?, ?>) {
+          if (rowsWritten >= maxRows) {
+            truncated = true;
+            break;
+          }
+          createColumns(sheet.createRow(rowCount++), columns, (Map<?, ?>) value);
+          rowsWritten++;
         }
       }
+      return rowCount;
+    }
 
-      column++;
+    /**
+     * Create the columns in a row of data.
+     * 
+     * @param row the row of data
+     * @param columns the keys of the columns
+     * @param data the data
+     */
+    private void createColumns(final Row row, final Set<Object> columns, final Map<?, ?> data) {
+      int column = 0;
+      for (final Object key : columns) {
+        final Cell cell = row.createCell(column++);
+        final Object repr = getValueRepr(data.get(key));
+        if (repr != null) {
+          if (repr instanceof Integer) {
+            cell.setCellValue((Integer) repr);
+          } else if (repr instanceof Date) {
+            cell.setCellValue((Date) repr);
+            cell.setCellStyle(dateStyle);
+          } else if (repr instanceof Number) {
+            cell.setCellValue(((Number) repr).doubleValue());
+          } else {
+            cell.setCellValue(String.valueOf(repr));
+          }
+        }
+      }
     }
   }
 
-  private Object getValueRepr(Object value) {
+  private static Object getValueRepr(Object value) {
     if (value == null) {
       return null;
     } else if (value instanceof List) {
@@ -382,7 +763,7 @@ public class GraphQlResource {
     }
   }
 
-  private Object getListValueAsString(List<?> value) {
+  private static Object getListValueAsString(List<?> value) {
     final List<String> entriesAsString = new ArrayList<>();
     for (final Object entry : value) {
       final Object repr = getValueRepr(entry);
@@ -392,7 +773,7 @@ public class GraphQlResource {
     return Utils.isEmptyOrNull(result) ? "" : "[" + result + "]";
   }
 
-  private String getMapValueAsString(Map<?, ?> value) {
+  private static String getMapValueAsString(Map<?, ?> value) {
     final List<String> entriesAsString = new ArrayList<>();
     for (final Map.Entry<?, ?> entry : value.entrySet()) {
       // TODO: solve this in a more robust way
@@ -405,20 +786,365 @@ public class GraphQlResource {
   }
 
   /**
-   * {@link StreamingOutput} implementation that uses a {@link XSSFWorkbook} as the source of the
-   * stream to be written.
+   * {@link StreamingOutput} implementation that writes an {@link ExecutionResult} as JSON, in the
+   * same format as {@link ExecutionResult#toSpecification()}, directly to the output stream.
    */
-  public static class XssfWorkbookStreamingOutput implements StreamingOutput {
+  public static class JsonStreamingOutput implements StreamingOutput {
 
-    private final XSSFWorkbook workbook;
+    private static final ObjectMapper mapper = MapperUtils.getDefaultMapper();
+
+    private final List<ExecutionResult> executionResults;
+    private final boolean batch;
 
     /**
-     * Creates an instance of this class using the supplied workbook.
+     * Creates an instance of this class using the supplied execution result.
      * 
-     * @param workbook the workbook
+     * @param executionResult the execution result
      */
-    public XssfWorkbookStreamingOutput(final XSSFWorkbook workbook) {
-      this.workbook = workbook;
+    public JsonStreamingOutput(final ExecutionResult executionResult) {
+      this.executionResults = Collections.singletonList(executionResult);
+      this.batch = false;
+    }
+
+    /**
+     * Creates an instance of this class using the supplied execution results, which will be
+     * written as an array.
+     * 
+     * @param executionResults the execution results
+     */
+    public JsonStreamingOutput(final List<ExecutionResult> executionResults) {
+      this.executionResults = executionResults;
+      this.batch = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final OutputStream output) throws IOException, WebApplicationException {
+      // Leave closing the output stream to the container
+      try (final JsonGenerator generator = mapper.getFactory().createGenerator(output)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+        if (batch) {
+          generator.writeStartArray();
+        }
+        for (final ExecutionResult executionResult : executionResults) {
+          writeExecutionResult(generator, executionResult);
+        }
+        if (batch) {
+          generator.writeEndArray();
+        }
+      }
+    }
+
+    private static void writeExecutionResult(final JsonGenerator generator,
+        final ExecutionResult executionResult) throws IOException {
+      generator.writeStartObject();
+      if (isDataPresent(executionResult)) {
+        generator.writeFieldName(RESULT_KEY_DATA);
+        writeValue(generator, executionResult.getData());
+      }
+      final List<GraphQLError> errors = executionResult.getErrors();
+      if (!errors.isEmpty()) {
+        generator.writeArrayFieldStart("errors");
+        for (final GraphQLError error : errors) {
+          writeValue(generator, error.toSpecification());
+        }
+        generator.writeEndArray();
+      }
+      if (executionResult.getExtensions() != null) {
+        generator.writeFieldName("extensions");
+        writeValue(generator, executionResult.getExtensions());
+      }
+      generator.writeEndObject();
+    }
+
+    private static boolean isDataPresent(final ExecutionResult executionResult) {
+      if (executionResult instanceof ExecutionResultImpl) {
+        return ((ExecutionResultImpl) executionResult).isDataPresent();
+      }
+      return executionResult.getData() != null;
+    }
+
+    private static void writeValue(final JsonGenerator generator, final Object value)
+        throws IOException {
+      if (value == null) {
+        generator.writeNull();
+      } else if (value instanceof Map<?, ?>) {
+        generator.writeStartObject();
+        for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+          generator.writeFieldName(String.valueOf(entry.getKey()));
+          writeValue(generator, entry.getValue());
+        }
+        generator.writeEndObject();
+      } else if (value instanceof List<?>) {
+        final List<?> list = (List<?>) value;
+        generator.writeStartArray();
+        if (list instanceof RandomAccess) {
+          // Saves an iterator per list
+          for (int i = 0; i < list.size(); i++) {
+            writeValue(generator, list.get(i));
+          }
+        } else {
+          for (final Object element : list) {
+            writeValue(generator, element);
+          }
+        }
+        generator.writeEndArray();
+      } else if (value instanceof String) {
+        generator.writeString((String) value);
+      } else if (value instanceof Integer) {
+        generator.writeNumber((Integer) value);
+      } else if (value instanceof Long) {
+        generator.writeNumber((Long) value);
+      } else if (value instanceof Double) {
+        generator.writeNumber((Double) value);
+      } else if (value instanceof Boolean) {
+        generator.writeBoolean((Boolean) value);
+      } else {
+        // Scalars have already been coerced by the schema, let Jackson handle them
+        generator.writeObject(value);
+      }
+    }
+  }
+
+  /**
+   * {@link StreamingOutput} implementation that writes the rows of a {@link TabularResult} as CSV,
+   * with a header line, flushing the output stream periodically.
+   */
+  public static class CsvStreamingOutput implements StreamingOutput {
+
+    private final TabularResult table;
+    private final int flushInterval;
+
+    /**
+     * Creates an instance of this class using the supplied table.
+     * 
+     * @param table the table
+     * @param flushInterval the number of rows after which to flush the output stream
+     */
+    public CsvStreamingOutput(final TabularResult table, final int flushInterval) {
+      this.table = table;
+      this.flushInterval = flushInterval;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final OutputStream output) throws IOException, WebApplicationException {
+      final Writer writer =
+          new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+      final List<String> columns = table.getColumns();
+      writeCsvLine(writer, columns);
+      int rowCount = 0;
+      final List<String> values = new ArrayList<>(columns.size());
+      for (final Object row : table.getRows()) {
+        values.clear();
+        for (int i = 0; i < columns.size(); i++) {
+          final Object repr = getValueRepr(table.getValue(row, i));
+          values.add(repr == null ? null : String.valueOf(repr));
+        }
+        writeCsvLine(writer, values);
+        if (++rowCount % flushInterval == 0) {
+          writer.flush();
+        }
+      }
+      // Leave closing the output stream to the container
+      writer.flush();
+    }
+
+    private void writeCsvLine(final Writer writer, final List<String> values)
+        throws IOException {
+      for (int i = 0; i < values.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        final String value = values.get(i);
+        if (value != null) {
+          if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+              || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+          } else {
+            writer.write(value);
+          }
+        }
+      }
+      writer.write("\r\n");
+    }
+  }
+
+  /**
+   * {@link StreamingOutput} implementation that writes the rows of a {@link TabularResult} as
+   * newline-delimited JSON, one object per line, flushing the output stream periodically.
+   */
+  public static class NdjsonStreamingOutput implements StreamingOutput {
+
+    private static final ObjectMapper mapper = MapperUtils.getDefaultMapper();
+
+    private final TabularResult table;
+    private final int flushInterval;
+
+    /**
+     * Creates an instance of this class using the supplied table.
+     * 
+     * @param table the table
+     * @param flushInterval the number of rows after which to flush the output stream
+     */
+    public NdjsonStreamingOutput(final TabularResult table, final int flushInterval) {
+      this.table = table;
+      this.flushInterval = flushInterval;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final OutputStream output) throws IOException, WebApplicationException {
+      // Leave closing the output stream to the container
+      try (final JsonGenerator generator = mapper.getFactory().createGenerator(output)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+        generator.setRootValueSeparator(null);
+        int rowCount = 0;
+        for (final Object row : table.getRows()) {
+          JsonStreamingOutput.writeValue(generator, row);
+          generator.writeRaw('\n');
+          if (++rowCount % flushInterval == 0) {
+            generator.flush();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * {@link StreamingOutput} implementation that writes an {@link ExecutionResult} as XML directly to
+   * the output stream. When the result has a single top-level entry, that is the root element,
+   * otherwise the root element is <code>root</code>; list items are written as
+   * <code>element</code>, and numbers, booleans and nulls are marked by an attribute.
+   */
+  public static class XmlStreamingOutput implements StreamingOutput {
+
+    private static final XMLOutputFactory factory = XMLOutputFactory.newInstance();
+    private static final String ENCODING = "UTF-8";
+    // StAX can't write the standalone attribute, so write the declaration ourselves
+    private static final byte[] XML_DECLARATION =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final String ROOT_ELEMENT = "root";
+    private static final String LIST_ELEMENT = "element";
+    private static final String INDENT = "  ";
+
+    private final ExecutionResult executionResult;
+    private final boolean prettyPrint;
+
+    /**
+     * Creates an instance of this class using the supplied execution result.
+     * 
+     * @param executionResult the execution result
+     * @param prettyPrint whether to indent the output
+     */
+    public XmlStreamingOutput(final ExecutionResult executionResult, final boolean prettyPrint) {
+      this.executionResult = executionResult;
+      this.prettyPrint = prettyPrint;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final OutputStream output) throws IOException, WebApplicationException {
+      // This only wraps the data, errors and extensions in a new map
+      final Map<String, Object> result = executionResult.toSpecification();
+      try {
+        output.write(XML_DECLARATION);
+        final XMLStreamWriter writer = factory.createXMLStreamWriter(output, ENCODING);
+        if (result.size() == 1) {
+          final Entry<String, Object> entry = result.entrySet().iterator().next();
+          writeElement(writer, entry.getKey(), entry.getValue(), 0);
+        } else {
+          writeElement(writer, ROOT_ELEMENT, result, 0);
+        }
+        writer.writeEndDocument();
+        writer.flush();
+        // Leave closing the output stream to the container
+        writer.close();
+        output.write('\n');
+      } catch (XMLStreamException e) {
+        throw new IOException("Error writing XML", e);
+      }
+    }
+
+    private void writeElement(final XMLStreamWriter writer, final String name, final Object value,
+        final int depth) throws XMLStreamException {
+      indent(writer, depth);
+      if (value == null) {
+        writer.writeEmptyElement(name);
+        writer.writeAttribute("null", "true");
+      } else if (value instanceof Map<?, ?>) {
+        final Map<?, ?> map = (Map<?, ?>) value;
+        if (map.isEmpty()) {
+          writer.writeEmptyElement(name);
+        } else {
+          writer.writeStartElement(name);
+          for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            writeElement(writer, String.valueOf(entry.getKey()), entry.getValue(), depth + 1);
+          }
+          indent(writer, depth);
+          writer.writeEndElement();
+        }
+      } else if (value instanceof List<?>) {
+        final List<?> list = (List<?>) value;
+        if (list.isEmpty()) {
+          writer.writeEmptyElement(name);
+        } else {
+          writer.writeStartElement(name);
+          for (final Object element : list) {
+            writeElement(writer, LIST_ELEMENT, element, depth + 1);
+          }
+          indent(writer, depth);
+          writer.writeEndElement();
+        }
+      } else {
+        writer.writeStartElement(name);
+        if (value instanceof Number) {
+          writer.writeAttribute("number", "true");
+        } else if (value instanceof Boolean) {
+          writer.writeAttribute("boolean", "true");
+        }
+        writer.writeCharacters(String.valueOf(value));
+        writer.writeEndElement();
+      }
+    }
+
+    private void indent(final XMLStreamWriter writer, final int depth)
+        throws XMLStreamException {
+      if (prettyPrint) {
+        writer.writeCharacters("\n");
+        for (int i = 0; i < depth; i++) {
+          writer.writeCharacters(INDENT);
+        }
+      }
+    }
+  }
+
+  /**
+   * {@link StreamingOutput} implementation that writes the supplied result as a
+   * {@link SXSSFWorkbook}.
+   */
+  public class XlsxStreamingOutput implements StreamingOutput {
+
+    private final Map<String, Object> resultMap;
+
+    /**
+     * Creates an instance of this class using the supplied result.
+     * 
+     * @param resultMap the result
+     */
+    public XlsxStreamingOutput(final Map<String, Object> resultMap) {
+      this.resultMap = resultMap;
     }
 
     /**
@@ -426,13 +1152,26 @@ public class GraphQlResource {
      */
     @Override
     public void write(final OutputStream output) throws IOException, WebApplicationException {
+      final GraphQlConfiguration graphQlConfig = config.getGraphQl();
+      final Timer.Context timer =
+          metricRegistry.timer(MetricRegistry.name("XlsxExport", "Time")).time();
+      final SXSSFWorkbook workbook = new SXSSFWorkbook(graphQlConfig.getXlsxRowWindowSize());
       try {
-        // TODO: The performance of this operation, specifically with large files, should be tested.
+        final int rowsWritten =
+            new XlsxWorkbookWriter(workbook, graphQlConfig.getXlsxMaxRows()).write(resultMap);
         workbook.write(output);
-      } catch (Exception e) {
+        metricRegistry.histogram(MetricRegistry.name("XlsxExport", "RowsWritten"))
+            .update(rowsWritten);
+      } catch (RuntimeException e) {
+        // Conversion fails before anything is written, so the client gets an error status
         final Throwable rootCause = ExceptionUtils.getRootCause(e);
-        logger.error("Error writing XSSFWorkbook",
+        logger.error("Error writing SXSSFWorkbook: {}",
             rootCause == null ? e.getMessage() : rootCause.getMessage());
+        throw new WebApplicationException("Error writing SXSSFWorkbook", e);
+      } finally {
+        // Remove the temporary files backing the workbook
+        workbook.dispose();
+        timer.stop();
       }
     }
   }
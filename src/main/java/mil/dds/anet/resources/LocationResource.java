@@ -1,10 +1,12 @@
 package mil.dds.anet.resources;
 
 import io.leangen.graphql.annotations.GraphQLArgument;
+import io.leangen.graphql.annotations.GraphQLEnvironment;
 import io.leangen.graphql.annotations.GraphQLMutation;
 import io.leangen.graphql.annotations.GraphQLQuery;
 import io.leangen.graphql.annotations.GraphQLRootContext;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.WebApplicationException;
@@ -43,7 +45,9 @@ public class LocationResource {
   }
 
   @GraphQLQuery(name = "locationList")
-  public AnetBeanList<Location> search(@GraphQLArgument(name = "query") LocationSearchQuery query) {
+  public AnetBeanList<Location> search(@GraphQLArgument(name = "query") LocationSearchQuery query,
+      @GraphQLEnvironment Set<String> fields) {
+    query.setTotalCountRequested(fields.contains("totalCount"));
     return dao.search(query);
   }
 
@@ -1,6 +1,7 @@
 package mil.dds.anet.resources;
 
 import io.leangen.graphql.annotations.GraphQLArgument;
+import io.leangen.graphql.annotations.GraphQLEnvironment;
 import io.leangen.graphql.annotations.GraphQLMutation;
 import io.leangen.graphql.annotations.GraphQLQuery;
 import io.leangen.graphql.annotations.GraphQLRootContext;
@@ -8,6 +9,7 @@ import java.lang.invoke.MethodHandles;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
@@ -49,8 +51,9 @@ public class OrganizationResource {
   @GraphQLQuery(name = "organizations")
   public AnetBeanList<Organization> getAll(
       @GraphQLArgument(name = "pageNum", defaultValue = "0") Integer pageNum,
-      @GraphQLArgument(name = "pageSize", defaultValue = "100") Integer pageSize) {
-    return dao.getAll(pageNum, pageSize);
+      @GraphQLArgument(name = "pageSize", defaultValue = "100") Integer pageSize,
+      @GraphQLArgument(name = "cursor") String cursor) {
+    return dao.getAll(pageNum, pageSize, cursor);
   }
 
   @GraphQLQuery(name = "organizationTopLevelOrgs")
@@ -133,9 +136,7 @@ public class OrganizationResource {
     AuthUtils.assertSuperUserForOrg(user, DaoUtils.getUuid(org), false);
 
     // Check for loops in the hierarchy
-    final Map<String, Organization> children =
-        AnetObjectEngine.getInstance().buildTopLevelOrgHash(DaoUtils.getUuid(org));
-    if (org.getParentOrgUuid() != null && children.containsKey(org.getParentOrgUuid())) {
+    if (dao.isUnder(org.getParentOrgUuid(), DaoUtils.getUuid(org))) {
       throw new WebApplicationException("Organization can not be its own (grand…)parent");
     }
 
@@ -205,7 +206,9 @@ public class OrganizationResource {
 
   @GraphQLQuery(name = "organizationList")
   public AnetBeanList<Organization> search(
-      @GraphQLArgument(name = "query") OrganizationSearchQuery query) {
+      @GraphQLArgument(name = "query") OrganizationSearchQuery query,
+      @GraphQLEnvironment Set<String> fields) {
+    query.setTotalCountRequested(fields.contains("totalCount"));
     return dao.search(query);
   }
 
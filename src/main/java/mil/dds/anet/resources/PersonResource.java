@@ -1,11 +1,13 @@
 package mil.dds.anet.resources;
 
 import io.leangen.graphql.annotations.GraphQLArgument;
+import io.leangen.graphql.annotations.GraphQLEnvironment;
 import io.leangen.graphql.annotations.GraphQLMutation;
 import io.leangen.graphql.annotations.GraphQLQuery;
 import io.leangen.graphql.annotations.GraphQLRootContext;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
@@ -47,8 +49,9 @@ public class PersonResource {
   @GraphQLQuery(name = "people")
   public AnetBeanList<Person> getAll(
       @GraphQLArgument(name = "pageNum", defaultValue = "0") int pageNum,
-      @GraphQLArgument(name = "pageSize", defaultValue = "100") int pageSize) {
-    return dao.getAll(pageNum, pageSize);
+      @GraphQLArgument(name = "pageSize", defaultValue = "100") int pageSize,
+      @GraphQLArgument(name = "cursor") String cursor) {
+    return dao.getAll(pageNum, pageSize, cursor);
   }
 
   /**
@@ -199,7 +202,9 @@ public class PersonResource {
   }
 
   @GraphQLQuery(name = "personList")
-  public AnetBeanList<Person> search(@GraphQLArgument(name = "query") PersonSearchQuery query) {
+  public AnetBeanList<Person> search(@GraphQLArgument(name = "query") PersonSearchQuery query,
+      @GraphQLEnvironment Set<String> fields) {
+    query.setTotalCountRequested(fields.contains("totalCount"));
     return dao.search(query);
   }
 
@@ -1,11 +1,13 @@
 package mil.dds.anet.resources;
 
 import io.leangen.graphql.annotations.GraphQLArgument;
+import io.leangen.graphql.annotations.GraphQLEnvironment;
 import io.leangen.graphql.annotations.GraphQLMutation;
 import io.leangen.graphql.annotations.GraphQLQuery;
 import io.leangen.graphql.annotations.GraphQLRootContext;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.WebApplicationException;
@@ -35,8 +37,9 @@ public class PositionResource {
   @GraphQLQuery(name = "positions")
   public AnetBeanList<Position> getAll(
       @GraphQLArgument(name = "pageNum", defaultValue = "0") int pageNum,
-      @GraphQLArgument(name = "pageSize", defaultValue = "100") int pageSize) {
-    return dao.getAll(pageNum, pageSize);
+      @GraphQLArgument(name = "pageSize", defaultValue = "100") int pageSize,
+      @GraphQLArgument(name = "cursor") String cursor) {
+    return dao.getAll(pageNum, pageSize, cursor);
   }
 
   @GraphQLQuery(name = "position")
@@ -199,7 +202,9 @@ public class PositionResource {
   }
 
   @GraphQLQuery(name = "positionList")
-  public AnetBeanList<Position> search(@GraphQLArgument(name = "query") PositionSearchQuery query) {
+  public AnetBeanList<Position> search(@GraphQLArgument(name = "query") PositionSearchQuery query,
+      @GraphQLEnvironment Set<String> fields) {
+    query.setTotalCountRequested(fields.contains("totalCount"));
     return dao.search(query);
   }
 
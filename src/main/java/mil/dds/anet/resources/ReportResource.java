@@ -4,6 +4,7 @@ import freemarker.template.Configuration;
 import freemarker.template.DefaultObjectWrapperBuilder;
 import freemarker.template.Template;
 import io.leangen.graphql.annotations.GraphQLArgument;
+import io.leangen.graphql.annotations.GraphQLEnvironment;
 import io.leangen.graphql.annotations.GraphQLMutation;
 import io.leangen.graphql.annotations.GraphQLQuery;
 import io.leangen.graphql.annotations.GraphQLRootContext;
@@ -20,8 +21,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -34,7 +36,6 @@ import mil.dds.anet.beans.AdvisorReportsEntry;
 import mil.dds.anet.beans.AdvisorReportsStats;
 import mil.dds.anet.beans.AnetEmail;
 import mil.dds.anet.beans.ApprovalStep;
-import mil.dds.anet.beans.AuthorizationGroup;
 import mil.dds.anet.beans.Comment;
 import mil.dds.anet.beans.Organization;
 import mil.dds.anet.beans.Organization.OrganizationType;
@@ -60,9 +61,11 @@ import mil.dds.anet.emails.NewReportCommentEmail;
 import mil.dds.anet.emails.ReportEditedEmail;
 import mil.dds.anet.emails.ReportEmail;
 import mil.dds.anet.emails.ReportRejectionEmail;
+import mil.dds.anet.search.ReportSearchJoins;
 import mil.dds.anet.threads.AnetEmailWorker;
 import mil.dds.anet.utils.AnetAuditLogger;
 import mil.dds.anet.utils.AuthUtils;
+import mil.dds.anet.utils.BatchingContext;
 import mil.dds.anet.utils.DaoUtils;
 import mil.dds.anet.utils.Utils;
 import org.slf4j.Logger;
@@ -97,8 +100,9 @@ public class ReportResource {
   @GraphQLQuery(name = "reports")
   public AnetBeanList<Report> getAll(@GraphQLRootContext Map<String, Object> context,
       @GraphQLArgument(name = "pageNum", defaultValue = "0") Integer pageNum,
-      @GraphQLArgument(name = "pageSize", defaultValue = "100") Integer pageSize) {
-    return dao.getAll(pageNum, pageSize, DaoUtils.getUserFromContext(context));
+      @GraphQLArgument(name = "pageSize", defaultValue = "100") Integer pageSize,
+      @GraphQLArgument(name = "cursor") String cursor) {
+    return dao.getAll(pageNum, pageSize, cursor, DaoUtils.getUserFromContext(context));
   }
 
   @GraphQLQuery(name = "report")
@@ -285,25 +289,9 @@ public class ReportResource {
     if (r.getAttendees() != null) {
       try {
         // Fetch the people associated with this report
-        List<ReportPerson> existingPeople =
+        final List<ReportPerson> existingPeople =
             dao.getAttendeesForReport(engine.getContext(), r.getUuid()).get();
-        // Find any differences and fix them.
-        for (ReportPerson rp : r.getAttendees()) {
-          Optional<ReportPerson> existingPerson =
-              existingPeople.stream().filter(el -> el.getUuid().equals(rp.getUuid())).findFirst();
-          if (existingPerson.isPresent()) {
-            if (existingPerson.get().isPrimary() != rp.isPrimary()) {
-              dao.updateAttendeeOnReport(rp, r);
-            }
-            existingPeople.remove(existingPerson.get());
-          } else {
-            dao.addAttendeeToReport(rp, r);
-          }
-        }
-        // Any attendees left in existingPeople needs to be removed.
-        for (ReportPerson rp : existingPeople) {
-          dao.removeAttendeeFromReport(rp, r);
-        }
+        dao.updateAttendeesOfReport(r, existingPeople);
       } catch (InterruptedException | ExecutionException e) {
         throw new WebApplicationException("failed to load Attendees", e);
       }
@@ -312,20 +300,9 @@ public class ReportResource {
     // Update Tasks:
     if (r.getTasks() != null) {
       try {
-        List<Task> existingTasks = dao.getTasksForReport(engine.getContext(), r.getUuid()).get();
-        List<String> existingTaskUuids =
-            existingTasks.stream().map(p -> p.getUuid()).collect(Collectors.toList());
-        for (Task p : r.getTasks()) {
-          int idx = existingTaskUuids.indexOf(p.getUuid());
-          if (idx == -1) {
-            dao.addTaskToReport(p, r);
-          } else {
-            existingTaskUuids.remove(idx);
-          }
-        }
-        for (String uuid : existingTaskUuids) {
-          dao.removeTaskFromReport(uuid, r);
-        }
+        final List<Task> existingTasks =
+            dao.getTasksForReport(engine.getContext(), r.getUuid()).get();
+        dao.updateTasksOfReport(r, existingTasks);
       } catch (InterruptedException | ExecutionException e) {
         throw new WebApplicationException("failed to load Tasks", e);
       }
@@ -334,19 +311,8 @@ public class ReportResource {
     // Update Tags:
     if (r.getTags() != null) {
       try {
-        List<Tag> existingTags = dao.getTagsForReport(engine.getContext(), r.getUuid()).get();
-        for (final Tag t : r.getTags()) {
-          Optional<Tag> existingTag =
-              existingTags.stream().filter(el -> el.getUuid().equals(t.getUuid())).findFirst();
-          if (existingTag.isPresent()) {
-            existingTags.remove(existingTag.get());
-          } else {
-            dao.addTagToReport(t, r);
-          }
-        }
-        for (Tag t : existingTags) {
-          dao.removeTagFromReport(t, r);
-        }
+        final List<Tag> existingTags = dao.getTagsForReport(engine.getContext(), r.getUuid()).get();
+        dao.updateTagsOfReport(r, existingTags);
       } catch (InterruptedException | ExecutionException e) {
         throw new WebApplicationException("failed to load Tags", e);
       }
@@ -354,20 +320,7 @@ public class ReportResource {
 
     // Update AuthorizationGroups:
     if (r.getAuthorizationGroups() != null) {
-      final List<AuthorizationGroup> existingAuthorizationGroups =
-          dao.getAuthorizationGroupsForReport(r.getUuid());
-      for (final AuthorizationGroup t : r.getAuthorizationGroups()) {
-        Optional<AuthorizationGroup> existingAuthorizationGroup = existingAuthorizationGroups
-            .stream().filter(el -> el.getUuid().equals(t.getUuid())).findFirst();
-        if (existingAuthorizationGroup.isPresent()) {
-          existingAuthorizationGroups.remove(existingAuthorizationGroup.get());
-        } else {
-          dao.addAuthorizationGroupToReport(t, r);
-        }
-      }
-      for (final AuthorizationGroup t : existingAuthorizationGroups) {
-        dao.removeAuthorizationGroupFromReport(t, r);
-      }
+      dao.updateAuthorizationGroupsOfReport(r, dao.getAuthorizationGroupsForReport(r.getUuid()));
     }
 
     // Clear and re-load sensitive information; needed in case of autoSave by the client form, or
@@ -427,83 +380,90 @@ public class ReportResource {
     logger.debug("Attempting to submit report {}, which has advisor org {} and primary advisor {}",
         r, r.getAdvisorOrg(), r.getPrimaryAdvisor());
 
-    // TODO: this needs to be done by either the Author, a Superuser for the AO, or an Administrator
-    if (r.getAdvisorOrgUuid() == null) {
-      ReportPerson advisor;
-      try {
-        advisor = r.loadPrimaryAdvisor(engine.getContext()).get();
-        if (advisor == null) {
-          throw new WebApplicationException("Report missing primary advisor", Status.BAD_REQUEST);
+    // Batch and cache the loads for the rest of this request
+    try (final BatchingContext batchingContext = new BatchingContext(engine)) {
+      final Map<String, Object> loaderContext = batchingContext.getContext();
+      // TODO: this needs to be done by either the Author, a Superuser for the AO, or an
+      // Administrator
+      if (r.getAdvisorOrgUuid() == null) {
+        ReportPerson advisor;
+        try {
+          advisor = batchingContext.join(r.loadPrimaryAdvisor(loaderContext));
+          if (advisor == null) {
+            throw new WebApplicationException("Report missing primary advisor",
+                Status.BAD_REQUEST);
+          }
+          r.setAdvisorOrg(batchingContext
+              .join(engine.getOrganizationForPerson(loaderContext, advisor.getUuid())));
+        } catch (CompletionException e) {
+          throw new WebApplicationException("failed to load PrimaryAdvisor", e);
         }
-        r.setAdvisorOrg(
-            engine.getOrganizationForPerson(engine.getContext(), advisor.getUuid()).get());
-      } catch (InterruptedException | ExecutionException e) {
-        throw new WebApplicationException("failed to load PrimaryAdvisor", e);
       }
-    }
-    if (r.getPrincipalOrgUuid() == null) {
-      ReportPerson principal;
-      try {
-        principal = r.loadPrimaryPrincipal(engine.getContext()).get();
-        if (principal == null) {
-          throw new WebApplicationException("Report missing primary principal", Status.BAD_REQUEST);
+      if (r.getPrincipalOrgUuid() == null) {
+        ReportPerson principal;
+        try {
+          principal = batchingContext.join(r.loadPrimaryPrincipal(loaderContext));
+          if (principal == null) {
+            throw new WebApplicationException("Report missing primary principal",
+                Status.BAD_REQUEST);
+          }
+          r.setPrincipalOrg(batchingContext
+              .join(engine.getOrganizationForPerson(loaderContext, principal.getUuid())));
+        } catch (CompletionException e) {
+          throw new WebApplicationException("failed to load PrimaryPrincipal", e);
         }
-        r.setPrincipalOrg(
-            engine.getOrganizationForPerson(engine.getContext(), principal.getUuid()).get());
-      } catch (InterruptedException | ExecutionException e) {
-        throw new WebApplicationException("failed to load PrimaryPrincipal", e);
       }
-    }
 
-    if (r.getEngagementDate() == null) {
-      throw new WebApplicationException("Missing engagement date", Status.BAD_REQUEST);
-    } else if (r.getEngagementDate().isAfter(tomorrow()) && r.getCancelledReason() == null) {
-      throw new WebApplicationException(
-          "You cannot submit future engagements less they are cancelled", Status.BAD_REQUEST);
-    }
+      if (r.getEngagementDate() == null) {
+        throw new WebApplicationException("Missing engagement date", Status.BAD_REQUEST);
+      } else if (r.getEngagementDate().isAfter(tomorrow()) && r.getCancelledReason() == null) {
+        throw new WebApplicationException(
+            "You cannot submit future engagements less they are cancelled", Status.BAD_REQUEST);
+      }
 
-    final String orgUuid;
-    try {
-      final Organization org =
-          engine.getOrganizationForPerson(engine.getContext(), r.getAuthorUuid()).get();
-      if (org == null) {
-        // Author missing Org, use the Default Approval Workflow
-        orgUuid = engine.getDefaultOrgUuid();
-      } else {
-        orgUuid = org.getUuid();
+      final String orgUuid;
+      try {
+        final Organization org = batchingContext
+            .join(engine.getOrganizationForPerson(loaderContext, r.getAuthorUuid()));
+        if (org == null) {
+          // Author missing Org, use the Default Approval Workflow
+          orgUuid = engine.getDefaultOrgUuid();
+        } else {
+          orgUuid = org.getUuid();
+        }
+      } catch (CompletionException e) {
+        throw new WebApplicationException("failed to load Organization for Author", e);
+      }
+      List<ApprovalStep> steps = null;
+      try {
+        steps = batchingContext.join(engine.getApprovalStepsForOrg(loaderContext, orgUuid));
+        throwExceptionNoApprovalSteps(steps);
+      } catch (CompletionException e) {
+        throw new WebApplicationException("failed to load Organization for Author", e);
       }
-    } catch (InterruptedException | ExecutionException e) {
-      throw new WebApplicationException("failed to load Organization for Author", e);
-    }
-    List<ApprovalStep> steps = null;
-    try {
-      steps = engine.getApprovalStepsForOrg(engine.getContext(), orgUuid).get();
-      throwExceptionNoApprovalSteps(steps);
-    } catch (InterruptedException | ExecutionException e) {
-      throw new WebApplicationException("failed to load Organization for Author", e);
-    }
 
-    // Write the submission action
-    ReportAction action = new ReportAction();
-    action.setReportUuid(r.getUuid());
-    action.setPersonUuid(user.getUuid());
-    action.setType(ActionType.SUBMIT);
-    engine.getReportActionDao().insert(action);
-
-    // Push the report into the first step of this workflow
-    r.setApprovalStep(steps.get(0));
-    r.setState(ReportState.PENDING_APPROVAL);
-    final int numRows = dao.update(r, user);
-    sendApprovalNeededEmail(r);
-    logger.info("Putting report {} into step {} because of org {} on author {}", r.getUuid(),
-        steps.get(0).getUuid(), orgUuid, r.getAuthorUuid());
-
-    if (numRows != 1) {
-      throw new WebApplicationException("No records updated", Status.BAD_REQUEST);
-    }
+      // Write the submission action
+      ReportAction action = new ReportAction();
+      action.setReportUuid(r.getUuid());
+      action.setPersonUuid(user.getUuid());
+      action.setType(ActionType.SUBMIT);
+      engine.getReportActionDao().insert(action);
+
+      // Push the report into the first step of this workflow
+      r.setApprovalStep(steps.get(0));
+      r.setState(ReportState.PENDING_APPROVAL);
+      final int numRows = dao.update(r, user);
+      sendApprovalNeededEmail(r, batchingContext);
+      logger.info("Putting report {} into step {} because of org {} on author {}", r.getUuid(),
+          steps.get(0).getUuid(), orgUuid, r.getAuthorUuid());
+
+      if (numRows != 1) {
+        throw new WebApplicationException("No records updated", Status.BAD_REQUEST);
+      }
 
-    AnetAuditLogger.log("report {} submitted by author {} (uuid: {})", r.getUuid(),
-        r.loadAuthor(engine.getContext()).join(), r.getAuthorUuid());
+      AnetAuditLogger.log("report {} submitted by author {} (uuid: {})", r.getUuid(),
+          batchingContext.join(r.loadAuthor(loaderContext)), r.getAuthorUuid());
+    }
     // GraphQL mutations *have* to return something, we return the report
     return r;
   }
@@ -523,32 +483,36 @@ public class ReportResource {
     }
   }
 
-  private void sendApprovalNeededEmail(Report r) {
+  private void sendApprovalNeededEmail(Report r, BatchingContext batchingContext) {
+    final Map<String, Object> loaderContext = batchingContext.getContext();
     final ApprovalStep step;
     try {
-      step = r.loadApprovalStep(engine.getContext()).get();
-    } catch (InterruptedException | ExecutionException e) {
+      step = batchingContext.join(r.loadApprovalStep(loaderContext));
+    } catch (CompletionException e) {
       throw new WebApplicationException("failed to load ApprovalStep", e);
     }
     final List<Position> approvers;
     try {
-      approvers = step.loadApprovers(engine.getContext()).get();
-    } catch (InterruptedException | ExecutionException e) {
+      approvers = batchingContext.join(step.loadApprovers(loaderContext));
+    } catch (CompletionException e) {
       throw new WebApplicationException("failed to load Approvers", e);
     }
+    // Load the approving persons in one batch
+    final List<CompletableFuture<Person>> approverPersons = approvers.stream()
+        .filter(a -> (a.getPersonUuid() != null) && !a.getPersonUuid().equals(r.getAuthorUuid()))
+        .map(a -> a.loadPerson(loaderContext)).collect(Collectors.toList());
+    try {
+      batchingContext.join(CompletableFuture
+          .allOf(approverPersons.toArray(new CompletableFuture<?>[approverPersons.size()])));
+    } catch (CompletionException e) {
+      throw new WebApplicationException("failed to load Person", e);
+    }
     AnetEmail approverEmail = new AnetEmail();
     ApprovalNeededEmail action = new ApprovalNeededEmail();
     action.setReport(r);
     approverEmail.setAction(action);
-    approverEmail.setToAddresses(approvers.stream()
-        .filter(a -> (a.getPersonUuid() != null) && !a.getPersonUuid().equals(r.getAuthorUuid()))
-        .map(a -> {
-          try {
-            return a.loadPerson(engine.getContext()).get().getEmailAddress();
-          } catch (InterruptedException | ExecutionException e) {
-            throw new WebApplicationException("failed to load Person", e);
-          }
-        }).collect(Collectors.toList()));
+    approverEmail.setToAddresses(approverPersons.stream().map(p -> p.join().getEmailAddress())
+        .collect(Collectors.toList()));
     AnetEmailWorker.sendEmailAsync(approverEmail);
   }
 
@@ -613,7 +577,9 @@ public class ReportResource {
         r.setState(ReportState.APPROVED);
       }
     } else {
-      sendApprovalNeededEmail(r);
+      try (final BatchingContext batchingContext = new BatchingContext(engine)) {
+        sendApprovalNeededEmail(r, batchingContext);
+      }
     }
     final int numRows = dao.update(r, approver);
     if (numRows == 0) {
@@ -830,8 +796,13 @@ public class ReportResource {
 
   @GraphQLQuery(name = "reportList")
   public AnetBeanList<Report> search(@GraphQLRootContext Map<String, Object> context,
-      @GraphQLArgument(name = "query") ReportSearchQuery query) {
-    return dao.search(query, DaoUtils.getUserFromContext(context));
+      @GraphQLArgument(name = "query") ReportSearchQuery query,
+      @GraphQLEnvironment Set<String> fields) {
+    query.setTotalCountRequested(fields.contains("totalCount"));
+    query.setSelectedFields(AnetBeanList.getListFields(fields));
+    final AnetBeanList<Report> results = dao.search(query, DaoUtils.getUserFromContext(context));
+    ReportSearchJoins.primeDataLoaders(context, results.getList());
+    return results;
   }
 
   /**
@@ -1,11 +1,13 @@
 package mil.dds.anet.resources;
 
 import io.leangen.graphql.annotations.GraphQLArgument;
+import io.leangen.graphql.annotations.GraphQLEnvironment;
 import io.leangen.graphql.annotations.GraphQLMutation;
 import io.leangen.graphql.annotations.GraphQLQuery;
 import io.leangen.graphql.annotations.GraphQLRootContext;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.WebApplicationException;
@@ -115,7 +117,9 @@ public class TaskResource {
   }
 
   @GraphQLQuery(name = "taskList")
-  public AnetBeanList<Task> search(@GraphQLArgument(name = "query") TaskSearchQuery query) {
+  public AnetBeanList<Task> search(@GraphQLArgument(name = "query") TaskSearchQuery query,
+      @GraphQLEnvironment Set<String> fields) {
+    query.setTotalCountRequested(fields.contains("totalCount"));
     return dao.search(query);
   }
 
@@ -1,8 +1,15 @@
 package mil.dds.anet.search;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import javax.inject.Inject;
 import javax.inject.Provider;
+import mil.dds.anet.AnetObjectEngine;
+import mil.dds.anet.beans.search.AbstractSearchQuery;
 import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.statement.Query;
 
 public class AbstractSearcherBase {
 
@@ -13,4 +20,45 @@ public class AbstractSearcherBase {
     return handle.get();
   }
 
+  protected Long getTotalCount(AbstractSearchQuery query, String commonTableExpression,
+      CharSequence sql, Map<String, Object> args) {
+    return getTotalCount(query, commonTableExpression, sql, args, Collections.emptyMap());
+  }
+
+  /**
+   * Count the results of a search with a separate query, but only when the total count has been
+   * requested. The count is cached for a short while when the total count cache is enabled.
+   *
+   * @param query the search query
+   * @param commonTableExpression the common table expression of the search; may be null
+   * @param sql the search, without ordering and pagination
+   * @param args the parameters of the search
+   * @param listArgs the list parameters of the search
+   * @return the count, or null when the total count has not been requested
+   */
+  protected Long getTotalCount(AbstractSearchQuery query, String commonTableExpression,
+      CharSequence sql, Map<String, Object> args, Map<String, List<?>> listArgs) {
+    if (!query.isTotalCountRequested()) {
+      return null;
+    }
+    final String countSql = ((commonTableExpression == null) ? "" : commonTableExpression)
+        + "SELECT count(*) FROM ( " + sql + " ) counted";
+    final TotalCountCache totalCountCache =
+        AnetObjectEngine.getInstance().getSearcher().getTotalCountCache();
+    if (totalCountCache == null) {
+      return count(countSql, args, listArgs);
+    }
+    final String key =
+        countSql.replaceAll("\\s+", " ") + new TreeMap<>(args) + new TreeMap<>(listArgs);
+    return totalCountCache.get(key, () -> count(countSql, args, listArgs));
+  }
+
+  private Long count(String countSql, Map<String, Object> args, Map<String, List<?>> listArgs) {
+    final Query countQuery = getDbHandle().createQuery(countSql).bindMap(args);
+    for (final Map.Entry<String, List<?>> listArg : listArgs.entrySet()) {
+      countQuery.bindList(listArg.getKey(), listArg.getValue());
+    }
+    return countQuery.mapTo(Long.class).findOnly();
+  }
+
 }
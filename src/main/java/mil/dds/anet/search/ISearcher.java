@@ -1,5 +1,8 @@
 package mil.dds.anet.search;
 
+import com.codahale.metrics.MetricRegistry;
+import mil.dds.anet.config.AnetConfiguration.TotalCountCacheConfiguration;
+
 public interface ISearcher {
 
   public IReportSearcher getReportSearcher();
@@ -18,4 +21,9 @@ public interface ISearcher {
 
   public IAuthorizationGroupSearcher getAuthorizationGroupSearcher();
 
+  public void enableTotalCountCache(TotalCountCacheConfiguration config,
+      MetricRegistry metricRegistry);
+
+  public TotalCountCache getTotalCountCache();
+
 }
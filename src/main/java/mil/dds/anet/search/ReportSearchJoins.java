@@ -0,0 +1,185 @@
+package mil.dds.anet.search;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import mil.dds.anet.beans.Location;
+import mil.dds.anet.beans.Organization;
+import mil.dds.anet.beans.Person;
+import mil.dds.anet.beans.Report;
+import mil.dds.anet.database.LocationDao;
+import mil.dds.anet.database.OrganizationDao;
+import mil.dds.anet.database.PersonDao;
+import mil.dds.anet.database.mappers.LocationMapper;
+import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.database.mappers.OrganizationMapper;
+import mil.dds.anet.database.mappers.PersonMapper;
+import mil.dds.anet.views.AbstractAnetBean;
+import org.dataloader.DataLoaderRegistry;
+import org.jdbi.v3.core.mapper.RowMapper;
+
+/**
+ * Joins the objects that are commonly selected for each report in a list (author, advisorOrg,
+ * principalOrg and location) into the report search itself, when they are selected. Their
+ * resolvers then don't need extra round-trips to load them through their DataLoaders.
+ */
+public class ReportSearchJoins {
+
+  private enum Join {
+    AUTHOR("author", "people", "authorUuid", PersonDao.getPersonFields("author")) {
+      @Override
+      void map(Report r, ResultSet rs) throws SQLException {
+        final Person p = PersonMapper.fillInFields(new Person(), rs, field);
+        if (p != null) {
+          r.setAuthor(p);
+        }
+      }
+    },
+    ADVISOR_ORG("advisorOrg", "organizations", "advisorOrganizationUuid",
+        OrganizationDao.getOrganizationFields("advisorOrg")) {
+      @Override
+      void map(Report r, ResultSet rs) throws SQLException {
+        if (hasRow(rs)) {
+          r.setAdvisorOrg(OrganizationMapper.fillInFields(new Organization(), rs, field));
+        }
+      }
+    },
+    PRINCIPAL_ORG("principalOrg", "organizations", "principalOrganizationUuid",
+        OrganizationDao.getOrganizationFields("principalOrg")) {
+      @Override
+      void map(Report r, ResultSet rs) throws SQLException {
+        if (hasRow(rs)) {
+          r.setPrincipalOrg(OrganizationMapper.fillInFields(new Organization(), rs, field));
+        }
+      }
+    },
+    LOCATION("location", "locations", "locationUuid", LocationDao.getLocationFields("location")) {
+      @Override
+      void map(Report r, ResultSet rs) throws SQLException {
+        if (hasRow(rs)) {
+          r.setLocation(LocationMapper.fillInFields(new Location(), rs, field));
+        }
+      }
+    };
+
+    // The GraphQL field, which is also used as table alias and column prefix
+    final String field;
+    final String tableName;
+    final String foreignKey;
+    final String fields;
+
+    private Join(String field, String tableName, String foreignKey, String fields) {
+      this.field = field;
+      this.tableName = tableName;
+      this.foreignKey = foreignKey;
+      this.fields = fields;
+    }
+
+    boolean hasRow(ResultSet rs) throws SQLException {
+      // Nothing was joined when the report doesn't reference an object
+      return rs.getString(MapperUtils.getColumnIndexes(rs).get(field, "uuid")) != null;
+    }
+
+    abstract void map(Report r, ResultSet rs) throws SQLException;
+  }
+
+  private final List<Join> joins = new ArrayList<>();
+
+  /**
+   * Determine the joins.
+   *
+   * @param selectedFields the GraphQL fields selected on the reports; null when not known, in which
+   *        case nothing is joined
+   */
+  public ReportSearchJoins(Set<String> selectedFields) {
+    if (selectedFields != null) {
+      for (final Join join : Join.values()) {
+        if (selectedFields.contains(join.field)) {
+          joins.add(join);
+        }
+      }
+    }
+  }
+
+  public boolean isEmpty() {
+    return joins.isEmpty();
+  }
+
+  /**
+   * Get the fields to add to the select list.
+   *
+   * @return the fields, each preceded by a comma
+   */
+  public String getSelectFields() {
+    final StringBuilder sb = new StringBuilder();
+    for (final Join join : joins) {
+      sb.append(",").append(join.fields);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Get the joins to add to the from clause.
+   *
+   * @param reportColumn gives the reference to a column of the reports in the search
+   * @return the joins
+   */
+  public String getJoinClauses(Function<String, String> reportColumn) {
+    final StringBuilder sb = new StringBuilder();
+    for (final Join join : joins) {
+      sb.append(String.format(" LEFT JOIN %1$s \"%2$s\" ON \"%2$s\".uuid = %3$s", join.tableName,
+          join.field, reportColumn.apply(join.foreignKey)));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Get a mapper that also maps the joined objects.
+   *
+   * @param reportMapper the mapper for the reports
+   * @return the mapper
+   */
+  public RowMapper<Report> getMapper(RowMapper<Report> reportMapper) {
+    if (joins.isEmpty()) {
+      return reportMapper;
+    }
+    return (rs, ctx) -> {
+      final Report r = reportMapper.map(rs, ctx);
+      for (final Join join : joins) {
+        join.map(r, rs);
+      }
+      return r;
+    };
+  }
+
+  /**
+   * Prime the DataLoaders with the objects that were joined into the reports, so other resolvers
+   * referencing the same objects in this request don't have to load them either.
+   *
+   * @param context the GraphQL context
+   * @param reports the reports found
+   */
+  public static void primeDataLoaders(Map<String, Object> context, List<Report> reports) {
+    final DataLoaderRegistry dlr = (DataLoaderRegistry) context.get("dataLoaderRegistry");
+    if (dlr == null) {
+      return;
+    }
+    for (final Report r : reports) {
+      prime(dlr, "people", r.getAuthor());
+      prime(dlr, "organizations", r.getAdvisorOrg());
+      prime(dlr, "organizations", r.getPrincipalOrg());
+      prime(dlr, "locations", r.getLocation());
+    }
+  }
+
+  private static <T extends AbstractAnetBean> void prime(DataLoaderRegistry dlr, String dataLoader,
+      T bean) {
+    if (bean != null) {
+      dlr.<String, T>getDataLoader(dataLoader).prime(bean.getUuid(), bean);
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package mil.dds.anet.search;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.inject.Injector;
+import mil.dds.anet.config.AnetConfiguration.TotalCountCacheConfiguration;
 import mil.dds.anet.search.mssql.MssqlSearcher;
 import mil.dds.anet.search.pg.PostgresqlSearcher;
 import mil.dds.anet.search.sqlite.SqliteSearcher;
@@ -16,6 +18,7 @@ public abstract class Searcher implements ISearcher {
   private final ILocationSearcher locationSearcher;
   private final ITagSearcher tagSearcher;
   private final IAuthorizationGroupSearcher authorizationGroupSearcher;
+  private TotalCountCache totalCountCache;
 
   public static Searcher getSearcher(DaoUtils.DbType dbType, Injector injector) {
     switch (dbType) {
@@ -84,4 +87,21 @@ public abstract class Searcher implements ISearcher {
   public IAuthorizationGroupSearcher getAuthorizationGroupSearcher() {
     return authorizationGroupSearcher;
   }
+
+  /**
+   * Enable a cache, shared across requests, for the total counts of searches.
+   *
+   * @param config the cache configuration
+   * @param metricRegistry the registry for the cache metrics
+   */
+  @Override
+  public void enableTotalCountCache(TotalCountCacheConfiguration config,
+      MetricRegistry metricRegistry) {
+    totalCountCache = new TotalCountCache(config, metricRegistry);
+  }
+
+  @Override
+  public TotalCountCache getTotalCountCache() {
+    return totalCountCache;
+  }
 }
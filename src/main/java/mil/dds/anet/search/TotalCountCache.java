@@ -0,0 +1,52 @@
+package mil.dds.anet.search;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import mil.dds.anet.config.AnetConfiguration.TotalCountCacheConfiguration;
+
+/**
+ * A short-lived cache of the total counts of searches, keyed by the normalised count query and its
+ * parameters. Paging through the results of a search runs the same count query for every page.
+ */
+public class TotalCountCache {
+
+  private final Cache<String, Long> cache;
+
+  public TotalCountCache(TotalCountCacheConfiguration config, MetricRegistry metricRegistry) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(config.getMaximumSize())
+        .expireAfterWrite(config.getExpireAfterWrite().toMilliseconds(), TimeUnit.MILLISECONDS)
+        .recordStats().build();
+    if (metricRegistry != null) {
+      metricRegistry.register(MetricRegistry.name("TotalCountCache", "HitCount"),
+          (Gauge<Long>) () -> cache.stats().hitCount());
+      metricRegistry.register(MetricRegistry.name("TotalCountCache", "MissCount"),
+          (Gauge<Long>) () -> cache.stats().missCount());
+      metricRegistry.register(MetricRegistry.name("TotalCountCache", "Size"),
+          (Gauge<Long>) () -> cache.size());
+    }
+  }
+
+  /**
+   * Get a count from the cache, or count and cache it.
+   *
+   * @param key the normalised count query and its parameters
+   * @param counter runs the count query
+   * @return the count
+   */
+  public Long get(String key, Supplier<Long> counter) {
+    Long count = cache.getIfPresent(key);
+    if (count == null) {
+      count = counter.get();
+      cache.put(key, count);
+    }
+    return count;
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+}
@@ -39,7 +39,7 @@ public class MssqlAuthorizationGroupSearcher extends AbstractSearcherBase
       sql.append(", ISNULL(c_authorizationGroups.rank, 0) + ISNULL(f_authorizationGroups.rank, 0)");
       sql.append(" AS search_rank");
     }
-    sql.append(", count(*) over() as totalCount FROM authorizationGroups");
+    sql.append(" FROM authorizationGroups");
 
     if (doFullTextSearch) {
       sql.append(
@@ -73,6 +73,8 @@ public class MssqlAuthorizationGroupSearcher extends AbstractSearcherBase
     sql.append(" WHERE ");
     sql.append(Joiner.on(" AND ").join(whereClauses));
 
+    final Long totalCount = getTotalCount(query, null, sql, sqlArgs);
+
     // Sort Ordering
     final List<String> orderByClauses = new LinkedList<>();
     if (doFullTextSearch && query.getSortBy() == null) {
@@ -104,7 +106,7 @@ public class MssqlAuthorizationGroupSearcher extends AbstractSearcherBase
 
     final Query sqlQuery = MssqlSearcher.addPagination(query, getDbHandle(), sql, sqlArgs);
     return new AnetBeanList<AuthorizationGroup>(sqlQuery, query.getPageNum(), query.getPageSize(),
-        new AuthorizationGroupMapper(), null);
+        new AuthorizationGroupMapper(), totalCount);
   }
 
 }
@@ -34,7 +34,7 @@ public class MssqlLocationSearcher extends AbstractSearcherBase implements ILoca
       sql.append(", ISNULL(c_locations.rank, 0)");
       sql.append(" AS search_rank");
     }
-    sql.append(", count(*) over() as totalCount FROM locations");
+    sql.append(" FROM locations");
 
     if (doFullTextSearch) {
       sql.append(" LEFT JOIN CONTAINSTABLE (locations, (name), :containsQuery) c_locations"
@@ -56,6 +56,8 @@ public class MssqlLocationSearcher extends AbstractSearcherBase implements ILoca
     sql.append(" WHERE ");
     sql.append(Joiner.on(" AND ").join(whereClauses));
 
+    final Long totalCount = getTotalCount(query, null, sql, sqlArgs);
+
     // Sort Ordering
     final List<String> orderByClauses = new LinkedList<>();
     if (doFullTextSearch && query.getSortBy() == null) {
@@ -85,7 +87,7 @@ public class MssqlLocationSearcher extends AbstractSearcherBase implements ILoca
 
     final Query sqlQuery = MssqlSearcher.addPagination(query, getDbHandle(), sql, sqlArgs);
     return new AnetBeanList<Location>(sqlQuery, query.getPageNum(), query.getPageSize(),
-        new LocationMapper(), null);
+        new LocationMapper(), totalCount);
   }
 
 }
@@ -40,7 +40,7 @@ public class MssqlOrganizationSearcher extends AbstractSearcherBase
           + " + CASE WHEN organizations.identificationCode LIKE :likeQuery THEN 1000 ELSE 0 END");
       sql.append(" AS search_rank");
     }
-    sql.append(", count(*) OVER() AS totalCount FROM organizations");
+    sql.append(" FROM organizations");
 
     if (doFullTextSearch) {
       sql.append(
@@ -65,12 +65,8 @@ public class MssqlOrganizationSearcher extends AbstractSearcherBase
 
     if (query.getParentOrgUuid() != null) {
       if (Boolean.TRUE.equals(query.getParentOrgRecursively())) {
-        sql.insert(0, "WITH parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :parentOrgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.parentOrgUuid = po.uuid AND o.uuid != :parentOrgUuid"
-            + ") ");
-        whereClauses.add("( organizations.parentOrgUuid IN (SELECT uuid from parent_orgs) "
-            + "OR organizations.uuid = :parentOrgUuid)");
+        whereClauses.add("organizations.uuid IN (SELECT organizationUuid "
+            + "FROM organizationAncestors WHERE ancestorUuid = :parentOrgUuid)");
       } else {
         whereClauses.add("organizations.parentOrgUuid = :parentOrgUuid");
       }
@@ -85,6 +81,8 @@ public class MssqlOrganizationSearcher extends AbstractSearcherBase
     sql.append(" WHERE ");
     sql.append(Joiner.on(" AND ").join(whereClauses));
 
+    final Long totalCount = getTotalCount(query, null, sql, sqlArgs);
+
     // Sort Ordering
     final List<String> orderByClauses = new LinkedList<>();
     if (doFullTextSearch && query.getSortBy() == null) {
@@ -118,7 +116,7 @@ public class MssqlOrganizationSearcher extends AbstractSearcherBase
 
     final Query sqlQuery = MssqlSearcher.addPagination(query, getDbHandle(), sql, sqlArgs);
     return new AnetBeanList<Organization>(sqlQuery, query.getPageNum(), query.getPageSize(),
-        new OrganizationMapper(), null);
+        new OrganizationMapper(), totalCount);
   }
 
 }
@@ -50,7 +50,7 @@ public class MssqlPersonSearcher extends AbstractSearcherBase implements IPerson
       }
       sql.append(" AS search_rank");
     }
-    sql.append(", count(*) over() as totalCount FROM people");
+    sql.append(" FROM people");
 
     if (query.getOrgUuid() != null || query.getLocationUuid() != null
         || query.getMatchPositionName()) {
@@ -113,14 +113,10 @@ public class MssqlPersonSearcher extends AbstractSearcherBase implements IPerson
       sqlArgs.put("pendingVerification", query.getPendingVerification());
     }
 
-    String commonTableExpression = null;
     if (query.getOrgUuid() != null) {
       if (query.getIncludeChildOrgs() != null && query.getIncludeChildOrgs()) {
-        commonTableExpression = "WITH parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :orgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.parentOrgUuid = po.uuid "
-            + ") ";
-        whereClauses.add(" positions.organizationUuid IN (SELECT uuid from parent_orgs)");
+        whereClauses.add(" positions.organizationUuid IN (SELECT organizationUuid "
+            + "FROM organizationAncestors WHERE ancestorUuid = :orgUuid)");
       } else {
         whereClauses.add(" positions.organizationUuid = :orgUuid ");
       }
@@ -147,6 +143,8 @@ public class MssqlPersonSearcher extends AbstractSearcherBase implements IPerson
       sql.append(" GROUP BY " + PersonDao.PERSON_FIELDS_NOAS);
     }
 
+    final Long totalCount = getTotalCount(query, null, sql, sqlArgs, listArgs);
+
     // Sort Ordering
     final List<String> orderByClauses = new LinkedList<>();
     if (doFullTextSearch && query.getSortBy() == null) {
@@ -177,14 +175,10 @@ public class MssqlPersonSearcher extends AbstractSearcherBase implements IPerson
     sql.append(" ORDER BY ");
     sql.append(Joiner.on(", ").join(orderByClauses));
 
-    if (commonTableExpression != null) {
-      sql.insert(0, commonTableExpression);
-    }
-
     final Query sqlQuery =
         MssqlSearcher.addPagination(query, getDbHandle(), sql, sqlArgs, listArgs);
     return new AnetBeanList<Person>(sqlQuery, query.getPageNum(), query.getPageSize(),
-        new PersonMapper(), null);
+        new PersonMapper(), totalCount);
   }
 
 }
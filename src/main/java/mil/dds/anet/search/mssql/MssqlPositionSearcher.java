@@ -44,7 +44,7 @@ public class MssqlPositionSearcher extends AbstractSearcherBase implements IPosi
       }
       sql.append(" AS search_rank");
     }
-    sql.append(", count(*) OVER() AS totalCount FROM positions ");
+    sql.append(" FROM positions ");
 
     if (Boolean.TRUE.equals(query.getMatchPersonName())) {
       sql.append(" LEFT JOIN people ON positions.currentPersonUuid = people.uuid");
@@ -72,14 +72,10 @@ public class MssqlPositionSearcher extends AbstractSearcherBase implements IPosi
           .collect(Collectors.toList()));
     }
 
-    String commonTableExpression = null;
     if (query.getOrganizationUuid() != null) {
       if (query.getIncludeChildrenOrgs() != null && query.getIncludeChildrenOrgs()) {
-        commonTableExpression = "WITH parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :orgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.parentOrgUuid = po.uuid "
-            + ") ";
-        whereClauses.add(" positions.organizationUuid IN (SELECT uuid from parent_orgs)");
+        whereClauses.add(" positions.organizationUuid IN (SELECT organizationUuid "
+            + "FROM organizationAncestors WHERE ancestorUuid = :orgUuid)");
       } else {
         whereClauses.add("positions.organizationUuid = :orgUuid");
       }
@@ -120,6 +116,8 @@ public class MssqlPositionSearcher extends AbstractSearcherBase implements IPosi
     sql.append(" WHERE ");
     sql.append(Joiner.on(" AND ").join(whereClauses));
 
+    final Long totalCount = getTotalCount(query, null, sql, sqlArgs, listArgs);
+
     // Sort Ordering
     final List<String> orderByClauses = new LinkedList<>();
     if (doFullTextSearch && query.getSortBy() == null) {
@@ -150,14 +148,10 @@ public class MssqlPositionSearcher extends AbstractSearcherBase implements IPosi
     sql.append(" ORDER BY ");
     sql.append(Joiner.on(", ").join(orderByClauses));
 
-    if (commonTableExpression != null) {
-      sql.insert(0, commonTableExpression);
-    }
-
     final Query sqlQuery =
         MssqlSearcher.addPagination(query, getDbHandle(), sql, sqlArgs, listArgs);
     return new AnetBeanList<Position>(sqlQuery, query.getPageNum(), query.getPageSize(),
-        new PositionMapper(), null);
+        new PositionMapper(), totalCount);
   }
 
 }
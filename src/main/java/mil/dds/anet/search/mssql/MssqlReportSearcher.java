@@ -28,8 +28,11 @@ import mil.dds.anet.search.AbstractSearchBuilder.Comparison;
 import mil.dds.anet.search.AbstractSearcherBase;
 import mil.dds.anet.search.IReportSearcher;
 import mil.dds.anet.search.ReportSearchBuilder;
+import mil.dds.anet.search.ReportSearchJoins;
 import mil.dds.anet.utils.AuthUtils;
 import mil.dds.anet.utils.DaoUtils;
+import mil.dds.anet.utils.DaoUtils.DbType;
+import mil.dds.anet.utils.PageCursor;
 import mil.dds.anet.utils.Utils;
 import org.jdbi.v3.core.statement.Query;
 
@@ -41,8 +44,11 @@ public class MssqlReportSearcher extends AbstractSearcherBase implements IReport
     final Map<String, Object> args = new HashMap<String, Object>();
     final Map<String, List<?>> listArgs = new HashMap<>();
     final StringBuilder sql = new StringBuilder();
-    sql.append("/* MssqlReportSearch */ SELECT *, count(*) OVER() AS totalCount FROM (");
-    sql.append(" SELECT DISTINCT " + ReportDao.REPORT_FIELDS);
+    sql.append("/* MssqlReportSearch */ SELECT l.*");
+    // The fields of the objects joined in are inserted here, after the count
+    final int joinFieldsIndex = sql.length();
+    sql.append(" FROM (");
+    sql.append(" SELECT DISTINCT " + ReportDao.getReportFields(query.getSelectedFields()));
 
     final String text = query.getText();
     final boolean doFullTextSearch = (text != null && !text.trim().isEmpty());
@@ -129,7 +135,6 @@ public class MssqlReportSearcher extends AbstractSearcherBase implements IReport
       }
     }
 
-    String commonTableExpression = null;
     if (query.getOrgUuid() != null) {
       if (query.getAdvisorOrgUuid() != null || query.getPrincipalOrgUuid() != null) {
         throw new WebApplicationException(
@@ -137,12 +142,10 @@ public class MssqlReportSearcher extends AbstractSearcherBase implements IReport
             Status.BAD_REQUEST);
       }
       if (query.getIncludeOrgChildren()) {
-        commonTableExpression = "WITH parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :orgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.parentOrgUuid = po.uuid "
-            + ")";
-        whereClauses.add("(reports.advisorOrganizationUuid IN (SELECT uuid from parent_orgs) "
-            + "OR reports.principalOrganizationUuid IN (SELECT uuid from parent_orgs))");
+        whereClauses.add("(reports.advisorOrganizationUuid IN (SELECT organizationUuid "
+            + "FROM organizationAncestors WHERE ancestorUuid = :orgUuid) "
+            + "OR reports.principalOrganizationUuid IN (SELECT organizationUuid "
+            + "FROM organizationAncestors WHERE ancestorUuid = :orgUuid))");
       } else {
         whereClauses.add(
             "(reports.advisorOrganizationUuid = :orgUuid OR reports.principalOrganizationUuid = :orgUuid)");
@@ -154,11 +157,8 @@ public class MssqlReportSearcher extends AbstractSearcherBase implements IReport
       if (Organization.DUMMY_ORG_UUID.equals(query.getAdvisorOrgUuid())) {
         whereClauses.add("reports.advisorOrganizationUuid IS NULL");
       } else if (query.getIncludeAdvisorOrgChildren()) {
-        commonTableExpression = "WITH parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :advisorOrgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.parentOrgUuid = po.uuid "
-            + ")";
-        whereClauses.add("reports.advisorOrganizationUuid IN (SELECT uuid from parent_orgs)");
+        whereClauses.add("reports.advisorOrganizationUuid IN (SELECT organizationUuid "
+            + "FROM organizationAncestors WHERE ancestorUuid = :advisorOrgUuid)");
       } else {
         whereClauses.add("reports.advisorOrganizationUuid = :advisorOrgUuid");
       }
@@ -170,11 +170,8 @@ public class MssqlReportSearcher extends AbstractSearcherBase implements IReport
       if (Organization.DUMMY_ORG_UUID.equals(query.getPrincipalOrgUuid())) {
         whereClauses.add("reports.principalOrganizationUuid IS NULL");
       } else if (query.getIncludePrincipalOrgChildren()) {
-        commonTableExpression = "WITH parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :principalOrgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.parentOrgUuid = po.uuid "
-            + ")";
-        whereClauses.add("reports.principalOrganizationUuid IN (SELECT uuid from parent_orgs)");
+        whereClauses.add("reports.principalOrganizationUuid IN (SELECT organizationUuid "
+            + "FROM organizationAncestors WHERE ancestorUuid = :principalOrgUuid)");
       } else {
         whereClauses.add("reports.principalOrganizationUuid = :principalOrgUuid");
       }
@@ -293,9 +290,16 @@ public class MssqlReportSearcher extends AbstractSearcherBase implements IReport
     sql.append(Joiner.on(" AND ").join(whereClauses));
     sql.append(" ) l");
 
+    final Long totalCount = getTotalCount(query, null, sql, args, listArgs);
+
+    final ReportSearchJoins joins = new ReportSearchJoins(query.getSelectedFields());
+    sql.insert(joinFieldsIndex, joins.getSelectFields());
+    sql.append(joins.getJoinClauses(column -> "l.reports_" + column));
+
     // Sort Ordering
     final List<String> orderByClauses = new LinkedList<>();
-    if (doFullTextSearch && query.getSortBy() == null) {
+    final boolean sortByRank = doFullTextSearch && query.getSortBy() == null;
+    if (sortByRank) {
       // We're doing a full-text search without an explicit sort order,
       // so sort first on the search pseudo-rank.
       orderByClauses.addAll(Utils.addOrderBy(SortOrder.DESC, null, "search_rank"));
@@ -308,34 +312,50 @@ public class MssqlReportSearcher extends AbstractSearcherBase implements IReport
       query.setSortOrder(SortOrder.DESC);
     }
     // Beware of the sort field names, they have to match what's in the selected fields!
+    final String sortColumn;
     switch (query.getSortBy()) {
       case CREATED_AT:
-        orderByClauses.addAll(Utils.addOrderBy(query.getSortOrder(), null, "reports_createdAt"));
+        sortColumn = "reports_createdAt";
         break;
       case RELEASED_AT:
-        orderByClauses.addAll(Utils.addOrderBy(query.getSortOrder(), null, "reports_releasedAt"));
+        sortColumn = "reports_releasedAt";
         break;
       case UPDATED_AT:
-        orderByClauses.addAll(Utils.addOrderBy(query.getSortOrder(), null, "reports_updatedAt"));
+        sortColumn = "reports_updatedAt";
         break;
       case ENGAGEMENT_DATE:
       default:
-        orderByClauses
-            .addAll(Utils.addOrderBy(query.getSortOrder(), null, "reports_engagementDate"));
+        sortColumn = "reports_engagementDate";
         break;
     }
+    orderByClauses.addAll(Utils.addOrderBy(query.getSortOrder(), null, sortColumn));
     orderByClauses.addAll(Utils.addOrderBy(SortOrder.ASC, null, "reports_uuid"));
-    sql.append(" ORDER BY ");
-    sql.append(Joiner.on(", ").join(orderByClauses));
 
-    if (commonTableExpression != null) {
-      sql.insert(0, commonTableExpression);
+    final String sortKey = PageCursor.getSortKey(query.getSortBy(), query.getSortOrder());
+    final PageCursor cursor = PageCursor.decode(query.getCursor(), sortKey);
+    if (cursor != null) {
+      if (sortByRank) {
+        throw new WebApplicationException("Cannot use a cursor when sorting by search rank",
+            Status.BAD_REQUEST);
+      }
+      // Seek after the count, so totalCount still counts all matching reports
+      sql.append(" WHERE ");
+      sql.append(cursor.getSeekClause(DbType.MSSQL, sortColumn, query.getSortOrder(),
+          "reports_uuid", args));
+      // The cursor replaces the page number
+      query.setPageNum(0);
     }
+    sql.append(" ORDER BY ");
+    sql.append(Joiner.on(", ").join(orderByClauses));
 
     final Query sqlQuery = MssqlSearcher.addPagination(query, getDbHandle(), sql, args, listArgs);
-    return AnetBeanList.getReportList(user, sqlQuery, query.getPageNum(), query.getPageSize(),
-        new ReportMapper());
-
+    final AnetBeanList<Report> reportList = AnetBeanList.getReportList(user, sqlQuery,
+        query.getPageNum(), query.getPageSize(), joins.getMapper(new ReportMapper()), totalCount);
+    if (!sortByRank) {
+      reportList.setNextCursor(PageCursor.getNextCursor(reportList.getList(),
+          query.getPageSize(), sortKey, query.getSortBy()::getSortValue));
+    }
+    return reportList;
   }
 
 }
@@ -36,7 +36,7 @@ public class MssqlTagSearcher extends AbstractSearcherBase implements ITagSearch
       sql.append(", ISNULL(c_tags.rank, 0) + ISNULL(f_tags.rank, 0)");
       sql.append(" AS search_rank");
     }
-    sql.append(", count(*) over() as totalCount FROM tags");
+    sql.append(" FROM tags");
 
     if (doFullTextSearch) {
       sql.append(" LEFT JOIN CONTAINSTABLE (tags, (name, description), :containsQuery) c_tags"
@@ -55,6 +55,8 @@ public class MssqlTagSearcher extends AbstractSearcherBase implements ITagSearch
     sql.append(" WHERE ");
     sql.append(Joiner.on(" AND ").join(whereClauses));
 
+    final Long totalCount = getTotalCount(query, null, sql, sqlArgs);
+
     // Sort Ordering
     final List<String> orderByClauses = new LinkedList<>();
     if (doFullTextSearch && query.getSortBy() == null) {
@@ -84,7 +86,7 @@ public class MssqlTagSearcher extends AbstractSearcherBase implements ITagSearch
 
     final Query sqlQuery = MssqlSearcher.addPagination(query, getDbHandle(), sql, sqlArgs);
     return new AnetBeanList<Tag>(sqlQuery, query.getPageNum(), query.getPageSize(), new TagMapper(),
-        null);
+        totalCount);
   }
 
 }
@@ -36,7 +36,7 @@ public class MssqlTaskSearcher extends AbstractSearcherBase implements ITaskSear
           + " + CASE WHEN tasks.shortName LIKE :likeQuery THEN 1000 ELSE 0 END");
       sql.append(" AS search_rank");
     }
-    sql.append(", COUNT(*) OVER() AS totalCount FROM tasks");
+    sql.append(" FROM tasks");
 
     if (doFullTextSearch) {
       sql.append(" LEFT JOIN CONTAINSTABLE (tasks, (longName), :containsQuery) c_tasks"
@@ -48,11 +48,8 @@ public class MssqlTaskSearcher extends AbstractSearcherBase implements ITaskSear
 
     if (query.getResponsibleOrgUuid() != null) {
       if (Boolean.TRUE.equals(query.getIncludeChildrenOrgs())) {
-        sql.insert(0, "WITH parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :orgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.parentOrgUuid = po.uuid "
-            + ") ");
-        whereClauses.add(" organizationUuid IN (SELECT uuid from parent_orgs)");
+        whereClauses.add(" tasks.organizationUuid IN (SELECT organizationUuid "
+            + "FROM organizationAncestors WHERE ancestorUuid = :orgUuid)");
       } else {
         whereClauses.add("organizationUuid = :orgUuid");
       }
@@ -105,12 +102,8 @@ public class MssqlTaskSearcher extends AbstractSearcherBase implements ITaskSear
 
     if (query.getCustomFieldRef1Uuid() != null) {
       if (Boolean.TRUE.equals(query.getCustomFieldRef1Recursively())) {
-        sql.insert(0, "WITH parent_tasks(uuid) AS ( "
-            + "SELECT uuid FROM tasks WHERE uuid = :customFieldRef1Uuid " + "UNION ALL "
-            + "SELECT t.uuid from parent_tasks pt, tasks t WHERE t.customFieldRef1Uuid = pt.uuid AND t.uuid != :customFieldRef1Uuid"
-            + ") ");
-        whereClauses.add("( tasks.customFieldRef1Uuid IN (SELECT uuid from parent_tasks) "
-            + "OR tasks.uuid = :customFieldRef1Uuid)");
+        whereClauses.add("tasks.uuid IN (SELECT taskUuid FROM taskAncestors "
+            + "WHERE ancestorUuid = :customFieldRef1Uuid)");
       } else {
         whereClauses.add("tasks.customFieldRef1Uuid = :customFieldRef1Uuid");
       }
@@ -123,6 +116,9 @@ public class MssqlTaskSearcher extends AbstractSearcherBase implements ITaskSear
 
     sql.append(" WHERE ");
     sql.append(Joiner.on(" AND ").join(whereClauses));
+
+    final Long totalCount = getTotalCount(query, null, sql, args);
+
     // Sort Ordering
     final List<String> orderByClauses = new LinkedList<>();
     if (doFullTextSearch && query.getSortBy() == null) {
@@ -156,7 +152,7 @@ public class MssqlTaskSearcher extends AbstractSearcherBase implements ITaskSear
 
     final Query sqlQuery = MssqlSearcher.addPagination(query, getDbHandle(), sql, args);
     return new AnetBeanList<Task>(sqlQuery, query.getPageNum(), query.getPageSize(),
-        new TaskMapper(), null);
+        new TaskMapper(), totalCount);
   }
 
 }
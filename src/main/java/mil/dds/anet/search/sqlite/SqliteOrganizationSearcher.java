@@ -51,11 +51,8 @@ public class SqliteOrganizationSearcher extends AbstractSearcherBase
 
     if (query.getParentOrgUuid() != null) {
       if (Boolean.TRUE.equals(query.getParentOrgRecursively())) {
-        whereClauses.add("(organizations.\"parentOrgUuid\" IN ("
-            + "WITH RECURSIVE parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :parentOrgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.\"parentOrgUuid\" = po.uuid "
-            + ") SELECT uuid from parent_orgs) OR organizations.uuid = :parentOrgUuid)");
+        whereClauses.add("organizations.uuid IN (SELECT \"organizationUuid\" "
+            + "FROM \"organizationAncestors\" WHERE \"ancestorUuid\" = :parentOrgUuid)");
       } else {
         whereClauses.add("organizations.\"parentOrgUuid\" = :parentOrgUuid");
       }
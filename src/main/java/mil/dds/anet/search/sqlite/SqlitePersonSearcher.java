@@ -119,11 +119,8 @@ public class SqlitePersonSearcher extends AbstractSearcherBase implements IPerso
 
     if (query.getOrgUuid() != null) {
       if (query.getIncludeChildOrgs() != null && query.getIncludeChildOrgs()) {
-        whereClauses.add(" positions.\"organizationUuid\" IN ( "
-            + "WITH RECURSIVE parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :orgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.\"parentOrgUuid\" = po.uuid "
-            + ") SELECT uuid from parent_orgs)");
+        whereClauses.add(" positions.\"organizationUuid\" IN (SELECT \"organizationUuid\" "
+            + "FROM \"organizationAncestors\" WHERE \"ancestorUuid\" = :orgUuid)");
       } else {
         whereClauses.add(" positions.\"organizationUuid\" = :orgUuid ");
       }
@@ -29,8 +29,6 @@ public class SqlitePositionSearcher extends AbstractSearcherBase implements IPos
             + " FROM positions WHERE positions.uuid IN (SELECT positions.uuid FROM positions ");
     Map<String, Object> sqlArgs = new HashMap<String, Object>();
     final Map<String, List<?>> listArgs = new HashMap<>();
-    String commonTableExpression = null;
-
     if (query.getMatchPersonName() != null && query.getMatchPersonName()) {
       sql.append(" LEFT JOIN people ON positions.\"currentPersonUuid\" = people.uuid ");
     }
@@ -62,11 +60,8 @@ public class SqlitePositionSearcher extends AbstractSearcherBase implements IPos
 
     if (query.getOrganizationUuid() != null) {
       if (query.getIncludeChildrenOrgs() != null && query.getIncludeChildrenOrgs()) {
-        commonTableExpression = "WITH RECURSIVE parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :orgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.\"parentOrgUuid\" = po.uuid "
-            + ") ";
-        whereClauses.add(" positions.\"organizationUuid\" IN (SELECT uuid from parent_orgs)");
+        whereClauses.add(" positions.\"organizationUuid\" IN (SELECT \"organizationUuid\" "
+            + "FROM \"organizationAncestors\" WHERE \"ancestorUuid\" = :orgUuid)");
       } else {
         whereClauses.add("positions.\"organizationUuid\" = :orgUuid");
       }
@@ -130,10 +125,6 @@ public class SqlitePositionSearcher extends AbstractSearcherBase implements IPos
 
     sql.append(" LIMIT :limit OFFSET :offset)");
 
-    if (commonTableExpression != null) {
-      sql.insert(0, commonTableExpression);
-    }
-
     final Query q = getDbHandle().createQuery(sql.toString()).bindMap(sqlArgs)
         .bind("offset", query.getPageSize() * query.getPageNum())
         .bind("limit", query.getPageSize());
@@ -9,6 +9,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response.Status;
+import mil.dds.anet.AnetObjectEngine;
 import mil.dds.anet.beans.Location;
 import mil.dds.anet.beans.Organization;
 import mil.dds.anet.beans.Person;
@@ -27,8 +28,10 @@ import mil.dds.anet.search.AbstractSearchBuilder.Comparison;
 import mil.dds.anet.search.AbstractSearcherBase;
 import mil.dds.anet.search.IReportSearcher;
 import mil.dds.anet.search.ReportSearchBuilder;
+import mil.dds.anet.search.ReportSearchJoins;
 import mil.dds.anet.utils.AuthUtils;
 import mil.dds.anet.utils.DaoUtils;
+import mil.dds.anet.utils.PageCursor;
 import mil.dds.anet.utils.Utils;
 import org.jdbi.v3.core.statement.Query;
 
@@ -49,18 +52,21 @@ public class SqliteReportSearcher extends AbstractSearcherBase implements IRepor
   public AnetBeanList<Report> runSearch(ReportSearchQuery query, Person user,
       boolean systemSearch) {
     StringBuffer sql = new StringBuffer();
-    sql.append("/* SqliteReportSearch */ SELECT DISTINCT " + ReportDao.REPORT_FIELDS);
+    sql.append("/* SqliteReportSearch */ SELECT DISTINCT "
+        + ReportDao.getReportFields(query.getSelectedFields()));
     if (query.getIncludeEngagementDayOfWeek()) {
       sql.append(", ");
       sql.append(String.format(this.isoDowFormat, "engagementDate"));
       sql.append(" as \"engagementDayOfWeek\" ");
     }
+    final ReportSearchJoins joins = new ReportSearchJoins(query.getSelectedFields());
+    sql.append(joins.getSelectFields());
     sql.append(" FROM reports ");
+    sql.append(joins.getJoinClauses(column -> "reports.\"" + column + "\""));
     sql.append("WHERE reports.uuid IN ( SELECT reports.uuid FROM reports ");
     sql.append("LEFT JOIN \"reportTags\" ON \"reportTags\".\"reportUuid\" = reports.uuid ");
     sql.append("LEFT JOIN tags ON \"reportTags\".\"tagUuid\" = tags.uuid ");
 
-    String commonTableExpression = null;
     Map<String, Object> args = new HashMap<String, Object>();
     final Map<String, List<?>> listArgs = new HashMap<>();
     List<String> whereClauses = new LinkedList<String>();
@@ -152,12 +158,10 @@ public class SqliteReportSearcher extends AbstractSearcherBase implements IRepor
             Status.BAD_REQUEST);
       }
       if (query.getIncludeOrgChildren()) {
-        commonTableExpression = "WITH RECURSIVE parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :orgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.\"parentOrgUuid\" = po.uuid "
-            + ")";
-        whereClauses.add("(reports.\"advisorOrganizationUuid\" IN (SELECT uuid from parent_orgs) "
-            + "OR reports.\"principalOrganizationUuid\" IN (SELECT uuid from parent_orgs))");
+        whereClauses.add("(reports.\"advisorOrganizationUuid\" IN (SELECT \"organizationUuid\" "
+            + "FROM \"organizationAncestors\" WHERE \"ancestorUuid\" = :orgUuid) "
+            + "OR reports.\"principalOrganizationUuid\" IN (SELECT \"organizationUuid\" "
+            + "FROM \"organizationAncestors\" WHERE \"ancestorUuid\" = :orgUuid))");
       } else {
         whereClauses.add(
             "(reports.\"advisorOrganizationUuid\" = :orgUuid OR reports.\"principalOrganizationUuid\" = :orgUuid)");
@@ -169,11 +173,8 @@ public class SqliteReportSearcher extends AbstractSearcherBase implements IRepor
       if (Organization.DUMMY_ORG_UUID.equals(query.getAdvisorOrgUuid())) {
         whereClauses.add("reports.\"advisorOrganizationUuid\" IS NULL");
       } else if (query.getIncludeAdvisorOrgChildren()) {
-        commonTableExpression = "WITH RECURSIVE parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :advisorOrgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.\"parentOrgUuid\" = po.uuid "
-            + ") ";
-        whereClauses.add("reports.\"advisorOrganizationUuid\" IN (SELECT uuid from parent_orgs)");
+        whereClauses.add("reports.\"advisorOrganizationUuid\" IN (SELECT \"organizationUuid\" "
+            + "FROM \"organizationAncestors\" WHERE \"ancestorUuid\" = :advisorOrgUuid)");
       } else {
         whereClauses.add("reports.\"advisorOrganizationUuid\" = :advisorOrgUuid");
       }
@@ -184,11 +185,8 @@ public class SqliteReportSearcher extends AbstractSearcherBase implements IRepor
       if (Organization.DUMMY_ORG_UUID.equals(query.getPrincipalOrgUuid())) {
         whereClauses.add("reports.\"principalOrganizationUuid\" IS NULL");
       } else if (query.getIncludePrincipalOrgChildren()) {
-        commonTableExpression = "WITH RECURSIVE parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :principalOrgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.\"parentOrgUuid\" = po.uuid "
-            + ")";
-        whereClauses.add("reports.\"principalOrganizationUuid\" IN (SELECT uuid from parent_orgs)");
+        whereClauses.add("reports.\"principalOrganizationUuid\" IN (SELECT \"organizationUuid\" "
+            + "FROM \"organizationAncestors\" WHERE \"ancestorUuid\" = :principalOrgUuid)");
       } else {
         whereClauses.add("reports.\"principalOrganizationUuid\" = :principalOrgUuid");
       }
@@ -258,61 +256,68 @@ public class SqliteReportSearcher extends AbstractSearcherBase implements IRepor
       }
     }
 
-    sql.append(" WHERE ");
-    sql.append(Joiner.on(" AND ").join(whereClauses));
-
     // Sort Ordering
-    sql.append(" ORDER BY ");
     if (query.getSortBy() == null) {
       query.setSortBy(ReportSearchSortBy.ENGAGEMENT_DATE);
     }
+    final String sortColumn;
     switch (query.getSortBy()) {
       case ENGAGEMENT_DATE:
-        sql.append("reports.\"engagementDate\"");
+        sortColumn = "reports.\"engagementDate\"";
         break;
       case RELEASED_AT:
-        sql.append("reports.\"releasedAt\"");
+        sortColumn = "reports.\"releasedAt\"";
         break;
       case UPDATED_AT:
-        sql.append("reports.\"updatedAt\"");
+        sortColumn = "reports.\"updatedAt\"";
         break;
       case CREATED_AT:
       default:
-        sql.append("reports.\"createdAt\"");
+        sortColumn = "reports.\"createdAt\"";
         break;
     }
-
     if (query.getSortOrder() == null) {
       query.setSortOrder(SortOrder.DESC);
     }
-    switch (query.getSortOrder()) {
-      case ASC:
-        sql.append(" ASC ");
-        break;
-      case DESC:
-      default:
-        sql.append(" DESC ");
-        break;
+    final List<String> orderByClauses = new LinkedList<>();
+    orderByClauses.addAll(Utils.addOrderBy(query.getSortOrder(), null, sortColumn));
+    orderByClauses.addAll(Utils.addOrderBy(SortOrder.ASC, null, "reports.uuid"));
+    final String orderBy = Joiner.on(", ").join(orderByClauses);
+
+    final String sortKey = PageCursor.getSortKey(query.getSortBy(), query.getSortOrder());
+    final PageCursor cursor = PageCursor.decode(query.getCursor(), sortKey);
+    if (cursor != null) {
+      whereClauses.add(cursor.getSeekClause(
+          DaoUtils.getDbType(AnetObjectEngine.getInstance().getDbUrl()), sortColumn,
+          query.getSortOrder(), "reports.uuid", args));
+      // The cursor replaces the page number
+      query.setPageNum(0);
     }
 
+    sql.append(" WHERE ");
+    sql.append(Joiner.on(" AND ").join(whereClauses));
+    sql.append(" ORDER BY ");
+    sql.append(orderBy);
+
     if (query.getPageSize() != 0) {
       sql.append(" LIMIT :limit OFFSET :offset");
       args.put("offset", query.getPageSize() * query.getPageNum());
       args.put("limit", query.getPageSize());
     }
     sql.append(")");
-
-    if (commonTableExpression != null) {
-      sql.insert(0, commonTableExpression);
-    }
+    // The outer query has to be in the same order, for the next cursor
+    sql.append(" ORDER BY ");
+    sql.append(orderBy);
 
     final Query sqlQuery = getDbHandle().createQuery(sql.toString()).bindMap(args);
     for (final Map.Entry<String, List<?>> listArg : listArgs.entrySet()) {
       sqlQuery.bindList(listArg.getKey(), listArg.getValue());
     }
     AnetBeanList<Report> reportList = AnetBeanList.getReportList(user, sqlQuery, query.getPageNum(),
-        query.getPageSize(), new ReportMapper());
+        query.getPageSize(), joins.getMapper(new ReportMapper()));
     reportList.setTotalCount(reportList.getList().size());
+    reportList.setNextCursor(PageCursor.getNextCursor(reportList.getList(), query.getPageSize(),
+        sortKey, query.getSortBy()::getSortValue));
     return reportList;
   }
 
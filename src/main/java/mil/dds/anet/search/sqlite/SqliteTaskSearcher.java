@@ -37,11 +37,8 @@ public class SqliteTaskSearcher extends AbstractSearcherBase implements ITaskSea
 
     if (query.getResponsibleOrgUuid() != null) {
       if (Boolean.TRUE.equals(query.getIncludeChildrenOrgs())) {
-        sql.insert(0, "WITH RECURSIVE parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM organizations WHERE uuid = :orgUuid " + "UNION ALL "
-            + "SELECT o.uuid from parent_orgs po, organizations o WHERE o.\"parentOrgUuid\" = po.uuid "
-            + ") ");
-        whereClauses.add(" \"organizationUuid\" IN (SELECT uuid from parent_orgs)");
+        whereClauses.add(" tasks.\"organizationUuid\" IN (SELECT \"organizationUuid\" "
+            + "FROM \"organizationAncestors\" WHERE \"ancestorUuid\" = :orgUuid)");
       } else {
         whereClauses.add("\"organizationUuid\" = :orgUuid");
       }
@@ -60,11 +57,8 @@ public class SqliteTaskSearcher extends AbstractSearcherBase implements ITaskSea
 
     if (query.getCustomFieldRef1Uuid() != null) {
       if (Boolean.TRUE.equals(query.getCustomFieldRef1Recursively())) {
-        whereClauses.add("(tasks.\"customFieldRef1Uuid\" IN ("
-            + "WITH RECURSIVE parent_orgs(uuid) AS ( "
-            + "SELECT uuid FROM tasks WHERE uuid = :customFieldRef1Uuid " + "UNION ALL "
-            + "SELECT t.uuid from parent_tasks pt, tasks t WHERE t.\"customFieldRef1Uuid\" = pt.uuid "
-            + ") SELECT uuid from parent_tasks) OR tasks.uuid = :customFieldRef1Uuid)");
+        whereClauses.add("tasks.uuid IN (SELECT \"taskUuid\" FROM \"taskAncestors\" "
+            + "WHERE \"ancestorUuid\" = :customFieldRef1Uuid)");
       } else {
         whereClauses.add("tasks.\"customFieldRef1Uuid\" = :customFieldRef1Uuid");
       }
@@ -38,6 +38,7 @@ import mil.dds.anet.config.AnetConfiguration.SmtpConfiguration;
 import mil.dds.anet.database.AdminDao.AdminSettingKeys;
 import mil.dds.anet.database.EmailDao;
 import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.utils.BatchingContext;
 import mil.dds.anet.utils.DaoUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -130,32 +131,38 @@ public class AnetEmailWorker implements Runnable {
 
     // Send the emails!
     final List<Integer> processedEmails = new LinkedList<Integer>();
-    for (final AnetEmail email : emails) {
-      Map<String, Object> context = null;
-
-      try {
-        context = buildContext(email);
-        logger.info("{} Sending email to {} re: {}", disabled ? "[Disabled] " : "",
-            email.getToAddresses(), email.getAction().getSubject(context));
-
-        if (!disabled) {
-          sendEmail(email, context);
-        }
+    // Objects referenced by several emails are loaded only once in this run; batching stays
+    // disabled, as the templates wait for their loads directly
+    try (final BatchingContext batchingContext =
+        new BatchingContext(AnetObjectEngine.getInstance(), false, true)) {
+      for (final AnetEmail email : emails) {
+        Map<String, Object> context = null;
+
+        try {
+          context = buildContext(email, batchingContext);
+          logger.info("{} Sending email to {} re: {}", disabled ? "[Disabled] " : "",
+              email.getToAddresses(), email.getAction().getSubject(context));
+
+          if (!disabled) {
+            sendEmail(email, context);
+          }
 
-        processedEmails.add(email.getId());
-      } catch (Throwable t) {
-        logger.error("Error sending email", t);
-
-        // Process stale emails
-        if (this.nbOfHoursForStaleEmails != null && email.getCreatedAt().isBefore(Instant.now()
-            .atZone(DaoUtils.getDefaultZoneId()).minusHours(nbOfHoursForStaleEmails).toInstant())) {
-          String message = "Purging stale email to ";
-          try {
-            message += email.getToAddresses();
-            message += email.getAction().getSubject(context);
-          } finally {
-            logger.info(message);
-            processedEmails.add(email.getId());
+          processedEmails.add(email.getId());
+        } catch (Throwable t) {
+          logger.error("Error sending email", t);
+
+          // Process stale emails
+          if (this.nbOfHoursForStaleEmails != null
+              && email.getCreatedAt().isBefore(Instant.now().atZone(DaoUtils.getDefaultZoneId())
+                  .minusHours(nbOfHoursForStaleEmails).toInstant())) {
+            String message = "Purging stale email to ";
+            try {
+              message += email.getToAddresses();
+              message += email.getAction().getSubject(context);
+            } finally {
+              logger.info(message);
+              processedEmails.add(email.getId());
+            }
           }
         }
       }
@@ -165,10 +172,11 @@ public class AnetEmailWorker implements Runnable {
     dao.deletePendingEmails(processedEmails);
   }
 
-  private Map<String, Object> buildContext(final AnetEmail email) {
+  private Map<String, Object> buildContext(final AnetEmail email,
+      final BatchingContext batchingContext) {
     AnetObjectEngine engine = AnetObjectEngine.getInstance();
     Map<String, Object> context = new HashMap<String, Object>();
-    context.put("context", engine.getContext());
+    context.put("context", batchingContext.getContext());
     context.put("serverUrl", serverUrl);
     context.put(AdminSettingKeys.SECURITY_BANNER_TEXT.name(),
         engine.getAdminSetting(AdminSettingKeys.SECURITY_BANNER_TEXT));
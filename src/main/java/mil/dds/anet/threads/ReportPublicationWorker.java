@@ -4,7 +4,8 @@ import java.lang.invoke.MethodHandles;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import mil.dds.anet.AnetObjectEngine;
 import mil.dds.anet.beans.Report;
 import mil.dds.anet.beans.Report.ReportState;
@@ -13,6 +14,7 @@ import mil.dds.anet.beans.search.ReportSearchQuery;
 import mil.dds.anet.config.AnetConfiguration;
 import mil.dds.anet.database.ReportDao;
 import mil.dds.anet.utils.AnetAuditLogger;
+import mil.dds.anet.utils.BatchingContext;
 import mil.dds.anet.utils.DaoUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,25 +53,34 @@ public class ReportPublicationWorker implements Runnable {
     query.setPageSize(Integer.MAX_VALUE);
     query.setState(Collections.singletonList(ReportState.APPROVED));
     final List<Report> reports = dao.search(query, null, true).getList();
-    final Map<String, Object> context = AnetObjectEngine.getInstance().getContext();
-    for (final Report r : reports) {
-      final List<ReportAction> workflow = r.loadWorkflow(context).join();
-      if (workflow.isEmpty()) {
-        logger.error("Couldn't process report publication for report {}, it has no workflow",
-            r.getUuid());
-      } else {
-        if (workflow.get(workflow.size() - 1).getCreatedAt().isBefore(now)) {
-          // Publish the report
-          try {
-            final int numRows = dao.publish(r, null);
-            if (numRows == 0) {
-              logger.error("Couldn't process report publication for report {}", r.getUuid());
-            } else {
-              AnetAuditLogger.log(
-                  "report {} automatically published by the ReportPublicationWorker", r.getUuid());
+    try (final BatchingContext batchingContext =
+        new BatchingContext(AnetObjectEngine.getInstance())) {
+      // Load the workflows of all reports in as few batches as possible
+      final List<CompletableFuture<List<ReportAction>>> workflows = reports.stream()
+          .map(r -> r.loadWorkflow(batchingContext.getContext())).collect(Collectors.toList());
+      batchingContext.join(CompletableFuture
+          .allOf(workflows.toArray(new CompletableFuture<?>[workflows.size()])));
+      for (int i = 0; i < reports.size(); i++) {
+        final Report r = reports.get(i);
+        final List<ReportAction> workflow = workflows.get(i).join();
+        if (workflow.isEmpty()) {
+          logger.error("Couldn't process report publication for report {}, it has no workflow",
+              r.getUuid());
+        } else {
+          if (workflow.get(workflow.size() - 1).getCreatedAt().isBefore(now)) {
+            // Publish the report
+            try {
+              final int numRows = dao.publish(r, null);
+              if (numRows == 0) {
+                logger.error("Couldn't process report publication for report {}", r.getUuid());
+              } else {
+                AnetAuditLogger.log(
+                    "report {} automatically published by the ReportPublicationWorker",
+                    r.getUuid());
+              }
+            } catch (Exception e) {
+              logger.error("Exception when publishing report", e);
             }
-          } catch (Exception e) {
-            logger.error("Exception when publishing report", e);
           }
         }
       }
@@ -1,39 +1,148 @@
 package mil.dds.anet.utils;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import java.lang.invoke.MethodHandles;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import mil.dds.anet.config.AnetConfiguration.SqlLoggingConfiguration;
 import mil.dds.anet.database.CommentDao;
 import mil.dds.anet.database.OrganizationDao;
 import mil.dds.anet.database.PersonDao;
 import mil.dds.anet.database.PositionDao;
 import mil.dds.anet.database.ReportDao;
 import mil.dds.anet.database.ReportSensitiveInformationDao;
+import mil.dds.anet.database.SqlStatistics;
 import org.jdbi.v3.core.statement.SqlLogger;
 import org.jdbi.v3.core.statement.StatementContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Logger that specifically looks for the very long column definitions that ANET2 uses and will
- * replace them in the log with a shortened version. This just makes the logs easier to read and
- * debug.
+ * Logger for all SQL statements. Each statement is timed as a <code>Sql.&lt;tag&gt;</code> metric,
+ * where the tag is taken from the <code>/* tag *&#47;</code> comment the statement starts with.
+ * Statements slower than the configured threshold are written to a separate slow query log,
+ * together with their bound parameters. Statements executed for a request are also counted in its
+ * {@link SqlStatistics}.
+ *
+ * <p>
+ * When debug logging is enabled, every statement is logged as well. The very long column
+ * definitions that ANET2 uses are then replaced in the log with a shortened version. This just
+ * makes the logs easier to read and debug.
  */
 public class AnetDbLogger implements SqlLogger {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final Logger slowQueryLogger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass().getName() + ".slowQueries");
+
+  public static final String UNTAGGED = "untagged";
+  private static final String START_TIME = "anetDbLoggerStartTime";
+  private static final Pattern FULL_TEXT_JOIN =
+      Pattern.compile("LEFT JOIN (CONTAINS|FREETEXT)TABLE[^=]*= (\\S+)\\.\\[Key\\]");
+  private static final Pattern SEARCH_RANK =
+      Pattern.compile("(EXP|ISNULL|CASE).* AS (search_rank)");
+
+  private final MetricRegistry metricRegistry;
+  private final long slowQueryThresholdNanos;
+  // Timers by statement tag
+  private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+  /**
+   * Create a new logger.
+   *
+   * @param config the configuration
+   * @param metricRegistry the registry for the timers, or null to not time the statements
+   */
+  public AnetDbLogger(SqlLoggingConfiguration config, MetricRegistry metricRegistry) {
+    this.metricRegistry = config.isTimingEnabled() ? metricRegistry : null;
+    this.slowQueryThresholdNanos = (config.getSlowQueryThreshold() == null) ? Long.MAX_VALUE
+        : config.getSlowQueryThreshold().toNanoseconds();
+  }
+
+  @Override
+  public void logBeforeExecution(StatementContext context) {
+    context.define(START_TIME, System.nanoTime());
+  }
 
   @Override
   public void logAfterExecution(StatementContext context) {
-    final String msg =
-        context.getRenderedSql().replace(PersonDao.PERSON_FIELDS, " <PERSON_FIELDS> ")
-            .replace(PersonDao.PERSON_FIELDS_NOAS, " <PERSON_FIELDS> ")
-            .replace(PositionDao.POSITIONS_FIELDS, " <POSITION_FIELDS> ")
-            .replace(OrganizationDao.ORGANIZATION_FIELDS, " <ORGANIZATION_FIELDS> ")
-            .replace(ReportDao.REPORT_FIELDS, " <REPORT_FIELDS> ")
-            .replace(ReportSensitiveInformationDao.REPORTS_SENSITIVE_INFORMATION_FIELDS,
-                " <REPORTS_SENSITIVE_INFORMATION_FIELDS> ")
-            .replace(CommentDao.COMMENT_FIELDS, " <COMMENT_FIELDS> ")
-            .replaceAll("LEFT JOIN (CONTAINS|FREETEXT)TABLE[^=]*= (\\S+)\\.\\[Key\\]", "<$1_$2>")
-            .replaceFirst("(EXP|ISNULL|CASE).* AS (search_rank)", "<$1>");
-    logger.debug(msg);
+    final long elapsedNanos = getElapsedNanos(context);
+    final SqlStatistics sqlStatistics = SqlStatistics.getCurrent();
+    if ((metricRegistry != null && elapsedNanos >= 0) || sqlStatistics != null) {
+      final String tag = getStatementTag(context.getRenderedSql());
+      if (metricRegistry != null && elapsedNanos >= 0) {
+        getTimer(tag).update(elapsedNanos, TimeUnit.NANOSECONDS);
+      }
+      if (sqlStatistics != null) {
+        sqlStatistics.addStatement(tag, elapsedNanos);
+      }
+    }
+    if (elapsedNanos >= slowQueryThresholdNanos) {
+      slowQueryLogger.warn("{} ms: {} with {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+          shorten(context.getRenderedSql()), context.getBinding());
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug(shorten(context.getRenderedSql()));
+    }
+  }
+
+  @Override
+  public void logException(StatementContext context, SQLException ex) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("{} failed after {} ms: {}", shorten(context.getRenderedSql()),
+          TimeUnit.NANOSECONDS.toMillis(getElapsedNanos(context)), ex.getMessage());
+    }
+  }
+
+  /**
+   * Get the tag of a statement, i.e. the text of the comment it starts with.
+   *
+   * @param sql the statement
+   * @return the tag, or {@link #UNTAGGED} if there is none
+   */
+  public static String getStatementTag(String sql) {
+    if (sql == null) {
+      return UNTAGGED;
+    }
+    int start = 0;
+    while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+      start++;
+    }
+    if (!sql.startsWith("/*", start)) {
+      return UNTAGGED;
+    }
+    final int end = sql.indexOf("*/", start + 2);
+    if (end < 0) {
+      return UNTAGGED;
+    }
+    final String tag = sql.substring(start + 2, end).trim();
+    return tag.isEmpty() ? UNTAGGED : tag;
+  }
+
+  private Timer getTimer(String tag) {
+    return timers.computeIfAbsent(tag, t -> metricRegistry.timer(MetricRegistry.name("Sql", t)));
+  }
+
+  private static long getElapsedNanos(StatementContext context) {
+    final Object startTime = context.getAttribute(START_TIME);
+    return (startTime instanceof Long) ? System.nanoTime() - (Long) startTime : -1;
+  }
+
+  private static String shorten(String sql) {
+    final String msg = sql.replace(PersonDao.PERSON_FIELDS, " <PERSON_FIELDS> ")
+        .replace(PersonDao.PERSON_FIELDS_NOAS, " <PERSON_FIELDS> ")
+        .replace(PositionDao.POSITIONS_FIELDS, " <POSITION_FIELDS> ")
+        .replace(OrganizationDao.ORGANIZATION_FIELDS, " <ORGANIZATION_FIELDS> ")
+        .replace(ReportDao.REPORT_FIELDS, " <REPORT_FIELDS> ")
+        .replace(ReportDao.REPORT_FIELDS_WITHOUT_TEXT, " <REPORT_FIELDS_WITHOUT_TEXT> ")
+        .replace(ReportSensitiveInformationDao.REPORTS_SENSITIVE_INFORMATION_FIELDS,
+            " <REPORTS_SENSITIVE_INFORMATION_FIELDS> ")
+        .replace(CommentDao.COMMENT_FIELDS, " <COMMENT_FIELDS> ");
+    return SEARCH_RANK.matcher(FULL_TEXT_JOIN.matcher(msg).replaceAll("<$1_$2>"))
+        .replaceFirst("<$1>");
   }
 }
@@ -1,9 +1,6 @@
 package mil.dds.anet.utils;
 
 import java.lang.invoke.MethodHandles;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.ExecutionException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response.Status;
 import mil.dds.anet.AnetObjectEngine;
@@ -12,6 +9,7 @@ import mil.dds.anet.beans.Organization.OrganizationType;
 import mil.dds.anet.beans.Person;
 import mil.dds.anet.beans.Position;
 import mil.dds.anet.beans.Position.PositionType;
+import mil.dds.anet.database.OrganizationDao;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,30 +50,18 @@ public class AuthUtils {
     }
 
     // Given that we know it's a super-user position, does it actually match this organization?
-    Organization loadedOrg =
-        AnetObjectEngine.getInstance().getOrganizationDao().getByUuid(organizationUuid);
-    if (loadedOrg.getType() == OrganizationType.PRINCIPAL_ORG) {
+    final OrganizationDao orgDao = AnetObjectEngine.getInstance().getOrganizationDao();
+    final Organization loadedOrg = orgDao.getByUuid(organizationUuid);
+    if (loadedOrg != null && loadedOrg.getType() == OrganizationType.PRINCIPAL_ORG) {
       return allowPrincipalOrgs;
     }
 
     if (position.getOrganizationUuid() == null) {
       return false;
     }
-    if (Objects.equals(organizationUuid, position.getOrganizationUuid())) {
-      return true;
-    }
-
-    // As a last check, load the descendant orgs.
-    try {
-      Organization posOrg =
-          position.loadOrganization(AnetObjectEngine.getInstance().getContext()).get();
-      Optional<Organization> orgMatch = posOrg.loadAllDescendants().stream()
-          .filter(o -> o.getUuid().equals(organizationUuid)).findFirst();
-      return orgMatch.isPresent();
-    } catch (InterruptedException | ExecutionException e) {
-      logger.error("failed to load Organization", e);
-      return false;
-    }
+    // Is the organization the position's organization, or one of its descendants? Ask the
+    // database rather than the in-memory hierarchy, which may be out of date.
+    return orgDao.isUnder(organizationUuid, position.getOrganizationUuid());
   }
 
   public static void assertSuperUserForOrg(Person user, String organizationUuid,
@@ -0,0 +1,86 @@
+package mil.dds.anet.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import mil.dds.anet.AnetObjectEngine;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+/**
+ * Context for loading objects through the DataLoaders outside of GraphQL, scoped to a single
+ * (Jersey) request or background job. Loads are batched and cached for the duration of the scope;
+ * since nothing dispatches them on its own, synchronous callers must wait for their results through
+ * {@link #join}, never directly on the futures. Close the context at the end of the scope:
+ *
+ * <pre>
+ * try (final BatchingContext batchingContext = new BatchingContext(engine)) {
+ *   final Person author = batchingContext.join(r.loadAuthor(batchingContext.getContext()));
+ *   ...
+ * }
+ * </pre>
+ */
+public class BatchingContext implements AutoCloseable {
+
+  private final DataLoaderRegistry dataLoaderRegistry;
+  private final Map<String, Object> context;
+
+  public BatchingContext(AnetObjectEngine engine) {
+    this(engine, true, true);
+  }
+
+  /**
+   * Create a new context.
+   *
+   * @param engine the engine
+   * @param batchingEnabled whether loads are batched; when disabled, each load is dispatched
+   *        immediately, so code that blocks on the futures directly (e.g. email templates) can
+   *        still use the context
+   * @param cachingEnabled whether loaded objects are cached until the context is closed
+   */
+  public BatchingContext(AnetObjectEngine engine, boolean batchingEnabled,
+      boolean cachingEnabled) {
+    this(BatchingUtils.registerDataLoaders(engine, batchingEnabled, cachingEnabled));
+  }
+
+  /**
+   * Create a new context for the supplied DataLoaders.
+   *
+   * @param dataLoaderRegistry the DataLoaders to load through
+   */
+  public BatchingContext(DataLoaderRegistry dataLoaderRegistry) {
+    this.dataLoaderRegistry = dataLoaderRegistry;
+    context = new HashMap<>();
+    context.put("dataLoaderRegistry", dataLoaderRegistry);
+  }
+
+  /**
+   * Get the context to pass to the load methods.
+   *
+   * @return the context
+   */
+  public Map<String, Object> getContext() {
+    return context;
+  }
+
+  /**
+   * Dispatch the queued loads until the future is done, and return its result.
+   *
+   * @param future a future depending on loads through this context
+   * @return the result of the future
+   * @throws java.util.concurrent.CompletionException if the future completed exceptionally
+   */
+  public <T> T join(CompletableFuture<T> future) {
+    BatchingUtils.dispatchUntilDone(dataLoaderRegistry, future);
+    return future.join();
+  }
+
+  @Override
+  public void close() {
+    // Release the cached objects
+    for (final DataLoader<?, ?> dataLoader : dataLoaderRegistry.getDataLoaders()) {
+      dataLoader.clearAll();
+    }
+  }
+
+}
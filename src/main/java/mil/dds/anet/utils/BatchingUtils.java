@@ -1,11 +1,19 @@
 package mil.dds.anet.utils;
 
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import mil.dds.anet.AnetObjectEngine;
 import mil.dds.anet.beans.ApprovalStep;
 import mil.dds.anet.beans.AuthorizationGroup;
@@ -23,6 +31,7 @@ import mil.dds.anet.beans.ReportPerson;
 import mil.dds.anet.beans.ReportSensitiveInformation;
 import mil.dds.anet.beans.Tag;
 import mil.dds.anet.beans.Task;
+import mil.dds.anet.database.SqlStatistics;
 import org.dataloader.BatchLoader;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderOptions;
@@ -36,208 +45,347 @@ public final class BatchingUtils {
 
   public static DataLoaderRegistry registerDataLoaders(AnetObjectEngine engine,
       boolean batchingEnabled, boolean cachingEnabled) {
+    return registerDataLoaders(engine, batchingEnabled, cachingEnabled, null);
+  }
+
+  /**
+   * Register all data loaders in a new registry.
+   *
+   * @param engine the engine
+   * @param batchingEnabled whether loads are batched
+   * @param cachingEnabled whether loaded objects are cached
+   * @param sqlStatistics when not null, the statements of the batch loads are counted in these
+   * @return the registry
+   */
+  public static DataLoaderRegistry registerDataLoaders(AnetObjectEngine engine,
+      boolean batchingEnabled, boolean cachingEnabled, SqlStatistics sqlStatistics) {
     final DataLoaderOptions dataLoaderOptions = DataLoaderOptions.newOptions()
         .setStatisticsCollector(() -> new ThreadLocalStatisticsCollector())
         .setBatchingEnabled(batchingEnabled).setCachingEnabled(cachingEnabled)
-        .setMaxBatchSize(1000);
+        .setMaxBatchSize(engine.getBatchingConfig().getMaxBatchSize());
     final DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
-    // Give each registry its own thread pool
-    final ExecutorService dispatcherService = Executors.newCachedThreadPool();
+    final Registrar registrar =
+        new Registrar(dataLoaderRegistry, dataLoaderOptions, engine.getMetricRegistry());
+    // All registries share the same (bounded) thread pool
+    final Executor dispatcherService = (sqlStatistics == null) ? engine.getDataLoaderExecutor()
+        : sqlStatistics.wrap(engine.getDataLoaderExecutor());
 
-    dataLoaderRegistry.register("approvalSteps",
-        new DataLoader<>(new BatchLoader<String, ApprovalStep>() {
-          @Override
-          public CompletionStage<List<ApprovalStep>> load(List<String> keys) {
-            return CompletableFuture.supplyAsync(() -> engine.getApprovalStepDao().getByIds(keys),
-                dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("approvalStep.approvers",
-        new DataLoader<>(new BatchLoader<String, List<Position>>() {
-          @Override
-          public CompletionStage<List<List<Position>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(
-                () -> engine.getApprovalStepDao().getApprovers(foreignKeys), dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("authorizationGroups",
-        new DataLoader<>(new BatchLoader<String, AuthorizationGroup>() {
-          @Override
-          public CompletionStage<List<AuthorizationGroup>> load(List<String> keys) {
-            return CompletableFuture.supplyAsync(
-                () -> engine.getAuthorizationGroupDao().getByIds(keys), dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("authorizationGroup.positions",
-        new DataLoader<>(new BatchLoader<String, List<Position>>() {
-          @Override
-          public CompletionStage<List<List<Position>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(
-                () -> engine.getAuthorizationGroupDao().getPositions(foreignKeys),
-                dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("comments", new DataLoader<>(new BatchLoader<String, Comment>() {
+    registrar.register("approvalSteps", new BatchLoader<String, ApprovalStep>() {
+      @Override
+      public CompletionStage<List<ApprovalStep>> load(List<String> keys) {
+        return CompletableFuture.supplyAsync(() -> engine.getApprovalStepDao().getByIdsCached(keys),
+            dispatcherService);
+      }
+    });
+    registrar.register("approvalStep.approvers", new BatchLoader<String, List<Position>>() {
+      @Override
+      public CompletionStage<List<List<Position>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(
+            () -> engine.getApprovalStepDao().getApprovers(foreignKeys), dispatcherService);
+      }
+    });
+    registrar.register("authorizationGroups", new BatchLoader<String, AuthorizationGroup>() {
+      @Override
+      public CompletionStage<List<AuthorizationGroup>> load(List<String> keys) {
+        return CompletableFuture.supplyAsync(
+            () -> engine.getAuthorizationGroupDao().getByIdsCached(keys), dispatcherService);
+      }
+    });
+    registrar.register("authorizationGroup.positions", new BatchLoader<String, List<Position>>() {
+      @Override
+      public CompletionStage<List<List<Position>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(
+            () -> engine.getAuthorizationGroupDao().getPositions(foreignKeys),
+            dispatcherService);
+      }
+    });
+    registrar.register("comments", new BatchLoader<String, Comment>() {
       @Override
       public CompletionStage<List<Comment>> load(List<String> keys) {
         return CompletableFuture.supplyAsync(() -> engine.getCommentDao().getByIds(keys),
             dispatcherService);
       }
-    }, dataLoaderOptions));
-    dataLoaderRegistry.register("locations", new DataLoader<>(new BatchLoader<String, Location>() {
+    });
+    registrar.register("locations", new BatchLoader<String, Location>() {
       @Override
       public CompletionStage<List<Location>> load(List<String> keys) {
-        return CompletableFuture.supplyAsync(() -> engine.getLocationDao().getByIds(keys),
+        return CompletableFuture.supplyAsync(() -> engine.getLocationDao().getByIdsCached(keys),
             dispatcherService);
       }
-    }, dataLoaderOptions));
-    dataLoaderRegistry.register("note.noteRelatedObjects",
-        new DataLoader<>(new BatchLoader<String, List<NoteRelatedObject>>() {
+    });
+    registrar.register("note.noteRelatedObjects",
+        new BatchLoader<String, List<NoteRelatedObject>>() {
           @Override
           public CompletionStage<List<List<NoteRelatedObject>>> load(List<String> foreignKeys) {
             return CompletableFuture.supplyAsync(
                 () -> engine.getNoteDao().getNoteRelatedObjects(foreignKeys), dispatcherService);
           }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("noteRelatedObject.notes",
-        new DataLoader<>(new BatchLoader<String, List<Note>>() {
-          @Override
-          public CompletionStage<List<List<Note>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(() -> engine.getNoteDao().getNotes(foreignKeys),
-                dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("organizations",
-        new DataLoader<>(new BatchLoader<String, Organization>() {
-          @Override
-          public CompletionStage<List<Organization>> load(List<String> keys) {
-            return CompletableFuture.supplyAsync(() -> engine.getOrganizationDao().getByIds(keys),
-                dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("organization.approvalSteps",
-        new DataLoader<>(new BatchLoader<String, List<ApprovalStep>>() {
-          @Override
-          public CompletionStage<List<List<ApprovalStep>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(
-                () -> engine.getApprovalStepDao().getApprovalSteps(foreignKeys), dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("people", new DataLoader<>(new BatchLoader<String, Person>() {
+        });
+    registrar.register("noteRelatedObject.notes", new BatchLoader<String, List<Note>>() {
+      @Override
+      public CompletionStage<List<List<Note>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(() -> engine.getNoteDao().getNotes(foreignKeys),
+            dispatcherService);
+      }
+    });
+    registrar.register("organizations", new BatchLoader<String, Organization>() {
+      @Override
+      public CompletionStage<List<Organization>> load(List<String> keys) {
+        return CompletableFuture.supplyAsync(() -> engine.getOrganizationDao().getByIdsCached(keys),
+            dispatcherService);
+      }
+    });
+    registrar.register("organization.approvalSteps", new BatchLoader<String, List<ApprovalStep>>() {
+      @Override
+      public CompletionStage<List<List<ApprovalStep>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(
+            () -> engine.getApprovalStepDao().getApprovalSteps(foreignKeys), dispatcherService);
+      }
+    });
+    registrar.register("people", new BatchLoader<String, Person>() {
       @Override
       public CompletionStage<List<Person>> load(List<String> keys) {
         return CompletableFuture.supplyAsync(() -> engine.getPersonDao().getByIds(keys),
             dispatcherService);
       }
-    }, dataLoaderOptions));
-    dataLoaderRegistry.register("person.organizations",
-        new DataLoader<>(new BatchLoader<String, List<Organization>>() {
-          @Override
-          public CompletionStage<List<List<Organization>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(
-                () -> engine.getOrganizationDao().getOrganizations(foreignKeys), dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("person.personPositionHistory",
-        new DataLoader<>(new BatchLoader<String, List<PersonPositionHistory>>() {
+    });
+    registrar.register("person.organizations", new BatchLoader<String, List<Organization>>() {
+      @Override
+      public CompletionStage<List<List<Organization>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(
+            () -> engine.getOrganizationDao().getOrganizations(foreignKeys), dispatcherService);
+      }
+    });
+    registrar.register("person.personPositionHistory",
+        new BatchLoader<String, List<PersonPositionHistory>>() {
           @Override
           public CompletionStage<List<List<PersonPositionHistory>>> load(List<String> foreignKeys) {
             return CompletableFuture.supplyAsync(
                 () -> engine.getPersonDao().getPersonPositionHistory(foreignKeys),
                 dispatcherService);
           }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("positions", new DataLoader<>(new BatchLoader<String, Position>() {
+        });
+    registrar.register("positions", new BatchLoader<String, Position>() {
       @Override
       public CompletionStage<List<Position>> load(List<String> keys) {
         return CompletableFuture.supplyAsync(() -> engine.getPositionDao().getByIds(keys),
             dispatcherService);
       }
-    }, dataLoaderOptions));
-    dataLoaderRegistry.register("position.currentPositionForPerson",
-        new DataLoader<>(new BatchLoader<String, List<Position>>() {
+    });
+    registrar.register("position.currentPositionForPerson",
+        new BatchLoader<String, List<Position>>() {
           @Override
           public CompletionStage<List<List<Position>>> load(List<String> foreignKeys) {
             return CompletableFuture.supplyAsync(
                 () -> engine.getPositionDao().getCurrentPersonForPosition(foreignKeys),
                 dispatcherService);
           }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("position.personPositionHistory",
-        new DataLoader<>(new BatchLoader<String, List<PersonPositionHistory>>() {
+        });
+    registrar.register("position.personPositionHistory",
+        new BatchLoader<String, List<PersonPositionHistory>>() {
           @Override
           public CompletionStage<List<List<PersonPositionHistory>>> load(List<String> foreignKeys) {
             return CompletableFuture.supplyAsync(
                 () -> engine.getPositionDao().getPersonPositionHistory(foreignKeys),
                 dispatcherService);
           }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("reports", new DataLoader<>(new BatchLoader<String, Report>() {
+        });
+    registrar.register("reports", new BatchLoader<String, Report>() {
       @Override
       public CompletionStage<List<Report>> load(List<String> keys) {
         return CompletableFuture.supplyAsync(() -> engine.getReportDao().getByIds(keys),
             dispatcherService);
       }
-    }, dataLoaderOptions));
-    dataLoaderRegistry.register("report.reportActions",
-        new DataLoader<>(new BatchLoader<String, List<ReportAction>>() {
-          @Override
-          public CompletionStage<List<List<ReportAction>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(
-                () -> engine.getReportActionDao().getReportActions(foreignKeys), dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("report.attendees",
-        new DataLoader<>(new BatchLoader<String, List<ReportPerson>>() {
-          @Override
-          public CompletionStage<List<List<ReportPerson>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(
-                () -> engine.getReportDao().getAttendees(foreignKeys), dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("report.reportSensitiveInformation",
-        new DataLoader<>(new BatchLoader<String, List<ReportSensitiveInformation>>() {
+    });
+    registrar.register("report.text", new BatchLoader<String, Report>() {
+      @Override
+      public CompletionStage<List<Report>> load(List<String> keys) {
+        return CompletableFuture.supplyAsync(() -> engine.getReportDao().getTexts(keys),
+            dispatcherService);
+      }
+    });
+    registrar.register("report.reportActions", new BatchLoader<String, List<ReportAction>>() {
+      @Override
+      public CompletionStage<List<List<ReportAction>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(
+            () -> engine.getReportActionDao().getReportActions(foreignKeys), dispatcherService);
+      }
+    });
+    registrar.register("report.attendees", new BatchLoader<String, List<ReportPerson>>() {
+      @Override
+      public CompletionStage<List<List<ReportPerson>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(
+            () -> engine.getReportDao().getAttendees(foreignKeys), dispatcherService);
+      }
+    });
+    registrar.register("report.reportSensitiveInformation",
+        new BatchLoader<String, List<ReportSensitiveInformation>>() {
           @Override
           public CompletionStage<List<List<ReportSensitiveInformation>>> load(
               List<String> foreignKeys) {
             return CompletableFuture.supplyAsync(() -> engine.getReportSensitiveInformationDao()
                 .getReportSensitiveInformation(foreignKeys), dispatcherService);
           }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("report.tags",
-        new DataLoader<>(new BatchLoader<String, List<Tag>>() {
-          @Override
-          public CompletionStage<List<List<Tag>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(() -> engine.getReportDao().getTags(foreignKeys),
-                dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("report.tasks",
-        new DataLoader<>(new BatchLoader<String, List<Task>>() {
-          @Override
-          public CompletionStage<List<List<Task>>> load(List<String> foreignKeys) {
-            return CompletableFuture.supplyAsync(() -> engine.getReportDao().getTasks(foreignKeys),
-                dispatcherService);
-          }
-        }, dataLoaderOptions));
-    dataLoaderRegistry.register("tags", new DataLoader<>(new BatchLoader<String, Tag>() {
+        });
+    registrar.register("report.tags", new BatchLoader<String, List<Tag>>() {
+      @Override
+      public CompletionStage<List<List<Tag>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(() -> engine.getReportDao().getTags(foreignKeys),
+            dispatcherService);
+      }
+    });
+    registrar.register("report.tasks", new BatchLoader<String, List<Task>>() {
+      @Override
+      public CompletionStage<List<List<Task>>> load(List<String> foreignKeys) {
+        return CompletableFuture.supplyAsync(() -> engine.getReportDao().getTasks(foreignKeys),
+            dispatcherService);
+      }
+    });
+    registrar.register("tags", new BatchLoader<String, Tag>() {
       @Override
       public CompletionStage<List<Tag>> load(List<String> keys) {
-        return CompletableFuture.supplyAsync(() -> engine.getTagDao().getByIds(keys),
+        return CompletableFuture.supplyAsync(() -> engine.getTagDao().getByIdsCached(keys),
             dispatcherService);
       }
-    }, dataLoaderOptions));
-    dataLoaderRegistry.register("tasks", new DataLoader<>(new BatchLoader<String, Task>() {
+    });
+    registrar.register("tasks", new BatchLoader<String, Task>() {
       @Override
       public CompletionStage<List<Task>> load(List<String> keys) {
         return CompletableFuture.supplyAsync(() -> engine.getTaskDao().getByIds(keys),
             dispatcherService);
       }
-    }, dataLoaderOptions));
+    });
 
     return dataLoaderRegistry;
   }
 
+  /**
+   * Registers the data loaders, recording the size of each batch they load (when there is a metric
+   * registry).
+   */
+  private static class Registrar {
+    private final DataLoaderRegistry dataLoaderRegistry;
+    private final DataLoaderOptions dataLoaderOptions;
+    private final MetricRegistry metricRegistry;
+
+    public Registrar(DataLoaderRegistry dataLoaderRegistry, DataLoaderOptions dataLoaderOptions,
+        MetricRegistry metricRegistry) {
+      this.dataLoaderRegistry = dataLoaderRegistry;
+      this.dataLoaderOptions = dataLoaderOptions;
+      this.metricRegistry = metricRegistry;
+    }
+
+    public <K, V> void register(String key, BatchLoader<K, V> batchLoader) {
+      final BatchLoader<K, V> registeredBatchLoader;
+      if (metricRegistry == null) {
+        registeredBatchLoader = batchLoader;
+      } else {
+        final Histogram batchSizes =
+            metricRegistry.histogram(MetricRegistry.name(key, "BatchSize"));
+        registeredBatchLoader = keys -> {
+          batchSizes.update(keys.size());
+          return batchLoader.load(keys);
+        };
+      }
+      dataLoaderRegistry.register(key, new DataLoader<>(registeredBatchLoader, dataLoaderOptions));
+    }
+  }
+
+  /**
+   * Dispatch the data loaders in the registry until the request is done. Instead of polling, a new
+   * round is started as soon as the previous one has completed: completing the futures of a batch
+   * runs the (synchronous) continuations depending on them, so by the time a round is done, any
+   * follow-up loads (e.g. the chained ones in {@link Report#loadWorkflow}) have been queued.
+   *
+   * @param dataLoaderRegistry the registry holding the data loaders used by the request
+   * @param request the request to complete
+   * @return the number of dispatch rounds it took to complete the request
+   */
+  public static int dispatchUntilDone(DataLoaderRegistry dataLoaderRegistry,
+      CompletableFuture<?> request) {
+    int dispatchRounds = 0;
+    while (!request.isDone()) {
+      final CompletableFuture<?>[] dispatchersWithWork = dataLoaderRegistry.getDataLoaders()
+          .stream().filter(dl -> dl.dispatchDepth() > 0)
+          .map(dl -> (CompletableFuture<?>) dl.dispatch()).toArray(CompletableFuture<?>[]::new);
+      if (dispatchersWithWork.length > 0) {
+        dispatchRounds++;
+        CompletableFuture.allOf(dispatchersWithWork).join();
+      } else {
+        // Nothing queued, but the request is still waiting for some other asynchronous work;
+        // give it a moment to either complete or queue new loads
+        try {
+          request.get(1, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        } catch (ExecutionException | TimeoutException ignored) {
+        }
+      }
+    }
+    return dispatchRounds;
+  }
+
+  /**
+   * Asynchronous version of {@link #dispatchUntilDone}: a new round is started from the thread
+   * completing the previous one, so no thread is blocked while waiting for the request. When the
+   * request is not done within the timeout, it is completed exceptionally with a
+   * {@link TimeoutException}, which stops the dispatching.
+   *
+   * @param dataLoaderRegistry the registry holding the data loaders used by the request
+   * @param request the request to complete
+   * @param executor runs the checks scheduled by the scheduler; these may dispatch loads, and a
+   *        busy DataLoader executor may run them on the dispatching thread, so they should not run
+   *        on the (shared) scheduler itself
+   * @param scheduler used to check again when nothing is queued, but the request is not done yet
+   * @param timeoutMillis the maximum time to wait for the request, in milliseconds
+   * @return a future completed with the number of dispatch rounds when the request is done
+   */
+  public static CompletableFuture<Integer> dispatchAsync(DataLoaderRegistry dataLoaderRegistry,
+      CompletableFuture<?> request, Executor executor, ScheduledExecutorService scheduler,
+      long timeoutMillis) {
+    final AtomicInteger dispatchRounds = new AtomicInteger();
+    final ScheduledFuture<?> timeout = scheduler.schedule(
+        () -> request.completeExceptionally(
+            new TimeoutException("Request not done after " + timeoutMillis + " ms")),
+        timeoutMillis, TimeUnit.MILLISECONDS);
+    // The result only completes once the timeout has been cancelled
+    final CompletableFuture<Integer> result = request
+        .whenComplete((r, throwable) -> timeout.cancel(false))
+        .handle((r, throwable) -> dispatchRounds.get());
+    dispatchAsync(dataLoaderRegistry, request, executor, scheduler, dispatchRounds);
+    return result;
+  }
+
+  private static void dispatchAsync(DataLoaderRegistry dataLoaderRegistry,
+      CompletableFuture<?> request, Executor executor, ScheduledExecutorService scheduler,
+      AtomicInteger dispatchRounds) {
+    if (request.isDone()) {
+      return;
+    }
+    final List<DataLoader<?, ?>> dataLoadersWithWork = dataLoaderRegistry.getDataLoaders().stream()
+        .filter(dl -> dl.dispatchDepth() > 0).collect(Collectors.toList());
+    if (!dataLoadersWithWork.isEmpty()) {
+      // Count the round before dispatching, as the loads may complete the request right away
+      dispatchRounds.incrementAndGet();
+      final CompletableFuture<?>[] dispatchersWithWork = dataLoadersWithWork.stream()
+          .map(dl -> (CompletableFuture<?>) dl.dispatch()).toArray(CompletableFuture<?>[]::new);
+      CompletableFuture.allOf(dispatchersWithWork).whenComplete((r, throwable) -> dispatchAsync(
+          dataLoaderRegistry, request, executor, scheduler, dispatchRounds));
+    } else {
+      // Nothing queued, but the request is still waiting for some other asynchronous work;
+      // give it a moment to either complete or queue new loads
+      scheduler.schedule(() -> {
+        try {
+          executor.execute(() -> dispatchAsync(dataLoaderRegistry, request, executor, scheduler,
+              dispatchRounds));
+        } catch (RejectedExecutionException e) {
+          request.completeExceptionally(e);
+        }
+      }, 1, TimeUnit.MILLISECONDS);
+    }
+  }
+
   public static void updateStats(MetricRegistry metricRegistry,
       DataLoaderRegistry dataLoaderRegistry) {
     // Combined stats for all data loaders
@@ -248,6 +396,11 @@ public final class BatchingUtils {
     }
   }
 
+  public static void updateDispatchStats(MetricRegistry metricRegistry, int dispatchRounds) {
+    metricRegistry.histogram(MetricRegistry.name("DataLoaderRegistry", "DispatchRounds"))
+        .update(dispatchRounds);
+  }
+
   private static void updateStats(MetricRegistry metricRegistry, String name,
       Statistics statistics) {
     metricRegistry.counter(MetricRegistry.name(name, "BatchInvokeCount"))
@@ -14,6 +14,7 @@ import java.util.Map;
 import java.util.UUID;
 import mil.dds.anet.AnetObjectEngine;
 import mil.dds.anet.beans.Person;
+import mil.dds.anet.database.mappers.ColumnIndexes;
 import mil.dds.anet.database.mappers.MapperUtils;
 import mil.dds.anet.views.AbstractAnetBean;
 import org.slf4j.Logger;
@@ -90,23 +91,30 @@ public class DaoUtils {
     bean.setUpdatedAt(now);
   }
 
+  public static <T extends AbstractAnetBean> T copyCommonBeanFields(T copy,
+      AbstractAnetBean original) {
+    copy.setUuid(original.getUuid());
+    copy.setCreatedAt(original.getCreatedAt());
+    copy.setUpdatedAt(original.getUpdatedAt());
+    return copy;
+  }
+
   public static void setCommonBeanFields(AbstractAnetBean bean, ResultSet rs, String tableName)
       throws SQLException {
+    final ColumnIndexes c = MapperUtils.getColumnIndexes(rs);
     // Should always be there
-    bean.setUuid(rs.getString(getQualifiedFieldName(tableName, "uuid")));
+    bean.setUuid(rs.getString(c.get(tableName, "uuid")));
 
     // Not all beans have createdAt and/or updatedAt
-    final String createdAtCol = getQualifiedFieldName(tableName, "createdAt");
-    if (MapperUtils.containsColumnNamed(rs, createdAtCol)) {
-      bean.setCreatedAt(getInstantAsLocalDateTime(rs, createdAtCol));
+    if (c.contains(tableName, "createdAt")) {
+      bean.setCreatedAt(getInstantAsLocalDateTime(rs, c.get(tableName, "createdAt")));
     }
-    final String updatedAtCol = getQualifiedFieldName(tableName, "updatedAt");
-    if (MapperUtils.containsColumnNamed(rs, updatedAtCol)) {
-      bean.setUpdatedAt(getInstantAsLocalDateTime(rs, updatedAtCol));
+    if (c.contains(tableName, "updatedAt")) {
+      bean.setUpdatedAt(getInstantAsLocalDateTime(rs, c.get(tableName, "updatedAt")));
     }
   }
 
-  private static String getQualifiedFieldName(String tableName, String fieldName) {
+  public static String getQualifiedFieldName(String tableName, String fieldName) {
     final StringBuilder result = new StringBuilder();
     if (!Utils.isEmptyOrNull(tableName)) {
       result.append(tableName);
@@ -135,27 +143,46 @@ public class DaoUtils {
 
   public static String buildPagedGetAllSql(DbType databaseType, String entityTag, String tableName,
       String fieldList, String orderBy) {
+    return buildPagedGetAllSql(databaseType, entityTag, tableName, fieldList, orderBy, null);
+  }
+
+  /**
+   * Build the query for a page of all rows of a table.
+   *
+   * @param seekClause predicate selecting the rows after a {@link PageCursor}; null to page by
+   *        offset only
+   */
+  public static String buildPagedGetAllSql(DbType databaseType, String entityTag, String tableName,
+      String fieldList, String orderBy, String seekClause) {
     if (orderBy == null) {
       orderBy = "\"createdAt\"";
     }
-    StringBuilder sb = new StringBuilder("/* getAll%s */ SELECT %s ");
+    // With a seek predicate, count(*) over() would only count the rows after the cursor
+    final String totalCount = (seekClause == null) ? "count(*) over()"
+        : String.format("(SELECT count(*) FROM %s)", tableName);
+    final StringBuilder sb =
+        new StringBuilder(String.format("/* getAll%s */ SELECT %s ", entityTag, fieldList));
     switch (databaseType) {
       case MSSQL:
-        sb.append(", count(*) over() AS \"totalCount\" FROM %s ")
-            .append("ORDER BY %s ASC OFFSET :offset ROWS FETCH NEXT :limit ROWS ONLY");
+      case POSTGRESQL:
+        sb.append(String.format(", %s AS \"totalCount\" ", totalCount));
         break;
       case SQLITE:
-        sb.append("FROM %s ORDER BY %s ASC LIMIT :limit OFFSET :offset");
-        break;
-      case POSTGRESQL:
-        sb.append(", count(*) over() AS \"totalCount\" ")
-            .append("FROM %s ORDER BY %s ASC LIMIT :limit OFFSET :offset");
         break;
       default:
         throw new RuntimeException();
     }
-
-    return String.format(sb.toString(), entityTag, fieldList, tableName, orderBy);
+    sb.append(String.format("FROM %s ", tableName));
+    if (seekClause != null) {
+      sb.append("WHERE ").append(seekClause).append(" ");
+    }
+    sb.append(String.format("ORDER BY %s ASC, %s.uuid ASC ", orderBy, tableName));
+    if (databaseType == DbType.MSSQL) {
+      sb.append("OFFSET :offset ROWS FETCH NEXT :limit ROWS ONLY");
+    } else {
+      sb.append("LIMIT :limit OFFSET :offset");
+    }
+    return sb.toString();
   }
 
   public static String buildCountAllSql(String entityTag, String tableName) {
@@ -168,6 +195,12 @@ public class DaoUtils {
     return rs.wasNull() ? null : value;
   }
 
+  public static Double getOptionalDouble(final ResultSet rs, final int columnIndex)
+      throws SQLException {
+    final double value = rs.getDouble(columnIndex);
+    return rs.wasNull() ? null : value;
+  }
+
   public static Person getUser(Map<String, Object> context, Person user) {
     if (context != null && context.containsKey("user")) {
       user = getUserFromContext(context);
@@ -198,6 +231,15 @@ public class DaoUtils {
     return null;
   }
 
+  public static Instant getInstantAsLocalDateTime(ResultSet rs, int columnIndex)
+      throws SQLException {
+    final LocalDateTime result = rs.getObject(columnIndex, LocalDateTime.class);
+    if (result != null) {
+      return result.toInstant(getDefaultZoneOffset());
+    }
+    return null;
+  }
+
   public static void addInstantAsLocalDateTime(Map<String, Object> args, String parameterName,
       Instant parameterValue) {
     // Likewise, the conversion by the MSSQL JDBC driver from java.time.Instant to a query parameter
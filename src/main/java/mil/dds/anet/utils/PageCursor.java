@@ -0,0 +1,160 @@
+package mil.dds.anet.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response.Status;
+import mil.dds.anet.beans.search.ISearchQuery.SortOrder;
+import mil.dds.anet.utils.DaoUtils.DbType;
+import mil.dds.anet.views.AbstractAnetBean;
+
+/**
+ * Opaque cursor for keyset pagination. It holds the sort value and uuid of the last row of a page;
+ * the next page then starts right after that row (seek predicate), instead of skipping all rows of
+ * the previous pages (OFFSET). The rows must be ordered by the sort column, then by uuid ascending.
+ */
+public class PageCursor {
+
+  private static final String SEPARATOR = "\n";
+
+  private final String sortKey;
+  private final Instant sortValue;
+  private final String uuid;
+
+  private PageCursor(String sortKey, Instant sortValue, String uuid) {
+    this.sortKey = sortKey;
+    this.sortValue = sortValue;
+    this.uuid = uuid;
+  }
+
+  public Instant getSortValue() {
+    return sortValue;
+  }
+
+  public String getUuid() {
+    return uuid;
+  }
+
+  /**
+   * Get the sort key a cursor is tied to; a cursor can only be used with the sort order it was
+   * created for.
+   *
+   * @param sortBy what the rows are sorted by, e.g. <code>ENGAGEMENT_DATE</code>
+   * @param sortOrder the sort order
+   * @return the sort key
+   */
+  public static String getSortKey(Object sortBy, SortOrder sortOrder) {
+    return sortBy + " " + sortOrder;
+  }
+
+  /**
+   * Decode a cursor.
+   *
+   * @param cursor the cursor, as returned in {@link mil.dds.anet.beans.lists.AnetBeanList}
+   * @param sortKey the sort key of the current query
+   * @return the decoded cursor, or null when no cursor was given
+   * @throws WebApplicationException if the cursor is invalid or was created for another sort order
+   */
+  public static PageCursor decode(String cursor, String sortKey) {
+    if (Utils.isEmptyOrNull(cursor)) {
+      return null;
+    }
+    final String[] parts;
+    try {
+      parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+          .split(SEPARATOR, -1);
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException("Invalid cursor", Status.BAD_REQUEST);
+    }
+    if (parts.length != 3 || parts[2].isEmpty()) {
+      throw new WebApplicationException("Invalid cursor", Status.BAD_REQUEST);
+    }
+    if (!parts[0].equals(sortKey)) {
+      throw new WebApplicationException("Cursor does not match the sort order of the query",
+          Status.BAD_REQUEST);
+    }
+    try {
+      return new PageCursor(sortKey, parts[1].isEmpty() ? null : Instant.parse(parts[1]),
+          parts[2]);
+    } catch (DateTimeParseException e) {
+      throw new WebApplicationException("Invalid cursor", Status.BAD_REQUEST);
+    }
+  }
+
+  /**
+   * Encode a cursor.
+   *
+   * @param sortKey the sort key of the query
+   * @param sortValue the sort value of the last row
+   * @param uuid the uuid of the last row
+   * @return the opaque cursor
+   */
+  public static String encode(String sortKey, Instant sortValue, String uuid) {
+    final String value = sortKey + SEPARATOR + (sortValue == null ? "" : sortValue.toString())
+        + SEPARATOR + uuid;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Get the cursor for the page following the supplied one.
+   *
+   * @param list the rows of the current page
+   * @param pageSize the page size; 0 for all rows
+   * @param sortKey the sort key of the query
+   * @param getSortValue gets the sort value of a row
+   * @return the cursor, or null when this is the last page
+   */
+  public static <T extends AbstractAnetBean> String getNextCursor(List<T> list, int pageSize,
+      String sortKey, Function<T, Instant> getSortValue) {
+    if (pageSize <= 0 || list.size() < pageSize) {
+      return null;
+    }
+    final T last = list.get(list.size() - 1);
+    return encode(sortKey, getSortValue.apply(last), last.getUuid());
+  }
+
+  /**
+   * Get the seek predicate selecting the rows after this cursor, and add its parameters.
+   *
+   * @param dbType the database type, which determines where NULL values are sorted
+   * @param sortColumn the sort column
+   * @param sortOrder the sort order
+   * @param uuidColumn the uuid column
+   * @param args the query parameters
+   * @return the predicate
+   */
+  public String getSeekClause(DbType dbType, String sortColumn, SortOrder sortOrder,
+      String uuidColumn, Map<String, Object> args) {
+    // PostgreSQL sorts NULL values as larger than any other value, SQL Server and SQLite as smaller
+    final boolean nullsFirst = (sortOrder == SortOrder.ASC) != (dbType == DbType.POSTGRESQL);
+    final StringBuilder sb = new StringBuilder("(");
+    if (sortValue == null) {
+      sb.append(String.format("(%1$s IS NULL AND %2$s > :cursorUuid)", sortColumn, uuidColumn));
+      if (nullsFirst) {
+        sb.append(String.format(" OR %1$s IS NOT NULL", sortColumn));
+      }
+    } else {
+      sb.append(String.format(
+          "%1$s %2$s :cursorSortValue OR (%1$s = :cursorSortValue AND %3$s > :cursorUuid)",
+          sortColumn, sortOrder == SortOrder.ASC ? ">" : "<", uuidColumn));
+      if (!nullsFirst) {
+        sb.append(String.format(" OR %1$s IS NULL", sortColumn));
+      }
+      args.put("cursorSortValue", DaoUtils.asLocalDateTime(sortValue));
+    }
+    sb.append(")");
+    args.put("cursorUuid", uuid);
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return encode(sortKey, sortValue, uuid);
+  }
+}
@@ -0,0 +1,128 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.concurrent.TimeUnit;
+import mil.dds.anet.beans.AdminSetting;
+import mil.dds.anet.database.AdminDao;
+import mil.dds.anet.database.AdminDao.AdminSettingKeys;
+import mil.dds.anet.database.TransactionCallbacks;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ru.vyarus.guicey.jdbi3.tx.InTransaction;
+
+/**
+ * Tests for the snapshot of the admin settings.
+ */
+public class AdminDaoTest {
+
+  private static final AdminSettingKeys KEY = AdminSettingKeys.CONTACT_EMAIL;
+
+  private Handle handle;
+  private AdminDao dao;
+  private int handleRequests;
+
+  @Before
+  public void setUp() {
+    final Jdbi jdbi = Jdbi.create("jdbc:sqlite::memory:");
+    TransactionCallbacks.install(jdbi);
+    handle = jdbi.open();
+    handle.execute("CREATE TABLE \"adminSettings\" (\"key\" VARCHAR PRIMARY KEY, value VARCHAR)");
+    setValue(KEY.toString(), "first");
+    setValue(AdminDao.VERSION_KEY, "1");
+    dao = new AdminDao() {
+      @Override
+      protected Handle getDbHandle() {
+        handleRequests++;
+        return handle;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    handle.close();
+  }
+
+  private void setValue(String key, String value) {
+    handle.execute("INSERT OR REPLACE INTO \"adminSettings\" (\"key\", value) VALUES (?, ?)", key,
+        value);
+  }
+
+  private static AdminSetting createSetting(String value) {
+    final AdminSetting setting = new AdminSetting();
+    setting.setKey(KEY.toString());
+    setting.setValue(value);
+    return setting;
+  }
+
+  @Test
+  public void testRefreshInterval() {
+    dao.setRefreshInterval(1, TimeUnit.HOURS);
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+
+    // Changed by another server, not seen until the snapshot is revalidated
+    setValue(KEY.toString(), "second");
+    setValue(AdminDao.VERSION_KEY, "2");
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+  }
+
+  @Test
+  public void testSnapshotHit() throws NoSuchMethodException {
+    dao.setRefreshInterval(1, TimeUnit.HOURS);
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+
+    // Reading from the snapshot neither opens a transaction nor touches the database
+    assertThat(AdminDao.class.getAnnotation(InTransaction.class)).isNull();
+    assertThat(AdminDao.class.getMethod("getSetting", AdminSettingKeys.class)
+        .getAnnotation(InTransaction.class)).isNull();
+    handleRequests = 0;
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+    assertThat(dao.getSetting(AdminSettingKeys.HELP_LINK_URL)).isNull();
+    assertThat(handleRequests).isEqualTo(0);
+  }
+
+  @Test
+  public void testVersionChange() {
+    dao.setRefreshInterval(0, TimeUnit.SECONDS);
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+
+    // Without a new version, the snapshot is still valid
+    setValue(KEY.toString(), "second");
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+
+    // With a new version, it is reloaded
+    setValue(AdminDao.VERSION_KEY, "2");
+    assertThat(dao.getSetting(KEY)).isEqualTo("second");
+  }
+
+  @Test
+  public void testSaveSetting() {
+    dao.setRefreshInterval(1, TimeUnit.HOURS);
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+
+    // Reloaded once committed
+    handle.useTransaction(h -> {
+      dao.saveSetting(createSetting("second"));
+      assertThat(dao.getSetting(KEY)).isEqualTo("first");
+    });
+    assertThat(dao.getSetting(KEY)).isEqualTo("second");
+  }
+
+  @Test
+  public void testSaveSettingRollback() {
+    dao.setRefreshInterval(1, TimeUnit.HOURS);
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+
+    // The uncommitted change is never loaded into the snapshot
+    assertThatThrownBy(() -> handle.useTransaction(h -> {
+      dao.saveSetting(createSetting("second"));
+      assertThat(dao.getSetting(KEY)).isEqualTo("first");
+      throw new IllegalStateException();
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(dao.getSetting(KEY)).isEqualTo("first");
+  }
+}
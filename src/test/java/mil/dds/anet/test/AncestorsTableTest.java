@@ -0,0 +1,91 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+import javax.ws.rs.WebApplicationException;
+import mil.dds.anet.database.AncestorsTable;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AncestorsTableTest {
+
+  private final AncestorsTable ancestors = new AncestorsTable("testAncestors", "testUuid");
+  private Handle handle;
+
+  @Before
+  public void setUp() {
+    handle = Jdbi.create("jdbc:sqlite::memory:").open();
+    handle.execute("CREATE TABLE \"testAncestors\" (\"testUuid\" TEXT NOT NULL, "
+        + "\"ancestorUuid\" TEXT NOT NULL, distance INT NOT NULL, "
+        + "PRIMARY KEY (\"testUuid\", \"ancestorUuid\"))");
+  }
+
+  @After
+  public void tearDown() {
+    handle.close();
+  }
+
+  @Test
+  public void testInsertAndMove() {
+    ancestors.insert(handle, "a", null);
+    ancestors.insert(handle, "b", "a");
+    ancestors.insert(handle, "c", "b");
+    ancestors.insert(handle, "d", null);
+    assertThat(getDescendants("a")).containsExactly("a", "b", "c");
+    assertThat(getDescendants("d")).containsExactly("d");
+    assertThat(getDistance("c", "a")).isEqualTo(2);
+
+    // Unchanged parent
+    ancestors.update(handle, "b", "a");
+    assertThat(getDescendants("a")).containsExactly("a", "b", "c");
+
+    // Move b (and c with it) under d
+    ancestors.update(handle, "b", "d");
+    assertThat(getDescendants("a")).containsExactly("a");
+    assertThat(getDescendants("d")).containsExactly("b", "c", "d");
+    assertThat(getDistance("c", "d")).isEqualTo(2);
+
+    // Make b top-level
+    ancestors.update(handle, "b", null);
+    assertThat(getDescendants("d")).containsExactly("d");
+    assertThat(getDescendants("b")).containsExactly("b", "c");
+  }
+
+  @Test
+  public void testLoop() {
+    ancestors.insert(handle, "a", null);
+    ancestors.insert(handle, "b", "a");
+    ancestors.insert(handle, "c", "b");
+
+    assertThat(ancestors.isUnder(handle, "c", "a")).isTrue();
+    assertThat(ancestors.isUnder(handle, "a", "a")).isTrue();
+    assertThat(ancestors.isUnder(handle, "a", "c")).isFalse();
+
+    // Moving a under its own descendant, or under itself, is refused and changes nothing
+    assertThatThrownBy(() -> ancestors.update(handle, "a", "c"))
+        .isInstanceOf(WebApplicationException.class);
+    assertThatThrownBy(() -> ancestors.update(handle, "a", "a"))
+        .isInstanceOf(WebApplicationException.class);
+    assertThat(getDescendants("a")).containsExactly("a", "b", "c");
+    assertThat(getDescendants("c")).containsExactly("c");
+    assertThat(getDistance("c", "a")).isEqualTo(2);
+  }
+
+  private List<String> getDescendants(String uuid) {
+    return handle
+        .createQuery("SELECT \"testUuid\" FROM \"testAncestors\" WHERE \"ancestorUuid\" = :uuid "
+            + "ORDER BY \"testUuid\"")
+        .bind("uuid", uuid).mapTo(String.class).list();
+  }
+
+  private Integer getDistance(String uuid, String ancestorUuid) {
+    return handle
+        .createQuery("SELECT distance FROM \"testAncestors\" WHERE \"testUuid\" = :uuid "
+            + "AND \"ancestorUuid\" = :ancestorUuid")
+        .bind("uuid", uuid).bind("ancestorUuid", ancestorUuid).mapTo(Integer.class).findOnly();
+  }
+}
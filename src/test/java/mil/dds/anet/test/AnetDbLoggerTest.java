@@ -0,0 +1,73 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import com.codahale.metrics.MetricRegistry;
+import mil.dds.anet.config.AnetConfiguration.SqlLoggingConfiguration;
+import mil.dds.anet.database.SqlStatistics;
+import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.utils.AnetDbLogger;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.SqlStatements;
+import org.junit.Test;
+
+public class AnetDbLoggerTest {
+
+  @Test
+  public void testGetStatementTag() {
+    assertThat(AnetDbLogger.getStatementTag("/* batch.getPeopleByUuids */ SELECT 1"))
+        .isEqualTo("batch.getPeopleByUuids");
+    assertThat(AnetDbLogger.getStatementTag("\n  /*MssqlReportSearch*/SELECT 1"))
+        .isEqualTo("MssqlReportSearch");
+    assertThat(AnetDbLogger.getStatementTag("SELECT 1 /* not a tag */"))
+        .isEqualTo(AnetDbLogger.UNTAGGED);
+    assertThat(AnetDbLogger.getStatementTag("/* */ SELECT 1")).isEqualTo(AnetDbLogger.UNTAGGED);
+    assertThat(AnetDbLogger.getStatementTag("/* unterminated")).isEqualTo(AnetDbLogger.UNTAGGED);
+  }
+
+  @Test
+  public void testTiming() {
+    final MetricRegistry metricRegistry = new MetricRegistry();
+    final Jdbi jdbi = Jdbi.create("jdbc:sqlite::memory:");
+    jdbi.getConfig(SqlStatements.class)
+        .setSqlLogger(new AnetDbLogger(new SqlLoggingConfiguration(), metricRegistry));
+    try (final Handle handle = jdbi.open()) {
+      handle.createQuery("/* test.select */ SELECT 1").mapTo(Integer.class).findOnly();
+      handle.createQuery("/* test.select */ SELECT 2").mapTo(Integer.class).findOnly();
+      handle.execute("CREATE TABLE t (i integer)");
+    }
+    assertThat(metricRegistry.timer("Sql.test.select").getCount()).isEqualTo(2);
+    assertThat(metricRegistry.timer("Sql." + AnetDbLogger.UNTAGGED).getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testSqlStatistics() {
+    final Jdbi jdbi = Jdbi.create("jdbc:sqlite::memory:");
+    jdbi.getConfig(SqlStatements.class)
+        .setSqlLogger(new AnetDbLogger(new SqlLoggingConfiguration(), null));
+    final SqlStatistics sqlStatistics = new SqlStatistics();
+    try (final Handle handle = jdbi.open()) {
+      try (final SqlStatistics.Scope scope = sqlStatistics.enter()) {
+        assertThat(SqlStatistics.getCurrent()).isSameAs(sqlStatistics);
+        for (int i = 0; i < 3; i++) {
+          handle.createQuery("/* test.select */ SELECT 1 AS a UNION ALL SELECT 2")
+              .map((rs, ctx) -> {
+                // Rows are only counted once, however often the indexes are looked up
+                MapperUtils.getColumnIndexes(rs);
+                return rs.getInt(MapperUtils.getColumnIndexes(rs).get("a"));
+              }).list();
+        }
+        handle.execute("/* test.create */ CREATE TABLE t (i integer)");
+      }
+      assertThat(SqlStatistics.getCurrent()).isNull();
+      // Not counted outside of the scope
+      handle.execute("/* test.insert */ INSERT INTO t VALUES (1)");
+    }
+    assertThat(sqlStatistics.getStatementCount()).isEqualTo(4);
+    assertThat(sqlStatistics.getRowCount()).isEqualTo(6);
+    assertThat(sqlStatistics.getMaxRepeatCount()).isEqualTo(3);
+    assertThat(sqlStatistics.getStatementCounts()).containsExactly(entry("test.select", 3),
+        entry("test.create", 1));
+  }
+}
@@ -0,0 +1,93 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import mil.dds.anet.utils.BatchingContext;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for loading through the DataLoaders of a {@link BatchingContext}.
+ */
+public class BatchingContextTest {
+
+  private static final String LOADER = "names";
+
+  private ExecutorService executor;
+  private List<List<String>> batches;
+  private BatchingContext batchingContext;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+    batches = Collections.synchronizedList(new ArrayList<>());
+    // Loads asynchronously, like the DataLoaders of the engine
+    final BatchLoader<String, String> batchLoader = keys -> {
+      batches.add(keys);
+      return CompletableFuture.supplyAsync(
+          () -> keys.stream().map(k -> "name of " + k).collect(Collectors.toList()), executor);
+    };
+    final DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+    dataLoaderRegistry.register(LOADER, new DataLoader<>(batchLoader));
+    batchingContext = new BatchingContext(dataLoaderRegistry);
+  }
+
+  @After
+  public void tearDown() {
+    batchingContext.close();
+    executor.shutdownNow();
+  }
+
+  private CompletableFuture<String> load(String key) {
+    final DataLoaderRegistry dataLoaderRegistry =
+        (DataLoaderRegistry) batchingContext.getContext().get("dataLoaderRegistry");
+    return dataLoaderRegistry.<String, String>getDataLoader(LOADER).load(key);
+  }
+
+  @Test
+  public void testBatching() {
+    // Loads through separate calls end up in a single batch
+    final CompletableFuture<String> a = load("a");
+    final CompletableFuture<String> b = load("b");
+    final CompletableFuture<String> c = load("c");
+    assertThat(batches).isEmpty();
+    final List<String> names = batchingContext.join(CompletableFuture.allOf(a, b, c)
+        .thenApply(v -> Arrays.asList(a.join(), b.join(), c.join())));
+    assertThat(names).containsExactly("name of a", "name of b", "name of c");
+    assertThat(batches).containsExactly(Arrays.asList("a", "b", "c"));
+  }
+
+  @Test
+  public void testChainedLoads() {
+    // Each load depends on the previous one, so join has to dispatch once per level
+    final CompletableFuture<String> chained = load("a").thenCompose(
+        a -> load(a).thenCompose(b -> CompletableFuture.allOf(load(b), load("c"))
+            .thenCompose(v -> load(b))));
+    assertThat(batchingContext.join(chained)).isEqualTo("name of name of name of a");
+    assertThat(batches).containsExactly(Arrays.asList("a"), Arrays.asList("name of a"),
+        Arrays.asList("name of name of a", "c"));
+  }
+
+  @Test
+  public void testCaching() {
+    assertThat(batchingContext.join(load("a"))).isEqualTo("name of a");
+    // Cached for the duration of the context
+    assertThat(batchingContext.join(load("a"))).isEqualTo("name of a");
+    assertThat(batches).hasSize(1);
+    // Until it is closed
+    batchingContext.close();
+    assertThat(batchingContext.join(load("a"))).isEqualTo("name of a");
+    assertThat(batches).hasSize(2);
+  }
+}
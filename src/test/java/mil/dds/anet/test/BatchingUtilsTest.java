@@ -0,0 +1,105 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import mil.dds.anet.utils.BatchingUtils;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchingUtilsTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private ExecutorService executor;
+  private ScheduledThreadPoolExecutor scheduler;
+  // The threads the batch loads were dispatched on
+  private final List<String> dispatchingThreads = new CopyOnWriteArrayList<>();
+  private DataLoaderRegistry dataLoaderRegistry;
+  private DataLoader<Integer, Integer> dataLoader;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "executor"));
+    scheduler = new ScheduledThreadPoolExecutor(1, r -> new Thread(r, "scheduler"));
+    scheduler.setRemoveOnCancelPolicy(true);
+    // Loads complete asynchronously, as with the DataLoader executor
+    dataLoader = new DataLoader<>((List<Integer> keys) -> {
+      dispatchingThreads.add(Thread.currentThread().getName());
+      return CompletableFuture
+          .supplyAsync(() -> keys.stream().map(key -> key + 1).collect(Collectors.toList()));
+    });
+    dataLoaderRegistry = new DataLoaderRegistry().register("increment", dataLoader);
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testDispatchAsync() throws Exception {
+    // A load depending on another one needs a second round
+    final CompletableFuture<Integer> request =
+        dataLoader.load(1).thenCompose(value -> dataLoader.load(value));
+    final CompletableFuture<Integer> dispatchRounds =
+        BatchingUtils.dispatchAsync(dataLoaderRegistry, request, executor, scheduler, TIMEOUT);
+    assertThat(dispatchRounds.get(TIMEOUT, TimeUnit.MILLISECONDS)).isEqualTo(2);
+    assertThat(request.get()).isEqualTo(3);
+    // The timeout has been removed
+    assertThat(scheduler.getQueue()).isEmpty();
+  }
+
+  @Test
+  public void testDispatchAsyncOtherWork() throws Exception {
+    // Nothing to load, the request waits for some other asynchronous work
+    final CompletableFuture<Integer> request = new CompletableFuture<>();
+    scheduler.schedule(() -> request.complete(42), 20, TimeUnit.MILLISECONDS);
+    final CompletableFuture<Integer> dispatchRounds =
+        BatchingUtils.dispatchAsync(dataLoaderRegistry, request, executor, scheduler, TIMEOUT);
+    assertThat(dispatchRounds.get(TIMEOUT, TimeUnit.MILLISECONDS)).isEqualTo(0);
+    assertThat(request.get()).isEqualTo(42);
+  }
+
+  @Test
+  public void testDispatchAsyncLaterLoad() throws Exception {
+    // The load is only queued after the first check, by some other asynchronous work
+    final CompletableFuture<Integer> request = new CompletableFuture<>();
+    scheduler.schedule(() -> dataLoader.load(1).thenAccept(request::complete), 20,
+        TimeUnit.MILLISECONDS);
+    final CompletableFuture<Integer> dispatchRounds =
+        BatchingUtils.dispatchAsync(dataLoaderRegistry, request, executor, scheduler, TIMEOUT);
+    assertThat(dispatchRounds.get(TIMEOUT, TimeUnit.MILLISECONDS)).isEqualTo(1);
+    assertThat(request.get()).isEqualTo(2);
+    // Dispatched by a later check, on the executor rather than the scheduler
+    assertThat(dispatchingThreads).containsExactly("executor");
+  }
+
+  @Test
+  public void testDispatchAsyncTimeout() throws Exception {
+    final CompletableFuture<Integer> request = new CompletableFuture<>();
+    final CompletableFuture<Integer> dispatchRounds =
+        BatchingUtils.dispatchAsync(dataLoaderRegistry, request, executor, scheduler, 50);
+    assertThat(dispatchRounds.get(TIMEOUT, TimeUnit.MILLISECONDS)).isEqualTo(0);
+    assertThatThrownBy(() -> request.get()).isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(TimeoutException.class);
+
+    // No more checks are scheduled once the request has timed out
+    Thread.sleep(20);
+    assertThat(scheduler.getQueue()).isEmpty();
+    assertThat(scheduler.getCompletedTaskCount()).isEqualTo(scheduler.getTaskCount());
+  }
+}
@@ -34,6 +34,19 @@ public class DaoUtilsTest {
         .contains("FETCH NEXT :limit ROWS ONLY");
   }
 
+  @Test
+  public void testBuildPagedGetAllSqlWithSeek() {
+    final String seekClause = "(\"createdAt\" > :cursorSortValue)";
+    final String mssqlSql = DaoUtils.buildPagedGetAllSql(DbType.MSSQL, "Fakery", "fakeTableName",
+        "FILED LIST", null, seekClause);
+    assertThat(mssqlSql).as("Generated SQL for MS SQL Server")
+        .contains(" FROM fakeTableName WHERE " + seekClause + " ")
+        .contains("(SELECT count(*) FROM fakeTableName) AS \"totalCount\"")
+        .doesNotContain(" over() ")
+        .contains(" ORDER BY \"createdAt\" ASC, fakeTableName.uuid ASC ")
+        .contains("FETCH NEXT :limit ROWS ONLY");
+  }
+
   @Test
   public void testDbTypeFromTag() {
     assertThat(DbType.fromTag("sqlserver")).isEqualTo(DbType.MSSQL);
@@ -0,0 +1,130 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import mil.dds.anet.AnetApplication;
+import mil.dds.anet.config.AnetConfiguration.DataLoaderExecutorConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the backpressure and metrics of the thread pool used by the DataLoader batch loads.
+ */
+public class DataLoaderExecutorTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private MetricRegistry metricRegistry;
+  private ThreadPoolExecutor executor;
+
+  @Before
+  public void setUp() {
+    metricRegistry = new MetricRegistry();
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private void createExecutor(int queueSize) {
+    final DataLoaderExecutorConfiguration executorConfig = new DataLoaderExecutorConfiguration();
+    executorConfig.setQueueSize(queueSize);
+    executor = AnetApplication.createDataLoaderThreadPool(executorConfig, 1, metricRegistry);
+  }
+
+  private int getGauge(String name) {
+    @SuppressWarnings("unchecked")
+    final Gauge<Integer> gauge = metricRegistry.getGauges().get("DataLoaderExecutor." + name);
+    return gauge.getValue();
+  }
+
+  private long getCallerRunsCount() {
+    return metricRegistry.counter("DataLoaderExecutor.CallerRunsCount").getCount();
+  }
+
+  /**
+   * Occupies the only thread of the pool until released.
+   */
+  private void occupyThread() throws InterruptedException {
+    final CountDownLatch started = new CountDownLatch(1);
+    executor.execute(() -> {
+      started.countDown();
+      try {
+        release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    assertThat(started.await(TIMEOUT, TimeUnit.MILLISECONDS)).isTrue();
+  }
+
+  /**
+   * @return the thread that ran the task, or null if it has not run yet
+   */
+  private AtomicReference<Thread> execute() {
+    final AtomicReference<Thread> thread = new AtomicReference<>();
+    executor.execute(() -> thread.set(Thread.currentThread()));
+    return thread;
+  }
+
+  @Test
+  public void testCallerRuns() throws InterruptedException {
+    createExecutor(1);
+    occupyThread();
+    assertThat(getGauge("ActiveCount")).isEqualTo(1);
+    assertThat(getGauge("PoolSize")).isEqualTo(1);
+
+    // Queued while the thread is busy
+    final AtomicReference<Thread> queued = execute();
+    assertThat(queued.get()).isNull();
+    assertThat(getGauge("QueueDepth")).isEqualTo(1);
+    assertThat(getCallerRunsCount()).isEqualTo(0);
+
+    // With the queue full as well, the caller runs the task itself
+    final AtomicReference<Thread> callerRun = execute();
+    assertThat(callerRun.get()).isSameAs(Thread.currentThread());
+    assertThat(getGauge("QueueDepth")).isEqualTo(1);
+    assertThat(getCallerRunsCount()).isEqualTo(1);
+
+    // Once the thread is released, it runs the queued task
+    release.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(TIMEOUT, TimeUnit.MILLISECONDS)).isTrue();
+    assertThat(queued.get()).isNotNull().isNotSameAs(Thread.currentThread());
+    assertThat(getGauge("QueueDepth")).isEqualTo(0);
+    assertThat(getGauge("ActiveCount")).isEqualTo(0);
+  }
+
+  @Test
+  public void testWithoutQueue() throws InterruptedException {
+    // A queueSize of 0 means that nothing is queued
+    createExecutor(0);
+    occupyThread();
+    final AtomicReference<Thread> callerRun = execute();
+    assertThat(callerRun.get()).isSameAs(Thread.currentThread());
+    assertThat(getGauge("QueueDepth")).isEqualTo(0);
+    assertThat(getCallerRunsCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testShutdown() {
+    // Loads are rejected instead of run on the caller once the pool has been shut down
+    createExecutor(1);
+    executor.shutdown();
+    assertThatThrownBy(() -> execute()).isInstanceOf(RejectedExecutionException.class);
+    assertThat(getCallerRunsCount()).isEqualTo(0);
+  }
+}
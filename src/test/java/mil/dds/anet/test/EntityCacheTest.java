@@ -0,0 +1,71 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import mil.dds.anet.beans.Tag;
+import mil.dds.anet.config.AnetConfiguration.EntityCacheConfiguration;
+import mil.dds.anet.database.EntityCache;
+import org.junit.Test;
+
+/**
+ * Tests for the cross-request entity cache.
+ */
+public class EntityCacheTest {
+
+  private final List<List<String>> loadedKeys = new ArrayList<>();
+
+  private List<Tag> load(List<String> uuids) {
+    loadedKeys.add(uuids);
+    return uuids.stream().map(uuid -> uuid.startsWith("missing") ? null : createTag(uuid))
+        .collect(Collectors.toList());
+  }
+
+  private static Tag createTag(String uuid) {
+    final Tag t = new Tag();
+    t.setUuid(uuid);
+    t.setName("tag " + uuid);
+    return t;
+  }
+
+  private static Tag copy(Tag t) {
+    final Tag copy = new Tag();
+    copy.setUuid(t.getUuid());
+    copy.setName(t.getName());
+    return copy;
+  }
+
+  @Test
+  public void testGetByIds() {
+    final EntityCache<Tag> cache =
+        new EntityCache<>("tags", new EntityCacheConfiguration(), null, EntityCacheTest::copy);
+
+    final List<Tag> first = cache.getByIds(Arrays.asList("a", "b", "missing1"), this::load);
+    assertThat(first).hasSize(3);
+    assertThat(first.get(0).getUuid()).isEqualTo("a");
+    assertThat(first.get(1).getUuid()).isEqualTo("b");
+    assertThat(first.get(2)).isNull();
+    assertThat(cache.size()).isEqualTo(2);
+
+    // Only the uncached ones should be loaded, and copies should be handed out
+    final List<Tag> second = cache.getByIds(Arrays.asList("b", "c", "a"), this::load);
+    assertThat(second.stream().map(Tag::getUuid)).containsExactly("b", "c", "a");
+    assertThat(second.get(0)).isNotSameAs(first.get(1)).isEqualTo(first.get(1));
+    assertThat(loadedKeys).containsExactly(Arrays.asList("a", "b", "missing1"),
+        Arrays.asList("c"));
+
+    // Changes to a bean handed out should not affect the cache
+    second.get(2).setName("changed");
+    assertThat(cache.getByIds(Arrays.asList("a"), this::load).get(0).getName())
+        .isEqualTo("tag a");
+
+    cache.invalidate("a");
+    cache.getByIds(Arrays.asList("a", "b"), this::load);
+    assertThat(loadedKeys).hasSize(3).endsWith(Arrays.asList("a"));
+
+    cache.invalidateAll();
+    assertThat(cache.size()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,138 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.leangen.graphql.annotations.GraphQLQuery;
+import java.io.ByteArrayOutputStream;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import mil.dds.anet.beans.Person;
+import mil.dds.anet.config.AnetConfiguration;
+import mil.dds.anet.database.SqlStatistics;
+import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.resources.GraphQlResource;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the sampled timing of GraphQL fields.
+ */
+public class FieldTimingInstrumentationTest {
+
+  private static final long TIMEOUT = 5000;
+  private static final String QUERY = "{ item { name } }";
+
+  private final ObjectMapper mapper = MapperUtils.getDefaultMapper();
+  private ExecutorService executor;
+  private ScheduledExecutorService scheduler;
+  private AnetConfiguration config;
+  private MetricRegistry metricRegistry;
+
+  /**
+   * A type with a field of its own.
+   */
+  public static class Item {
+    @GraphQLQuery(name = "name")
+    public String getName() {
+      return "item";
+    }
+  }
+
+  /**
+   * The root resolver returning the item.
+   */
+  public static class ItemResource {
+    @GraphQLQuery(name = "item")
+    public Item item() {
+      return new Item();
+    }
+  }
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor();
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    config = new AnetConfiguration();
+    config.getGraphQl().getQueryCost().setEnabled(false);
+    metricRegistry = new MetricRegistry();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    scheduler.shutdownNow();
+  }
+
+  private JsonNode query(int count) throws Exception {
+    final GraphQlResource resource = new GraphQlResource(null, config,
+        ImmutableList.of(new ItemResource()), metricRegistry, executor, scheduler, false) {
+      @Override
+      protected DataLoaderRegistry createDataLoaderRegistry(SqlStatistics sqlStatistics) {
+        return new DataLoaderRegistry();
+      }
+    };
+    JsonNode result = null;
+    for (int i = 0; i < count; i++) {
+      final TestAsyncResponse asyncResponse = new TestAsyncResponse();
+      resource.graphqlPost(new Person(), ImmutableMap.of("query", QUERY), asyncResponse);
+      final Object response = asyncResponse.get(TIMEOUT);
+      assertThat(response).isInstanceOf(Response.class);
+      assertThat(((Response) response).getStatus()).isEqualTo(200);
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      ((StreamingOutput) ((Response) response).getEntity()).write(output);
+      result = mapper.readTree(output.toByteArray());
+      assertThat(result.path("data").path("item").path("name").asText()).isEqualTo("item");
+    }
+    return result;
+  }
+
+  private SortedMap<String, Timer> getFieldTimers() {
+    return metricRegistry.getTimers((name, metric) -> name.startsWith("GraphQlField."));
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    config.getGraphQl().getFieldTiming().setEnabled(false);
+    query(1);
+    assertThat(getFieldTimers()).isEmpty();
+  }
+
+  @Test
+  public void testSampleRateZero() throws Exception {
+    config.getGraphQl().getFieldTiming().setEnabled(true);
+    config.getGraphQl().getFieldTiming().setSampleRate(0);
+    query(10);
+    assertThat(getFieldTimers()).isEmpty();
+  }
+
+  @Test
+  public void testSampleRateOne() throws Exception {
+    config.getGraphQl().getFieldTiming().setEnabled(true);
+    config.getGraphQl().getFieldTiming().setSampleRate(1);
+    final JsonNode result = query(3);
+    assertThat(metricRegistry.timer("GraphQlField.Query.item").getCount()).isEqualTo(3);
+    assertThat(metricRegistry.timer("GraphQlField.Item.name").getCount()).isEqualTo(3);
+    // Without tracing, no timings are returned to the client
+    assertThat(result.path("extensions").has("tracing")).isFalse();
+  }
+
+  @Test
+  public void testTracing() throws Exception {
+    config.getGraphQl().getFieldTiming().setTracing(true);
+    final JsonNode tracing = query(1).path("extensions").path("tracing");
+    assertThat(tracing.isObject()).isTrue();
+    assertThat(tracing.path("execution").path("resolvers").findValuesAsText("fieldName"))
+        .contains("item", "name");
+  }
+}
@@ -0,0 +1,88 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import io.leangen.graphql.annotations.GraphQLQuery;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response;
+import mil.dds.anet.beans.Person;
+import mil.dds.anet.config.AnetConfiguration;
+import mil.dds.anet.database.SqlStatistics;
+import mil.dds.anet.resources.GraphQlResource;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * GraphQL requests should be executed without holding on to the request thread.
+ */
+public class GraphQlAsyncTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private ExecutorService executor;
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * A root resolver that only completes once released.
+   */
+  public static class SlowResource {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile Thread resolverThread;
+
+    @GraphQLQuery(name = "slow")
+    public String slow() throws InterruptedException {
+      resolverThread = Thread.currentThread();
+      started.countDown();
+      release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+      return "done";
+    }
+  }
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void testSlowRootResolver() throws Exception {
+    final AnetConfiguration config = new AnetConfiguration();
+    config.getGraphQl().getQueryCost().setEnabled(false);
+    final SlowResource slowResource = new SlowResource();
+    final GraphQlResource resource = new GraphQlResource(null, config,
+        ImmutableList.of(slowResource), new MetricRegistry(), executor, scheduler, false) {
+      @Override
+      protected DataLoaderRegistry createDataLoaderRegistry(SqlStatistics sqlStatistics) {
+        return new DataLoaderRegistry();
+      }
+    };
+
+    final TestAsyncResponse asyncResponse = new TestAsyncResponse();
+    resource.graphqlPost(new Person(), Collections.singletonMap("query", "{ slow }"),
+        asyncResponse);
+    // The resource method returned while the root resolver is still running elsewhere
+    assertThat(slowResource.started.await(TIMEOUT, TimeUnit.MILLISECONDS)).isTrue();
+    assertThat(asyncResponse.isDone()).isFalse();
+    assertThat(slowResource.resolverThread).isNotSameAs(Thread.currentThread());
+
+    slowResource.release.countDown();
+    final Object response = asyncResponse.get(TIMEOUT);
+    assertThat(response).isInstanceOf(Response.class);
+    assertThat(((Response) response).getStatus()).isEqualTo(200);
+  }
+}
@@ -0,0 +1,96 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLError;
+import graphql.InvalidSyntaxError;
+import graphql.execution.AbortExecutionException;
+import graphql.language.SourceLocation;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.resources.GraphQlResource.JsonStreamingOutput;
+import org.junit.Test;
+
+/**
+ * The streamed JSON should be the same as the serialized {@link ExecutionResult#toSpecification()}.
+ */
+public class JsonStreamingOutputTest {
+
+  private static final ObjectMapper mapper = MapperUtils.getDefaultMapper();
+
+  @Test
+  public void testData() throws IOException {
+    final Map<String, Object> report = new LinkedHashMap<>();
+    report.put("uuid", "r1");
+    report.put("intent", "Test \"quotes\", newlines\n and unicode é");
+    report.put("engagementDate", 1546300800000L);
+    report.put("duration", null);
+    report.put("atmosphereDetails", "");
+    report.put("cancelled", false);
+    report.put("lat", 34.5);
+    report.put("amount", new BigDecimal("12.50"));
+    report.put("attendees", Arrays.asList(Collections.singletonMap("uuid", "p1"),
+        Collections.singletonMap("uuid", null)));
+    report.put("tags", Collections.emptyList());
+    final Map<String, Object> data = new LinkedHashMap<>();
+    data.put("report", report);
+    data.put("count", 3);
+    assertSameAsSpecification(new ExecutionResultImpl(data, Collections.emptyList()));
+  }
+
+  @Test
+  public void testErrors() throws IOException {
+    final List<GraphQLError> errors =
+        Arrays.asList(new InvalidSyntaxError(new SourceLocation(1, 7), "Invalid syntax"),
+            new AbortExecutionException("Query too expensive"));
+    // Without data
+    assertSameAsSpecification(new ExecutionResultImpl(null, errors));
+    assertSameAsSpecification(new ExecutionResultImpl(errors.get(1)));
+    // With partial data
+    assertSameAsSpecification(
+        new ExecutionResultImpl(Collections.singletonMap("report", null), errors));
+  }
+
+  @Test
+  public void testExtensions() throws IOException {
+    final Map<Object, Object> sqlStatistics = new LinkedHashMap<>();
+    sqlStatistics.put("statementCount", 2);
+    sqlStatistics.put("statements", Collections.singletonMap("getReport", 2));
+    final Map<Object, Object> extensions = new LinkedHashMap<>();
+    extensions.put("sqlStatistics", sqlStatistics);
+    assertSameAsSpecification(new ExecutionResultImpl(Collections.singletonMap("count", 1),
+        Collections.emptyList(), extensions));
+  }
+
+  @Test
+  public void testBatch() throws IOException {
+    final List<ExecutionResult> results = Arrays.asList(
+        new ExecutionResultImpl(Collections.singletonMap("count", 1), Collections.emptyList()),
+        new ExecutionResultImpl(new AbortExecutionException("PersistedQueryNotFound")));
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new JsonStreamingOutput(results).write(output);
+    final JsonNode expected = mapper.valueToTree(
+        Arrays.asList(results.get(0).toSpecification(), results.get(1).toSpecification()));
+    assertThat(mapper.readTree(output.toByteArray())).isEqualTo(expected);
+  }
+
+  private static void assertSameAsSpecification(ExecutionResult executionResult)
+      throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new JsonStreamingOutput(executionResult).write(output);
+    final String streamed = output.toString("UTF-8");
+    final String serialized = mapper.writeValueAsString(executionResult.toSpecification());
+    // Compare the text as well, to check field order and number formatting
+    assertThat(streamed).isEqualTo(serialized);
+  }
+}
@@ -0,0 +1,48 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import mil.dds.anet.database.KeyListQuery;
+import org.junit.Test;
+
+public class KeyListQueryTest {
+
+  private static final List<Integer> CHUNK_SIZES = Arrays.asList(10, 1, 5);
+
+  @Test
+  public void testGetChunks() {
+    assertThat(KeyListQuery.getChunks(Collections.emptyList(), CHUNK_SIZES)).isEmpty();
+    assertThat(KeyListQuery.getChunks(getKeys(1), CHUNK_SIZES))
+        .containsExactly(Arrays.asList("k0"));
+    // Padded with the last key
+    assertThat(KeyListQuery.getChunks(getKeys(3), CHUNK_SIZES))
+        .containsExactly(Arrays.asList("k0", "k1", "k2", "k2", "k2"));
+    assertThat(KeyListQuery.getChunks(getKeys(10), CHUNK_SIZES)).containsExactly(getKeys(10));
+
+    final List<List<String>> chunks = KeyListQuery.getChunks(getKeys(22), CHUNK_SIZES);
+    assertThat(chunks).hasSize(3);
+    assertThat(chunks.get(0)).isEqualTo(getKeys(10));
+    assertThat(chunks.get(1)).hasSize(10).startsWith("k10").endsWith("k19");
+    assertThat(chunks.get(2)).containsExactly("k20", "k21", "k21", "k21", "k21");
+  }
+
+  @Test
+  public void testInvalidChunkSizes() {
+    assertThatThrownBy(() -> KeyListQuery.getChunks(getKeys(3), Collections.emptyList()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> KeyListQuery.getChunks(getKeys(3), Arrays.asList(5, 0)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> KeyListQuery.checkChunkSizes(Arrays.asList(1, null)))
+        .isInstanceOf(IllegalArgumentException.class);
+    KeyListQuery.checkChunkSizes(CHUNK_SIZES);
+  }
+
+  private static List<String> getKeys(int n) {
+    return IntStream.range(0, n).mapToObj(i -> "k" + i).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,53 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import mil.dds.anet.beans.Person.Role;
+import mil.dds.anet.database.mappers.ColumnIndexes;
+import mil.dds.anet.database.mappers.MapperUtils;
+import org.junit.Test;
+
+public class MapperUtilsTest {
+
+  private static final String SQL =
+      "SELECT 'a' AS people_uuid, 1 AS people_role, NULL AS people_status, 'b' AS uuid,"
+          + " 'c' AS people_uuid, 42 AS totalcount";
+
+  @Test
+  public void testColumnIndexes() throws SQLException {
+    try (final Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        final Statement stmt = conn.createStatement();
+        final ResultSet rs = stmt.executeQuery(SQL)) {
+      assertThat(rs.next()).isTrue();
+      final ColumnIndexes columns = MapperUtils.getColumnIndexes(rs);
+      // Looked up once per ResultSet
+      assertThat(MapperUtils.getColumnIndexes(rs)).isSameAs(columns);
+
+      // The first of duplicate columns wins
+      assertThat(columns.get("people_uuid")).isEqualTo(1);
+      assertThat(columns.get("people", "uuid")).isEqualTo(1);
+      assertThat(columns.get(null, "uuid")).isEqualTo(4);
+      assertThat(columns.contains("people", "role")).isTrue();
+      assertThat(columns.contains("people", "name")).isFalse();
+
+      // Only reading is case insensitive
+      assertThat(columns.contains("totalCount")).isFalse();
+      assertThat(MapperUtils.containsColumnNamed(rs, "totalcount")).isTrue();
+      assertThat(rs.getInt(columns.get("totalCount"))).isEqualTo(42);
+      try {
+        columns.get("people", "name");
+        fail("Expected SQLException");
+      } catch (SQLException expectedException) {
+      }
+
+      assertThat(MapperUtils.getEnumIdx(rs, "people_role", Role.class))
+          .isEqualTo(Role.values()[1]);
+      assertThat(MapperUtils.getEnumIdx(rs, columns.get("people", "status"), Role.class)).isNull();
+    }
+  }
+}
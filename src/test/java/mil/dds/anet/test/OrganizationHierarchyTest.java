@@ -0,0 +1,148 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import mil.dds.anet.beans.Organization;
+import mil.dds.anet.beans.Organization.OrganizationType;
+import mil.dds.anet.database.OrganizationHierarchy;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrganizationHierarchyTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private final List<Organization> orgs = new ArrayList<>();
+  private final AtomicInteger loads = new AtomicInteger();
+  // When set, loads wait for it after reading the organizations
+  private volatile CountDownLatch loadBarrier;
+  private OrganizationHierarchy hierarchy;
+
+  @Before
+  public void setUp() {
+    // a > b > c, a > d, and the principal organization p > q
+    orgs.add(org("a", null, OrganizationType.ADVISOR_ORG));
+    orgs.add(org("b", "a", OrganizationType.ADVISOR_ORG));
+    orgs.add(org("c", "b", OrganizationType.ADVISOR_ORG));
+    orgs.add(org("d", "a", OrganizationType.ADVISOR_ORG));
+    orgs.add(org("p", null, OrganizationType.PRINCIPAL_ORG));
+    orgs.add(org("q", "p", OrganizationType.PRINCIPAL_ORG));
+    hierarchy = new OrganizationHierarchy(() -> {
+      loads.incrementAndGet();
+      final List<Organization> loaded = new ArrayList<>(orgs);
+      if (loadBarrier != null) {
+        try {
+          loadBarrier.await(TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return loaded;
+    });
+  }
+
+  @Test
+  public void testQueries() {
+    assertThat(hierarchy.contains("c")).isTrue();
+    assertThat(hierarchy.contains("x")).isFalse();
+    assertThat(hierarchy.getType("q")).isEqualTo(OrganizationType.PRINCIPAL_ORG);
+    assertThat(hierarchy.getAncestorUuids("c")).containsExactly("b", "a");
+    assertThat(hierarchy.getAncestorUuids("a")).isEmpty();
+    assertThat(hierarchy.getDescendantUuids("a")).containsExactlyInAnyOrder("b", "c", "d");
+    assertThat(hierarchy.getDescendantUuids("x")).isEmpty();
+    assertThat(hierarchy.isUnder("c", "a")).isTrue();
+    assertThat(hierarchy.isUnder("a", "a")).isTrue();
+    assertThat(hierarchy.isUnder("a", "c")).isFalse();
+    assertThat(hierarchy.isUnder("q", "a")).isFalse();
+    assertThat(hierarchy.wouldCreateLoop("a", "c")).isTrue();
+    assertThat(hierarchy.wouldCreateLoop("c", "d")).isFalse();
+    assertThat(hierarchy.wouldCreateLoop("a", null)).isFalse();
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testTopLevel() {
+    assertThat(hierarchy.getTopLevelUuids(OrganizationType.ADVISOR_ORG)).containsOnlyKeys("a",
+        "b", "c", "d").containsValues("a").doesNotContainValue("b");
+    assertThat(hierarchy.getTopLevelUuids(null)).containsEntry("c", "a").containsEntry("q", "p");
+    assertThat(hierarchy.getTopLevelUuidsUnder("a")).containsEntry("a", "a").containsEntry("b", "b")
+        .containsEntry("c", "b").containsEntry("d", "d").hasSize(4);
+    assertThat(hierarchy.getTopLevelUuidsUnder("x")).isEmpty();
+  }
+
+  @Test
+  public void testUpdate() {
+    assertThat(hierarchy.isUnder("c", "a")).isTrue();
+    // Move b (and c with it) under q, and add e under c
+    hierarchy.update("b", "q", OrganizationType.ADVISOR_ORG);
+    hierarchy.update("e", "c", OrganizationType.ADVISOR_ORG);
+    assertThat(hierarchy.getAncestorUuids("e")).containsExactly("c", "b", "q", "p");
+    assertThat(hierarchy.getDescendantUuids("a")).containsExactly("d");
+    // Unknown parent, so it is reloaded
+    hierarchy.update("f", "x", OrganizationType.ADVISOR_ORG);
+    assertThat(hierarchy.contains("e")).isFalse();
+    assertThat(hierarchy.isUnder("c", "a")).isTrue();
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testUpdateDuringReload() throws Exception {
+    assertThat(hierarchy.isUnder("b", "a")).isTrue();
+    hierarchy.setRefreshInterval(0, TimeUnit.SECONDS);
+    loadBarrier = new CountDownLatch(1);
+    // Reload, and have it read the organizations before b is moved
+    final Thread reload = new Thread(() -> hierarchy.contains("b"));
+    reload.start();
+    while (loads.get() < 2) {
+      Thread.sleep(1);
+    }
+    hierarchy.update("b", "q", OrganizationType.ADVISOR_ORG);
+    loadBarrier.countDown();
+    reload.join(TIMEOUT);
+
+    // The reload did not replace the update
+    hierarchy.setRefreshInterval(1, TimeUnit.HOURS);
+    assertThat(hierarchy.getAncestorUuids("b")).containsExactly("q", "p");
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testConcurrentInitialLoad() throws Exception {
+    loadBarrier = new CountDownLatch(1);
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final Thread thread = new Thread(() -> hierarchy.contains("a"));
+      threads.add(thread);
+      thread.start();
+    }
+    Thread.sleep(50);
+    loadBarrier.countDown();
+    for (final Thread thread : threads) {
+      thread.join(TIMEOUT);
+    }
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testLoop() {
+    assertThat(hierarchy.isUnder("c", "a")).isTrue();
+    hierarchy.update("a", "c", OrganizationType.ADVISOR_ORG);
+    assertThat(hierarchy.getAncestorUuids("a")).containsExactly("c", "b");
+    assertThat(hierarchy.isUnder("d", "p")).isFalse();
+    assertThatThrownBy(() -> hierarchy.getTopLevelUuids(OrganizationType.ADVISOR_ORG))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Organization org(String uuid, String parentUuid, OrganizationType type) {
+    final Organization org = new Organization();
+    org.setUuid(uuid);
+    org.setParentOrgUuid(parentUuid);
+    org.setType(type);
+    return org;
+  }
+}
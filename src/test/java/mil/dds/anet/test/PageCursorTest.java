@@ -0,0 +1,79 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import javax.ws.rs.WebApplicationException;
+import mil.dds.anet.beans.search.ISearchQuery.SortOrder;
+import mil.dds.anet.utils.DaoUtils;
+import mil.dds.anet.utils.DaoUtils.DbType;
+import mil.dds.anet.utils.PageCursor;
+import org.junit.Test;
+
+public class PageCursorTest {
+
+  private static final String SORT_KEY = PageCursor.getSortKey("CREATED_AT", SortOrder.DESC);
+
+  @Test
+  public void testEncodeDecode() {
+    final Instant sortValue = Instant.parse("2019-03-01T12:34:56.123456700Z");
+    final String cursor = PageCursor.encode(SORT_KEY, sortValue, "some-uuid");
+    final PageCursor pageCursor = PageCursor.decode(cursor, SORT_KEY);
+    assertThat(pageCursor.getSortValue()).isEqualTo(sortValue);
+    assertThat(pageCursor.getUuid()).isEqualTo("some-uuid");
+
+    final PageCursor nullCursor =
+        PageCursor.decode(PageCursor.encode(SORT_KEY, null, "some-uuid"), SORT_KEY);
+    assertThat(nullCursor.getSortValue()).isNull();
+    assertThat(nullCursor.getUuid()).isEqualTo("some-uuid");
+
+    assertThat(PageCursor.decode(null, SORT_KEY)).isNull();
+    assertThat(PageCursor.decode("", SORT_KEY)).isNull();
+  }
+
+  @Test
+  public void testDecodeInvalid() {
+    assertInvalid("not a cursor!");
+    assertInvalid(PageCursor.encode(SORT_KEY, Instant.now(), ""));
+    assertInvalid(PageCursor.encode(PageCursor.getSortKey("CREATED_AT", SortOrder.ASC),
+        Instant.now(), "some-uuid"));
+  }
+
+  @Test
+  public void testSeekClause() {
+    final Instant sortValue = Instant.parse("2019-03-01T12:34:56Z");
+    final PageCursor cursor =
+        PageCursor.decode(PageCursor.encode(SORT_KEY, sortValue, "some-uuid"), SORT_KEY);
+    final Map<String, Object> args = new HashMap<>();
+    // NULL values are sorted first in SQL Server, so come last when sorting descending
+    assertThat(cursor.getSeekClause(DbType.MSSQL, "c", SortOrder.DESC, "u", args)).isEqualTo(
+        "(c < :cursorSortValue OR (c = :cursorSortValue AND u > :cursorUuid) OR c IS NULL)");
+    assertThat(args).containsEntry("cursorSortValue", DaoUtils.asLocalDateTime(sortValue))
+        .containsEntry("cursorUuid", "some-uuid");
+    assertThat(cursor.getSeekClause(DbType.MSSQL, "c", SortOrder.ASC, "u", args))
+        .isEqualTo("(c > :cursorSortValue OR (c = :cursorSortValue AND u > :cursorUuid))");
+    // ... and last in PostgreSQL
+    assertThat(cursor.getSeekClause(DbType.POSTGRESQL, "c", SortOrder.DESC, "u", args))
+        .doesNotContain("IS NULL");
+    assertThat(cursor.getSeekClause(DbType.POSTGRESQL, "c", SortOrder.ASC, "u", args))
+        .endsWith(" OR c IS NULL)");
+
+    final PageCursor nullCursor =
+        PageCursor.decode(PageCursor.encode(SORT_KEY, null, "some-uuid"), SORT_KEY);
+    assertThat(nullCursor.getSeekClause(DbType.SQLITE, "c", SortOrder.DESC, "u", args))
+        .isEqualTo("((c IS NULL AND u > :cursorUuid))");
+    assertThat(nullCursor.getSeekClause(DbType.SQLITE, "c", SortOrder.ASC, "u", args))
+        .isEqualTo("((c IS NULL AND u > :cursorUuid) OR c IS NOT NULL)");
+  }
+
+  private static void assertInvalid(String cursor) {
+    try {
+      PageCursor.decode(cursor, SORT_KEY);
+      fail("Expected WebApplicationException");
+    } catch (WebApplicationException expectedException) {
+      assertThat(expectedException.getResponse().getStatus()).isEqualTo(400);
+    }
+  }
+}
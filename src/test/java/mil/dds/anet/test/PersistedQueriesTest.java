@@ -0,0 +1,84 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.codahale.metrics.MetricRegistry;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import mil.dds.anet.config.AnetConfiguration.GraphQlConfiguration;
+import mil.dds.anet.graphql.CachingPreparsedDocumentProvider;
+import mil.dds.anet.graphql.PersistedQueryRegistry;
+import org.junit.Test;
+
+/**
+ * Tests for the parsed document cache and the persisted query registry.
+ */
+public class PersistedQueriesTest {
+
+  private static final String QUERY = "query { adminSettings { key } }";
+
+  private final List<String> parsedQueries = new ArrayList<>();
+
+  private PreparsedDocumentEntry parse(String query) {
+    parsedQueries.add(query);
+    return new PreparsedDocumentEntry(new Parser().parseDocument(query));
+  }
+
+  @Test
+  public void testDocumentCache() {
+    final MetricRegistry metricRegistry = new MetricRegistry();
+    final CachingPreparsedDocumentProvider provider =
+        new CachingPreparsedDocumentProvider(10, metricRegistry);
+    final Function<String, PreparsedDocumentEntry> compute = this::parse;
+
+    final PreparsedDocumentEntry first = provider.get(QUERY, compute);
+    final PreparsedDocumentEntry second = provider.get(QUERY, compute);
+    assertThat(second).isSameAs(first);
+    assertThat(parsedQueries).containsExactly(QUERY);
+
+    // The exports reuse the cached document
+    final Document document = provider.getDocument(QUERY);
+    assertThat(document).isSameAs(first.getDocument());
+    assertThat(parsedQueries).hasSize(1);
+    // Without affecting the statistics of the cache
+    assertThat(metricRegistry.getGauges().get("GraphQlDocumentCache.HitCount").getValue())
+        .isEqualTo(1L);
+    assertThat(metricRegistry.getGauges().get("GraphQlDocumentCache.MissCount").getValue())
+        .isEqualTo(1L);
+
+    provider.invalidateAll();
+    assertThat(provider.get(QUERY, compute)).isNotSameAs(first);
+    assertThat(parsedQueries).containsExactly(QUERY, QUERY);
+  }
+
+  @Test
+  public void testRegisterOnFirstUse() {
+    final PersistedQueryRegistry registry =
+        new PersistedQueryRegistry(new GraphQlConfiguration(), new MetricRegistry());
+    final String hash = PersistedQueryRegistry.getQueryHash(QUERY);
+    assertThat(hash).hasSize(64);
+
+    assertThat(registry.getQuery(hash)).isNull();
+    registry.register(hash, QUERY);
+    assertThat(registry.getQuery(hash)).isEqualTo(QUERY);
+
+    assertThatThrownBy(() -> registry.register(hash, QUERY + " "))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(registry.getQuery(PersistedQueryRegistry.getQueryHash(QUERY + " "))).isNull();
+  }
+
+  @Test
+  public void testNoRegisterOnFirstUse() {
+    final GraphQlConfiguration config = new GraphQlConfiguration();
+    config.setRegisterPersistedQueriesOnFirstUse(false);
+    final PersistedQueryRegistry registry =
+        new PersistedQueryRegistry(config, new MetricRegistry());
+    final String hash = PersistedQueryRegistry.getQueryHash(QUERY);
+    registry.register(hash, QUERY);
+    assertThat(registry.getQuery(hash)).isNull();
+  }
+}
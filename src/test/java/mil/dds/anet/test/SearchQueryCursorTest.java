@@ -0,0 +1,109 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.leangen.graphql.annotations.GraphQLArgument;
+import io.leangen.graphql.annotations.GraphQLQuery;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.ws.rs.core.Response;
+import mil.dds.anet.beans.Person;
+import mil.dds.anet.beans.search.PersonSearchQuery;
+import mil.dds.anet.beans.search.ReportSearchQuery;
+import mil.dds.anet.config.AnetConfiguration;
+import mil.dds.anet.database.SqlStatistics;
+import mil.dds.anet.resources.GraphQlResource;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Only report searches support cursors; other searches must reject them instead of silently
+ * returning the first page.
+ */
+public class SearchQueryCursorTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private ExecutorService executor;
+  private ScheduledExecutorService scheduler;
+  private GraphQlResource resource;
+
+  /**
+   * Root resolvers taking the search queries as input.
+   */
+  public static class SearchResource {
+    @GraphQLQuery(name = "personList")
+    public String personList(@GraphQLArgument(name = "query") PersonSearchQuery query) {
+      return query.getText();
+    }
+
+    @GraphQLQuery(name = "reportList")
+    public String reportList(@GraphQLArgument(name = "query") ReportSearchQuery query) {
+      return query.getCursor();
+    }
+  }
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor();
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    final AnetConfiguration config = new AnetConfiguration();
+    config.getGraphQl().getQueryCost().setEnabled(false);
+    resource = new GraphQlResource(null, config, ImmutableList.of(new SearchResource()),
+        new MetricRegistry(), executor, scheduler, false) {
+      @Override
+      protected DataLoaderRegistry createDataLoaderRegistry(SqlStatistics sqlStatistics) {
+        return new DataLoaderRegistry();
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    scheduler.shutdownNow();
+  }
+
+  private Response search(String listQuery, String inputType, String field, String value)
+      throws Exception {
+    final Map<String, Object> query = ImmutableMap.of("pageNum", 0, "pageSize", 10, field, value);
+    final String q = String.format("query ($query: %1$s!) { %2$s(query: $query) }", inputType,
+        listQuery);
+    final TestAsyncResponse asyncResponse = new TestAsyncResponse();
+    resource.graphqlPost(new Person(),
+        ImmutableMap.of("query", q, "variables", ImmutableMap.of("query", query)), asyncResponse);
+    final Object response = asyncResponse.get(TIMEOUT);
+    assertThat(response).isInstanceOf(Response.class);
+    return (Response) response;
+  }
+
+  @Test
+  public void testReportSearchCursor() throws Exception {
+    assertThat(search("reportList", "ReportSearchQueryInput", "cursor", "abc").getStatus())
+        .isEqualTo(200);
+  }
+
+  @Test
+  public void testPersonSearchCursor() throws Exception {
+    assertThat(search("personList", "PersonSearchQueryInput", "text", "abc").getStatus())
+        .isEqualTo(200);
+    assertThat(search("personList", "PersonSearchQueryInput", "cursor", "abc").getStatus())
+        .isEqualTo(400);
+  }
+
+  @Test
+  public void testPersonSearchCursorLiteral() throws Exception {
+    final TestAsyncResponse asyncResponse = new TestAsyncResponse();
+    final String q = "{ personList(query: { pageNum: 0, pageSize: 10, cursor: \"abc\" }) }";
+    resource.graphqlPost(new Person(), ImmutableMap.of("query", q), asyncResponse);
+    final Object response = asyncResponse.get(TIMEOUT);
+    assertThat(response).isInstanceOf(Response.class);
+    assertThat(((Response) response).getStatus()).isEqualTo(400);
+  }
+}
@@ -0,0 +1,119 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.parser.Parser;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.graphql.TabularResult;
+import mil.dds.anet.resources.GraphQlResource.CsvStreamingOutput;
+import mil.dds.anet.resources.GraphQlResource.NdjsonStreamingOutput;
+import org.junit.Test;
+
+/**
+ * Tests for the tabular view of GraphQL results, and its CSV and NDJSON output.
+ */
+public class TabularResultTest {
+
+  private static final String REPORT_LIST_QUERY = "query { reports: reportList(query: {}) {"
+      + " totalCount list { uuid ...reportFields author { name: fullName rank }"
+      + " attendees { name } } } }"
+      + " fragment reportFields on Report { intent ... on Report { state } }";
+
+  private static final ObjectMapper mapper = MapperUtils.getDefaultMapper();
+
+  @Test
+  public void testColumns() {
+    final TabularResult table = getReportListTable();
+    // Aliases and fragments resolved, nested fields flattened
+    assertThat(table.getColumns()).containsExactly("uuid", "intent", "state", "author.name",
+        "author.rank", "attendees.name");
+    assertThat(table.getRows()).hasSize(2);
+
+    final Object first = table.getRows().get(0);
+    assertThat(table.getValue(first, 1)).isEqualTo("Intent, with \"quotes\"");
+    assertThat(table.getValue(first, 3)).isEqualTo("Author");
+    // Values reached through a list are collected
+    assertThat(table.getValue(first, 5)).isEqualTo(Arrays.asList("P1", "P2"));
+
+    final Object second = table.getRows().get(1);
+    assertThat(table.getValue(second, 2)).isNull();
+    assertThat(table.getValue(second, 3)).isNull();
+    assertThat(table.getValue(second, 5)).isEqualTo(Collections.emptyList());
+  }
+
+  @Test
+  public void testSingleRow() {
+    final Map<String, Object> person = new LinkedHashMap<>();
+    person.put("uuid", "p1");
+    person.put("name", "PERSON, Test");
+    final TabularResult table =
+        TabularResult.of(new Parser().parseDocument("{ person(uuid: \"p1\") { uuid name } }"),
+            Collections.singletonMap("person", person));
+    assertThat(table.getColumns()).containsExactly("uuid", "name");
+    assertThat(table.getRows()).hasSize(1);
+    assertThat(table.getRows().get(0)).isSameAs(person);
+  }
+
+  @Test
+  public void testNoData() {
+    final TabularResult table =
+        TabularResult.of(new Parser().parseDocument(REPORT_LIST_QUERY), null);
+    assertThat(table.getColumns()).isEmpty();
+    assertThat(table.getRows()).isEmpty();
+  }
+
+  @Test
+  public void testCsv() throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new CsvStreamingOutput(getReportListTable(), 1).write(output);
+    assertThat(output.toString("UTF-8"))
+        .isEqualTo("uuid,intent,state,author.name,author.rank,attendees.name\r\n"
+            + "r1,\"Intent, with \"\"quotes\"\"\",DRAFT,Author,CIV,[P1; P2]\r\n"
+            + "r2,\"multi\nline\",,,,\r\n");
+  }
+
+  @Test
+  public void testNdjson() throws IOException {
+    final TabularResult table = getReportListTable();
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new NdjsonStreamingOutput(table, 1).write(output);
+    final String[] lines = output.toString("UTF-8").split("\n");
+    assertThat(lines).hasSize(2);
+    for (int i = 0; i < lines.length; i++) {
+      final Map<String, Object> row =
+          mapper.readValue(lines[i], new TypeReference<Map<String, Object>>() {});
+      assertThat(row).isEqualTo(table.getRows().get(i));
+    }
+  }
+
+  private static TabularResult getReportListTable() {
+    final Map<String, Object> author = new LinkedHashMap<>();
+    author.put("name", "Author");
+    author.put("rank", "CIV");
+    final Map<String, Object> first = new LinkedHashMap<>();
+    first.put("uuid", "r1");
+    first.put("intent", "Intent, with \"quotes\"");
+    first.put("state", "DRAFT");
+    first.put("author", author);
+    first.put("attendees", Arrays.asList(Collections.singletonMap("name", "P1"),
+        Collections.singletonMap("name", "P2")));
+    final Map<String, Object> second = new LinkedHashMap<>();
+    second.put("uuid", "r2");
+    second.put("intent", "multi\nline");
+    second.put("state", null);
+    second.put("author", null);
+    second.put("attendees", Collections.emptyList());
+    final Map<String, Object> reportList = new LinkedHashMap<>();
+    reportList.put("totalCount", 2);
+    reportList.put("list", Arrays.asList(first, second));
+    return TabularResult.of(new Parser().parseDocument(REPORT_LIST_QUERY),
+        Collections.singletonMap("reports", reportList));
+  }
+}
@@ -0,0 +1,95 @@
+package mil.dds.anet.test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+
+/**
+ * Stands in for the suspended request of the container.
+ */
+class TestAsyncResponse implements AsyncResponse {
+  private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+  /**
+   * @return the response or throwable the request was resumed with
+   */
+  public Object get(long timeoutMillis)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean resume(Object r) {
+    return response.complete(r);
+  }
+
+  @Override
+  public boolean resume(Throwable t) {
+    return response.complete(t);
+  }
+
+  @Override
+  public boolean cancel() {
+    return false;
+  }
+
+  @Override
+  public boolean cancel(int retryAfter) {
+    return false;
+  }
+
+  @Override
+  public boolean cancel(Date retryAfter) {
+    return false;
+  }
+
+  @Override
+  public boolean isSuspended() {
+    return !response.isDone();
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return false;
+  }
+
+  @Override
+  public boolean isDone() {
+    return response.isDone();
+  }
+
+  @Override
+  public boolean setTimeout(long time, TimeUnit unit) {
+    return true;
+  }
+
+  @Override
+  public void setTimeoutHandler(TimeoutHandler handler) {}
+
+  @Override
+  public Collection<Class<?>> register(Class<?> callback) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public Collection<Class<?>> register(Object callback) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+    return Collections.emptyMap();
+  }
+}
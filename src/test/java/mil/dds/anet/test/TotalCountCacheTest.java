@@ -0,0 +1,28 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.concurrent.atomic.AtomicInteger;
+import mil.dds.anet.config.AnetConfiguration.TotalCountCacheConfiguration;
+import mil.dds.anet.search.TotalCountCache;
+import org.junit.Test;
+
+/**
+ * Tests for the cache of search total counts.
+ */
+public class TotalCountCacheTest {
+
+  @Test
+  public void testGet() {
+    final TotalCountCache cache = new TotalCountCache(new TotalCountCacheConfiguration(), null);
+    final AtomicInteger counted = new AtomicInteger();
+
+    assertThat(cache.get("a", () -> (long) counted.incrementAndGet() * 10)).isEqualTo(10L);
+    // Cached, so not counted again
+    assertThat(cache.get("a", () -> (long) counted.incrementAndGet() * 10)).isEqualTo(10L);
+    assertThat(cache.get("b", () -> (long) counted.incrementAndGet() * 10)).isEqualTo(20L);
+    assertThat(counted.get()).isEqualTo(2);
+
+    cache.invalidateAll();
+    assertThat(cache.get("a", () -> (long) counted.incrementAndGet() * 10)).isEqualTo(30L);
+  }
+}
@@ -0,0 +1,70 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.ArrayList;
+import java.util.List;
+import mil.dds.anet.database.TransactionCallbacks;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TransactionCallbacksTest {
+
+  private final List<String> actions = new ArrayList<>();
+  private Jdbi jdbi;
+  private Handle handle;
+
+  @Before
+  public void setUp() {
+    jdbi = Jdbi.create("jdbc:sqlite::memory:");
+    TransactionCallbacks.install(jdbi);
+    handle = jdbi.open();
+  }
+
+  @After
+  public void tearDown() {
+    handle.close();
+  }
+
+  @Test
+  public void testCommit() {
+    handle.useTransaction(h -> {
+      TransactionCallbacks.afterCommit(h, () -> actions.add("commit"));
+      TransactionCallbacks.afterCompletion(h, () -> actions.add("completion"));
+      assertThat(actions).isEmpty();
+    });
+    assertThat(actions).containsExactly("commit", "completion");
+
+    // Actions only run once
+    handle.useTransaction(h -> {
+    });
+    assertThat(actions).hasSize(2);
+  }
+
+  @Test
+  public void testRollback() {
+    assertThatThrownBy(() -> handle.useTransaction(h -> {
+      TransactionCallbacks.afterCommit(h, () -> actions.add("commit"));
+      TransactionCallbacks.afterCompletion(h, () -> actions.add("completion"));
+      throw new IllegalStateException();
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(actions).containsExactly("completion");
+  }
+
+  @Test
+  public void testOutsideTransaction() {
+    TransactionCallbacks.afterCommit(handle, () -> actions.add("commit"));
+    assertThat(actions).containsExactly("commit");
+
+    // Without the transaction handler, actions run right away as well
+    try (final Handle other = Jdbi.create("jdbc:sqlite::memory:").open()) {
+      other.useTransaction(h -> {
+        TransactionCallbacks.afterCompletion(h, () -> actions.add("completion"));
+        assertThat(actions).containsExactly("commit", "completion");
+      });
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.leangen.graphql.annotations.GraphQLQuery;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.ws.rs.WebApplicationException;
+import mil.dds.anet.config.AnetConfiguration;
+import mil.dds.anet.resources.GraphQlResource;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the streaming XLSX export of GraphQL results.
+ */
+public class XlsxExportTest {
+
+  private ExecutorService executor;
+  private ScheduledExecutorService scheduler;
+  private AnetConfiguration config;
+  private MetricRegistry metricRegistry;
+  private GraphQlResource resource;
+
+  /**
+   * The schema needs at least one query.
+   */
+  public static class DummyResource {
+    @GraphQLQuery(name = "dummy")
+    public String dummy() {
+      return null;
+    }
+  }
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor();
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    config = new AnetConfiguration();
+    config.setDictionary(ImmutableMap.of("dateFormats", ImmutableMap.of("excel", "d MMMM yyyy")));
+    metricRegistry = new MetricRegistry();
+    resource = new GraphQlResource(null, config, ImmutableList.of(new DummyResource()),
+        metricRegistry, executor, scheduler, false);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    scheduler.shutdownNow();
+  }
+
+  private static Map<String, Object> createRow(int i) {
+    final Map<String, Object> row = new LinkedHashMap<>();
+    row.put("uuid", "uuid-" + i);
+    row.put("name", "name " + i);
+    row.put("count", i);
+    return row;
+  }
+
+  private static Map<String, Object> createResult(List<?> list) {
+    return ImmutableMap.of("data", ImmutableMap.of("people", ImmutableMap.of("list", list)));
+  }
+
+  private Workbook export(Map<String, Object> resultMap) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    resource.new XlsxStreamingOutput(resultMap).write(output);
+    return new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()));
+  }
+
+  private static List<String> getHeader(Sheet sheet) {
+    final List<String> header = new ArrayList<>();
+    sheet.getRow(0).forEach(cell -> header.add(cell.getStringCellValue()));
+    return header;
+  }
+
+  @Test
+  public void testHeader() throws IOException {
+    // The columns are the union of the keys of all rows, in the order they are first seen
+    final Map<String, Object> other = new LinkedHashMap<>();
+    other.put("uuid", "uuid-2");
+    other.put("rank", "CIV");
+    try (Workbook workbook = export(createResult(ImmutableList.of(createRow(1), other)))) {
+      final Sheet sheet = workbook.getSheet("people");
+      assertThat(getHeader(sheet)).containsExactly("UUID", "NAME", "COUNT", "RANK");
+      final Row first = sheet.getRow(1);
+      assertThat(first.getCell(1).getStringCellValue()).isEqualTo("name 1");
+      assertThat(first.getCell(2).getNumericCellValue()).isEqualTo(1);
+      assertThat(first.getCell(3).getStringCellValue()).isEmpty();
+      final Row second = sheet.getRow(2);
+      assertThat(second.getCell(0).getStringCellValue()).isEqualTo("uuid-2");
+      assertThat(second.getCell(1).getStringCellValue()).isEmpty();
+      assertThat(second.getCell(3).getStringCellValue()).isEqualTo("CIV");
+    }
+  }
+
+  @Test
+  public void testMaxRows() throws IOException {
+    config.getGraphQl().setXlsxMaxRows(2);
+    final List<Map<String, Object>> list = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      list.add(createRow(i));
+    }
+    try (Workbook workbook = export(createResult(list))) {
+      final Sheet sheet = workbook.getSheet("people");
+      assertThat(sheet.getLastRowNum()).isEqualTo(2);
+      assertThat(sheet.getRow(2).getCell(1).getStringCellValue()).isEqualTo("name 1");
+    }
+    assertThat(metricRegistry.histogram("XlsxExport.RowsWritten").getSnapshot().getValues())
+        .containsExactly(2);
+  }
+
+  @Test
+  public void testMetrics() throws IOException {
+    export(createResult(ImmutableList.of(createRow(1), createRow(2), createRow(3)))).close();
+    export(createResult(ImmutableList.of())).close();
+    assertThat(metricRegistry.histogram("XlsxExport.RowsWritten").getSnapshot().getValues())
+        .containsExactly(0, 3);
+    assertThat(metricRegistry.timer("XlsxExport.Time").getCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testConversionError() {
+    // A second sheet with the same name can not be created
+    final Map<String, Object> resultMap = ImmutableMap.of("data",
+        ImmutableMap.of("people", ImmutableMap.of()), "people", ImmutableMap.of());
+    assertThatThrownBy(() -> export(resultMap)).isInstanceOf(WebApplicationException.class);
+    assertThat(metricRegistry.histogram("XlsxExport.RowsWritten").getCount()).isEqualTo(0);
+    assertThat(metricRegistry.timer("XlsxExport.Time").getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testLargeExport() throws IOException {
+    // All rows are written, while only a window of them is kept in memory
+    final int rows = 50000;
+    final List<Map<String, Object>> list = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      list.add(createRow(i));
+    }
+    try (Workbook workbook = export(createResult(list))) {
+      final Sheet sheet = workbook.getSheet("people");
+      assertThat(sheet.getLastRowNum()).isEqualTo(rows);
+      assertThat(sheet.getRow(rows).getCell(1).getStringCellValue())
+          .isEqualTo("name " + (rows - 1));
+    }
+    assertThat(metricRegistry.histogram("XlsxExport.RowsWritten").getSnapshot().getValues())
+        .containsExactly(rows);
+  }
+}
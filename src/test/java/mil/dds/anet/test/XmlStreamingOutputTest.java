@@ -0,0 +1,121 @@
+package mil.dds.anet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import mil.dds.anet.resources.GraphQlResource.XmlStreamingOutput;
+import org.junit.Test;
+
+/**
+ * The streamed XML should have the layout of the previous implementation, which converted the
+ * result with underscore-lodash's <code>$.toXml</code> and then pretty-printed it with an indent
+ * of 2 through a {@link javax.xml.transform.Transformer}. The expected documents below are in that
+ * layout: list items are <code>element</code>s, empty objects and lists are empty elements, and
+ * numbers, booleans and nulls are marked by an attribute.
+ */
+public class XmlStreamingOutputTest {
+
+  private static final String DECLARATION =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+
+  private static final String EXPECTED_DATA = DECLARATION + "\n" //
+      + "<data>\n" //
+      + "  <person>\n" //
+      + "    <name>BOBTOWN, Bob &lt;bob&gt; &amp; co</name>\n" //
+      + "    <rank null=\"true\"/>\n" //
+      + "    <age number=\"true\">42</age>\n" //
+      + "    <lat number=\"true\">34.5</lat>\n" //
+      + "    <active boolean=\"true\">true</active>\n" //
+      + "    <organization>\n" //
+      + "      <shortName>EF 1.1</shortName>\n" //
+      + "      <parentOrg>\n" //
+      + "        <shortName>EF 1</shortName>\n" //
+      + "      </parentOrg>\n" //
+      + "    </organization>\n" //
+      + "    <customFields/>\n" //
+      + "    <positions>\n" //
+      + "      <element>\n" //
+      + "        <uuid>p1</uuid>\n" //
+      + "      </element>\n" //
+      + "    </positions>\n" //
+      + "    <codes>\n" //
+      + "      <element>A</element>\n" //
+      + "      <element null=\"true\"/>\n" //
+      + "      <element number=\"true\">3</element>\n" //
+      + "    </codes>\n" //
+      + "    <tags/>\n" //
+      + "  </person>\n" //
+      + "</data>\n";
+
+  private static final String EXPECTED_EXTENSIONS = DECLARATION + "\n" //
+      + "<root>\n" //
+      + "  <data>\n" //
+      + "    <count number=\"true\">3</count>\n" //
+      + "  </data>\n" //
+      + "  <extensions>\n" //
+      + "    <sqlStatistics>\n" //
+      + "      <statementCount number=\"true\">1</statementCount>\n" //
+      + "    </sqlStatistics>\n" //
+      + "  </extensions>\n" //
+      + "</root>\n";
+
+  private static ExecutionResult createResult() {
+    final Map<String, Object> parentOrg = new LinkedHashMap<>();
+    parentOrg.put("shortName", "EF 1");
+    final Map<String, Object> organization = new LinkedHashMap<>();
+    organization.put("shortName", "EF 1.1");
+    organization.put("parentOrg", parentOrg);
+    final Map<String, Object> person = new LinkedHashMap<>();
+    person.put("name", "BOBTOWN, Bob <bob> & co");
+    person.put("rank", null);
+    person.put("age", 42);
+    person.put("lat", 34.5);
+    person.put("active", true);
+    person.put("organization", organization);
+    person.put("customFields", Collections.emptyMap());
+    person.put("positions", Collections.singletonList(Collections.singletonMap("uuid", "p1")));
+    person.put("codes", Arrays.asList("A", null, 3));
+    person.put("tags", Collections.emptyList());
+    return new ExecutionResultImpl(Collections.singletonMap("person", person),
+        Collections.emptyList());
+  }
+
+  private static String write(ExecutionResult executionResult, boolean prettyPrint)
+      throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new XmlStreamingOutput(executionResult, prettyPrint).write(output);
+    return new String(output.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static String compact(String xml) {
+    return xml.replaceAll(">\n *<", "><");
+  }
+
+  @Test
+  public void testPrettyPrint() throws IOException {
+    assertThat(write(createResult(), true)).isEqualTo(EXPECTED_DATA);
+  }
+
+  @Test
+  public void testCompact() throws IOException {
+    // The same elements, without any whitespace between them
+    assertThat(write(createResult(), false)).isEqualTo(compact(EXPECTED_DATA));
+  }
+
+  @Test
+  public void testRootElement() throws IOException {
+    // With more than one top-level entry, they are wrapped in a root element
+    final ExecutionResult executionResult = new ExecutionResultImpl(
+        Collections.singletonMap("count", 3), Collections.emptyList(),
+        Collections.singletonMap("sqlStatistics", Collections.singletonMap("statementCount", 1)));
+    assertThat(write(executionResult, true)).isEqualTo(EXPECTED_EXTENSIONS);
+    assertThat(write(executionResult, false)).isEqualTo(compact(EXPECTED_EXTENSIONS));
+  }
+}
@@ -0,0 +1,164 @@
+package mil.dds.anet.test.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.resources.GraphQlResource.JsonStreamingOutput;
+
+/**
+ * Compares the heap needed to write a large JSON GraphQL result:
+ * <ul>
+ * <li><code>specification</code>: {@link ExecutionResult#toSpecification()} serialized by an
+ * ObjectMapper, as Jersey did before {@link JsonStreamingOutput};</li>
+ * <li><code>streaming</code>: {@link JsonStreamingOutput}.</li>
+ * </ul>
+ * For each, the smallest <code>-Xmx</code> (in MB) with which a child JVM can build the result and
+ * write it is searched for; the same for only building it (<code>none</code>) gives the baseline.
+ * The difference is the peak heap needed by the writer on top of the result. Allocations per write
+ * are measured in this JVM.
+ *
+ * <p>
+ * Run with the test classpath, e.g.
+ * <code>java -cp ... mil.dds.anet.test.benchmarks.JsonOutputBenchmark 50000</code>, where the
+ * argument is the number of reports in the result.
+ */
+public class JsonOutputBenchmark {
+
+  private static final List<String> WRITERS = Arrays.asList("none", "specification", "streaming");
+  private static final int WRITES = 3;
+
+  private static final ObjectMapper MAPPER =
+      MapperUtils.getDefaultMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+  private static final OutputStream DISCARD = new OutputStream() {
+    @Override
+    public void write(int b) {}
+
+    @Override
+    public void write(byte[] b, int off, int len) {}
+  };
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 3 && "run".equals(args[0])) {
+      final ExecutionResult result = createResult(Integer.parseInt(args[2]));
+      for (int i = 0; i < WRITES; i++) {
+        write(args[1], result);
+      }
+      return;
+    }
+    final int reports = (args.length > 0) ? Integer.parseInt(args[0]) : 50000;
+    System.out.printf("%d reports%n", reports);
+    final Map<String, Integer> minHeap = new LinkedHashMap<>();
+    for (final String writer : WRITERS) {
+      minHeap.put(writer, findMinHeap(writer, reports));
+    }
+    final ExecutionResult result = createResult(reports);
+    for (final String writer : WRITERS) {
+      final long allocated = measureAllocation(writer, result);
+      System.out.printf("%-14s min -Xmx %4d MB, writer peak +%3d MB, %,d B allocated/write%n",
+          writer, minHeap.get(writer), minHeap.get(writer) - minHeap.get("none"), allocated);
+    }
+  }
+
+  private static ExecutionResult createResult(int reports) {
+    final List<Object> list = new ArrayList<>(reports);
+    for (int i = 0; i < reports; i++) {
+      final Map<String, Object> report = new LinkedHashMap<>();
+      report.put("uuid", String.format("00000000-0000-0000-0000-%012d", i));
+      report.put("intent", "Intent of report " + i);
+      report.put("engagementDate", 1550000000000L + i);
+      report.put("duration", (i % 3 == 0) ? null : 60);
+      report.put("atmosphere", "POSITIVE");
+      report.put("cancelled", false);
+      report.put("author", createPerson(i));
+      report.put("attendees", Arrays.asList(createPerson(i + 1), createPerson(i + 2)));
+      report.put("keyOutcomes", "Key outcomes of report " + i);
+      report.put("reportText", String.join("", Collections.nCopies(10, "lorem ipsum ")));
+      list.add(report);
+    }
+    final Map<String, Object> reportList = new LinkedHashMap<>();
+    reportList.put("totalCount", reports);
+    reportList.put("list", list);
+    return new ExecutionResultImpl(Collections.singletonMap("reportList", reportList),
+        Collections.emptyList());
+  }
+
+  private static Map<String, Object> createPerson(int i) {
+    final Map<String, Object> person = new LinkedHashMap<>();
+    person.put("uuid", "person-" + i);
+    person.put("name", "PERSON, Test " + i);
+    person.put("rank", "CIV");
+    return person;
+  }
+
+  private static void write(String writer, ExecutionResult result) throws IOException {
+    if ("specification".equals(writer)) {
+      MAPPER.writeValue(DISCARD, result.toSpecification());
+    } else if ("streaming".equals(writer)) {
+      new JsonStreamingOutput(result).write(DISCARD);
+    }
+  }
+
+  private static int findMinHeap(String writer, int reports) throws Exception {
+    int low = 1;
+    int high = 64;
+    while (!runs(writer, reports, high)) {
+      low = high;
+      high *= 2;
+    }
+    while (high - low > 1) {
+      final int mid = (low + high) / 2;
+      if (runs(writer, reports, mid)) {
+        high = mid;
+      } else {
+        low = mid;
+      }
+    }
+    return high;
+  }
+
+  private static boolean runs(String writer, int reports, int maxHeapMb) throws Exception {
+    final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator
+        + "java";
+    // Failing runs print an OutOfMemoryError, keep that out of the way
+    final File output = File.createTempFile("JsonOutputBenchmark", ".log");
+    try {
+      final Process process = new ProcessBuilder(java, "-XX:+UseSerialGC",
+          "-Xmx" + maxHeapMb + "m", "-cp", System.getProperty("java.class.path"),
+          JsonOutputBenchmark.class.getName(), "run", writer, Integer.toString(reports))
+              .redirectErrorStream(true).redirectOutput(output).start();
+      return process.waitFor() == 0;
+    } finally {
+      output.delete();
+    }
+  }
+
+  private static long measureAllocation(String writer, ExecutionResult result) throws IOException {
+    final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    // Warm up
+    for (int i = 0; i < 10; i++) {
+      write(writer, result);
+    }
+    long min = Long.MAX_VALUE;
+    for (int i = 0; i < 10; i++) {
+      final long before = threadBean.getThreadAllocatedBytes(threadId);
+      write(writer, result);
+      min = Math.min(min, threadBean.getThreadAllocatedBytes(threadId) - before);
+    }
+    return min;
+  }
+}
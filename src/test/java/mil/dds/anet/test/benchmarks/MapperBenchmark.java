@@ -0,0 +1,294 @@
+package mil.dds.anet.test.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import mil.dds.anet.database.mappers.AdminSettingMapper;
+import mil.dds.anet.database.mappers.AnetEmailMapper;
+import mil.dds.anet.database.mappers.ApprovalStepMapper;
+import mil.dds.anet.database.mappers.AuthorizationGroupMapper;
+import mil.dds.anet.database.mappers.CommentMapper;
+import mil.dds.anet.database.mappers.ForeignKeyMapper;
+import mil.dds.anet.database.mappers.LocationMapper;
+import mil.dds.anet.database.mappers.NoteMapper;
+import mil.dds.anet.database.mappers.NoteRelatedObjectMapper;
+import mil.dds.anet.database.mappers.OrganizationMapper;
+import mil.dds.anet.database.mappers.PersonMapper;
+import mil.dds.anet.database.mappers.PersonPositionHistoryMapper;
+import mil.dds.anet.database.mappers.PositionMapper;
+import mil.dds.anet.database.mappers.ReportActionMapper;
+import mil.dds.anet.database.mappers.ReportMapper;
+import mil.dds.anet.database.mappers.ReportPersonMapper;
+import mil.dds.anet.database.mappers.ReportSensitiveInformationMapper;
+import mil.dds.anet.database.mappers.ReportTextMapper;
+import mil.dds.anet.database.mappers.SavedSearchMapper;
+import mil.dds.anet.database.mappers.TagMapper;
+import mil.dds.anet.database.mappers.TaskMapper;
+import org.jdbi.v3.core.mapper.RowMapper;
+
+/**
+ * Measures the time and allocations of mapping rows with each of the row mappers in
+ * <code>mil.dds.anet.database.mappers</code>, against a synthetic ResultSet, so without any
+ * database or driver I/O. The columns of each mapper are discovered by letting it map a row of a
+ * ResultSet that has no columns yet, adding every column it asks for.
+ *
+ * <p>
+ * How the ResultSet looks up column names is chosen by the second argument:
+ * <ul>
+ * <li><code>linear</code>: a linear scan of the columns, exact then ignoring case, as mssql-jdbc;
+ * </li>
+ * <li><code>hashed</code>: a hash lookup of the exact name, then of the lower-cased name, as
+ * pgjdbc.</li>
+ * </ul>
+ * Each mapper maps the rows {@value #WARMUPS} times to warm up, then the best of {@value #RUNS}
+ * runs is reported. Run with the test classpath, e.g.
+ * <code>java -cp ... mil.dds.anet.test.benchmarks.MapperBenchmark 10000 linear</code>, where the
+ * first argument is the number of rows.
+ */
+public class MapperBenchmark {
+
+  private static final int WARMUPS = 30;
+  private static final int RUNS = 20;
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2019, 1, 1, 12, 0);
+  private static final String JOB_SPEC =
+      "{\"toAddresses\":[\"test@example.com\"],\"comment\":\"benchmark\"}";
+
+  /**
+   * A ResultSet with the same value in every row. Strings are the name of their column, except
+   * for the JSON of an email.
+   */
+  private static class FakeResultSet {
+    private final List<String> columns;
+    private final boolean discover;
+    private final boolean hashed;
+    private final int rows;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private int row;
+
+    FakeResultSet(List<String> columns, boolean discover, boolean hashed, int rows) {
+      this.columns = columns;
+      this.discover = discover;
+      this.hashed = hashed;
+      this.rows = rows;
+      // Backwards, so the first of duplicate names wins
+      for (int i = columns.size() - 1; i >= 0; i--) {
+        indexes.put(columns.get(i), i + 1);
+        indexes.put(columns.get(i).toLowerCase(Locale.ROOT), i + 1);
+      }
+    }
+
+    int findColumn(String name) throws SQLException {
+      if (discover) {
+        if (!columns.contains(name)) {
+          columns.add(name);
+        }
+        return columns.indexOf(name) + 1;
+      }
+      if (hashed) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+          index = indexes.get(name.toLowerCase(Locale.ROOT));
+        }
+        if (index != null) {
+          return index;
+        }
+      } else {
+        for (int i = 0; i < columns.size(); i++) {
+          if (columns.get(i).equals(name)) {
+            return i + 1;
+          }
+        }
+        for (int i = 0; i < columns.size(); i++) {
+          if (columns.get(i).equalsIgnoreCase(name)) {
+            return i + 1;
+          }
+        }
+      }
+      throw new SQLException("Column not found: " + name);
+    }
+
+    Object getValue(String method, Object[] args) throws SQLException {
+      final int index =
+          (args[0] instanceof String) ? findColumn((String) args[0]) : (Integer) args[0];
+      final String column = columns.get(index - 1);
+      switch (method) {
+        case "getString":
+          return "jobSpec".equals(column) ? JOB_SPEC : column;
+        case "getInt":
+          return 1;
+        case "getDouble":
+          return 1.5d;
+        case "getBoolean":
+          return true;
+        case "getObject":
+          return (args.length == 2) ? NOW : column;
+        default:
+          throw new UnsupportedOperationException(method);
+      }
+    }
+
+    ResultSet create() {
+      final ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+          MapperBenchmark.class.getClassLoader(), new Class<?>[] {ResultSetMetaData.class},
+          (proxy, method, args) -> {
+            if ("getColumnCount".equals(method.getName())) {
+              return columns.size();
+            } else if (method.getName().startsWith("getColumn")) {
+              return columns.get((Integer) args[0] - 1);
+            }
+            throw new UnsupportedOperationException(method.getName());
+          });
+      return (ResultSet) Proxy.newProxyInstance(MapperBenchmark.class.getClassLoader(),
+          new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "next":
+                return ++row <= rows;
+              case "getRow":
+                return row;
+              case "wasNull":
+                return false;
+              case "hashCode":
+                return System.identityHashCode(proxy);
+              case "equals":
+                return proxy == args[0];
+              case "findColumn":
+                return findColumn((String) args[0]);
+              case "getMetaData":
+                return metaData;
+              default:
+                return getValue(method.getName(), args);
+            }
+          });
+    }
+  }
+
+  private static Map<String, Supplier<RowMapper<?>>> getMappers() {
+    final Map<String, Supplier<RowMapper<?>>> mappers = new LinkedHashMap<>();
+    mappers.put("AdminSettingMapper", AdminSettingMapper::new);
+    mappers.put("AnetEmailMapper", AnetEmailMapper::new);
+    mappers.put("ApprovalStepMapper", ApprovalStepMapper::new);
+    mappers.put("AuthorizationGroupMapper", AuthorizationGroupMapper::new);
+    mappers.put("CommentMapper", CommentMapper::new);
+    mappers.put("ForeignKeyMapper",
+        () -> new ForeignKeyMapper<>("reportUuid", new PersonMapper()));
+    mappers.put("LocationMapper", LocationMapper::new);
+    mappers.put("NoteMapper", NoteMapper::new);
+    mappers.put("NoteRelatedObjectMapper", NoteRelatedObjectMapper::new);
+    mappers.put("OrganizationMapper", OrganizationMapper::new);
+    mappers.put("PersonMapper", PersonMapper::new);
+    mappers.put("PersonMapper+positions", PersonMapper::new);
+    mappers.put("PersonPositionHistoryMapper", PersonPositionHistoryMapper::new);
+    mappers.put("PositionMapper", PositionMapper::new);
+    mappers.put("ReportActionMapper", ReportActionMapper::new);
+    mappers.put("ReportMapper", ReportMapper::new);
+    mappers.put("ReportMapper+text", ReportMapper::new);
+    mappers.put("ReportPersonMapper", ReportPersonMapper::new);
+    mappers.put("ReportSensitiveInformationMapper", ReportSensitiveInformationMapper::new);
+    mappers.put("ReportTextMapper", ReportTextMapper::new);
+    mappers.put("SavedSearchMapper", SavedSearchMapper::new);
+    mappers.put("TagMapper", TagMapper::new);
+    mappers.put("TaskMapper", TaskMapper::new);
+    return mappers;
+  }
+
+  private static Map<String, List<String>> getInitialColumns() {
+    final Map<String, List<String>> initialColumns = new HashMap<>();
+    // Catches all errors, so it can't report its missing columns
+    initialColumns.put("AnetEmailMapper", Arrays.asList("jobSpec", "id", "createdAt"));
+    // Variants that read optional columns, e.g. of a person joined with its position
+    initialColumns.put("PersonMapper+positions", Arrays.asList("positions_uuid"));
+    initialColumns.put("ReportMapper+text", Arrays.asList("reports_text"));
+    return initialColumns;
+  }
+
+  /**
+   * Find the columns a mapper reads, by mapping single rows until it asks for no new columns. The
+   * mappers only read some columns when others are present, so <code>createdAt</code> and
+   * <code>updatedAt</code> are added for every uuid column.
+   */
+  private static List<String> discoverColumns(String name, RowMapper<?> mapper)
+      throws SQLException {
+    final List<String> columns =
+        new ArrayList<>(getInitialColumns().getOrDefault(name, new ArrayList<>()));
+    int columnCount = -1;
+    while (columnCount != columns.size()) {
+      columnCount = columns.size();
+      try {
+        mapper.map(new FakeResultSet(columns, true, false, 1).create(), null);
+      } catch (SQLException e) {
+        // Columns looked up by index are only reported as missing
+        final String missing = e.getMessage().replaceFirst("^Column not found: ", "");
+        if (missing.equals(e.getMessage()) || columns.contains(missing)) {
+          throw e;
+        }
+        columns.add(missing);
+        continue;
+      }
+      for (final String column : new ArrayList<>(columns)) {
+        if ("uuid".equals(column) || column.endsWith("_uuid")) {
+          final String prefix = column.substring(0, column.length() - "uuid".length());
+          for (final String timestamp : Arrays.asList("createdAt", "updatedAt")) {
+            if (!columns.contains(prefix + timestamp)) {
+              columns.add(prefix + timestamp);
+            }
+          }
+        }
+      }
+    }
+    return columns;
+  }
+
+  private static long run(RowMapper<?> mapper, List<String> columns, boolean hashed, int rows)
+      throws SQLException {
+    final ResultSet rs = new FakeResultSet(columns, false, hashed, rows).create();
+    final long start = System.nanoTime();
+    while (rs.next()) {
+      mapper.map(rs, null);
+    }
+    return System.nanoTime() - start;
+  }
+
+  public static void main(String[] args) throws Exception {
+    final int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 10000;
+    final boolean hashed = (args.length > 1) && "hashed".equals(args[1]);
+    final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    System.out.printf("%d rows, %s lookup, Java %s%n", rows, hashed ? "hashed" : "linear",
+        System.getProperty("java.version"));
+    System.out.printf("%-34s %7s %9s %9s%n", "mapper", "columns", "ns/row", "B/row");
+    long totalTime = 0;
+    long totalAllocated = 0;
+    for (final Map.Entry<String, Supplier<RowMapper<?>>> entry : getMappers().entrySet()) {
+      final RowMapper<?> mapper = entry.getValue().get();
+      final List<String> columns = discoverColumns(entry.getKey(), mapper);
+      for (int i = 0; i < WARMUPS; i++) {
+        run(mapper, columns, hashed, rows);
+      }
+      long time = Long.MAX_VALUE;
+      long allocated = Long.MAX_VALUE;
+      for (int i = 0; i < RUNS; i++) {
+        final long before = threadBean.getThreadAllocatedBytes(threadId);
+        time = Math.min(time, run(mapper, columns, hashed, rows));
+        allocated = Math.min(allocated, threadBean.getThreadAllocatedBytes(threadId) - before);
+      }
+      totalTime += time;
+      totalAllocated += allocated;
+      System.out.printf("%-34s %7d %9d %9d%n", entry.getKey(), columns.size(), time / rows,
+          allocated / rows);
+    }
+    System.out.printf("%-34s %7s %9d %9d%n", "total", "", totalTime / rows, totalAllocated / rows);
+  }
+}
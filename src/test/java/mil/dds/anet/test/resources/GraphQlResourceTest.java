@@ -2,21 +2,31 @@ package mil.dds.anet.test.resources;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.ImmutableMap;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.net.URLEncoder;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation.Builder;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
 import mil.dds.anet.beans.Person;
+import mil.dds.anet.database.mappers.MapperUtils;
+import mil.dds.anet.graphql.PersistedQueryRegistry;
+import mil.dds.anet.test.resources.utils.GraphQlClient;
+import mil.dds.anet.test.resources.utils.GraphQlResponse;
 import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -112,6 +122,27 @@ public class GraphQlResourceTest extends AbstractResourceTest {
           // Note: can't compare respGetXlsx and respPostXlsx directly, as they will be different,
           // unfortunately
 
+          // Test GET and POST requests over CSV
+          final String respGetCsv =
+              httpQuery("/graphql?output=csv&query=" + URLEncoder.encode("{" + raw + "}", "UTF-8"),
+                  admin).get(new GenericType<String>() {});
+          assertThat(respGetCsv).isNotNull();
+          assertThat(respGetCsv).endsWith("\r\n");
+          query.put("output", "csv");
+          final String respPostCsv =
+              httpQuery("/graphql", admin).post(Entity.json(query), new GenericType<String>() {});
+          assertThat(respPostCsv).isEqualTo(respGetCsv);
+
+          // Test GET and POST requests over NDJSON
+          final String respGetNdjson = httpQuery(
+              "/graphql?output=ndjson&query=" + URLEncoder.encode("{" + raw + "}", "UTF-8"),
+              admin).get(new GenericType<String>() {});
+          assertThat(respGetNdjson).isNotNull();
+          query.put("output", "ndjson");
+          final String respPostNdjson =
+              httpQuery("/graphql", admin).post(Entity.json(query), new GenericType<String>() {});
+          assertThat(respPostNdjson).isEqualTo(respGetNdjson);
+
           input.close();
         } catch (IOException e) {
           fail("Unable to read file ", e);
@@ -120,6 +151,173 @@ public class GraphQlResourceTest extends AbstractResourceTest {
     }
   }
 
+  @Test
+  public void testQueryCost() {
+    // Unlimited nested lists should be rejected, even for an admin
+    final Map<String, Object> query = new HashMap<String, Object>();
+    query.put("query", "query { reportList(query: {pageSize: 2147483647}) { list { uuid"
+        + " attendees { uuid position { uuid organization { uuid approvalSteps { uuid } } } } } } }");
+    query.put("variables", ImmutableMap.of());
+    try {
+      httpQuery("/graphql", admin).post(Entity.json(query),
+          new GenericType<Map<String, Object>>() {});
+      fail("Expected BadRequestException");
+    } catch (BadRequestException expectedException) {
+    }
+
+    // A reasonable query should be accepted
+    query.put("query", "query { reportList(query: {pageSize: 10}) { list { uuid"
+        + " attendees { uuid position { uuid organization { uuid approvalSteps { uuid } } } } } } }");
+    final Map<String, Object> resp = httpQuery("/graphql", admin).post(Entity.json(query),
+        new GenericType<Map<String, Object>>() {});
+    assertThat(resp.containsKey("errors")).isFalse();
+    assertThat(resp.containsKey("data")).isTrue();
+
+    // Operations of a batch share the budget: each is within budget, but together they're not
+    query.put("query", "query { reportList(query: {pageSize: 5000}) { list { uuid"
+        + " attendees { uuid position { uuid organization { uuid approvalSteps { uuid } } } } } } }");
+    try {
+      httpQuery("/graphql", admin).post(Entity.json(Collections.nCopies(20, query)),
+          new GenericType<List<Map<String, Object>>>() {});
+      fail("Expected BadRequestException");
+    } catch (BadRequestException expectedException) {
+    }
+  }
+
+  @Test
+  public void testTabularOutput() throws IOException {
+    final Map<String, Object> query = new HashMap<String, Object>();
+    query.put("query", "query { reports: reportList(query: {pageSize: 3}) { list { uuid"
+        + " ...reportFields author { name } attendees { name } } } }"
+        + " fragment reportFields on Report { intent }");
+    query.put("variables", ImmutableMap.of());
+    final Map<String, Object> resp = httpQuery("/graphql", admin).post(Entity.json(query),
+        new GenericType<Map<String, Object>>() {});
+    final List<?> reports = (List<?>) ((Map<?, ?>) ((Map<?, ?>) resp.get("data")).get("reports"))
+        .get("list");
+    assertThat(reports).hasSize(3);
+
+    // One header line and one line per report
+    query.put("output", "csv");
+    final String csv =
+        httpQuery("/graphql", admin).post(Entity.json(query), new GenericType<String>() {});
+    assertThat(csv).startsWith("uuid,intent,author.name,attendees.name\r\n");
+    for (final Object report : reports) {
+      assertThat(csv).contains("\r\n" + ((Map<?, ?>) report).get("uuid") + ",");
+    }
+
+    // One JSON object per report
+    query.put("output", "ndjson");
+    final String ndjson =
+        httpQuery("/graphql", admin).post(Entity.json(query), new GenericType<String>() {});
+    final String[] lines = ndjson.split("\n");
+    assertThat(lines).hasSize(reports.size());
+    for (int i = 0; i < lines.length; i++) {
+      final Map<String, Object> row = MapperUtils.getDefaultMapper().readValue(lines[i],
+          new TypeReference<Map<String, Object>>() {});
+      assertThat(row).isEqualTo(reports.get(i));
+    }
+  }
+
+  @Test
+  public void testBatch() {
+    final Map<String, Object> query1 = new HashMap<String, Object>();
+    query1.put("query", "query { person(uuid: \"" + admin.getUuid() + "\") { uuid } }");
+    final Map<String, Object> query2 = new HashMap<String, Object>();
+    query2.put("query", "query { adminSettings { key } }");
+    final List<Map<String, Object>> resp = httpQuery("/graphql", admin).post(
+        Entity.json(Arrays.asList(query1, query2)),
+        new GenericType<List<Map<String, Object>>>() {});
+    assertThat(resp).hasSize(2);
+    for (final Map<String, Object> result : resp) {
+      assertThat(result.containsKey("errors")).isFalse();
+    }
+    // Results should be in the same order as the operations
+    assertThat(((Map<?, ?>) resp.get(0).get("data")).containsKey("person")).isTrue();
+    assertThat(((Map<?, ?>) resp.get(1).get("data")).containsKey("adminSettings")).isTrue();
+  }
+
+  @Test
+  public void testPersistedQueries() {
+    // A query the server hasn't seen yet
+    final String query =
+        "query { adminSettings { key } } # persisted query test " + UUID.randomUUID();
+    final Map<String, Object> hashOnly = new HashMap<String, Object>();
+    hashOnly.put("extensions", ImmutableMap.of("persistedQuery",
+        ImmutableMap.of("version", 1, "sha256Hash", PersistedQueryRegistry.getQueryHash(query))));
+
+    // Unknown hash: the client should retry with the full query
+    Map<String, Object> resp = httpQuery("/graphql", admin).post(Entity.json(hashOnly),
+        new GenericType<Map<String, Object>>() {});
+    assertPersistedQueryNotFound(resp);
+
+    // Also inside a batch, without failing the other operations
+    final Map<String, Object> other = new HashMap<String, Object>();
+    other.put("query", "query { adminSettings { key } }");
+    final List<Map<String, Object>> batchResp =
+        httpQuery("/graphql", admin).post(Entity.json(Arrays.asList(hashOnly, other)),
+            new GenericType<List<Map<String, Object>>>() {});
+    assertThat(batchResp).hasSize(2);
+    assertPersistedQueryNotFound(batchResp.get(0));
+    assertThat(batchResp.get(1).containsKey("errors")).isFalse();
+
+    // A hash that doesn't match the query is rejected
+    final Map<String, Object> mismatch = new HashMap<String, Object>(hashOnly);
+    mismatch.put("query", query + " ");
+    try {
+      httpQuery("/graphql", admin).post(Entity.json(mismatch),
+          new GenericType<Map<String, Object>>() {});
+      fail("Expected BadRequestException");
+    } catch (BadRequestException expectedException) {
+    }
+
+    // Sending the query with its hash registers it, after which the hash is enough
+    final Map<String, Object> withQuery = new HashMap<String, Object>(hashOnly);
+    withQuery.put("query", query);
+    resp = httpQuery("/graphql", admin).post(Entity.json(withQuery),
+        new GenericType<Map<String, Object>>() {});
+    assertThat(resp.containsKey("errors")).isFalse();
+    resp = httpQuery("/graphql", admin).post(Entity.json(hashOnly),
+        new GenericType<Map<String, Object>>() {});
+    assertThat(resp.containsKey("errors")).isFalse();
+    assertThat(((Map<?, ?>) resp.get("data")).containsKey("adminSettings")).isTrue();
+  }
+
+  private void assertPersistedQueryNotFound(Map<String, Object> resp) {
+    assertThat(resp.containsKey("data")).isFalse();
+    @SuppressWarnings("unchecked")
+    final List<Map<String, Object>> errors = (List<Map<String, Object>>) resp.get("errors");
+    assertThat(errors).hasSize(1);
+    assertThat(errors.get(0).get("message")).isEqualTo("PersistedQueryNotFound");
+  }
+
+  @Test
+  public void testSqlStatementCount() {
+    // Loading the fields of more reports should not take more statements
+    final int statementCountForOne = getReportListStatementCount(1);
+    final int statementCountForTen = getReportListStatementCount(10);
+    assertThat(statementCountForTen).isLessThanOrEqualTo(statementCountForOne);
+
+    graphQLHelper.getObjectById(admin, "person", "uuid position { uuid organization { uuid } }",
+        admin.getUuid(), new TypeReference<GraphQlResponse<Person>>() {});
+    graphQLHelper.assertMaxStatementCount(5);
+  }
+
+  private int getReportListStatementCount(int pageSize) {
+    final Map<String, Object> query = new HashMap<String, Object>();
+    query.put("query", "query { reportList(query: {pageSize: " + pageSize + "}) { list { uuid"
+        + " author { uuid } attendees { uuid } tasks { uuid } tags { uuid } } } }");
+    query.put("variables", ImmutableMap.of());
+    final Map<String, Object> resp = httpQuery("/graphql", admin).post(Entity.json(query),
+        new GenericType<Map<String, Object>>() {});
+    assertThat(resp.containsKey("errors")).isFalse();
+    @SuppressWarnings("unchecked")
+    final Map<String, Object> sqlStatistics =
+        GraphQlClient.getSqlStatistics((Map<String, Object>) resp.get("extensions"));
+    assertThat(sqlStatistics).isNotNull();
+    return (Integer) sqlStatistics.get("statementCount");
+  }
+
   private void doAsserts(File f, Map<String, Object> resp) {
     assertThat(resp).isNotNull();
     assertThat(resp.containsKey("errors"))
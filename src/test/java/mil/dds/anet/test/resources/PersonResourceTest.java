@@ -6,15 +6,23 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.ImmutableList;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.NotFoundException;
+import mil.dds.anet.AnetObjectEngine;
 import mil.dds.anet.beans.Organization;
 import mil.dds.anet.beans.Organization.OrganizationType;
 import mil.dds.anet.beans.Person;
 import mil.dds.anet.beans.Person.PersonStatus;
 import mil.dds.anet.beans.Person.Role;
+import mil.dds.anet.beans.PersonPositionHistory;
 import mil.dds.anet.beans.Position;
 import mil.dds.anet.beans.Position.PositionStatus;
 import mil.dds.anet.beans.Position.PositionType;
@@ -23,6 +31,7 @@ import mil.dds.anet.beans.search.ISearchQuery.SortOrder;
 import mil.dds.anet.beans.search.OrganizationSearchQuery;
 import mil.dds.anet.beans.search.PersonSearchQuery;
 import mil.dds.anet.beans.search.PersonSearchQuery.PersonSearchSortBy;
+import mil.dds.anet.database.PersonDao;
 import mil.dds.anet.test.beans.OrganizationTest;
 import mil.dds.anet.test.resources.utils.GraphQlResponse;
 import mil.dds.anet.utils.DaoUtils;
@@ -37,6 +46,55 @@ public class PersonResourceTest extends AbstractResourceTest {
           + " gender endOfTourDate domainUsername pendingVerification createdAt updatedAt";
   private static final String FIELDS = PERSON_FIELDS + " position { " + POSITION_FIELDS + " }";
 
+  @Test
+  public void testBatchLoadManyKeys() {
+    final AnetObjectEngine engine = AnetObjectEngine.getInstance();
+    final PersonDao personDao = engine.getPersonDao();
+    final Person jack = getJackJackson();
+    final Person steve = getSteveSteveson();
+    // More keys than the set-based threshold, with unknown keys and a duplicate
+    final List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 600; i++) {
+      keys.add(UUID.randomUUID().toString());
+    }
+    keys.set(0, jack.getUuid());
+    keys.set(300, steve.getUuid());
+    keys.set(599, jack.getUuid());
+    assertThat(keys.size()).isGreaterThan(engine.getBatchingConfig().getSetBasedThreshold());
+
+    // Through an IdBatcher
+    final List<Person> people = personDao.getByIds(keys);
+    assertThat(people).hasSize(keys.size());
+    assertThat(people.get(0).getUuid()).isEqualTo(jack.getUuid());
+    assertThat(people.get(300).getUuid()).isEqualTo(steve.getUuid());
+    assertThat(people.get(599).getUuid()).isEqualTo(jack.getUuid());
+    assertThat(people.stream().filter(p -> p != null).count()).isEqualTo(3);
+
+    // Through a ForeignKeyBatcher; should be the same as when passing the keys in chunks
+    final List<List<PersonPositionHistory>> history = personDao.getPersonPositionHistory(keys);
+    assertThat(history).hasSize(keys.size());
+    final List<PersonPositionHistory> jackHistory =
+        personDao.getPersonPositionHistory(Collections.singletonList(jack.getUuid())).get(0);
+    assertThat(jackHistory).isNotEmpty();
+    assertThat(history.get(0)).hasSameSizeAs(jackHistory);
+    assertThat(history.get(599)).hasSameSizeAs(jackHistory);
+    assertThat(history.get(300)).isNotEmpty();
+    assertThat(history.stream().filter(h -> !h.isEmpty()).count()).isEqualTo(3);
+  }
+
+  @Test
+  public void testEngineContextPerThread() throws Exception {
+    final AnetObjectEngine engine = AnetObjectEngine.getInstance();
+    final Map<String, Object> context = engine.getContext();
+    // A thread keeps using its own context, other threads get a DataLoaderRegistry of their own
+    assertThat(engine.getContext()).isSameAs(context);
+    final Map<String, Object> otherContext =
+        CompletableFuture.supplyAsync(engine::getContext).get(10, TimeUnit.SECONDS);
+    assertThat(otherContext).isNotSameAs(context);
+    assertThat(otherContext.get("dataLoaderRegistry")).isNotNull()
+        .isNotSameAs(context.get("dataLoaderRegistry"));
+  }
+
   @Test
   public void testCreatePerson() {
     final Person jack = getJackJackson();
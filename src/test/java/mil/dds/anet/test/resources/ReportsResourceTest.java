@@ -59,6 +59,7 @@ import mil.dds.anet.test.beans.PersonTest;
 import mil.dds.anet.test.resources.utils.GraphQlResponse;
 import mil.dds.anet.utils.DaoUtils;
 import mil.dds.anet.utils.UtilsTest;
+import mil.dds.anet.views.AbstractAnetBean;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -1096,6 +1097,48 @@ public class ReportsResourceTest extends AbstractResourceTest {
     assertThat(results.getList().size()).isGreaterThan(0);
   }
 
+  @Test
+  public void reportUpdateAttendeesTest() {
+    final Person elizabeth = getElizabethElizawell();
+    final Person roger = getRogerRogwell();
+    final Person nick = getNickNicholson();
+    final Person jack = getJackJackson();
+
+    Report r = new Report();
+    r.setIntent("A Test Report to test updating attendees");
+    r.setAuthor(elizabeth);
+    r.setAtmosphere(Atmosphere.NEUTRAL);
+    r.setEngagementDate(Instant.now());
+    r.setKeyOutcomes("Summary for the key outcomes");
+    r.setNextSteps("Summary for the next steps");
+    r.setReportText("This report was generated by ReportsResourceTest#reportUpdateAttendeesTest");
+    r.setAttendees(ImmutableList.of(PersonTest.personToPrimaryReportPerson(roger),
+        PersonTest.personToReportPerson(nick), PersonTest.personToReportPerson(jack)));
+    final String returnedUuid = graphQLHelper.createObject(elizabeth, "createReport", "report",
+        "ReportInput", r, new TypeReference<GraphQlResponse<Report>>() {});
+    assertThat(returnedUuid).isNotNull();
+    final Report returned = graphQLHelper.getObjectById(elizabeth, "report", FIELDS, returnedUuid,
+        new TypeReference<GraphQlResponse<Report>>() {});
+    assertThat(returned.getAttendees()).hasSize(3);
+
+    // Flip the primary attendee, submit an attendee twice and remove another one
+    returned.setAttendees(ImmutableList.of(PersonTest.personToReportPerson(roger),
+        PersonTest.personToPrimaryReportPerson(nick), PersonTest.personToPrimaryReportPerson(nick),
+        PersonTest.personToPrimaryReportPerson(elizabeth)));
+    final Report updated = graphQLHelper.updateObject(elizabeth, "updateReport", "report", FIELDS,
+        "ReportInput", returned, new TypeReference<GraphQlResponse<Report>>() {});
+    assertThat(updated).isNotNull();
+
+    final Report returned2 = graphQLHelper.getObjectById(elizabeth, "report", FIELDS,
+        returnedUuid, new TypeReference<GraphQlResponse<Report>>() {});
+    final Map<String, Boolean> primaryByUuid = returned2.getAttendees().stream()
+        .collect(Collectors.toMap(ReportPerson::getUuid, ReportPerson::isPrimary));
+    assertThat(returned2.getAttendees()).hasSize(3);
+    assertThat(primaryByUuid).containsEntry(roger.getUuid(), false)
+        .containsEntry(nick.getUuid(), true).containsEntry(elizabeth.getUuid(), true)
+        .doesNotContainKey(jack.getUuid());
+  }
+
   @Test
   public void reportDeleteTest() {
     final Person jack = getJackJackson();
@@ -1533,8 +1576,12 @@ public class ReportsResourceTest extends AbstractResourceTest {
   }
 
   private AnetBeanList<Report> runSearchQuery(ReportSearchQuery query) {
+    return runSearchQuery(query, FIELDS);
+  }
+
+  private AnetBeanList<Report> runSearchQuery(ReportSearchQuery query, String fields) {
     return graphQLHelper.searchObjects(admin, "reportList", "query", "ReportSearchQueryInput",
-        FIELDS, query, new TypeReference<GraphQlResponse<AnetBeanList<Report>>>() {});
+        fields, query, new TypeReference<GraphQlResponse<AnetBeanList<Report>>>() {});
   }
 
   @Test
@@ -1592,4 +1639,92 @@ public class ReportsResourceTest extends AbstractResourceTest {
     final List<Report> reports = reportResults.getList();
     assertThat(reports.size()).isEqualTo(0);
   }
+
+  @Test
+  public void testSearchTextOnlyWhenSelected() {
+    final ReportSearchQuery query = setupQueryEngagementDayOfWeek();
+    final List<Report> expected = runSearchQuery(query).getList();
+
+    // The large text columns are left out, the other fields should still be there
+    final List<Report> withoutText = runSearchQuery(query, "uuid intent").getList();
+    assertThat(withoutText).extracting(Report::getUuid)
+        .isEqualTo(expected.stream().map(Report::getUuid).collect(Collectors.toList()));
+    assertThat(withoutText).extracting(Report::getIntent)
+        .isEqualTo(expected.stream().map(Report::getIntent).collect(Collectors.toList()));
+
+    final List<Report> withText = runSearchQuery(query, "uuid reportText nextSteps").getList();
+    assertThat(withText).extracting(Report::getReportText)
+        .isEqualTo(expected.stream().map(Report::getReportText).collect(Collectors.toList()));
+    assertThat(withText).extracting(Report::getNextSteps)
+        .isEqualTo(expected.stream().map(Report::getNextSteps).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testSearchWithJoinedObjects() {
+    final ReportSearchQuery query = setupQueryEngagementDayOfWeek();
+    final List<Report> expected = runSearchQuery(query).getList();
+
+    final List<Report> actual = runSearchQuery(query,
+        "uuid author { uuid name } advisorOrg { uuid shortName } principalOrg { uuid shortName }"
+            + " location { uuid name }").getList();
+    assertThat(actual).hasSameSizeAs(expected);
+    for (int i = 0; i < actual.size(); i++) {
+      final Report e = expected.get(i);
+      final Report a = actual.get(i);
+      assertThat(a.getUuid()).isEqualTo(e.getUuid());
+      assertThat(a.getAuthor().getUuid()).isEqualTo(e.getAuthor().getUuid());
+      assertThat(a.getAuthor().getName()).isEqualTo(e.getAuthor().getName());
+      assertThat(getUuid(a.getAdvisorOrg())).isEqualTo(getUuid(e.getAdvisorOrg()));
+      assertThat(getUuid(a.getPrincipalOrg())).isEqualTo(getUuid(e.getPrincipalOrg()));
+      assertThat(getUuid(a.getLocation())).isEqualTo(getUuid(e.getLocation()));
+    }
+  }
+
+  private static String getUuid(AbstractAnetBean bean) {
+    return (bean == null) ? null : bean.getUuid();
+  }
+
+  @Test
+  public void testSearchWithCursor() {
+    for (final ReportSearchSortBy sortBy : ReportSearchSortBy.values()) {
+      for (final SortOrder sortOrder : SortOrder.values()) {
+        final ReportSearchQuery query = setupQueryEngagementDayOfWeek();
+        query.setSortBy(sortBy);
+        query.setSortOrder(sortOrder);
+        query.setPageSize(0);
+        final List<String> expected = runSearchQuery(query).getList().stream()
+            .map(r -> r.getUuid()).collect(Collectors.toList());
+        assertThat(expected.size()).isGreaterThan(3);
+
+        // Page through the same results with a cursor
+        final List<String> actual = new ArrayList<>();
+        query.setPageSize(3);
+        String cursor = null;
+        do {
+          query.setCursor(cursor);
+          final AnetBeanList<Report> results = runSearchQuery(query);
+          results.getList().forEach(r -> actual.add(r.getUuid()));
+          cursor = results.getNextCursor();
+        } while (cursor != null);
+        assertThat(actual).as("%s %s", sortBy, sortOrder).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void testSearchWithCursorForOtherSortOrder() {
+    final ReportSearchQuery query = setupQueryEngagementDayOfWeek();
+    query.setSortBy(ReportSearchSortBy.CREATED_AT);
+    query.setPageSize(1);
+    final AnetBeanList<Report> results = runSearchQuery(query);
+    assertThat(results.getNextCursor()).isNotNull();
+
+    query.setSortBy(ReportSearchSortBy.ENGAGEMENT_DATE);
+    query.setCursor(results.getNextCursor());
+    try {
+      runSearchQuery(query);
+      fail("Expected BadRequestException");
+    } catch (BadRequestException expectedException) {
+    }
+  }
 }
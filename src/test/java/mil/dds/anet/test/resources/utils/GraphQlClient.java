@@ -21,6 +21,8 @@ public class GraphQlClient {
 
   private final Client client;
   private final int localPort;
+  // Returned by the server in development mode
+  private Map<String, Object> lastSqlStatistics;
 
   public GraphQlClient(Client client, int localPort) {
     this.client = client;
@@ -49,6 +51,7 @@ public class GraphQlClient {
       assertThat(response).isNotNull();
       final GraphQlResponse<T> data = mapper.readValue(response, responseType);
       assertThat(data).isNotNull();
+      lastSqlStatistics = getSqlStatistics(data.getExtensions());
       return data.getData().getPayload();
     } catch (IOException e) {
       fail("conversion to JSON failed");
@@ -56,6 +59,18 @@ public class GraphQlClient {
     }
   }
 
+  /**
+   * @return the SQL statistics of the last query, or null if the server did not return them
+   */
+  public Map<String, Object> getLastSqlStatistics() {
+    return lastSqlStatistics;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> getSqlStatistics(Map<String, Object> extensions) {
+    return (extensions == null) ? null : (Map<String, Object>) extensions.get("sqlStatistics");
+  }
+
   private Builder httpQuery(String path, Person authUser) {
     try {
       final String authString =
@@ -1,5 +1,6 @@
 package mil.dds.anet.test.resources.utils;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import com.fasterxml.jackson.core.type.TypeReference;
 import java.util.List;
 import java.util.Map;
@@ -15,14 +16,14 @@ public final class GraphQlHelper {
       "query ($%1$s: %2$s!) { payload: %3$s (%1$s: $%1$s) { %4$s } }";
   private static final String getFmt = "query { payload: %1$s { %2$s } }";
   private static final String getAllFmt =
-      "query { payload: %1$s { pageNum pageSize totalCount list { %2$s } } }";
+      "query { payload: %1$s { pageNum pageSize totalCount nextCursor list { %2$s } } }";
   private static final String createFmt =
       "mutation ($%1$s: %2$s!) { payload: %3$s (%1$s: $%1$s) { uuid } }";
   private static final String updateFmt = "mutation ($%1$s: %2$s!) { payload: %3$s (%1$s: $%1$s) }";
   private static final String updateObjectFmt =
       "mutation ($%1$s: %2$s!) { payload: %3$s (%1$s: $%1$s) { %4$s } }";
   private static final String searchFmt =
-      "query ($%1$s: %2$s!) { payload: %3$s (%1$s: $%1$s) { pageNum pageSize totalCount list { %4$s } } }";
+      "query ($%1$s: %2$s!) { payload: %3$s (%1$s: $%1$s) { pageNum pageSize totalCount nextCursor list { %4$s } } }";
 
   private final GraphQlClient graphQlClient;
 
@@ -150,4 +151,15 @@ public final class GraphQlHelper {
     return graphQlClient.doGraphQlQuery(user, q, paramName, param, responseType);
   }
 
+  /**
+   * Assert that the last query did not execute more SQL statements than expected, so that e.g.
+   * N+1 queries are caught; the server must run in development mode to return its statistics.
+   */
+  public void assertMaxStatementCount(int maxStatementCount) {
+    final Map<String, Object> sqlStatistics = graphQlClient.getLastSqlStatistics();
+    assertThat(sqlStatistics).as("SQL statistics of the last query").isNotNull();
+    assertThat((Integer) sqlStatistics.get("statementCount"))
+        .as("SQL statements of the last query: %s", sqlStatistics.get("statementCounts"))
+        .isLessThanOrEqualTo(maxStatementCount);
+  }
 }
@@ -1,7 +1,10 @@
 package mil.dds.anet.test.resources.utils;
 
+import java.util.Map;
+
 public class GraphQlResponse<T> {
   private GraphQlData<T> data;
+  private Map<String, Object> extensions;
 
   public GraphQlData<T> getData() {
     return data;
@@ -10,4 +13,12 @@ public class GraphQlResponse<T> {
   public void setData(GraphQlData<T> data) {
     this.data = data;
   }
+
+  public Map<String, Object> getExtensions() {
+    return extensions;
+  }
+
+  public void setExtensions(Map<String, Object> extensions) {
+    this.extensions = extensions;
+  }
 }